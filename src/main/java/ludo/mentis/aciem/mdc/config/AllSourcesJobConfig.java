@@ -0,0 +1,97 @@
+package ludo.mentis.aciem.mdc.config;
+
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.SourceStatusListener;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.JobParametersIncrementer;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.builder.FlowBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.job.flow.Flow;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.util.List;
+
+/**
+ * Aggregate job running every source job in parallel within one JVM and one application context.
+ * <p>
+ * Each source job runs as a job step in its own flow of a {@code split}, so it keeps its own job execution
+ * and execution context, and a failing source does not stop the others. The aggregate job fails if any
+ * source failed; launching it again restarts the failed run, which re-runs only the failed sources.
+ * It needs a JDBC job repository, so it is not available in the {@code resourceless} profile.
+ */
+@Configuration
+@Profile("!" + ResourcelessBatchConfig.PROFILE)
+public class AllSourcesJobConfig {
+
+    static final String JOB_NAME = "AllSources";
+
+    private final JobRepository jobRepository;
+
+    public AllSourcesJobConfig(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    @Bean
+    Job allSourcesJob(Job brazilianBondsPricesJob, Job financialIndicatorsJob, Job ptaxJob,
+                      Job exchangeRateParityJob, Job interestRateCurvesJob, Job tradingAdjustmentsJob,
+                      Job updatedNominalValuesJob,
+                      JobLauncher jobLauncher,
+                      JobExplorer jobExplorer,
+                      SourceStatusListener sourceStatusListener,
+                      MetricsReportListener metricsReportListener,
+                      @Value("${all-sources.max-concurrency:7}") int maxConcurrency) {
+        var sources = List.of(brazilianBondsPricesJob, financialIndicatorsJob, ptaxJob, exchangeRateParityJob,
+                interestRateCurvesJob, tradingAdjustmentsJob, updatedNominalValuesJob);
+        return allSourcesJob(sources, jobLauncher, taskExecutor(maxConcurrency),
+                new RestartFailedRunIncrementer(jobExplorer, JOB_NAME), sourceStatusListener, metricsReportListener);
+    }
+
+    Job allSourcesJob(List<Job> sources, JobLauncher jobLauncher, TaskExecutor taskExecutor,
+                      JobParametersIncrementer incrementer, JobExecutionListener... listeners) {
+        var flows = sources.stream()
+                .map(source -> sourceFlow(source, jobLauncher))
+                .toArray(Flow[]::new);
+        var split = new FlowBuilder<Flow>(JOB_NAME + "Split")
+                .split(taskExecutor)
+                .add(flows)
+                .build();
+        var builder = new JobBuilder(JOB_NAME, this.jobRepository)
+                .incrementer(incrementer);
+        for (var listener : listeners) {
+            builder.listener(listener);
+        }
+        return builder.start(split)
+                .end()
+                .build();
+    }
+
+    private Flow sourceFlow(Job source, JobLauncher jobLauncher) {
+        var step = new StepBuilder(source.getName(), this.jobRepository)
+                .job(source)
+                .launcher(jobLauncher)
+                .build();
+        return new FlowBuilder<Flow>(source.getName() + "Flow")
+                .start(step)
+                .build();
+    }
+
+    /**
+     * Runs at most {@code maxConcurrency} sources at a time. Sources are few and long-running,
+     * so a thread per source is cheaper than keeping a pool alive for the whole application.
+     */
+    private static TaskExecutor taskExecutor(int maxConcurrency) {
+        var taskExecutor = new SimpleAsyncTaskExecutor("all-sources-");
+        taskExecutor.setConcurrencyLimit(maxConcurrency);
+        return taskExecutor;
+    }
+}
@@ -0,0 +1,142 @@
+package ludo.mentis.aciem.mdc.config;
+
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.partition.BusinessDayPartitioner;
+import ludo.mentis.aciem.mdc.service.HolidayManager;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.JobParametersInvalidException;
+import org.springframework.batch.core.Step;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.configuration.annotation.JobScope;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.job.DefaultJobParametersValidator;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Backfill job loading the history of one source over a date range:
+ * <pre>
+ * --spring.batch.job.name=Backfill source=BrazilianBondPrices startDate=2024-01-01 endDate=2025-12-31
+ * </pre>
+ * The business days of the range are partitioned by {@link BusinessDayPartitioner}, and each partition runs
+ * the source job for its day as a job step, so download and processing work exactly as in a single run.
+ * Each day's output goes to a subdirectory of the source's output directory named after the date.
+ * Only the sources taking a {@code referenceDate} parameter can be backfilled. Launching the job again
+ * after a failure restarts the failed run, which re-runs only the days that failed. It needs a JDBC job
+ * repository, so it is not available in the {@code resourceless} profile.
+ */
+@Configuration
+@Profile("!" + ResourcelessBatchConfig.PROFILE)
+public class BackfillJobConfig {
+
+    static final String JOB_NAME = "Backfill";
+    static final String SOURCE = "source";
+    static final String START_DATE = "startDate";
+    static final String END_DATE = "endDate";
+
+    private final JobRepository jobRepository;
+
+    public BackfillJobConfig(JobRepository jobRepository) {
+        this.jobRepository = jobRepository;
+    }
+
+    @Bean
+    Job backfillJob(Step backfillStep, JobExplorer jobExplorer, MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
+                .incrementer(new RestartFailedRunIncrementer(jobExplorer, JOB_NAME))
+                .validator(new DefaultJobParametersValidator(new String[]{SOURCE, START_DATE, END_DATE}, new String[0]))
+                .listener(metricsReportListener)
+                .start(backfillStep)
+                .build();
+    }
+
+    @Bean
+    @JobScope
+    Step backfillStep(@Value("#{jobParameters['source']}") String source,
+                      @Value("#{jobParameters['startDate']}") String startDate,
+                      @Value("#{jobParameters['endDate']}") String endDate,
+                      Job brazilianBondsPricesJob, Job exchangeRateParityJob, Job interestRateCurvesJob,
+                      Job tradingAdjustmentsJob, Job updatedNominalValuesJob,
+                      HolidayManager holidayManager,
+                      JobLauncher jobLauncher,
+                      @Value("${backfill.country-code:BRA}") String countryCode,
+                      @Value("${backfill.max-concurrency:4}") int maxConcurrency) throws JobParametersInvalidException {
+        var sources = List.of(brazilianBondsPricesJob, exchangeRateParityJob, interestRateCurvesJob,
+                        tradingAdjustmentsJob, updatedNominalValuesJob).stream()
+                .collect(Collectors.toMap(Job::getName, Function.identity()));
+        var partitioner = new BusinessDayPartitioner(holidayManager, parseDate(START_DATE, startDate),
+                parseDate(END_DATE, endDate), countryCode);
+        return backfillStep(sourceJob(sources, source), partitioner, jobLauncher, taskExecutor(maxConcurrency));
+    }
+
+    Step backfillStep(Job source, Partitioner partitioner, JobLauncher jobLauncher, TaskExecutor taskExecutor) {
+        var worker = new StepBuilder("BackfillWorker", this.jobRepository)
+                .job(source)
+                .launcher(jobLauncher)
+                .parametersExtractor(BackfillJobConfig::partitionParameters)
+                .build();
+        return new StepBuilder("BackfillStep", this.jobRepository)
+                .partitioner(worker.getName(), partitioner)
+                .step(worker)
+                .taskExecutor(taskExecutor)
+                .build();
+    }
+
+    /**
+     * Parameters of the source job run for one partition: those of the backfill job plus the
+     * partition's reference date and output subdirectory.
+     */
+    static JobParameters partitionParameters(Job job, StepExecution stepExecution) {
+        var context = stepExecution.getExecutionContext();
+        return new JobParametersBuilder(stepExecution.getJobParameters())
+                .addLocalDate(BusinessDayPartitioner.REFERENCE_DATE_KEY,
+                        (LocalDate) context.get(BusinessDayPartitioner.REFERENCE_DATE_KEY))
+                .addString(BusinessDayPartitioner.OUTPUT_SUBDIRECTORY_KEY,
+                        context.getString(BusinessDayPartitioner.OUTPUT_SUBDIRECTORY_KEY))
+                .toJobParameters();
+    }
+
+    private static Job sourceJob(Map<String, Job> sources, String source) throws JobParametersInvalidException {
+        var job = sources.get(source);
+        if (job == null) {
+            throw new JobParametersInvalidException("Source '%s' cannot be backfilled, expected one of %s"
+                    .formatted(source, sources.keySet().stream().sorted().toList()));
+        }
+        return job;
+    }
+
+    private static LocalDate parseDate(String name, String value) throws JobParametersInvalidException {
+        try {
+            return LocalDate.parse(value);
+        } catch (DateTimeParseException e) {
+            throw new JobParametersInvalidException("Parameter %s must be a date (yyyy-MM-dd): %s".formatted(name, value));
+        }
+    }
+
+    /**
+     * Runs at most {@code maxConcurrency} days at a time, keeping the load on the source within its limits.
+     */
+    private static TaskExecutor taskExecutor(int maxConcurrency) {
+        var taskExecutor = new SimpleAsyncTaskExecutor("backfill-");
+        taskExecutor.setConcurrencyLimit(maxConcurrency);
+        return taskExecutor;
+    }
+}
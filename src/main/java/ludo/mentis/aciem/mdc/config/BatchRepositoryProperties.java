@@ -0,0 +1,53 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "batch-repository")
+public class BatchRepositoryProperties {
+
+    /**
+     * Whether job executions left running by a process that died are marked as failed on startup,
+     * so they can be restarted. Only safe while a single process uses the repository, which the
+     * file lock of the H2 database guarantees.
+     */
+    private boolean recoverOnStartup = true;
+
+    /**
+     * Whether job instances whose executions all ended before the retention period are purged on startup, and by
+     * the daemon on scheduler.metadata-purge-cron.
+     */
+    private boolean purgeEnabled = true;
+
+    /**
+     * Number of days the batch metadata of a job instance is kept after its last execution.
+     */
+    @Min(1)
+    private int retentionDays = 90;
+
+    public boolean isRecoverOnStartup() {
+        return recoverOnStartup;
+    }
+
+    public void setRecoverOnStartup(boolean recoverOnStartup) {
+        this.recoverOnStartup = recoverOnStartup;
+    }
+
+    public boolean isPurgeEnabled() {
+        return purgeEnabled;
+    }
+
+    public void setPurgeEnabled(boolean purgeEnabled) {
+        this.purgeEnabled = purgeEnabled;
+    }
+
+    public int getRetentionDays() {
+        return retentionDays;
+    }
+
+    public void setRetentionDays(int retentionDays) {
+        this.retentionDays = retentionDays;
+    }
+}
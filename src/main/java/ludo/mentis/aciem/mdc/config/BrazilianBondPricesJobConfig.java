@@ -1,11 +1,21 @@
 package ludo.mentis.aciem.mdc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.BrazilianBondPrice;
+import ludo.mentis.aciem.mdc.reader.BrazilianBondPricesByteReader;
 import ludo.mentis.aciem.mdc.reader.BrazilianBondPricesCsvReader;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.PublicationPoller;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.BrazilianBondPricesDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.BrazilianBondPricesExcelWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -14,16 +24,20 @@ import org.springframework.batch.core.job.builder.JobBuilder;
 import org.springframework.batch.core.launch.support.RunIdIncrementer;
 import org.springframework.batch.core.repository.JobRepository;
 import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 @Configuration
 public class BrazilianBondPricesJobConfig {
 
+    static final String JOB_NAME = "BrazilianBondPrices";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -33,9 +47,13 @@ public class BrazilianBondPricesJobConfig {
     }
 
     @Bean
-    Job brazilianBondsPricesJob(Step downloadFileStepBBP, Step processFileStepBBP) {
-        return new JobBuilder("BrazilianBondPrices", this.jobRepository)
+    Job brazilianBondsPricesJob(Step downloadFileStepBBP, Step processFileStepBBP,
+                                PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                                MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepBBP)
                 .next(processFileStepBBP)
                 .build();
@@ -45,10 +63,18 @@ public class BrazilianBondPricesJobConfig {
     @JobScope
     Step downloadFileStepBBP(FileDownloadService fileDownloadService,
                              @Value("${brazilian-bond-prices.download-base-url}") String baseUrl,
-                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate) {
+                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate,
+                             PayloadSpool payloadSpool,
+                             RawPayloadArchive rawPayloadArchive,
+                             PublicationPoller publicationPoller,
+                             MeterRegistry meterRegistry) {
+        var downloader = new BrazilianBondPricesDownloader(fileDownloadService, referenceDate, baseUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
+        downloader.setPublicationPoller(publicationPoller);
         return new StepBuilder("DownloadFile", this.jobRepository)
-                .tasklet(new BrazilianBondPricesDownloader(fileDownloadService, referenceDate, baseUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
@@ -56,14 +82,36 @@ public class BrazilianBondPricesJobConfig {
     @JobScope
     Step processFileStepBBP(@Value("#{jobExecutionContext['fileName']}") String fileName,
                             @Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                            @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                             @Value("#{jobExecutionContext['referenceDate']}") LocalDate referenceDate,
                             @Value("${brazilian-bond-prices.output-dir}") String outputDir,
+                            @Value("#{jobParameters['outputSubdirectory'] ?: ''}") String outputSubdirectory,
+                            @Value("${brazilian-bond-prices.fast-reader.enabled:true}") boolean fastReader,
                             BackupService backupService,
-                            ExcelHelper excelHelper) {
+                            ExcelHelper excelHelper,
+                            ExcelWriterProperties excelWriterProperties,
+                            SheetReplaceProperties sheetReplaceProperties,
+                            OutputWriterFactory outputWriterFactory,
+                            PayloadSpool payloadSpool,
+                            MeterRegistry meterRegistry) {
+        var outputPath = Path.of(outputDir, outputSubdirectory);
+        var writer = outputWriterFactory.createWriter(JOB_NAME, OutputSchemas.BRAZILIAN_BOND_PRICES, outputPath, () -> {
+            var excelWriter = new BrazilianBondPricesExcelWriter(backupService, excelHelper, referenceDate,
+                    outputPath.toString(), excelWriterProperties, sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
+        var resource = payloadSpool.resolve(payloadHandle, fileContent);
+        AbstractItemCountingItemStreamItemReader<BrazilianBondPrice> reader = fastReader
+                ? new BrazilianBondPricesByteReader(resource, fileName)
+                : new BrazilianBondPricesCsvReader(resource, fileName);
+        // the writers start their files over on a restart, so the whole payload is read again
+        reader.setSaveState(false);
         return new StepBuilder("ProcessFileStep", jobRepository)
                 .<BrazilianBondPrice, BrazilianBondPrice>chunk(1000, this.transactionManager)
-                .reader(new BrazilianBondPricesCsvReader(fileContent, fileName))
-                .writer(new BrazilianBondPricesExcelWriter(backupService, excelHelper, referenceDate, outputDir))
+                .reader(reader)
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
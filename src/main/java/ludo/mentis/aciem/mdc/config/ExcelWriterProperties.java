@@ -0,0 +1,65 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "excel-writer.streaming")
+public class ExcelWriterProperties {
+
+    /**
+     * Whether a data sheet that grows past the row threshold is switched to a streaming (SXSSF) workbook,
+     * which keeps only a window of rows in memory and flushes the rest to temp files.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Number of data rows written in memory before the sheet is switched to streaming. Zero streams from the first row.
+     */
+    @Min(0)
+    private int rowThreshold = 10_000;
+
+    /**
+     * Number of rows the streaming sheet keeps in memory; older rows are flushed to the temp file.
+     */
+    @Min(1)
+    private int rowAccessWindow = 100;
+
+    /**
+     * Whether the temp files of streaming sheets are gzip-compressed.
+     */
+    private boolean compressTempFiles = true;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getRowThreshold() {
+        return rowThreshold;
+    }
+
+    public void setRowThreshold(int rowThreshold) {
+        this.rowThreshold = rowThreshold;
+    }
+
+    public int getRowAccessWindow() {
+        return rowAccessWindow;
+    }
+
+    public void setRowAccessWindow(int rowAccessWindow) {
+        this.rowAccessWindow = rowAccessWindow;
+    }
+
+    public boolean isCompressTempFiles() {
+        return compressTempFiles;
+    }
+
+    public void setCompressTempFiles(boolean compressTempFiles) {
+        this.compressTempFiles = compressTempFiles;
+    }
+}
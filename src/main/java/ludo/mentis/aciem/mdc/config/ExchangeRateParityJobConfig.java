@@ -1,11 +1,20 @@
 package ludo.mentis.aciem.mdc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.ExchangeRateParity;
 import ludo.mentis.aciem.mdc.reader.ExchangeRateParityCsvReader;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.PublicationPoller;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.ExchangeRateParityDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.ExchangeRateParityExcelWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -19,11 +28,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 @Configuration
 public class ExchangeRateParityJobConfig {
 
+    static final String JOB_NAME = "ExchangeRateParity";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -33,9 +45,13 @@ public class ExchangeRateParityJobConfig {
     }
 
     @Bean
-    Job exchangeRateParityJob(Step downloadFileStepERP, Step processFileStepERP) {
-        return new JobBuilder("ExchangeRateParity", this.jobRepository)
+    Job exchangeRateParityJob(Step downloadFileStepERP, Step processFileStepERP,
+                              PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                              MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepERP)
                 .next(processFileStepERP)
                 .build();
@@ -45,10 +61,18 @@ public class ExchangeRateParityJobConfig {
     @JobScope
     Step downloadFileStepERP(FileDownloadService fileDownloadService,
                              @Value("${exchange-rate-parity.download-url}") String baseUrl,
-                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate) {
+                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate,
+                             PayloadSpool payloadSpool,
+                             RawPayloadArchive rawPayloadArchive,
+                             PublicationPoller publicationPoller,
+                             MeterRegistry meterRegistry) {
+        var downloader = new ExchangeRateParityDownloader(fileDownloadService, referenceDate, baseUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
+        downloader.setPublicationPoller(publicationPoller);
         return new StepBuilder("DownloadFileERP", this.jobRepository)
-                .tasklet(new ExchangeRateParityDownloader(fileDownloadService, referenceDate, baseUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
@@ -56,14 +80,32 @@ public class ExchangeRateParityJobConfig {
     @JobScope
     Step processFileStepERP(@Value("#{jobExecutionContext['fileName']}") String fileName,
                             @Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                            @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                             @Value("#{jobExecutionContext['referenceDate']}") LocalDate referenceDate,
                             @Value("${exchange-rate-parity.output-dir}") String outputDir,
+                            @Value("#{jobParameters['outputSubdirectory'] ?: ''}") String outputSubdirectory,
                             BackupService backupService,
-                            ExcelHelper excelHelper) {
+                            ExcelHelper excelHelper,
+                            ExcelWriterProperties excelWriterProperties,
+                            SheetReplaceProperties sheetReplaceProperties,
+                            OutputWriterFactory outputWriterFactory,
+                            PayloadSpool payloadSpool,
+                            MeterRegistry meterRegistry) {
+        var outputPath = Path.of(outputDir, outputSubdirectory);
+        var writer = outputWriterFactory.createWriter(JOB_NAME, OutputSchemas.EXCHANGE_RATE_PARITY, outputPath, () -> {
+            var excelWriter = new ExchangeRateParityExcelWriter(backupService, excelHelper, referenceDate,
+                    outputPath.toString(), excelWriterProperties, sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
+        var reader = new ExchangeRateParityCsvReader(payloadSpool.resolve(payloadHandle, fileContent), fileName);
+        // the writers start their files over on a restart, so the whole payload is read again
+        reader.setSaveState(false);
         return new StepBuilder("ProcessFileStepERP", jobRepository)
                 .<ExchangeRateParity, ExchangeRateParity>chunk(1000, this.transactionManager)
-                .reader(new ExchangeRateParityCsvReader(fileContent, fileName))
-                .writer(new ExchangeRateParityExcelWriter(backupService, excelHelper, referenceDate, outputDir))
+                .reader(reader)
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
\ No newline at end of file
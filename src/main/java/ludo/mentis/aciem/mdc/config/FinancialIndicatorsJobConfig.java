@@ -1,11 +1,20 @@
 package ludo.mentis.aciem.mdc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.FinancialIndicator;
 import ludo.mentis.aciem.mdc.reader.FinancialIndicatorJsonReader;
+import ludo.mentis.aciem.mdc.reader.JsonReaderRegistry;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.FinancialIndicatorDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.FinancialIndicatorExcelWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -19,9 +28,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
+
 @Configuration
 public class FinancialIndicatorsJobConfig {
 
+    static final String JOB_NAME = "FinancialIndicators";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -31,9 +44,13 @@ public class FinancialIndicatorsJobConfig {
     }
 
     @Bean
-    Job financialIndicatorsJob(Step downloadFileStepFI, Step processFileStepFI) {
-        return new JobBuilder("FinancialIndicators", this.jobRepository)
+    Job financialIndicatorsJob(Step downloadFileStepFI, Step processFileStepFI,
+                               PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                               MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepFI)
                 .next(processFileStepFI)
                 .build();
@@ -42,23 +59,48 @@ public class FinancialIndicatorsJobConfig {
     @Bean
     @JobScope
     Step downloadFileStepFI(FileDownloadService fileDownloadService,
-                            @Value("${financial-indicators.download-url}") String serviceUrl) {
+                            @Value("${financial-indicators.download-url}") String serviceUrl,
+                            PayloadSpool payloadSpool,
+                            RawPayloadArchive rawPayloadArchive,
+                            MeterRegistry meterRegistry) {
+        var downloader = new FinancialIndicatorDownloader(fileDownloadService, serviceUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
         return new StepBuilder("DownloadFile", this.jobRepository)
-                .tasklet(new FinancialIndicatorDownloader(fileDownloadService, serviceUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
     @Bean
     @JobScope
     Step processFileStepFI(@Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                           @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                            @Value("${financial-indicators.output-dir}") String outputDir,
                            BackupService backupService,
-                           ExcelHelper excelHelper) {
+                           ExcelHelper excelHelper,
+                           ExcelWriterProperties excelWriterProperties,
+                           SheetReplaceProperties sheetReplaceProperties,
+                           OutputWriterFactory outputWriterFactory,
+                           PayloadSpool payloadSpool,
+                           JsonReaderRegistry jsonReaderRegistry,
+                           MeterRegistry meterRegistry) {
+        var schema = OutputSchemas.FINANCIAL_INDICATORS;
+        var writer = outputWriterFactory.createWriter(JOB_NAME, schema, Path.of(outputDir), () -> {
+            var excelWriter = new FinancialIndicatorExcelWriter(backupService, excelHelper, outputDir,
+                    excelWriterProperties, sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
+        var reader = new FinancialIndicatorJsonReader(payloadSpool.resolve(payloadHandle, fileContent),
+                jsonReaderRegistry.financialIndicators());
+        // the writers start their files over on a restart, so the whole payload is read again
+        reader.setSaveState(false);
         return new StepBuilder("ProcessFileStep", jobRepository)
                 .<FinancialIndicator, FinancialIndicator>chunk(1000, this.transactionManager)
-                .reader(new FinancialIndicatorJsonReader(fileContent))
-                .writer(new FinancialIndicatorExcelWriter(backupService, excelHelper, outputDir))
+                .reader(reader)
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
@@ -1,9 +1,23 @@
 package ludo.mentis.aciem.mdc.config;
 
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
 import jakarta.validation.constraints.Min;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 import org.springframework.validation.annotation.Validated;
 
+import java.io.EOFException;
+import java.net.SocketException;
+import java.net.http.HttpTimeoutException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
 @Validated
 @ConfigurationProperties(prefix = "file-downloader.http-client")
 public class HttpClientProperties {
@@ -30,9 +44,36 @@ public class HttpClientProperties {
 
     private ProxyProperties proxy;
 
+    private CacheProperties cache;
+
+    private CompressionProperties compression;
+
+    @Valid
+    private RetryProperties retry;
+
+    @Valid
+    private RangeProperties range;
+
+    /**
+     * Limits applied to every host without an entry in {@code host-limits}.
+     */
+    @Valid
+    private HostLimitProperties defaultHostLimit;
+
+    /**
+     * Per-host limits, keyed by host name (e.g. {@code host-limits.[www.anbima.com.br].max-in-flight=2}).
+     */
+    private Map<String, @Valid HostLimitProperties> hostLimits;
+
     public HttpClientProperties() {
         ssl = new SslProperties();
         proxy = new ProxyProperties();
+        cache = new CacheProperties();
+        compression = new CompressionProperties();
+        retry = new RetryProperties();
+        range = new RangeProperties();
+        defaultHostLimit = new HostLimitProperties();
+        hostLimits = new HashMap<>();
     }
 
     public int getConnectTimeoutSeconds() {
@@ -75,6 +116,54 @@ public class HttpClientProperties {
         this.proxy = proxy;
     }
 
+    public CacheProperties getCache() {
+        return cache;
+    }
+
+    public void setCache(CacheProperties cache) {
+        this.cache = cache;
+    }
+
+    public CompressionProperties getCompression() {
+        return compression;
+    }
+
+    public void setCompression(CompressionProperties compression) {
+        this.compression = compression;
+    }
+
+    public RetryProperties getRetry() {
+        return retry;
+    }
+
+    public void setRetry(RetryProperties retry) {
+        this.retry = retry;
+    }
+
+    public RangeProperties getRange() {
+        return range;
+    }
+
+    public void setRange(RangeProperties range) {
+        this.range = range;
+    }
+
+    public HostLimitProperties getDefaultHostLimit() {
+        return defaultHostLimit;
+    }
+
+    public void setDefaultHostLimit(HostLimitProperties defaultHostLimit) {
+        this.defaultHostLimit = defaultHostLimit;
+    }
+
+    public Map<String, HostLimitProperties> getHostLimits() {
+        return hostLimits;
+    }
+
+    public void setHostLimits(Map<String, HostLimitProperties> hostLimits) {
+        this.hostLimits = hostLimits;
+    }
+
     public static class ProxyProperties {
         private boolean enabled = false;
         private String host;
@@ -127,4 +216,267 @@ public class HttpClientProperties {
             this.customCaCertificatePath = value;
         }
     }
-}
\ No newline at end of file
+
+    public static class CacheProperties {
+        /**
+         * Whether GET downloads are revalidated with If-None-Match/If-Modified-Since
+         * against a local copy of the last response.
+         */
+        private boolean enabled = true;
+
+        /**
+         * Directory where cached response bodies and their validators are stored.
+         */
+        private String directory = Path.of(System.getProperty("java.io.tmpdir"), "mdc-http-cache").toString();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getDirectory() {
+            return directory;
+        }
+
+        public void setDirectory(String directory) {
+            this.directory = directory;
+        }
+    }
+
+    public static class CompressionProperties {
+        /**
+         * Whether requests advertise {@code Accept-Encoding: gzip, deflate} and compressed responses
+         * are decoded by the client.
+         */
+        private boolean enabled = true;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+    }
+
+    public static class RetryProperties {
+        /**
+         * Maximum number of attempts per download, including the first one. 1 disables retries.
+         */
+        @Min(1)
+        private int maxAttempts = 4;
+
+        /**
+         * Backoff before the first retry, in milliseconds.
+         */
+        @Min(0)
+        private long initialBackoffMillis = 1000;
+
+        /**
+         * Upper bound for the exponential backoff, in milliseconds.
+         */
+        @Min(0)
+        private long maxBackoffMillis = 30000;
+
+        /**
+         * Factor applied to the backoff after each failed attempt.
+         */
+        @DecimalMin("1.0")
+        private double multiplier = 2.0;
+
+        /**
+         * Fraction of the backoff that is randomized (0 = no jitter, 1 = anywhere between 0 and the backoff).
+         */
+        @DecimalMin("0.0")
+        @DecimalMax("1.0")
+        private double jitter = 0.5;
+
+        /**
+         * Total time budget for a download including all retries and waits, in seconds.
+         * No retry is scheduled if it would end after the deadline.
+         */
+        @Min(1)
+        private long deadlineSeconds = 600;
+
+        /**
+         * HTTP status codes that are retried.
+         */
+        private Set<Integer> retryableStatuses = new HashSet<>(Set.of(408, 425, 429, 500, 502, 503, 504));
+
+        /**
+         * I/O exceptions (and their subclasses) that are retried.
+         */
+        private List<Class<? extends Throwable>> retryableExceptions = new ArrayList<>(List.of(
+                HttpTimeoutException.class, SocketException.class, EOFException.class));
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffMillis() {
+            return initialBackoffMillis;
+        }
+
+        public void setInitialBackoffMillis(long initialBackoffMillis) {
+            this.initialBackoffMillis = initialBackoffMillis;
+        }
+
+        public long getMaxBackoffMillis() {
+            return maxBackoffMillis;
+        }
+
+        public void setMaxBackoffMillis(long maxBackoffMillis) {
+            this.maxBackoffMillis = maxBackoffMillis;
+        }
+
+        public double getMultiplier() {
+            return multiplier;
+        }
+
+        public void setMultiplier(double multiplier) {
+            this.multiplier = multiplier;
+        }
+
+        public double getJitter() {
+            return jitter;
+        }
+
+        public void setJitter(double jitter) {
+            this.jitter = jitter;
+        }
+
+        public long getDeadlineSeconds() {
+            return deadlineSeconds;
+        }
+
+        public void setDeadlineSeconds(long deadlineSeconds) {
+            this.deadlineSeconds = deadlineSeconds;
+        }
+
+        public Set<Integer> getRetryableStatuses() {
+            return retryableStatuses;
+        }
+
+        public void setRetryableStatuses(Set<Integer> retryableStatuses) {
+            this.retryableStatuses = retryableStatuses;
+        }
+
+        public List<Class<? extends Throwable>> getRetryableExceptions() {
+            return retryableExceptions;
+        }
+
+        public void setRetryableExceptions(List<Class<? extends Throwable>> retryableExceptions) {
+            this.retryableExceptions = retryableExceptions;
+        }
+    }
+
+    public static class HostLimitProperties {
+        /**
+         * Maximum number of requests in flight to the host at the same time. 0 means unlimited.
+         */
+        @Min(0)
+        private int maxInFlight = 4;
+
+        /**
+         * Sustained request rate allowed to the host (token bucket refill rate). 0 means unlimited.
+         */
+        @DecimalMin("0.0")
+        private double requestsPerSecond = 0;
+
+        /**
+         * Number of requests that may be sent back-to-back before the rate limit applies (token bucket size).
+         */
+        @Min(1)
+        private int burst = 1;
+
+        public int getMaxInFlight() {
+            return maxInFlight;
+        }
+
+        public void setMaxInFlight(int maxInFlight) {
+            this.maxInFlight = maxInFlight;
+        }
+
+        public double getRequestsPerSecond() {
+            return requestsPerSecond;
+        }
+
+        public void setRequestsPerSecond(double requestsPerSecond) {
+            this.requestsPerSecond = requestsPerSecond;
+        }
+
+        public int getBurst() {
+            return burst;
+        }
+
+        public void setBurst(int burst) {
+            this.burst = burst;
+        }
+    }
+
+    public static class RangeProperties {
+        /**
+         * Whether an interrupted GET download to a file is resumed from the bytes already written,
+         * using Range/If-Range, instead of starting over.
+         */
+        private boolean resumeEnabled = true;
+
+        /**
+         * Whether GET downloads to a file are fetched as several byte ranges in parallel when the
+         * server supports ranges and the file is larger than one part.
+         */
+        private boolean parallelEnabled = true;
+
+        /**
+         * Size of each range when fetching in parallel, in bytes. The first request asks for one part,
+         * so files up to this size are downloaded in a single request.
+         */
+        @Min(1024)
+        private long partSizeBytes = 8L * 1024 * 1024;
+
+        /**
+         * Maximum number of ranges fetched for the remainder of a file. Parts are enlarged to respect it.
+         */
+        @Min(1)
+        private int maxParallelParts = 4;
+
+        public boolean isResumeEnabled() {
+            return resumeEnabled;
+        }
+
+        public void setResumeEnabled(boolean resumeEnabled) {
+            this.resumeEnabled = resumeEnabled;
+        }
+
+        public boolean isParallelEnabled() {
+            return parallelEnabled;
+        }
+
+        public void setParallelEnabled(boolean parallelEnabled) {
+            this.parallelEnabled = parallelEnabled;
+        }
+
+        public long getPartSizeBytes() {
+            return partSizeBytes;
+        }
+
+        public void setPartSizeBytes(long partSizeBytes) {
+            this.partSizeBytes = partSizeBytes;
+        }
+
+        public int getMaxParallelParts() {
+            return maxParallelParts;
+        }
+
+        public void setMaxParallelParts(int maxParallelParts) {
+            this.maxParallelParts = maxParallelParts;
+        }
+    }
+}
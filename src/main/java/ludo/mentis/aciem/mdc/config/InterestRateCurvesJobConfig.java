@@ -1,11 +1,19 @@
 package ludo.mentis.aciem.mdc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.InterestRateCurve;
 import ludo.mentis.aciem.mdc.reader.InterestRateCurveCsvReader;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.InterestRateCurveDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.InterestRateCurveExcelWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -19,11 +27,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 @Configuration
 public class InterestRateCurvesJobConfig {
 
+    static final String JOB_NAME = "InterestRateCurves";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -33,9 +44,13 @@ public class InterestRateCurvesJobConfig {
     }
 
     @Bean
-    Job interestRateCurvesJob(Step downloadFileStepIRC, Step processFileStepIRC) {
-        return new JobBuilder("InterestRateCurves", this.jobRepository)
+    Job interestRateCurvesJob(Step downloadFileStepIRC, Step processFileStepIRC,
+                              PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                              MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepIRC)
                 .next(processFileStepIRC)
                 .build();
@@ -45,24 +60,45 @@ public class InterestRateCurvesJobConfig {
     @JobScope
     Step downloadFileStepIRC(FileDownloadService fileDownloadService,
                              @Value("${interest-rate-curve.download-url}") String baseUrl,
-                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate) {
+                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate,
+                             PayloadSpool payloadSpool,
+                             RawPayloadArchive rawPayloadArchive,
+                             MeterRegistry meterRegistry) {
+        var downloader = new InterestRateCurveDownloader(fileDownloadService, referenceDate, baseUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
         return new StepBuilder("DownloadFile", this.jobRepository)
-                .tasklet(new InterestRateCurveDownloader(fileDownloadService, referenceDate, baseUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
     @Bean
     @JobScope
     Step processFileStepIRC(@Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                            @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                             @Value("#{jobExecutionContext['referenceDate']}") LocalDate referenceDate,
                             @Value("${interest-rate-curve.output-dir}") String outputDir,
+                            @Value("#{jobParameters['outputSubdirectory'] ?: ''}") String outputSubdirectory,
                             BackupService backupService,
-                            ExcelHelper excelHelper) {
+                            ExcelHelper excelHelper,
+                            ExcelWriterProperties excelWriterProperties,
+                            SheetReplaceProperties sheetReplaceProperties,
+                            OutputWriterFactory outputWriterFactory,
+                            PayloadSpool payloadSpool,
+                            MeterRegistry meterRegistry) {
+        var outputPath = Path.of(outputDir, outputSubdirectory);
+        var writer = outputWriterFactory.createWriter(JOB_NAME, OutputSchemas.INTEREST_RATE_CURVE, outputPath, () -> {
+            var excelWriter = new InterestRateCurveExcelWriter(backupService, excelHelper, referenceDate,
+                    outputPath.toString(), excelWriterProperties, sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
         return new StepBuilder("ProcessFileStep", jobRepository)
                 .<InterestRateCurve, InterestRateCurve>chunk(1000, this.transactionManager)
-                .reader(new InterestRateCurveCsvReader(fileContent))
-                .writer(new InterestRateCurveExcelWriter(backupService, excelHelper, referenceDate, outputDir))
+                .reader(new InterestRateCurveCsvReader(payloadSpool.resolve(payloadHandle, fileContent)))
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
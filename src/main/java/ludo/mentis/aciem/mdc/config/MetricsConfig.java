@@ -0,0 +1,32 @@
+package ludo.mentis.aciem.mdc.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MetricsConfig {
+
+    /**
+     * In-process registry holding the application metrics until they are reported. It is also added to
+     * the global registry, where Spring Batch records its own job, step and chunk metrics.
+     */
+    @Bean
+    MeterRegistry meterRegistry() {
+        var registry = new SimpleMeterRegistry();
+        Metrics.addRegistry(registry);
+        return registry;
+    }
+
+    /**
+     * Takes the registry out of the global registry when the context closes, so that contexts started one after
+     * the other in the same JVM do not leave their registries behind.
+     */
+    @Bean
+    DisposableBean globalMeterRegistryRemoval(MeterRegistry meterRegistry) {
+        return () -> Metrics.removeRegistry(meterRegistry);
+    }
+}
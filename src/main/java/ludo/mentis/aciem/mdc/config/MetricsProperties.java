@@ -0,0 +1,37 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+@Validated
+@ConfigurationProperties(prefix = "metrics")
+public class MetricsProperties {
+
+    /**
+     * Whether the metrics of each job execution are written to a report file when the job ends.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory of the metrics report files, one JSON-lines file per day.
+     */
+    private String directory = Path.of(System.getProperty("java.io.tmpdir"), "mdc-metrics").toString();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+}
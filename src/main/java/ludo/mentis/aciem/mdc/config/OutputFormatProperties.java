@@ -0,0 +1,52 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties(prefix = "output-format")
+public class OutputFormatProperties {
+
+    /**
+     * Formats the jobs without an entry in output-format.jobs write their items in: excel, csv or jsonl.
+     */
+    @NotEmpty
+    private List<@NotEmpty String> defaults = List.of("excel");
+
+    /**
+     * Formats each job writes its items in, by job name, overriding output-format.defaults. All the formats of a
+     * job are written in one pass over the items.
+     */
+    @NotNull
+    private Map<String, @NotEmpty List<@NotEmpty String>> jobs = new LinkedHashMap<>();
+
+    public List<String> getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(List<String> defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, List<String>> getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(Map<String, List<String>> jobs) {
+        this.jobs = jobs;
+    }
+
+    /**
+     * @param jobName Name of the job
+     * @return The formats the job writes its items in
+     */
+    public List<String> formatsOf(String jobName) {
+        return jobs.getOrDefault(jobName, defaults);
+    }
+}
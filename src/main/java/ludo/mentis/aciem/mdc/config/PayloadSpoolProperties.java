@@ -0,0 +1,53 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+@Validated
+@ConfigurationProperties(prefix = "file-downloader.spool")
+public class PayloadSpoolProperties {
+
+    /**
+     * Whether downloaded payloads are spooled to disk and passed between steps as a handle.
+     * When disabled, the whole payload is kept in the job execution context as a byte array.
+     */
+    private boolean enabled = true;
+
+    /**
+     * Directory where spooled payloads are written. Defaults to a sub-directory of the system temp dir.
+     */
+    private String directory = Path.of(System.getProperty("java.io.tmpdir"), "mdc-spool").toString();
+
+    /**
+     * Spooled payloads older than this are purged on startup (left behind by failed or killed runs).
+     */
+    @Min(1)
+    private int maxAgeHours = 48;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+
+    public int getMaxAgeHours() {
+        return maxAgeHours;
+    }
+
+    public void setMaxAgeHours(int maxAgeHours) {
+        this.maxAgeHours = maxAgeHours;
+    }
+}
@@ -1,11 +1,20 @@
 package ludo.mentis.aciem.mdc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.Ptax;
+import ludo.mentis.aciem.mdc.reader.JsonReaderRegistry;
 import ludo.mentis.aciem.mdc.reader.PtaxJsonReader;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.PtaxDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.PtaxExcelWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -19,9 +28,13 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
+
 @Configuration
 public class PtaxJobConfig {
 
+    static final String JOB_NAME = "Ptax";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -31,9 +44,13 @@ public class PtaxJobConfig {
     }
 
     @Bean
-    Job ptaxJob(Step downloadFileStepPX, Step processFileStepPX) {
-        return new JobBuilder("Ptax", this.jobRepository)
+    Job ptaxJob(Step downloadFileStepPX, Step processFileStepPX,
+                PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepPX)
                 .next(processFileStepPX)
                 .build();
@@ -42,23 +59,46 @@ public class PtaxJobConfig {
     @Bean
     @JobScope
     Step downloadFileStepPX(FileDownloadService fileDownloadService,
-                            @Value("${ptax.download-url}") String serviceUrl) {
+                            @Value("${ptax.download-url}") String serviceUrl,
+                            PayloadSpool payloadSpool,
+                            RawPayloadArchive rawPayloadArchive,
+                            MeterRegistry meterRegistry) {
+        var downloader = new PtaxDownloader(fileDownloadService, serviceUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
         return new StepBuilder("DownloadFile", this.jobRepository)
-                .tasklet(new PtaxDownloader(fileDownloadService, serviceUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
     @Bean
     @JobScope
     Step processFileStepPX(@Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                           @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                            @Value("${ptax.output-dir}") String outputDir,
                            BackupService backupService,
-                           ExcelHelper excelHelper) {
+                           ExcelHelper excelHelper,
+                           ExcelWriterProperties excelWriterProperties,
+                           SheetReplaceProperties sheetReplaceProperties,
+                           OutputWriterFactory outputWriterFactory,
+                           PayloadSpool payloadSpool,
+                           JsonReaderRegistry jsonReaderRegistry,
+                           MeterRegistry meterRegistry) {
+        var writer = outputWriterFactory.createWriter(JOB_NAME, OutputSchemas.PTAX, Path.of(outputDir), () -> {
+            var excelWriter = new PtaxExcelWriter(backupService, excelHelper, outputDir, excelWriterProperties,
+                    sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
+        var reader = new PtaxJsonReader(payloadSpool.resolve(payloadHandle, fileContent), jsonReaderRegistry.ptax());
+        // the writers start their files over on a restart, so the whole payload is read again
+        reader.setSaveState(false);
         return new StepBuilder("ProcessFileStep", jobRepository)
                 .<Ptax, Ptax>chunk(1000, this.transactionManager)
-                .reader(new PtaxJsonReader(fileContent))
-                .writer(new PtaxExcelWriter(backupService, excelHelper, outputDir))
+                .reader(reader)
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
@@ -0,0 +1,113 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "file-downloader.publication-poll")
+public class PublicationPollProperties {
+
+    /**
+     * Whether downloads of a file not yet published for the reference date wait for its publication,
+     * probing its URL, instead of failing on a missing or empty file. The download step then blocks until the
+     * file appears or the deadline passes, so it is off by default and enabled for the scheduled launches.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Wait before the second probe, in seconds.
+     */
+    @Min(1)
+    private long initialIntervalSeconds = 30;
+
+    /**
+     * Upper bound for the wait between probes, in seconds.
+     */
+    @Min(1)
+    private long maxIntervalSeconds = 600;
+
+    /**
+     * Factor applied to the wait after each probe finding the file not published.
+     */
+    @DecimalMin("1.0")
+    private double multiplier = 2.0;
+
+    /**
+     * Fraction of the wait that is randomized, between 0 and 1.
+     */
+    @DecimalMin("0.0")
+    @DecimalMax("1.0")
+    private double jitter = 0.2;
+
+    /**
+     * Maximum time spent waiting for a publication, in minutes. The download is attempted when it passes.
+     */
+    @Min(0)
+    private long deadlineMinutes = 60;
+
+    /**
+     * Country code of the holiday calendar: no publication is awaited for weekends and holidays.
+     */
+    @NotBlank
+    private String countryCode = "BRA";
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public long getInitialIntervalSeconds() {
+        return initialIntervalSeconds;
+    }
+
+    public void setInitialIntervalSeconds(long initialIntervalSeconds) {
+        this.initialIntervalSeconds = initialIntervalSeconds;
+    }
+
+    public long getMaxIntervalSeconds() {
+        return maxIntervalSeconds;
+    }
+
+    public void setMaxIntervalSeconds(long maxIntervalSeconds) {
+        this.maxIntervalSeconds = maxIntervalSeconds;
+    }
+
+    public double getMultiplier() {
+        return multiplier;
+    }
+
+    public void setMultiplier(double multiplier) {
+        this.multiplier = multiplier;
+    }
+
+    public double getJitter() {
+        return jitter;
+    }
+
+    public void setJitter(double jitter) {
+        this.jitter = jitter;
+    }
+
+    public long getDeadlineMinutes() {
+        return deadlineMinutes;
+    }
+
+    public void setDeadlineMinutes(long deadlineMinutes) {
+        this.deadlineMinutes = deadlineMinutes;
+    }
+
+    public String getCountryCode() {
+        return countryCode;
+    }
+
+    public void setCountryCode(String countryCode) {
+        this.countryCode = countryCode;
+    }
+}
@@ -0,0 +1,68 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.Min;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.nio.file.Path;
+
+@Validated
+@ConfigurationProperties(prefix = "file-downloader.archive")
+public class RawPayloadArchiveProperties {
+
+    /**
+     * Whether every downloaded payload is kept in the content-addressed archive. Enable it with a directory
+     * that outlives the temp dir, since the archive is only useful for later replay.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Whether download steps take the payload from the archive, when one exists for the source and
+     * reference date, instead of downloading it again. Used to reprocess past dates after a parser fix.
+     */
+    private boolean replay = false;
+
+    /**
+     * Root directory of the archive. Blobs are stored gzip-compressed under {@code objects/}
+     * and indexed by source and reference date under {@code index/}.
+     */
+    private String directory = Path.of(System.getProperty("java.io.tmpdir"), "mdc-archive").toString();
+
+    /**
+     * Archived downloads older than this are purged on startup, with the blobs no later download shares.
+     */
+    @Min(1)
+    private int maxAgeDays = 365;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isReplay() {
+        return replay;
+    }
+
+    public void setReplay(boolean replay) {
+        this.replay = replay;
+    }
+
+    public int getMaxAgeDays() {
+        return maxAgeDays;
+    }
+
+    public void setMaxAgeDays(int maxAgeDays) {
+        this.maxAgeDays = maxAgeDays;
+    }
+
+    public String getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(String directory) {
+        this.directory = directory;
+    }
+}
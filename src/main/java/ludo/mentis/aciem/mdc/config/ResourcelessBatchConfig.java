@@ -0,0 +1,82 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.springframework.batch.core.configuration.support.ScopeConfiguration;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.boot.autoconfigure.batch.BatchProperties;
+import org.springframework.boot.autoconfigure.batch.JobExecutionExitCodeGenerator;
+import org.springframework.boot.autoconfigure.batch.JobLauncherApplicationRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.context.annotation.Profile;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.util.StringUtils;
+
+/**
+ * Batch infrastructure of the {@code resourceless} profile, for one-shot runs of a single source job:
+ * <pre>
+ * --spring.profiles.active=resourceless --spring.batch.job.name=Ptax
+ * </pre>
+ * The profile excludes the data source, so no H2 database is started and no schema is created; the job
+ * repository keeps only the running execution in memory and the steps, which only write files, run
+ * without transactions. As Boot's batch auto-configuration requires a data source, the job launcher and
+ * its application runner are declared here.
+ * <p>
+ * Nothing is kept between runs, so executions cannot be restarted, and the jobs running other jobs
+ * ({@code AllSources} and {@code Backfill}) are not available.
+ */
+@Configuration
+@Profile(ResourcelessBatchConfig.PROFILE)
+@Import(ScopeConfiguration.class)
+@EnableConfigurationProperties(BatchProperties.class)
+public class ResourcelessBatchConfig {
+
+    public static final String PROFILE = "resourceless";
+
+    @Bean
+    JobRepository jobRepository() {
+        return new ResourcelessJobRepository();
+    }
+
+    @Bean
+    JobExplorer jobExplorer() {
+        return new ResourcelessJobExplorer();
+    }
+
+    @Bean
+    PlatformTransactionManager transactionManager() {
+        return new ResourcelessTransactionManager();
+    }
+
+    @Bean
+    JobLauncher jobLauncher(JobRepository jobRepository) throws Exception {
+        var jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+        return jobLauncher;
+    }
+
+    @Bean
+    @ConditionalOnProperty(prefix = "spring.batch.job", name = "enabled", havingValue = "true", matchIfMissing = true)
+    JobLauncherApplicationRunner jobLauncherApplicationRunner(JobLauncher jobLauncher, JobExplorer jobExplorer,
+                                                              JobRepository jobRepository, BatchProperties properties) {
+        var runner = new JobLauncherApplicationRunner(jobLauncher, jobExplorer, jobRepository);
+        var jobName = properties.getJob().getName();
+        if (StringUtils.hasText(jobName)) {
+            runner.setJobName(jobName);
+        }
+        return runner;
+    }
+
+    @Bean
+    JobExecutionExitCodeGenerator jobExecutionExitCodeGenerator() {
+        return new JobExecutionExitCodeGenerator();
+    }
+}
@@ -0,0 +1,78 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobInstance;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.NoSuchJobException;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Job explorer of the resourceless profile. A one-shot process has no job history, so every job
+ * launched starts its first instance (e.g. {@code run.id=1}).
+ */
+class ResourcelessJobExplorer implements JobExplorer {
+
+    @Override
+    public List<JobInstance> getJobInstances(String jobName, int start, int count) {
+        return List.of();
+    }
+
+    @Override
+    public JobInstance getLastJobInstance(String jobName) {
+        return null;
+    }
+
+    @Override
+    public JobInstance getJobInstance(String jobName, JobParameters jobParameters) {
+        return null;
+    }
+
+    @Override
+    public JobExecution getLastJobExecution(JobInstance jobInstance) {
+        return null;
+    }
+
+    @Override
+    public JobExecution getJobExecution(Long executionId) {
+        return null;
+    }
+
+    @Override
+    public StepExecution getStepExecution(Long jobExecutionId, Long stepExecutionId) {
+        return null;
+    }
+
+    @Override
+    public JobInstance getJobInstance(Long instanceId) {
+        return null;
+    }
+
+    @Override
+    public List<JobExecution> getJobExecutions(JobInstance jobInstance) {
+        return List.of();
+    }
+
+    @Override
+    public Set<JobExecution> findRunningJobExecutions(String jobName) {
+        return Set.of();
+    }
+
+    @Override
+    public List<String> getJobNames() {
+        return List.of();
+    }
+
+    @Override
+    public List<JobInstance> findJobInstancesByJobName(String jobName, int start, int count) {
+        return List.of();
+    }
+
+    @Override
+    public long getJobInstanceCount(String jobName) throws NoSuchJobException {
+        throw new NoSuchJobException("No job instances are kept for " + jobName);
+    }
+}
@@ -0,0 +1,46 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersIncrementer;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.lang.NonNull;
+
+/**
+ * Incrementer for long multi-source and multi-date jobs: when the last run of the job failed or was
+ * stopped, launching the job again restarts that run instead of starting a new one, so only its failed
+ * steps and partitions are executed. Otherwise it starts a new run like {@link RunIdIncrementer}.
+ * <p>
+ * Parameters given on the command line still override those of the failed run; giving different ones
+ * starts a new run.
+ */
+class RestartFailedRunIncrementer implements JobParametersIncrementer {
+
+    private static final Logger log = LoggerFactory.getLogger(RestartFailedRunIncrementer.class);
+
+    private final JobExplorer jobExplorer;
+    private final String jobName;
+    private final JobParametersIncrementer delegate = new RunIdIncrementer();
+
+    RestartFailedRunIncrementer(JobExplorer jobExplorer, String jobName) {
+        this.jobExplorer = jobExplorer;
+        this.jobName = jobName;
+    }
+
+    @Override
+    @NonNull
+    public JobParameters getNext(JobParameters parameters) {
+        var lastInstance = jobExplorer.getLastJobInstance(jobName);
+        var lastExecution = lastInstance != null ? jobExplorer.getLastJobExecution(lastInstance) : null;
+        if (lastExecution != null && (lastExecution.getStatus() == BatchStatus.FAILED
+                || lastExecution.getStatus() == BatchStatus.STOPPED)) {
+            log.info("Last {} run (execution {}) ended {}, restarting it", jobName, lastExecution.getId(),
+                    lastExecution.getStatus());
+            return new JobParameters(lastExecution.getJobParameters().getIdentifyingParameters());
+        }
+        return delegate.getNext(parameters);
+    }
+}
@@ -0,0 +1,85 @@
+package ludo.mentis.aciem.mdc.config;
+
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+import java.time.ZoneId;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Validated
+@ConfigurationProperties(prefix = "scheduler")
+public class SchedulerProperties {
+
+    /**
+     * Whether the application stays up and launches the jobs on their schedules instead of running one job and exiting.
+     */
+    private boolean enabled = false;
+
+    /**
+     * Time zone of the cron expressions.
+     */
+    @NotNull
+    private ZoneId zone = ZoneId.of("America/Sao_Paulo");
+
+    /**
+     * Cron expression (second, minute, hour, day of month, month, day of week) of each scheduled job, by job name.
+     */
+    @NotNull
+    private Map<String, @NotEmpty String> jobs = new LinkedHashMap<>();
+
+    /**
+     * Cron expression of the purge of the expired batch metadata, which otherwise only runs on startup.
+     */
+    @NotEmpty
+    private String metadataPurgeCron = "0 0 3 * * *";
+
+    /**
+     * On shutdown, maximum time to wait for the running jobs to finish.
+     */
+    @Min(0)
+    private int shutdownTimeoutSeconds = 300;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public ZoneId getZone() {
+        return zone;
+    }
+
+    public void setZone(ZoneId zone) {
+        this.zone = zone;
+    }
+
+    public Map<String, String> getJobs() {
+        return jobs;
+    }
+
+    public void setJobs(Map<String, String> jobs) {
+        this.jobs = jobs;
+    }
+
+    public String getMetadataPurgeCron() {
+        return metadataPurgeCron;
+    }
+
+    public void setMetadataPurgeCron(String metadataPurgeCron) {
+        this.metadataPurgeCron = metadataPurgeCron;
+    }
+
+    public int getShutdownTimeoutSeconds() {
+        return shutdownTimeoutSeconds;
+    }
+
+    public void setShutdownTimeoutSeconds(int shutdownTimeoutSeconds) {
+        this.shutdownTimeoutSeconds = shutdownTimeoutSeconds;
+    }
+}
@@ -0,0 +1,23 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.validation.annotation.Validated;
+
+@Validated
+@ConfigurationProperties(prefix = "excel-writer.sheet-replace")
+public class SheetReplaceProperties {
+
+    /**
+     * Whether the sheets of an existing output file are replaced by rewriting only their parts inside the file,
+     * instead of loading and saving the whole workbook. Other sheets are copied as they are.
+     */
+    private boolean enabled = false;
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+}
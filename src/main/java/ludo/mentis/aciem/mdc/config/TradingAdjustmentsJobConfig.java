@@ -1,7 +1,9 @@
 package ludo.mentis.aciem.mdc.config;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
 import org.springframework.batch.core.configuration.annotation.JobScope;
@@ -14,17 +16,26 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.TradingAdjustment;
 import ludo.mentis.aciem.mdc.reader.TradingAdjustmentsHtmlReader;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.TradingAdjustmentsDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.TradingAdjustmentsExcelWriter;
 
 @Configuration
 public class TradingAdjustmentsJobConfig {
 
+    static final String JOB_NAME = "TradingAdjustments";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -34,9 +45,13 @@ public class TradingAdjustmentsJobConfig {
     }
 
     @Bean
-    Job tradingAdjustmentsJob(Step downloadFileStepTAD, Step processFileStepTAD) {
-        return new JobBuilder("TradingAdjustments", this.jobRepository)
+    Job tradingAdjustmentsJob(Step downloadFileStepTAD, Step processFileStepTAD,
+                              PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                              MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepTAD)
                 .next(processFileStepTAD)
                 .build();
@@ -46,24 +61,46 @@ public class TradingAdjustmentsJobConfig {
     @JobScope
     Step downloadFileStepTAD(FileDownloadService fileDownloadService,
                              @Value("${trading-adjustments.download-url}") String fileUrl,
-                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate) {
+                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate,
+                             PayloadSpool payloadSpool,
+                             RawPayloadArchive rawPayloadArchive,
+                             MeterRegistry meterRegistry) {
+        var downloader = new TradingAdjustmentsDownloader(fileDownloadService, referenceDate, fileUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
         return new StepBuilder("DownloadFile", this.jobRepository)
-                .tasklet(new TradingAdjustmentsDownloader(fileDownloadService, referenceDate, fileUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
     @Bean
     @JobScope
     Step processFileStepTAD(@Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                            @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                             @Value("#{jobExecutionContext['referenceDate']}") LocalDate referenceDate,
                             @Value("${trading-adjustments.output-dir}") String outputDir,
+                            @Value("#{jobParameters['outputSubdirectory'] ?: ''}") String outputSubdirectory,
                             BackupService backupService,
-                            ExcelHelper excelHelper) {
+                            ExcelHelper excelHelper,
+                            ExcelWriterProperties excelWriterProperties,
+                            SheetReplaceProperties sheetReplaceProperties,
+                            OutputWriterFactory outputWriterFactory,
+                            PayloadSpool payloadSpool,
+                            MeterRegistry meterRegistry) {
+        var outputPath = Path.of(outputDir, outputSubdirectory);
+        var schema = OutputSchemas.tradingAdjustments(referenceDate);
+        var writer = outputWriterFactory.createWriter(JOB_NAME, schema, outputPath, () -> {
+            var excelWriter = new TradingAdjustmentsExcelWriter(backupService, excelHelper, referenceDate,
+                    outputPath.toString(), excelWriterProperties, sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
         return new StepBuilder("ProcessFileStep", jobRepository)
                 .<TradingAdjustment, TradingAdjustment>chunk(1000, this.transactionManager)
-                .reader(new TradingAdjustmentsHtmlReader(fileContent))
-                .writer(new TradingAdjustmentsExcelWriter(backupService, excelHelper, referenceDate, outputDir))
+                .reader(new TradingAdjustmentsHtmlReader(payloadSpool.resolve(payloadHandle, fileContent)))
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
@@ -1,11 +1,19 @@
 package ludo.mentis.aciem.mdc.config;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.listener.MetricsReportListener;
+import ludo.mentis.aciem.mdc.listener.PayloadSpoolCleanupListener;
+import ludo.mentis.aciem.mdc.listener.StepMetricsListener;
 import ludo.mentis.aciem.mdc.model.UpdatedNominalValue;
 import ludo.mentis.aciem.mdc.reader.UpdatedNominalValueCsvReader;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
 import ludo.mentis.aciem.mdc.tasklet.UpdatedNominalValueDownloader;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
 import ludo.mentis.aciem.mdc.writer.UpdatedNominalValueExcelWriter;
 import org.springframework.batch.core.Job;
 import org.springframework.batch.core.Step;
@@ -19,11 +27,14 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.PlatformTransactionManager;
 
+import java.nio.file.Path;
 import java.time.LocalDate;
 
 @Configuration
 public class UpdatedNominalValuesJobConfig {
 
+    static final String JOB_NAME = "UpdatedNominalValues";
+
     private final JobRepository jobRepository;
     private final PlatformTransactionManager transactionManager;
 
@@ -33,9 +44,13 @@ public class UpdatedNominalValuesJobConfig {
     }
 
     @Bean
-    Job updatedNominalValuesJob(Step downloadFileStepUNV, Step processFileStepUNV) {
-        return new JobBuilder("UpdatedNominalValues", this.jobRepository)
+    Job updatedNominalValuesJob(Step downloadFileStepUNV, Step processFileStepUNV,
+                                PayloadSpoolCleanupListener payloadSpoolCleanupListener,
+                                MetricsReportListener metricsReportListener) {
+        return new JobBuilder(JOB_NAME, this.jobRepository)
                 .incrementer(new RunIdIncrementer())
+                .listener(payloadSpoolCleanupListener)
+                .listener(metricsReportListener)
                 .start(downloadFileStepUNV)
                 .next(processFileStepUNV)
                 .build();
@@ -45,24 +60,45 @@ public class UpdatedNominalValuesJobConfig {
     @JobScope
     Step downloadFileStepUNV(FileDownloadService fileDownloadService,
                              @Value("${updated-nominal-values.download-url}") String baseUrl,
-                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate) {
+                             @Value("#{jobParameters['referenceDate'] ?: null}") LocalDate referenceDate,
+                             PayloadSpool payloadSpool,
+                             RawPayloadArchive rawPayloadArchive,
+                             MeterRegistry meterRegistry) {
+        var downloader = new UpdatedNominalValueDownloader(fileDownloadService, referenceDate, baseUrl);
+        downloader.setPayloadSpool(payloadSpool);
+        downloader.setRawPayloadArchive(rawPayloadArchive);
         return new StepBuilder("DownloadFile", this.jobRepository)
-                .tasklet(new UpdatedNominalValueDownloader(fileDownloadService, referenceDate, baseUrl),
-                        this.transactionManager)
+                .tasklet(downloader, this.transactionManager)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 
     @Bean
     @JobScope
     Step processFileStepUNV(@Value("#{jobExecutionContext['fileContent']}") byte[] fileContent,
+                            @Value("#{jobExecutionContext['payloadHandle']}") String payloadHandle,
                             @Value("#{jobExecutionContext['referenceDate']}") LocalDate referenceDate,
                             @Value("${updated-nominal-values.output-dir}") String outputDir,
+                            @Value("#{jobParameters['outputSubdirectory'] ?: ''}") String outputSubdirectory,
                             BackupService backupService,
-                            ExcelHelper excelHelper) {
+                            ExcelHelper excelHelper,
+                            ExcelWriterProperties excelWriterProperties,
+                            SheetReplaceProperties sheetReplaceProperties,
+                            OutputWriterFactory outputWriterFactory,
+                            PayloadSpool payloadSpool,
+                            MeterRegistry meterRegistry) {
+        var outputPath = Path.of(outputDir, outputSubdirectory);
+        var writer = outputWriterFactory.createWriter(JOB_NAME, OutputSchemas.UPDATED_NOMINAL_VALUE, outputPath, () -> {
+            var excelWriter = new UpdatedNominalValueExcelWriter(backupService, excelHelper, referenceDate,
+                    outputPath.toString(), excelWriterProperties, sheetReplaceProperties);
+            excelWriter.setMeterRegistry(meterRegistry);
+            return excelWriter;
+        });
         return new StepBuilder("ProcessFileStep", jobRepository)
                 .<UpdatedNominalValue, UpdatedNominalValue>chunk(1000, this.transactionManager)
-                .reader(new UpdatedNominalValueCsvReader(fileContent))
-                .writer(new UpdatedNominalValueExcelWriter(backupService, excelHelper, referenceDate, outputDir))
+                .reader(new UpdatedNominalValueCsvReader(payloadSpool.resolve(payloadHandle, fileContent)))
+                .writer(writer)
+                .listener(new StepMetricsListener(meterRegistry))
                 .build();
     }
 }
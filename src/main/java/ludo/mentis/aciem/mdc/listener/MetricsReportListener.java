@@ -0,0 +1,126 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.MeterRegistry;
+import ludo.mentis.aciem.mdc.config.MetricsProperties;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Writes the metrics of a job execution to a JSON-lines report when the job ends, one line per meter,
+ * in {@code metrics-<date>.jsonl} under the configured directory. Reported meters are removed from the
+ * registry, so every report holds the values of a single execution.
+ * <p>
+ * Application meters are selected by their execution tag, so executions of the same job running at once, as the
+ * backfill partitions do, each report their own. Spring Batch meters only carry the job name: they are reported
+ * and removed by the last running execution of the job.
+ */
+@Component
+public class MetricsReportListener implements JobExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(MetricsReportListener.class);
+    private static final String BATCH_JOB_TAG_SUFFIX = "job.name";
+
+    private final MeterRegistry registry;
+    private final MetricsProperties properties;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final Map<String, AtomicInteger> runningExecutions = new ConcurrentHashMap<>();
+
+    public MetricsReportListener(MeterRegistry registry, MetricsProperties properties) {
+        this.registry = registry;
+        this.properties = properties;
+    }
+
+    @Override
+    public void beforeJob(@NonNull JobExecution jobExecution) {
+        runningExecutions.computeIfAbsent(jobExecution.getJobInstance().getJobName(), name -> new AtomicInteger())
+                .incrementAndGet();
+    }
+
+    @Override
+    public void afterJob(@NonNull JobExecution jobExecution) {
+        var jobName = jobExecution.getJobInstance().getJobName();
+        var lastRunning = runningExecutions.computeIfPresent(jobName,
+                (name, running) -> running.decrementAndGet() > 0 ? running : null) == null;
+        var execution = MetricTags.executionOf(jobExecution);
+        var meters = registry.getMeters().stream()
+                .filter(meter -> belongsTo(meter, execution) || (lastRunning && isBatchMeterOf(meter, jobName)))
+                .toList();
+        if (properties.isEnabled() && !meters.isEmpty()) {
+            try {
+                var report = report(jobExecution, meters);
+                log.info("Wrote {} metrics of job {} to {}", meters.size(), jobName, report);
+            } catch (IOException e) {
+                // Metrics are diagnostics: a failed report must not fail the job
+                log.warn("Could not write metrics of job {}: {}", jobName, e.getMessage());
+            }
+        }
+        meters.forEach(registry::remove);
+    }
+
+    private Path report(JobExecution jobExecution, List<Meter> meters) throws IOException {
+        var directory = Path.of(properties.getDirectory());
+        Files.createDirectories(directory);
+        var file = directory.resolve("metrics-" + LocalDate.now() + ".jsonl");
+        var timestamp = Instant.now().toString();
+        var lines = new ArrayList<String>(meters.size());
+        for (var meter : meters) {
+            var line = new LinkedHashMap<String, Object>();
+            line.put("timestamp", timestamp);
+            line.put("jobExecutionId", jobExecution.getId());
+            line.put("job", jobExecution.getJobInstance().getJobName());
+            line.put("status", jobExecution.getStatus().toString());
+            line.put("name", meter.getId().getName());
+            line.put("type", meter.getId().getType().name().toLowerCase(Locale.ROOT));
+            line.put("unit", meter.getId().getBaseUnit());
+            line.put("tags", tagsOf(meter));
+            for (var measurement : meter.measure()) {
+                line.put(measurement.getStatistic().getTagValueRepresentation(), measurement.getValue());
+            }
+            lines.add(objectMapper.writeValueAsString(line));
+        }
+        Files.write(file, lines, StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+        return file;
+    }
+
+    private static Map<String, String> tagsOf(Meter meter) {
+        var tags = new LinkedHashMap<String, String>();
+        meter.getId().getTags().forEach(tag -> tags.put(tag.getKey(), tag.getValue()));
+        return tags;
+    }
+
+    /**
+     * Application meters carry an {@code execution} tag.
+     */
+    private static boolean belongsTo(Meter meter, String execution) {
+        return execution.equals(meter.getId().getTag(MetricTags.EXECUTION));
+    }
+
+    /**
+     * Spring Batch meters carry a {@code spring.batch.*.job.name} tag.
+     */
+    private static boolean isBatchMeterOf(Meter meter, String jobName) {
+        return meter.getId().getTags().stream()
+                .anyMatch(tag -> tag.getKey().endsWith(BATCH_JOB_TAG_SUFFIX) && tag.getValue().equals(jobName));
+    }
+}
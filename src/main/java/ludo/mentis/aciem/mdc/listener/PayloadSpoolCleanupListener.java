@@ -0,0 +1,36 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.tasklet.BaseDownloaderTasklet;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+/**
+ * Releases the spooled payload of a job once it completes successfully.
+ * Payloads of failed or stopped executions are kept, so a restarted execution can process them
+ * without downloading again; stale ones are purged by the spool itself.
+ */
+@Component
+public class PayloadSpoolCleanupListener implements JobExecutionListener {
+
+    private final PayloadSpool payloadSpool;
+
+    public PayloadSpoolCleanupListener(PayloadSpool payloadSpool) {
+        this.payloadSpool = payloadSpool;
+    }
+
+    @Override
+    public void afterJob(@NonNull JobExecution jobExecution) {
+        if (jobExecution.getStatus() != BatchStatus.COMPLETED) {
+            return;
+        }
+        var jobContext = jobExecution.getExecutionContext();
+        if (jobContext.containsKey(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY)) {
+            payloadSpool.release(jobContext.getString(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY));
+            jobContext.remove(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY);
+        }
+    }
+}
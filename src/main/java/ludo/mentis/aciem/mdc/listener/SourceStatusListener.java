@@ -0,0 +1,44 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobExecutionListener;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.stream.Collectors;
+
+/**
+ * Reports the outcome of each source of an aggregate job, where every step runs one source job.
+ * The exit status of the aggregate job gets a description such as
+ * {@code Ptax=COMPLETED; TradingAdjustments=FAILED}, and each source is logged.
+ */
+@Component
+public class SourceStatusListener implements JobExecutionListener {
+
+    private static final Logger log = LoggerFactory.getLogger(SourceStatusListener.class);
+
+    @Override
+    public void afterJob(@NonNull JobExecution jobExecution) {
+        var stepExecutions = jobExecution.getStepExecutions().stream()
+                .sorted(Comparator.comparing(StepExecution::getStepName))
+                .toList();
+        for (var stepExecution : stepExecutions) {
+            if (ExitStatus.FAILED.getExitCode().equals(stepExecution.getExitStatus().getExitCode())) {
+                log.warn("Source {} failed: {}", stepExecution.getStepName(),
+                        stepExecution.getExitStatus().getExitDescription());
+            } else {
+                log.info("Source {} finished with {}", stepExecution.getStepName(),
+                        stepExecution.getExitStatus().getExitCode());
+            }
+        }
+        var summary = stepExecutions.stream()
+                .map(stepExecution -> stepExecution.getStepName() + "=" + stepExecution.getExitStatus().getExitCode())
+                .collect(Collectors.joining("; "));
+        jobExecution.setExitStatus(jobExecution.getExitStatus().addExitDescription(summary));
+    }
+}
@@ -0,0 +1,120 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.annotation.AfterRead;
+import org.springframework.batch.core.annotation.AfterStep;
+import org.springframework.batch.core.annotation.AfterWrite;
+import org.springframework.batch.core.annotation.BeforeRead;
+import org.springframework.batch.core.annotation.BeforeStep;
+import org.springframework.batch.item.Chunk;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records metrics of one step: items parsed by the reader and the time spent parsing them, rows written,
+ * and the heap allocated by the step thread. Meters are tagged with job, step and source, and recorded
+ * once the step ends so the per-item callbacks stay cheap.
+ * <p>
+ * Holds the state of a single step execution, so each step gets its own instance. It uses the
+ * annotation-based listener contract, which lets one {@code .listener(...)} call register both the
+ * step and the item callbacks.
+ */
+public class StepMetricsListener {
+
+    static final String ITEMS_READ = "mdc.reader.items";
+    static final String PARSE_TIME = "mdc.reader.parse";
+    static final String PARSE_RATE = "mdc.reader.items.rate";
+    static final String ROWS_WRITTEN = "mdc.writer.rows";
+    static final String ALLOCATED = "mdc.step.allocated";
+
+    private final MeterRegistry registry;
+    private long readStartedNanos;
+    private long parseNanos;
+    private long itemsRead;
+    private long rowsWritten;
+    private long allocatedAtStart;
+
+    public StepMetricsListener(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    @BeforeStep
+    public void beforeStep(StepExecution stepExecution) {
+        parseNanos = 0;
+        itemsRead = 0;
+        rowsWritten = 0;
+        allocatedAtStart = allocatedBytes();
+    }
+
+    @BeforeRead
+    public void beforeRead() {
+        readStartedNanos = System.nanoTime();
+    }
+
+    @AfterRead
+    public void afterRead(Object item) {
+        parseNanos += System.nanoTime() - readStartedNanos;
+        itemsRead++;
+    }
+
+    @AfterWrite
+    public void afterWrite(Chunk<?> items) {
+        rowsWritten += items.size();
+    }
+
+    @AfterStep
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        var tags = tagsOf(stepExecution);
+        if (itemsRead > 0) {
+            Counter.builder(ITEMS_READ).description("Items parsed by the reader").tags(tags)
+                    .register(registry).increment(itemsRead);
+            Timer.builder(PARSE_TIME).description("Time spent parsing items").tags(tags)
+                    .register(registry).record(Duration.ofNanos(parseNanos));
+            if (parseNanos > 0) {
+                DistributionSummary.builder(PARSE_RATE).description("Items parsed per second of parsing time")
+                        .baseUnit("items/s").tags(tags)
+                        .register(registry).record(itemsRead * (double) TimeUnit.SECONDS.toNanos(1) / parseNanos);
+            }
+        }
+        if (rowsWritten > 0) {
+            Counter.builder(ROWS_WRITTEN).description("Rows written by the writer").tags(tags)
+                    .register(registry).increment(rowsWritten);
+        }
+        var allocatedAtEnd = allocatedBytes();
+        if (allocatedAtStart >= 0 && allocatedAtEnd >= 0) {
+            DistributionSummary.builder(ALLOCATED).description("Heap allocated by the step thread")
+                    .baseUnit("bytes").tags(tags)
+                    .register(registry).record(allocatedAtEnd - allocatedAtStart);
+        }
+        return stepExecution.getExitStatus();
+    }
+
+    private static Tags tagsOf(StepExecution stepExecution) {
+        var jobExecution = stepExecution.getJobExecution();
+        var source = jobExecution.getExecutionContext().get(MetricTags.SOURCE_CONTEXT_KEY);
+        return Tags.of(MetricTags.JOB, jobExecution.getJobInstance().getJobName(),
+                MetricTags.EXECUTION, MetricTags.executionOf(jobExecution),
+                MetricTags.STEP, stepExecution.getStepName(),
+                MetricTags.SOURCE, source != null ? source.toString() : "none");
+    }
+
+    /**
+     * @return Bytes allocated so far by the current thread, or -1 if the JVM cannot tell
+     */
+    private static long allocatedBytes() {
+        if (ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean threads
+                && threads.isThreadAllocatedMemorySupported() && threads.isThreadAllocatedMemoryEnabled()) {
+            return threads.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+}
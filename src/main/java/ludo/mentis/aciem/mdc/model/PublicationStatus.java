@@ -0,0 +1,19 @@
+package ludo.mentis.aciem.mdc.model;
+
+/**
+ * Enum representing whether a file is published, as told by a cheap probe of its URL.
+ */
+public enum PublicationStatus {
+    /**
+     * The file exists and is not empty.
+     */
+    PUBLISHED,
+    /**
+     * The server answered that the file does not exist (yet) or is empty.
+     */
+    NOT_PUBLISHED,
+    /**
+     * The probe could not tell, e.g. the server refused it or could not be reached.
+     */
+    UNKNOWN
+}
@@ -0,0 +1,56 @@
+package ludo.mentis.aciem.mdc.partition;
+
+import ludo.mentis.aciem.mdc.exception.HolidaysNotAvailableException;
+import ludo.mentis.aciem.mdc.service.HolidayManager;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Splits a date range into one partition per business day, so each day is downloaded and processed
+ * on its own and a restart only repeats the days that failed. Every partition holds its
+ * {@link #REFERENCE_DATE_KEY reference date} and the {@link #OUTPUT_SUBDIRECTORY_KEY output subdirectory}
+ * where that day's files are written, named after the date.
+ * <p>
+ * The grid size is ignored: the number of partitions is the number of business days, and the
+ * concurrency is bounded by the task executor running them.
+ */
+public class BusinessDayPartitioner implements Partitioner {
+
+    public static final String REFERENCE_DATE_KEY = "referenceDate";
+    public static final String OUTPUT_SUBDIRECTORY_KEY = "outputSubdirectory";
+    private static final String PARTITION_PREFIX = "date-";
+
+    private final HolidayManager holidayManager;
+    private final LocalDate startDate;
+    private final LocalDate endDate;
+    private final String countryCode;
+
+    public BusinessDayPartitioner(HolidayManager holidayManager, LocalDate startDate, LocalDate endDate,
+                                  String countryCode) {
+        this.holidayManager = holidayManager;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.countryCode = countryCode;
+    }
+
+    @Override
+    public Map<String, ExecutionContext> partition(int gridSize) {
+        try {
+            var partitions = new LinkedHashMap<String, ExecutionContext>();
+            for (var date : holidayManager.businessDaysBetween(startDate, endDate, countryCode)) {
+                var context = new ExecutionContext();
+                context.put(REFERENCE_DATE_KEY, date);
+                context.putString(OUTPUT_SUBDIRECTORY_KEY, date.toString());
+                partitions.put(PARTITION_PREFIX + date, context);
+            }
+            return partitions;
+        } catch (HolidaysNotAvailableException e) {
+            throw new IllegalStateException("Cannot list the business days from %s to %s"
+                    .formatted(startDate, endDate), e);
+        }
+    }
+}
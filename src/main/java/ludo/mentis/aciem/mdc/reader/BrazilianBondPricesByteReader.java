@@ -0,0 +1,301 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import ludo.mentis.aciem.mdc.model.BrazilianBondPrice;
+import ludo.mentis.aciem.mdc.util.NumberCodec;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+import org.springframework.util.ClassUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Reads the Anbima bond price file ({@code @}-delimited, pt-BR numbers, {@code yyyyMMdd} dates) by scanning its bytes
+ * directly, producing the same items as {@link BrazilianBondPricesCsvReader} without the per-row {@code String},
+ * {@code String[]}, {@code FieldSet}, bean wrapper and property editor work of the {@code FlatFileItemReader} stack.
+ * <p>
+ * Each line is copied into a reusable buffer and split into field offsets; only the text fields become strings.
+ * Like {@link BrazilianBondPricesCsvReader}, the reader counts the items it returns so a restarted step skips the
+ * ones already read (by skipping lines, without parsing them), and a malformed line fails with a
+ * {@link FlatFileParseException} carrying the line and its number.
+ */
+public class BrazilianBondPricesByteReader extends AbstractItemCountingItemStreamItemReader<BrazilianBondPrice> {
+
+    private static final int DEFAULT_LINES_TO_SKIP = 3; // Default number of header lines to skip
+    private static final int FIELD_COUNT = 15;
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final byte DELIMITER = '@';
+    private static final byte COMMENT = '#';
+
+    private final Resource resource;
+    private final String fileName;
+    private final int linesToSkip;
+
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private final int[] fieldStarts = new int[FIELD_COUNT];
+    private final int[] fieldEnds = new int[FIELD_COUNT];
+    private InputStream input;
+    private int position;
+    private int limit;
+    private byte[] line = new byte[256];
+    private int lineLength;
+    private int lineNumber;
+
+    /**
+     * Creates a new BrazilianBondPricesByteReader with the default configuration.
+     *
+     * @param fileContent the content of the file to read
+     * @param fileName the name of the file (used for error messages)
+     */
+    public BrazilianBondPricesByteReader(byte[] fileContent, String fileName) {
+        this(fileContent, fileName, DEFAULT_LINES_TO_SKIP);
+    }
+
+    /**
+     * Creates a new BrazilianBondPricesByteReader with a custom number of lines to skip.
+     *
+     * @param fileContent the content of the file to read
+     * @param fileName the name of the file (used for error messages)
+     * @param linesToSkip the number of lines to skip at the beginning of the file
+     */
+    public BrazilianBondPricesByteReader(byte[] fileContent, String fileName, int linesToSkip) {
+        this(toResource(fileContent, fileName), fileName, linesToSkip);
+    }
+
+    /**
+     * Creates a new BrazilianBondPricesByteReader that streams the given resource with the default configuration.
+     *
+     * @param resource the resource to read
+     * @param fileName the name of the file (used for error messages)
+     */
+    public BrazilianBondPricesByteReader(Resource resource, String fileName) {
+        this(resource, fileName, DEFAULT_LINES_TO_SKIP);
+    }
+
+    /**
+     * Creates a new BrazilianBondPricesByteReader that streams the given resource with a custom number of lines to skip.
+     *
+     * @param resource the resource to read
+     * @param fileName the name of the file (used for error messages)
+     * @param linesToSkip the number of lines to skip at the beginning of the file
+     */
+    public BrazilianBondPricesByteReader(Resource resource, String fileName, int linesToSkip) {
+        if (resource == null) {
+            throw new IllegalArgumentException("Resource cannot be null");
+        }
+        if (fileName == null || fileName.trim().isEmpty()) {
+            throw new IllegalArgumentException("File name cannot be null or empty");
+        }
+        if (linesToSkip < 0) {
+            throw new IllegalArgumentException("Lines to skip cannot be negative");
+        }
+        this.resource = resource;
+        this.fileName = fileName;
+        this.linesToSkip = linesToSkip;
+        setName(ClassUtils.getShortName(BrazilianBondPricesByteReader.class));
+    }
+
+    private static Resource toResource(byte[] fileContent, String fileName) {
+        if (fileContent == null) {
+            throw new IllegalArgumentException("File content cannot be null");
+        }
+        return new ByteArrayResource(fileContent, fileName);
+    }
+
+    @Override
+    protected void doOpen() throws Exception {
+        input = resource.getInputStream();
+        position = 0;
+        limit = 0;
+        lineNumber = 0;
+        for (var skipped = 0; skipped < linesToSkip; skipped++) {
+            if (!nextLine()) {
+                break;
+            }
+        }
+    }
+
+    @Override
+    protected BrazilianBondPrice doRead() throws Exception {
+        if (!nextDataLine()) {
+            return null;
+        }
+        try {
+            return mapLine();
+        } catch (RuntimeException e) {
+            throw new FlatFileParseException("Parsing error at line: " + lineNumber + " in resource=[" + fileName
+                    + "], input=[" + lineAsString() + "]", e, lineAsString(), lineNumber);
+        }
+    }
+
+    @Override
+    protected void jumpToItem(int itemIndex) throws Exception {
+        for (var skipped = 0; skipped < itemIndex; skipped++) {
+            if (!nextDataLine()) {
+                return;
+            }
+        }
+    }
+
+    @Override
+    protected void doClose() throws Exception {
+        if (input != null) {
+            input.close();
+            input = null;
+        }
+    }
+
+    private boolean nextDataLine() throws IOException {
+        while (nextLine()) {
+            if (lineLength == 0 || line[0] != COMMENT) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Copies the next line, without its terminator, into the line buffer.
+     *
+     * @return false at the end of the input
+     */
+    private boolean nextLine() throws IOException {
+        if (input == null) {
+            return false;
+        }
+        lineLength = 0;
+        var read = false;
+        while (true) {
+            if (position == limit) {
+                limit = input.read(buffer, 0, buffer.length);
+                position = 0;
+                if (limit <= 0) {
+                    limit = 0;
+                    if (!read) {
+                        return false;
+                    }
+                    break;
+                }
+            }
+            read = true;
+            var start = position;
+            while (position < limit && buffer[position] != '\n') {
+                position++;
+            }
+            append(start, position);
+            if (position < limit) {
+                position++;
+                break;
+            }
+        }
+        if (lineLength > 0 && line[lineLength - 1] == '\r') {
+            lineLength--;
+        }
+        lineNumber++;
+        return true;
+    }
+
+    private void append(int from, int to) {
+        var length = to - from;
+        if (lineLength + length > line.length) {
+            line = Arrays.copyOf(line, Math.max(line.length * 2, lineLength + length));
+        }
+        System.arraycopy(buffer, from, line, lineLength, length);
+        lineLength += length;
+    }
+
+    private BrazilianBondPrice mapLine() {
+        var fields = 0;
+        var start = 0;
+        for (var i = 0; i <= lineLength; i++) {
+            if (i == lineLength || line[i] == DELIMITER) {
+                if (fields == FIELD_COUNT) {
+                    throw new IllegalArgumentException("Too many fields: expected " + FIELD_COUNT);
+                }
+                fieldStarts[fields] = start;
+                fieldEnds[fields] = i;
+                fields++;
+                start = i + 1;
+            }
+        }
+        if (fields != FIELD_COUNT) {
+            throw new IllegalArgumentException("Incorrect number of fields: expected " + FIELD_COUNT + ", found " + fields);
+        }
+
+        var price = new BrazilianBondPrice();
+        price.setTitle(text(0));
+        price.setReferenceDate(date(1));
+        price.setSelicCode(text(2));
+        price.setBaseDate(date(3));
+        price.setMaturityDate(date(4));
+        price.setBuyRate(decimal(5));
+        price.setSellRate(decimal(6));
+        price.setIndicativeRate(decimal(7));
+        price.setPrice(decimal(8));
+        price.setStandardDeviation(decimal(9));
+        price.setLowerIntervalD0(decimal(10));
+        price.setUpperIntervalD0(decimal(11));
+        price.setLowerIntervalD1(decimal(12));
+        price.setUpperIntervalD1(decimal(13));
+        price.setCriteria(text(14));
+        return price;
+    }
+
+    private String text(int field) {
+        return new String(line, fieldStarts[field], fieldEnds[field] - fieldStarts[field], StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses a {@code yyyyMMdd} date; a blank field is null.
+     */
+    private LocalDate date(int field) {
+        var start = fieldStarts[field];
+        var end = fieldEnds[field];
+        if (isBlank(start, end)) {
+            return null;
+        }
+        if (end - start != 8) {
+            throw new DateTimeException("Invalid date: " + text(field));
+        }
+        return LocalDate.of(digits(start, 4), digits(start + 4, 2), digits(start + 6, 2));
+    }
+
+    private int digits(int start, int count) {
+        var value = 0;
+        for (var i = start; i < start + count; i++) {
+            var digit = line[i] - '0';
+            if (digit < 0 || digit > 9) {
+                throw new DateTimeException("Invalid digit in date: " + (char) line[i]);
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    /**
+     * Parses a pt-BR decimal keeping the scale written in the file; a blank field or {@code --} is null.
+     */
+    private BigDecimal decimal(int field) {
+        return NumberCodec.PT_BR.parse(line, fieldStarts[field], fieldEnds[field]);
+    }
+
+    private boolean isBlank(int start, int end) {
+        for (var i = start; i < end; i++) {
+            if (line[i] != ' ' && line[i] != '\t') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private String lineAsString() {
+        return new String(line, 0, lineLength, StandardCharsets.UTF_8);
+    }
+}
@@ -8,6 +8,7 @@ import org.springframework.batch.item.file.mapping.BeanWrapperFieldSetMapper;
 import org.springframework.batch.item.file.mapping.DefaultLineMapper;
 import org.springframework.batch.item.file.transform.DelimitedLineTokenizer;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -35,10 +36,31 @@ public class ExchangeRateParityCsvReader extends FlatFileItemReader<ExchangeRate
      * @param linesToSkip the number of lines to skip at the beginning of the file
      */
     public ExchangeRateParityCsvReader(byte[] fileContent, String fileName, int linesToSkip) {
+        this(toResource(fileContent, fileName), fileName, linesToSkip);
+    }
+
+    /**
+     * Creates a new ExchangeRateParityCsvReader that streams the given resource with the default configuration.
+     *
+     * @param resource the resource to read
+     * @param fileName the name of the file (used for error messages)
+     */
+    public ExchangeRateParityCsvReader(Resource resource, String fileName) {
+        this(resource, fileName, DEFAULT_LINES_TO_SKIP);
+    }
+
+    /**
+     * Creates a new ExchangeRateParityCsvReader that streams the given resource with a custom number of lines to skip.
+     *
+     * @param resource the resource to read
+     * @param fileName the name of the file (used for error messages)
+     * @param linesToSkip the number of lines to skip at the beginning of the file
+     */
+    public ExchangeRateParityCsvReader(Resource resource, String fileName, int linesToSkip) {
         super();
 
-        if (fileContent == null) {
-            throw new IllegalArgumentException("File content cannot be null");
+        if (resource == null) {
+            throw new IllegalArgumentException("Resource cannot be null");
         }
         if (fileName == null || fileName.trim().isEmpty()) {
             throw new IllegalArgumentException("File name cannot be null or empty");
@@ -58,11 +80,18 @@ public class ExchangeRateParityCsvReader extends FlatFileItemReader<ExchangeRate
         lineMapper.setLineTokenizer(getDelimitedLineTokenizer());
         lineMapper.setFieldSetMapper(fieldSetMapper);
 
-        setResource(new ByteArrayResource(fileContent, fileName));
+        setResource(resource);
         setLinesToSkip(linesToSkip);
         setLineMapper(lineMapper);
     }
 
+    private static Resource toResource(byte[] fileContent, String fileName) {
+        if (fileContent == null) {
+            throw new IllegalArgumentException("File content cannot be null");
+        }
+        return new ByteArrayResource(fileContent, fileName);
+    }
+
     private static DelimitedLineTokenizer getDelimitedLineTokenizer() {
         var tokenizer = new DelimitedLineTokenizer(";");
         tokenizer.setNames(
@@ -0,0 +1,424 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import org.jsoup.parser.Parser;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Extracts the body rows of one HTML table, identified by its {@code id}, while tokenizing the page incrementally.
+ * <p>
+ * Only the current row is held in memory: the page is decoded through a small buffer, everything before the table is
+ * skipped without building a DOM, and the input is closed as soon as the table ends. Rows are those jsoup would
+ * select with {@code #id tbody > tr} (rows outside {@code thead}/{@code tfoot}, with or without an explicit
+ * {@code tbody}), and cell texts are those of {@code td.text()}: entities decoded, whitespace collapsed and trimmed.
+ * Comments, {@code script} and {@code style} contents and unclosed {@code td}/{@code tr} elements are handled; the
+ * contents of tables nested in a cell become part of the cell text.
+ */
+public class HtmlTableExtractor implements Closeable {
+
+    private static final int BUFFER_SIZE = 8 * 1024;
+
+    private final Reader input;
+    private final String tableId;
+    private final char[] buffer = new char[BUFFER_SIZE];
+    private int position;
+    private int limit;
+
+    private final StringBuilder name = new StringBuilder();
+    private final StringBuilder attribute = new StringBuilder();
+    private final StringBuilder value = new StringBuilder();
+    private final StringBuilder cellText = new StringBuilder();
+    private final List<String> cells = new ArrayList<>();
+    private String id;
+
+    private boolean tableFound;
+    private boolean finished;
+    private int nestedTables;
+    private boolean inHeaderSection;
+    private boolean inRow;
+    private boolean inCell;
+
+    /**
+     * @param input the HTML page
+     * @param charset the charset of the page
+     * @param tableId the {@code id} of the table whose rows are extracted
+     */
+    public HtmlTableExtractor(InputStream input, Charset charset, String tableId) {
+        this.input = new InputStreamReader(input, charset);
+        this.tableId = tableId;
+    }
+
+    /**
+     * @return The texts of the {@code td} cells of the next body row (empty for a row without {@code td} cells), or
+     * null once the table has ended. The list is reused by the next call.
+     * @throws IOException If the page ends without the table
+     */
+    public List<String> nextRow() throws IOException {
+        cells.clear();
+        while (!finished) {
+            skipOrAppendText();
+            var c = read();
+            if (c == -1) {
+                finish();
+                if (!tableFound) {
+                    throw new IOException("Table with id '" + tableId + "' not found.");
+                }
+                return inRow ? endRow() : null;
+            }
+            var tag = readTag();
+            if (tag == Tag.TEXT) {
+                if (inCell) {
+                    cellText.append('<');
+                }
+                continue;
+            }
+            if (tag == Tag.SKIPPED) {
+                continue;
+            }
+            if (!tableFound) {
+                if (tag == Tag.START && isName("table") && tableId.equals(id)) {
+                    tableFound = true;
+                }
+                continue;
+            }
+            var row = onTag(tag == Tag.START);
+            if (row != null) {
+                return row;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Consumes the text up to the next {@code <}, appending it to the current cell if there is one.
+     */
+    private void skipOrAppendText() throws IOException {
+        while (position < limit || fill()) {
+            var start = position;
+            while (position < limit && buffer[position] != '<') {
+                position++;
+            }
+            if (inCell) {
+                cellText.append(buffer, start, position - start);
+            }
+            if (position < limit) {
+                return;
+            }
+        }
+    }
+
+    /**
+     * Applies a tag found inside the table.
+     *
+     * @return The row ended by the tag, if any
+     */
+    private List<String> onTag(boolean start) throws IOException {
+        if (isName("table")) {
+            if (start) {
+                nestedTables++;
+            } else if (nestedTables > 0) {
+                nestedTables--;
+            } else {
+                var row = inRow ? endRow() : null;
+                finish();
+                return row;
+            }
+            spaceInCell();
+            return null;
+        }
+        if (nestedTables > 0) {
+            if (isName("br") || isName("td") || isName("th") || isName("tr")) {
+                spaceInCell();
+            }
+            return null;
+        }
+        if (isName("tr")) {
+            var row = inRow ? endRow() : null;
+            inRow = start && !inHeaderSection;
+            return row;
+        }
+        if (isName("td") || isName("th")) {
+            endCell();
+            inCell = start && inRow && isName("td");
+            return null;
+        }
+        if (isName("thead") || isName("tbody") || isName("tfoot")) {
+            var row = inRow ? endRow() : null;
+            inRow = false;
+            inHeaderSection = start && !isName("tbody");
+            return row;
+        }
+        if (isName("br") || isName("p") || isName("div") || isName("li")) {
+            spaceInCell();
+        }
+        return null;
+    }
+
+    private void spaceInCell() {
+        if (inCell) {
+            cellText.append(' ');
+        }
+    }
+
+    private List<String> endRow() {
+        endCell();
+        inRow = false;
+        return cells;
+    }
+
+    private void endCell() {
+        if (inCell) {
+            var text = cellText.indexOf("&") >= 0 ? Parser.unescapeEntities(cellText.toString(), false) : cellText;
+            cells.add(normalizeWhitespace(text));
+            inCell = false;
+        }
+        cellText.setLength(0);
+    }
+
+    private static String normalizeWhitespace(CharSequence text) {
+        if (isNormalized(text)) {
+            return text.toString();
+        }
+        var normalized = new StringBuilder(text.length());
+        var pendingSpace = false;
+        for (var i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (isWhitespace(c)) {
+                pendingSpace = normalized.length() > 0;
+            } else {
+                if (pendingSpace) {
+                    normalized.append(' ');
+                    pendingSpace = false;
+                }
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    /**
+     * @return true if the text has no leading, trailing or repeated whitespace and no whitespace other than spaces
+     */
+    private static boolean isNormalized(CharSequence text) {
+        var length = text.length();
+        if (length > 0 && (isWhitespace(text.charAt(0)) || isWhitespace(text.charAt(length - 1)))) {
+            return false;
+        }
+        for (var i = 1; i < length; i++) {
+            var c = text.charAt(i);
+            if (isWhitespace(c) && (c != ' ' || text.charAt(i - 1) == ' ')) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isWhitespace(int c) {
+        return c == ' ' || c == '\t' || c == '\n' || c == '\r' || c == '\f' || c == '\u00A0';
+    }
+
+    private enum Tag { START, END, SKIPPED, TEXT }
+
+    /**
+     * Reads the markup after a {@code <}, leaving the lower-case tag name in {@link #name} and the {@code id}
+     * attribute of a start tag in {@link #id}.
+     */
+    private Tag readTag() throws IOException {
+        var c = peek();
+        if (c == '!' || c == '?') {
+            read();
+            if (c == '!' && peek() == '-') {
+                read();
+                if (peek() == '-') {
+                    read();
+                    skipComment();
+                    return Tag.SKIPPED;
+                }
+            }
+            skipTo('>');
+            return Tag.SKIPPED;
+        }
+        var end = c == '/';
+        if (end) {
+            read();
+            c = peek();
+        }
+        if (!isLetter(c)) {
+            if (end) {
+                skipTo('>');
+                return Tag.SKIPPED;
+            }
+            return Tag.TEXT;
+        }
+        readName(name);
+        id = null;
+        if (!tableFound && !end && isName("table")) {
+            readAttributes();
+        } else {
+            skipAttributes();
+        }
+        if (!end && (isName("script") || isName("style"))) {
+            skipRawText(name.toString());
+            return Tag.SKIPPED;
+        }
+        return end ? Tag.END : Tag.START;
+    }
+
+    private void readAttributes() throws IOException {
+        while (true) {
+            var c = read();
+            if (c == -1 || c == '>') {
+                return;
+            }
+            if (isWhitespace(c) || c == '/') {
+                continue;
+            }
+            attribute.setLength(0);
+            attribute.append(Character.toLowerCase((char) c));
+            while ((c = peek()) != -1 && c != '=' && c != '>' && c != '/' && !isWhitespace(c)) {
+                attribute.append(Character.toLowerCase((char) read()));
+            }
+            skipWhitespace();
+            if (peek() != '=') {
+                continue;
+            }
+            read();
+            skipWhitespace();
+            readValue();
+            if (attribute.length() == 2 && attribute.charAt(0) == 'i' && attribute.charAt(1) == 'd') {
+                id = value.indexOf("&") >= 0 ? Parser.unescapeEntities(value.toString(), true) : value.toString();
+            }
+        }
+    }
+
+    private void skipAttributes() throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != '>') {
+            if (c == '"' || c == '\'') {
+                skipTo((char) c);
+            }
+        }
+    }
+
+    private void readValue() throws IOException {
+        value.setLength(0);
+        var quote = peek();
+        if (quote == '"' || quote == '\'') {
+            read();
+            int c;
+            while ((c = read()) != -1 && c != quote) {
+                value.append((char) c);
+            }
+            return;
+        }
+        int c;
+        while ((c = peek()) != -1 && c != '>' && !isWhitespace(c)) {
+            value.append((char) read());
+        }
+    }
+
+    private void readName(StringBuilder target) throws IOException {
+        target.setLength(0);
+        int c;
+        while ((c = peek()) != -1 && (isLetter(c) || (c >= '0' && c <= '9') || c == '-' || c == ':')) {
+            target.append(Character.toLowerCase((char) read()));
+        }
+    }
+
+    private boolean isName(String tagName) {
+        return name.length() == tagName.length() && name.indexOf(tagName) == 0;
+    }
+
+    private void skipComment() throws IOException {
+        var dashes = 0;
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '>' && dashes >= 2) {
+                return;
+            }
+            dashes = c == '-' ? dashes + 1 : 0;
+        }
+    }
+
+    /**
+     * Skips the contents of a raw text element up to and including its end tag.
+     */
+    private void skipRawText(String element) throws IOException {
+        int c;
+        while ((c = read()) != -1) {
+            if (c == '<' && peek() == '/') {
+                read();
+                readName(attribute);
+                if (element.contentEquals(attribute)) {
+                    skipTo('>');
+                    return;
+                }
+            }
+        }
+    }
+
+    private void skipTo(char target) throws IOException {
+        int c;
+        while ((c = read()) != -1 && c != target) {
+            // skip
+        }
+    }
+
+    private void skipWhitespace() throws IOException {
+        while (isWhitespace(peek())) {
+            read();
+        }
+    }
+
+    private static boolean isLetter(int c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z');
+    }
+
+    private int peek() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position];
+    }
+
+    private int read() throws IOException {
+        if (position == limit && !fill()) {
+            return -1;
+        }
+        return buffer[position++];
+    }
+
+    private boolean fill() throws IOException {
+        if (finished) {
+            return false;
+        }
+        limit = input.read(buffer, 0, buffer.length);
+        position = 0;
+        if (limit <= 0) {
+            limit = 0;
+            return false;
+        }
+        return true;
+    }
+
+    private void finish() throws IOException {
+        finished = true;
+        position = 0;
+        limit = 0;
+        input.close();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (!finished) {
+            finish();
+        }
+    }
+}
@@ -3,7 +3,6 @@ package ludo.mentis.aciem.mdc.reader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -12,19 +11,25 @@ import java.util.List;
 
 import org.springframework.batch.item.ItemReader;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 
 import ludo.mentis.aciem.mdc.model.InterestRateCurve;
+import ludo.mentis.aciem.mdc.util.NumberCodec;
 
 public class InterestRateCurveCsvReader implements ItemReader<InterestRateCurve> {
 
-    private final byte[] fileContent;
+    private final Resource resource;
     private final List<InterestRateCurve> interestRateCurves;
     private int currentIndex = 0;
     private boolean initialized = false;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("dd/MM/yyyy");
 
     public InterestRateCurveCsvReader(byte[] fileContent) {
-        this.fileContent = fileContent;
+        this(new ByteArrayResource(fileContent));
+    }
+
+    public InterestRateCurveCsvReader(Resource resource) {
+        this.resource = resource;
         this.interestRateCurves = new ArrayList<>();
     }
 
@@ -41,7 +46,6 @@ public class InterestRateCurveCsvReader implements ItemReader<InterestRateCurve>
     }
 
     private void initialize() throws IOException {
-    	var resource = new ByteArrayResource(fileContent);
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
             
@@ -86,12 +90,12 @@ public class InterestRateCurveCsvReader implements ItemReader<InterestRateCurve>
         var curve = new InterestRateCurve();
         // Example of line: PREFIXADOS;7.96287626860661E-02;5.96513971347563E-02;8.64348297182261E-02;0.181498016176063;2.03671405327417;0.177752217216416
         curve.setDescription(fields[0]);
-        curve.setBeta1(new BigDecimal(fields[1]));
-        curve.setBeta2(new BigDecimal(fields[2]));
-        curve.setBeta3(new BigDecimal(fields[3]));
-        curve.setBeta4(new BigDecimal(fields[4]));
-        curve.setLambda1(new BigDecimal(fields[5]));
-        curve.setLambda2(new BigDecimal(fields[6]));
+        curve.setBeta1(NumberCodec.EN_US.parse(fields[1]));
+        curve.setBeta2(NumberCodec.EN_US.parse(fields[2]));
+        curve.setBeta3(NumberCodec.EN_US.parse(fields[3]));
+        curve.setBeta4(NumberCodec.EN_US.parse(fields[4]));
+        curve.setLambda1(NumberCodec.EN_US.parse(fields[5]));
+        curve.setLambda2(NumberCodec.EN_US.parse(fields[6]));
         return curve;
     }
 }
\ No newline at end of file
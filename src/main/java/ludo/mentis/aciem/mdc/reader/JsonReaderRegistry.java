@@ -0,0 +1,103 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationContext;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonDeserializer;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateDeserializer;
+import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import ludo.mentis.aciem.mdc.model.FinancialIndicator;
+import ludo.mentis.aciem.mdc.model.Ptax;
+import ludo.mentis.aciem.mdc.util.NumberCodec;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Locale;
+
+/**
+ * Holds one configured, immutable {@link ObjectReader} per JSON source.
+ * <p>
+ * Building an {@code ObjectMapper} registers its modules and starts with empty deserializer caches, so a mapper
+ * created per reader pays for the module setup and the bean introspection of the item type on every job run. The
+ * readers returned here are built once and shared by all runs and threads; the deserializers they resolve stay
+ * cached for the life of the application.
+ */
+@Component
+public class JsonReaderRegistry {
+
+    private final ObjectReader ptax = ptaxReader();
+    private final ObjectReader financialIndicators = financialIndicatorReader();
+
+    /**
+     * @return The shared reader of {@link Ptax} items (US numbers, {@code yyyy-MM-dd HH:mm:ss.SSS} timestamps)
+     */
+    public ObjectReader ptax() {
+        return ptax;
+    }
+
+    /**
+     * @return The shared reader of {@link FinancialIndicator} items (pt-BR numbers and {@code dd/MM/yyyy} dates)
+     */
+    public ObjectReader financialIndicators() {
+        return financialIndicators;
+    }
+
+    static ObjectReader ptaxReader() {
+        var objectMapper = new ObjectMapper();
+
+        // Configure date/time handling
+        var javaTimeModule = new JavaTimeModule();
+        var dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+        javaTimeModule.addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(dateTimeFormatter));
+        objectMapper.registerModule(javaTimeModule);
+
+        objectMapper.registerModule(numberModule(NumberCodec.EN_US));
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return objectMapper.readerFor(Ptax.class);
+    }
+
+    static ObjectReader financialIndicatorReader() {
+        var ptBR = new Locale("pt", "BR");
+        var objectMapper = new ObjectMapper();
+
+        // Configure date/time handling
+        var javaTimeModule = new JavaTimeModule();
+        var dateFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy", ptBR);
+        var dateTimeFormatter = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm:ss", ptBR);
+        javaTimeModule.addDeserializer(LocalDate.class, new LocalDateDeserializer(dateFormatter));
+        javaTimeModule.addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(dateTimeFormatter));
+        objectMapper.registerModule(javaTimeModule);
+
+        objectMapper.registerModule(numberModule(NumberCodec.PT_BR));
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        return objectMapper.readerFor(FinancialIndicator.class);
+    }
+
+    /**
+     * Reads {@link BigDecimal} values from their JSON text with the given codec, so numbers keep their written scale.
+     */
+    private static SimpleModule numberModule(NumberCodec codec) {
+        var numberModule = new SimpleModule();
+        numberModule.addDeserializer(BigDecimal.class, new JsonDeserializer<>() {
+            @Override
+            public BigDecimal deserialize(JsonParser parser, DeserializationContext context) throws IOException {
+                var value = parser.getText();
+                try {
+                    return codec.parse(value);
+                } catch (NumberFormatException e) {
+                    throw new JsonMappingException(parser, "Could not parse number: " + value, e);
+                }
+            }
+        });
+        return numberModule;
+    }
+}
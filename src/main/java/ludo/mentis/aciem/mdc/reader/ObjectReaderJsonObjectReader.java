@@ -0,0 +1,76 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
+import org.springframework.batch.item.ParseException;
+import org.springframework.batch.item.json.JsonObjectReader;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * A {@link JsonObjectReader} that binds the objects of a top-level JSON array with a shared {@link ObjectReader},
+ * like Spring Batch's {@code JacksonJsonObjectReader} does with an {@code ObjectMapper}.
+ * <p>
+ * On restart, the objects already read are skipped without being bound.
+ *
+ * @param <T> the type of the items
+ */
+public class ObjectReaderJsonObjectReader<T> implements JsonObjectReader<T> {
+
+    private final ObjectReader objectReader;
+    private InputStream input;
+    private JsonParser parser;
+
+    public ObjectReaderJsonObjectReader(ObjectReader objectReader) {
+        if (objectReader == null) {
+            throw new IllegalArgumentException("Object reader cannot be null");
+        }
+        this.objectReader = objectReader;
+    }
+
+    @Override
+    public void open(Resource resource) throws Exception {
+        input = resource.getInputStream();
+        parser = objectReader.createParser(input);
+        if (parser.nextToken() != JsonToken.START_ARRAY) {
+            throw new IllegalStateException("The Json input stream must start with an array of Json objects");
+        }
+    }
+
+    @Override
+    public T read() throws Exception {
+        try {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                return objectReader.readValue(parser);
+            }
+        } catch (IOException e) {
+            throw new ParseException("Unable to read next JSON object", e);
+        }
+        return null;
+    }
+
+    @Override
+    public void jumpToItem(int itemIndex) throws Exception {
+        for (var skipped = 0; skipped < itemIndex; skipped++) {
+            if (parser.nextToken() != JsonToken.START_OBJECT) {
+                return;
+            }
+            parser.skipChildren();
+        }
+    }
+
+    @Override
+    public void close() throws Exception {
+        if (parser != null) {
+            parser.close();
+            parser = null;
+        }
+        if (input != null) {
+            input.close();
+            input = null;
+        }
+    }
+}
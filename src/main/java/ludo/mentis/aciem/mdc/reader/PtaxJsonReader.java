@@ -1,115 +1,138 @@
 package ludo.mentis.aciem.mdc.reader;
 
-import com.fasterxml.jackson.annotation.JsonProperty;
 import com.fasterxml.jackson.core.JsonParser;
-import com.fasterxml.jackson.databind.*;
-import com.fasterxml.jackson.databind.module.SimpleModule;
-import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
-import com.fasterxml.jackson.datatype.jsr310.deser.LocalDateTimeDeserializer;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectReader;
 import ludo.mentis.aciem.mdc.model.Ptax;
-import org.springframework.batch.item.ExecutionContext;
-import org.springframework.batch.item.ItemStreamException;
-import org.springframework.batch.item.support.AbstractItemStreamItemReader;
+import org.springframework.batch.item.ParseException;
+import org.springframework.batch.item.support.AbstractItemCountingItemStreamItemReader;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
-import org.springframework.lang.NonNull;
+import org.springframework.util.ClassUtils;
 
 import java.io.IOException;
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Collections;
-import java.util.Iterator;
-import java.util.List;
 
 /**
- * A reader for Ptax JSON data that handles the nested structure of the JSON.
+ * A reader for Ptax JSON data that streams the items of the {@code value} array of the OData response.
+ * <p>
+ * The parser is moved to the array when the reader is opened and each {@link #read()} binds the next array element,
+ * so memory use does not grow with the number of quotations requested. The number of items read is saved in the
+ * execution context; on restart the items already read are skipped without being bound.
  */
-public class PtaxJsonReader extends AbstractItemStreamItemReader<Ptax> {
+public class PtaxJsonReader extends AbstractItemCountingItemStreamItemReader<Ptax> {
 
-    private final ObjectMapper objectMapper;
+    private static final String VALUE_FIELD = "value";
+
+    private final ObjectReader objectReader;
     private final Resource resource;
-    private Iterator<Ptax> ptaxIterator;
+    private JsonParser parser;
+    private boolean inArray;
+
+    public PtaxJsonReader(byte[] fileContent) {
+        this(new ByteArrayResource(fileContent));
+    }
+
+    public PtaxJsonReader(Resource resource) {
+        this(resource, JsonReaderRegistry.ptaxReader());
+    }
 
     /**
-     * Wrapper class for the Ptax JSON structure.
+     * @param objectReader the reader of {@link Ptax} items, usually {@link JsonReaderRegistry#ptax()}
      */
-    public static class PtaxWrapper {
-        @JsonProperty("value")
-        private List<Ptax> value;
-
-        public List<Ptax> getValue() {
-            return value;
+    public PtaxJsonReader(Resource resource, ObjectReader objectReader) {
+        if (resource == null) {
+            throw new IllegalArgumentException("Resource cannot be null");
         }
-
-        public void setValue(List<Ptax> value) {
-            this.value = value;
+        if (objectReader == null) {
+            throw new IllegalArgumentException("Object reader cannot be null");
         }
+        this.resource = resource;
+        this.objectReader = objectReader;
+        setName(ClassUtils.getShortName(PtaxJsonReader.class));
     }
 
-    public PtaxJsonReader(byte[] fileContent) {
-        this.objectMapper = new ObjectMapper();
-        this.resource = new ByteArrayResource(fileContent);
-
-        // Configure date/time handling
-        var javaTimeModule = new JavaTimeModule();
-        var dateTimeFormatter = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss.SSS");
+    @Override
+    public Ptax read() {
+        try {
+            return super.read();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new ParseException("Error reading Ptax data", e);
+        }
+    }
 
-        javaTimeModule.addDeserializer(LocalDateTime.class, new LocalDateTimeDeserializer(dateTimeFormatter));
-        objectMapper.registerModule(javaTimeModule);
+    @Override
+    protected void doOpen() throws Exception {
+        parser = objectReader.createParser(resource.getInputStream());
+        inArray = moveToValueArray();
+    }
 
-        // Configure number handling
-        var numberModule = new SimpleModule();
-        numberModule.addDeserializer(BigDecimal.class, new JsonDeserializer<>() {
-            @Override
-            public BigDecimal deserialize(JsonParser parser, DeserializationContext context)
-                    throws java.io.IOException {
-                var value = parser.getText();
-                if (value == null || value.trim().isEmpty()) {
-                    return null;
+    /**
+     * Moves the parser to the start of the {@code value} array, skipping the other fields of the response.
+     *
+     * @return false if the response has no value array
+     */
+    private boolean moveToValueArray() throws IOException {
+        if (parser.nextToken() != JsonToken.START_OBJECT) {
+            throw new ParseException("Ptax response is not a JSON object");
+        }
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            var field = parser.currentName();
+            var token = parser.nextToken();
+            if (VALUE_FIELD.equals(field)) {
+                if (token == JsonToken.START_ARRAY) {
+                    return true;
                 }
-                try {
-                    return new BigDecimal(value);
-                } catch (Exception e) {
-                    throw new JsonMappingException(parser, "Could not parse number: " + value, e);
+                if (token == JsonToken.VALUE_NULL) {
+                    return false;
                 }
+                throw new ParseException("Ptax response value is not an array");
             }
-        });
-        objectMapper.registerModule(numberModule);
-
-        // Configure general settings
-        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+            parser.skipChildren();
+        }
+        return false;
     }
 
     @Override
-    public void open(@NonNull ExecutionContext executionContext) throws ItemStreamException {
-        try {
-            PtaxWrapper wrapper = objectMapper.readValue(resource.getInputStream(), PtaxWrapper.class);
-            if (wrapper != null && wrapper.getValue() != null) {
-                ptaxIterator = wrapper.getValue().iterator();
-            } else {
-                ptaxIterator = Collections.emptyIterator();
-            }
-        } catch (IOException e) {
-            throw new ItemStreamException("Error reading Ptax data", e);
+    protected Ptax doRead() throws IOException {
+        if (!nextElement()) {
+            return null;
         }
+        return objectReader.readValue(parser);
     }
 
     @Override
-    public Ptax read() {
-        if (ptaxIterator != null && ptaxIterator.hasNext()) {
-            return ptaxIterator.next();
+    protected void jumpToItem(int itemIndex) throws IOException {
+        for (var skipped = 0; skipped < itemIndex && nextElement(); skipped++) {
+            parser.skipChildren();
         }
-        return null;
     }
 
-    @Override
-    public void update(@NonNull ExecutionContext executionContext) throws ItemStreamException {
-        // No state to update
+    /**
+     * @return true if the parser is at the start of the next element of the value array
+     */
+    private boolean nextElement() throws IOException {
+        if (!inArray) {
+            return false;
+        }
+        var token = parser.nextToken();
+        if (token == JsonToken.START_OBJECT) {
+            return true;
+        }
+        if (token != JsonToken.END_ARRAY) {
+            throw new ParseException("Unexpected element in Ptax value array: " + token);
+        }
+        inArray = false;
+        return false;
     }
 
     @Override
-    public void close() throws ItemStreamException {
-        // No resources to close
+    protected void doClose() throws IOException {
+        inArray = false;
+        if (parser != null) {
+            parser.close();
+            parser = null;
+        }
     }
 }
@@ -2,112 +2,115 @@ package ludo.mentis.aciem.mdc.reader;
 
 import java.io.IOException;
 import java.math.BigDecimal;
-import java.util.ArrayList;
-import java.util.Iterator;
+import java.nio.charset.Charset;
 import java.util.List;
 
-import org.jsoup.Jsoup;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.batch.item.ItemReader;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamReader;
 import org.springframework.batch.item.ParseException;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 
 import ludo.mentis.aciem.mdc.model.TradingAdjustment;
-
-public class TradingAdjustmentsHtmlReader implements ItemReader<TradingAdjustment> {
+import ludo.mentis.aciem.mdc.util.NumberCodec;
+
+/**
+ * Reads the rows of the B3 trading adjustments table ({@code #tblDadosAjustes}) one at a time with an
+ * {@link HtmlTableExtractor}, so the page is never held as a string or a DOM and parsing stops where the table ends.
+ * Rows with six cells start a new commodity; rows with five cells belong to the commodity of the row above, whose
+ * first cell spans them.
+ */
+public class TradingAdjustmentsHtmlReader implements ItemStreamReader<TradingAdjustment> {
 	
 	private static final Logger log = LoggerFactory.getLogger(TradingAdjustmentsHtmlReader.class);
+    private static final String TABLE_ID = "tblDadosAjustes";
+    private static final Charset CHARSET = Charset.forName("windows-1252");
 
-    private Iterator<TradingAdjustment> dataIterator;
-    private boolean initialized = false;
-    private final byte[] htmlFileContent; // Inject this
+    private final Resource resource;
+    private HtmlTableExtractor extractor;
+    private String currentCommodity = "";
 
     public TradingAdjustmentsHtmlReader(byte[] htmlFileContent) {
-        this.htmlFileContent = htmlFileContent;
+        this(htmlFileContent != null ? new ByteArrayResource(htmlFileContent) : null);
+    }
+
+    public TradingAdjustmentsHtmlReader(Resource resource) {
+        this.resource = resource;
     }
 
     @Override
     public TradingAdjustment read() throws Exception {
-        if (!initialized) {
-        	dataIterator = parseHtmlTable().iterator();
-        	this.initialized = true;
+        if (extractor == null) {
+            extractor = new HtmlTableExtractor(this.resource.getInputStream(), CHARSET, TABLE_ID);
         }
 
-        if (dataIterator != null && dataIterator.hasNext()) {
-            return dataIterator.next();
-        } else {
-            return null; // Signals end of data
+        List<String> cols;
+        while ((cols = extractor.nextRow()) != null) {
+            var item = mapRow(cols);
+            if (item != null) {
+                return item;
+            }
         }
+        return null; // Signals end of data
     }
-    
-    private List<TradingAdjustment> parseHtmlTable() throws IOException {
-    	var resultList = new ArrayList<TradingAdjustment>();
-        var htmlContentString = new String(this.htmlFileContent, "windows-1252");
-        var doc = Jsoup.parse(htmlContentString);
 
-        var table = doc.getElementById("tblDadosAjustes");
-        if (table == null) {
-        	throw new IOException("Table with id 'tblDadosAjustes' not found.");
+    private TradingAdjustment mapRow(List<String> cols) {
+        String commodity;
+        int maturityIndex;
+        int prevAdjustmentPriceIndex;
+        int currentAdjustmentPriceIndex;
+        int variationIndex;
+        int adjustmentValueIndex;
+
+        if (cols.size() == 6) { // Row has a new commodity
+            currentCommodity = cols.get(0).isBlank() ? currentCommodity : cols.get(0);
+            commodity = currentCommodity;
+            maturityIndex = 1;
+            prevAdjustmentPriceIndex = 2;
+            currentAdjustmentPriceIndex = 3;
+            variationIndex = 4;
+            adjustmentValueIndex = 5;
+        } else if (cols.size() == 5) { // Row uses the commodity from the previous row with rowspan
+            commodity = currentCommodity;
+            maturityIndex = 0;
+            prevAdjustmentPriceIndex = 1;
+            currentAdjustmentPriceIndex = 2;
+            variationIndex = 3;
+            adjustmentValueIndex = 4;
+        } else {
+            // Skip rows that don't match the expected structure
+            log.warn("Skipping row with unexpected column count: {} | Row content: {}", cols.size(), String.join(" ", cols));
+            return null;
         }
 
-        var rows = table.select("tbody > tr");
-        var currentCommodity = "";
-
-        for (var row : rows) {
-            var cols = row.select("td");
-            var rowText = row.text();
-
-            String commodity;
-            int maturityIndex;
-            int prevAdjustmentPriceIndex;
-            int currentAdjustmentPriceIndex;
-            int variationIndex;
-            int adjustmentValueIndex;
-
-            if (cols.size() == 6) { // Row has a new commodity
-            	currentCommodity = cols.get(0).text().isBlank() ? currentCommodity : cols.get(0).text().trim();
-                commodity = currentCommodity;
-                maturityIndex = 1;
-                prevAdjustmentPriceIndex = 2;
-                currentAdjustmentPriceIndex = 3;
-                variationIndex = 4;
-                adjustmentValueIndex = 5;
-            } else if (cols.size() == 5) { // Row uses the commodity from the previous row with rowspan
-                commodity = currentCommodity;
-                maturityIndex = 0;
-                prevAdjustmentPriceIndex = 1;
-                currentAdjustmentPriceIndex = 2;
-                variationIndex = 3;
-                adjustmentValueIndex = 4;
-            } else {
-                // Skip rows that don't match the expected structure
-                log.warn("Skipping row with unexpected column count: {} | Row content: {}", cols.size(), rowText);
-                continue;
-            }
+        try {
+            var maturity = cols.get(maturityIndex);
+            var prevAdjustmentPrice = parseBigDecimal(cols.get(prevAdjustmentPriceIndex));
+            var currentAdjustmentPrice = parseBigDecimal(cols.get(currentAdjustmentPriceIndex));
+            var variation = parseBigDecimal(cols.get(variationIndex));
+            var adjustmentValue = parseBigDecimal(cols.get(adjustmentValueIndex));
 
-            try {
-                var maturity = cols.get(maturityIndex).text().trim();
-                var prevAdjustmentPrice = parseBigDecimal(cols.get(prevAdjustmentPriceIndex).text());
-                var currentAdjustmentPrice = parseBigDecimal(cols.get(currentAdjustmentPriceIndex).text());
-                var variation = parseBigDecimal(cols.get(variationIndex).text());
-                var adjustmentValue = parseBigDecimal(cols.get(adjustmentValueIndex).text());
-
-                resultList.add(new TradingAdjustment(commodity, maturity, prevAdjustmentPrice, currentAdjustmentPrice, variation, adjustmentValue));
-            } catch (NumberFormatException e) {
-                throw new ParseException("Error parsing number in row: " + row.text(), e);
-            } catch (IndexOutOfBoundsException e) {
-            	throw new ParseException("Error accessing column in row (IndexOutOfBounds): " + row.text(), e);
-            }
+            return new TradingAdjustment(commodity, maturity, prevAdjustmentPrice, currentAdjustmentPrice, variation, adjustmentValue);
+        } catch (NumberFormatException e) {
+            throw new ParseException("Error parsing number in row: " + String.join(" ", cols), e);
         }
-
-        return resultList;
     }
 
     private BigDecimal parseBigDecimal(String value) {
-        if (value == null || value.trim().isEmpty() || value.equals("-")) {
-            return BigDecimal.ZERO; // Or handle as null/throw exception as per your requirement
+        var number = NumberCodec.PT_BR.parse(value);
+        return number == null ? BigDecimal.ZERO : number; // Blank and "-" cells are zero
+    }
+
+    @Override
+    public void close() throws ItemStreamException {
+        if (extractor != null) {
+            try {
+                extractor.close();
+            } catch (IOException e) {
+                throw new ItemStreamException("Error closing the trading adjustments page", e);
+            }
         }
-        // Remove thousand separators (dots) and use comma as decimal separator
-        return new BigDecimal(value.trim().replace(".", "").replace(",", "."));
     }
-}
\ No newline at end of file
+}
@@ -3,7 +3,6 @@ package ludo.mentis.aciem.mdc.reader;
 import java.io.BufferedReader;
 import java.io.IOException;
 import java.io.InputStreamReader;
-import java.math.BigDecimal;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
@@ -12,19 +11,25 @@ import java.util.List;
 
 import org.springframework.batch.item.ItemReader;
 import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
 
 import ludo.mentis.aciem.mdc.model.UpdatedNominalValue;
+import ludo.mentis.aciem.mdc.util.NumberCodec;
 
 public class UpdatedNominalValueCsvReader implements ItemReader<UpdatedNominalValue> {
 
-    private final byte[] fileContent;
+    private final Resource resource;
     private final List<UpdatedNominalValue> updatedNominalValues;
     private int currentIndex = 0;
     private boolean initialized = false;
     private static final DateTimeFormatter DATE_FORMATTER = DateTimeFormatter.ofPattern("MM/dd/yyyy");
 
     public UpdatedNominalValueCsvReader(byte[] fileContent) {
-        this.fileContent = fileContent;
+        this(new ByteArrayResource(fileContent));
+    }
+
+    public UpdatedNominalValueCsvReader(Resource resource) {
+        this.resource = resource;
         this.updatedNominalValues = new ArrayList<>();
     }
 
@@ -41,7 +46,6 @@ public class UpdatedNominalValueCsvReader implements ItemReader<UpdatedNominalVa
     }
 
     private void initialize() throws IOException {
-    	var resource = new ByteArrayResource(fileContent);
         try (BufferedReader reader = new BufferedReader(
                 new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
             
@@ -110,8 +114,8 @@ public class UpdatedNominalValueCsvReader implements ItemReader<UpdatedNominalVa
             // Example of line: NTN-B;760199;4,499.253373;0.42;P;04/28/2025
             item.setSecurity(fields[0]);
             item.setSelicCode(fields[1]);
-            item.setValue(new BigDecimal(fields[2].replace(",", "")));
-            item.setIndex(new BigDecimal(fields[3].replace(",", "")));
+            item.setValue(NumberCodec.EN_US.parse(fields[2]));
+            item.setIndex(NumberCodec.EN_US.parse(fields[3]));
             item.setReference(fields[4]);
             item.setValidSince(LocalDate.parse(fields[5], DATE_FORMATTER));
             return item;
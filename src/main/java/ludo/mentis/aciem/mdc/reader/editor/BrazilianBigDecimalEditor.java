@@ -1,5 +1,6 @@
 package ludo.mentis.aciem.mdc.reader.editor;
 
+import ludo.mentis.aciem.mdc.util.NumberCodec;
 import org.springframework.beans.propertyeditors.CustomNumberEditor;
 import org.springframework.lang.NonNull;
 
@@ -12,12 +13,11 @@ public class BrazilianBigDecimalEditor extends CustomNumberEditor {
         super(java.math.BigDecimal.class, NumberFormat.getInstance(new Locale("pt", "BR")), true);
     }
 
+    /**
+     * Parses with {@link NumberCodec#PT_BR}; the number format is only used to render values as text.
+     */
     @Override
     public void setAsText(@NonNull String text) throws IllegalArgumentException {
-        if ("--".equalsIgnoreCase(text)) {
-            setValue(null);
-            return;
-        }
-        super.setAsText(text);
+        setValue(NumberCodec.PT_BR.parse(text));
     }
 }
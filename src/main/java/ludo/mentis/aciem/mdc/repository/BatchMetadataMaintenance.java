@@ -0,0 +1,145 @@
+package ludo.mentis.aciem.mdc.repository;
+
+import jakarta.annotation.PostConstruct;
+import ludo.mentis.aciem.mdc.config.BatchRepositoryProperties;
+import ludo.mentis.aciem.mdc.config.ResourcelessBatchConfig;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.sql.init.dependency.DependsOnDatabaseInitialization;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Keeps the Spring Batch metadata of a durable job repository usable and small. On startup it
+ * <ul>
+ *     <li>marks executions left running by a process that died as failed, so they can be restarted;</li>
+ *     <li>purges job instances whose executions all ended before the retention period, with their
+ *     executions, parameters, steps and contexts, so the lookups made on every launch stay fast.</li>
+ * </ul>
+ * The daemon, which stays up for weeks, also runs the purge on its own schedule.
+ */
+@Repository
+@Profile("!" + ResourcelessBatchConfig.PROFILE)
+@DependsOnDatabaseInitialization
+public class BatchMetadataMaintenance {
+
+    private static final Logger log = LoggerFactory.getLogger(BatchMetadataMaintenance.class);
+    private static final String RUNNING_STATUSES = "('STARTING', 'STARTED', 'STOPPING')";
+    private static final String INTERRUPTED_MESSAGE = "Interrupted: the process running it ended before it finished";
+    private static final int PURGE_BATCH_SIZE = 500;
+
+    private static final String FAIL_RUNNING_STEPS = """
+            UPDATE %PREFIX%STEP_EXECUTION SET STATUS = 'FAILED', EXIT_CODE = 'FAILED', EXIT_MESSAGE = :message,
+                END_TIME = :now, LAST_UPDATED = :now, VERSION = VERSION + 1
+            WHERE STATUS IN %RUNNING%""";
+    private static final String FAIL_RUNNING_JOBS = """
+            UPDATE %PREFIX%JOB_EXECUTION SET STATUS = 'FAILED', EXIT_CODE = 'FAILED', EXIT_MESSAGE = :message,
+                END_TIME = :now, LAST_UPDATED = :now, VERSION = VERSION + 1
+            WHERE STATUS IN %RUNNING%""";
+    private static final String FIND_EXPIRED_INSTANCES = """
+            SELECT JOB_INSTANCE_ID FROM %PREFIX%JOB_EXECUTION
+            GROUP BY JOB_INSTANCE_ID
+            HAVING MAX(COALESCE(END_TIME, CREATE_TIME)) < :cutoff
+                AND SUM(CASE WHEN STATUS IN %RUNNING% THEN 1 ELSE 0 END) = 0""";
+    private static final String EXECUTIONS_OF_INSTANCES =
+            "SELECT JOB_EXECUTION_ID FROM %PREFIX%JOB_EXECUTION WHERE JOB_INSTANCE_ID IN (:ids)";
+    private static final List<String> PURGE_STATEMENTS = List.of(
+            """
+            DELETE FROM %PREFIX%STEP_EXECUTION_CONTEXT WHERE STEP_EXECUTION_ID IN (
+                SELECT STEP_EXECUTION_ID FROM %PREFIX%STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (%EXECUTIONS%))""",
+            "DELETE FROM %PREFIX%STEP_EXECUTION WHERE JOB_EXECUTION_ID IN (%EXECUTIONS%)",
+            "DELETE FROM %PREFIX%JOB_EXECUTION_CONTEXT WHERE JOB_EXECUTION_ID IN (%EXECUTIONS%)",
+            "DELETE FROM %PREFIX%JOB_EXECUTION_PARAMS WHERE JOB_EXECUTION_ID IN (%EXECUTIONS%)",
+            "DELETE FROM %PREFIX%JOB_EXECUTION WHERE JOB_INSTANCE_ID IN (:ids)",
+            "DELETE FROM %PREFIX%JOB_INSTANCE WHERE JOB_INSTANCE_ID IN (:ids)");
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final BatchRepositoryProperties properties;
+    private final String tablePrefix;
+
+    public BatchMetadataMaintenance(DataSource dataSource, PlatformTransactionManager transactionManager,
+                                    BatchRepositoryProperties properties,
+                                    @Value("${spring.batch.jdbc.table-prefix:BATCH_}") String tablePrefix) {
+        this.jdbcTemplate = new NamedParameterJdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+        this.tablePrefix = tablePrefix;
+    }
+
+    @PostConstruct
+    void maintain() {
+        if (properties.isRecoverOnStartup()) {
+            recoverInterruptedExecutions();
+        }
+        purgeExpiredInstances();
+    }
+
+    /**
+     * Deletes the job instances whose executions all ended before the retention period, if the purge is enabled.
+     *
+     * @return The number of job instances deleted
+     */
+    public int purgeExpiredInstances() {
+        if (!properties.isPurgeEnabled()) {
+            return 0;
+        }
+        return purgeExpiredInstances(LocalDateTime.now().minusDays(properties.getRetentionDays()));
+    }
+
+    /**
+     * Marks every running job and step execution as failed. Must only be called while no job runs.
+     *
+     * @return The number of job executions marked as failed
+     */
+    public int recoverInterruptedExecutions() {
+        var parameters = new MapSqlParameterSource()
+                .addValue("message", INTERRUPTED_MESSAGE)
+                .addValue("now", Timestamp.valueOf(LocalDateTime.now()));
+        var recovered = transactionTemplate.execute(status -> {
+            jdbcTemplate.update(sql(FAIL_RUNNING_STEPS), parameters);
+            return jdbcTemplate.update(sql(FAIL_RUNNING_JOBS), parameters);
+        });
+        if (recovered != null && recovered > 0) {
+            log.warn("Marked {} job executions interrupted by a previous process as failed", recovered);
+        }
+        return recovered != null ? recovered : 0;
+    }
+
+    /**
+     * Deletes the job instances whose executions all ended before the cutoff, along with their metadata.
+     *
+     * @return The number of job instances deleted
+     */
+    public int purgeExpiredInstances(LocalDateTime cutoff) {
+        var expired = jdbcTemplate.queryForList(sql(FIND_EXPIRED_INSTANCES),
+                new MapSqlParameterSource("cutoff", Timestamp.valueOf(cutoff)), Long.class);
+        for (var from = 0; from < expired.size(); from += PURGE_BATCH_SIZE) {
+            var ids = expired.subList(from, Math.min(from + PURGE_BATCH_SIZE, expired.size()));
+            transactionTemplate.executeWithoutResult(status -> {
+                var parameters = new MapSqlParameterSource("ids", ids);
+                for (var statement : PURGE_STATEMENTS) {
+                    jdbcTemplate.update(sql(statement.replace("%EXECUTIONS%", EXECUTIONS_OF_INSTANCES)), parameters);
+                }
+            });
+        }
+        if (!expired.isEmpty()) {
+            log.info("Purged {} job instances with no execution since {}", expired.size(), cutoff);
+        }
+        return expired.size();
+    }
+
+    private String sql(String statement) {
+        return statement.replace("%PREFIX%", tablePrefix).replace("%RUNNING%", RUNNING_STATUSES);
+    }
+}
@@ -0,0 +1,123 @@
+package ludo.mentis.aciem.mdc.scheduler;
+
+import ludo.mentis.aciem.mdc.config.SchedulerProperties;
+import ludo.mentis.aciem.mdc.repository.BatchMetadataMaintenance;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecutionException;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+import org.springframework.scheduling.support.CronTrigger;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ScheduledFuture;
+
+/**
+ * Resident mode: launches each job configured in {@code scheduler.jobs} on its cron schedule while the
+ * application stays up, so the HTTP client, the holiday calendar and the JIT-compiled parsers stay warm
+ * between runs.
+ * <p>
+ * Every job has its own scheduler thread and its next run is only scheduled when the current one ends, so
+ * runs of a job never overlap (a run that lasts past the next fire time skips it) while different jobs run
+ * in parallel. The expired batch metadata is purged on a schedule of its own, so the job repository of a
+ * long-running daemon does not keep growing.
+ */
+@Component
+@ConditionalOnProperty(prefix = "scheduler", name = "enabled", havingValue = "true")
+public class JobScheduler implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(JobScheduler.class);
+
+    private final JobLauncher jobLauncher;
+    private final JobExplorer jobExplorer;
+    private final SchedulerProperties properties;
+    private final BatchMetadataMaintenance metadataMaintenance;
+    private final Map<Job, CronTrigger> schedules = new LinkedHashMap<>();
+    private final List<ScheduledFuture<?>> scheduledRuns = new ArrayList<>();
+    private ThreadPoolTaskScheduler taskScheduler;
+
+    public JobScheduler(List<Job> jobs, JobLauncher jobLauncher, JobExplorer jobExplorer, JobRepository jobRepository,
+                        BatchMetadataMaintenance metadataMaintenance, SchedulerProperties properties) {
+        if (jobRepository instanceof ResourcelessJobRepository) {
+            throw new IllegalStateException("The scheduler runs jobs in parallel, which the resourceless job repository does not support");
+        }
+        this.jobLauncher = jobLauncher;
+        this.jobExplorer = jobExplorer;
+        this.properties = properties;
+        this.metadataMaintenance = metadataMaintenance;
+        properties.getJobs().forEach((jobName, cron) -> {
+            var job = jobs.stream()
+                    .filter(candidate -> candidate.getName().equals(jobName))
+                    .findFirst()
+                    .orElseThrow(() -> new IllegalArgumentException("Unknown job in scheduler.jobs: " + jobName));
+            schedules.put(job, new CronTrigger(cron, properties.getZone()));
+        });
+    }
+
+    @Override
+    public synchronized void start() {
+        taskScheduler = new ThreadPoolTaskScheduler();
+        taskScheduler.setPoolSize(schedules.size() + 1);
+        taskScheduler.setThreadNamePrefix("scheduler-");
+        taskScheduler.setWaitForTasksToCompleteOnShutdown(true);
+        taskScheduler.setAwaitTerminationSeconds(properties.getShutdownTimeoutSeconds());
+        taskScheduler.initialize();
+        schedules.forEach((job, trigger) -> {
+            scheduledRuns.add(taskScheduler.schedule(() -> launch(job), trigger));
+            log.info("Scheduled job {} with cron '{}' ({})", job.getName(), trigger.getExpression(), properties.getZone());
+        });
+        var purgeTrigger = new CronTrigger(properties.getMetadataPurgeCron(), properties.getZone());
+        scheduledRuns.add(taskScheduler.schedule(this::purgeMetadata, purgeTrigger));
+    }
+
+    @Override
+    public synchronized void stop() {
+        scheduledRuns.forEach(run -> run.cancel(false));
+        scheduledRuns.clear();
+        if (taskScheduler != null) {
+            taskScheduler.shutdown();
+            taskScheduler = null;
+        }
+    }
+
+    @Override
+    public synchronized boolean isRunning() {
+        return taskScheduler != null;
+    }
+
+    /**
+     * Runs the next instance of the job, as a launch from the command line would. A failure is logged and
+     * the job runs again at its next fire time.
+     */
+    void launch(Job job) {
+        try {
+            var parameters = new JobParametersBuilder(jobExplorer).getNextJobParameters(job).toJobParameters();
+            var jobExecution = jobLauncher.run(job, parameters);
+            log.info("Scheduled run of job {} finished with {}", job.getName(), jobExecution.getExitStatus().getExitCode());
+        } catch (JobExecutionException | RuntimeException e) {
+            log.error("Scheduled run of job {} could not be launched", job.getName(), e);
+        }
+    }
+
+    /**
+     * Purges the expired batch metadata. A failure is logged and the purge runs again at its next fire time.
+     */
+    void purgeMetadata() {
+        try {
+            metadataMaintenance.purgeExpiredInstances();
+        } catch (RuntimeException e) {
+            log.error("Scheduled purge of the batch metadata failed", e);
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package ludo.mentis.aciem.mdc.service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.zip.CRC32;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+import java.util.zip.ZipException;
+
+/**
+ * Incremental decoder for the {@code gzip} and {@code deflate} content codings. Input can be fed in
+ * chunks of any size, as they arrive from the network, and decoded output is returned for each chunk.
+ * <p>
+ * gzip streams are checked against their CRC-32 and length trailer, and concatenated members are
+ * supported. For {@code deflate}, both the zlib-wrapped format (RFC 1950, as the HTTP spec requires)
+ * and the raw deflate format sent by some servers are accepted.
+ * <p>
+ * Not thread-safe; {@link #close()} must be called to release the native inflater.
+ */
+final class ContentDecoder implements AutoCloseable {
+
+    private static final int GZIP_MAGIC = 0x8b1f;
+    private static final int GZIP_HEADER_SIZE = 10;
+    private static final int GZIP_TRAILER_SIZE = 8;
+    private static final int FHCRC = 2;
+    private static final int FEXTRA = 4;
+    private static final int FNAME = 8;
+    private static final int FCOMMENT = 16;
+    private static final byte[] NO_BYTES = new byte[0];
+
+    private enum State { HEADER, BODY, TRAILER, DONE }
+
+    private final boolean gzip;
+    private final CRC32 crc = new CRC32();
+    private final ByteArrayOutputStream pending = new ByteArrayOutputStream();
+    private final byte[] chunk = new byte[64 * 1024];
+    private Inflater inflater;
+    private State state = State.HEADER;
+    private long memberSize;
+    private long inputSize;
+    private int members;
+
+    private ContentDecoder(boolean gzip) {
+        this.gzip = gzip;
+    }
+
+    /**
+     * Creates a decoder for a {@code Content-Encoding} header value.
+     *
+     * @param contentEncoding The header value, may be null
+     * @return The decoder, or empty if the content is not encoded
+     * @throws IOException If the coding is not supported
+     */
+    static Optional<ContentDecoder> forContentEncoding(String contentEncoding) throws IOException {
+        var coding = contentEncoding == null ? "" : contentEncoding.trim().toLowerCase(Locale.ROOT);
+        return switch (coding) {
+            case "", "identity" -> Optional.empty();
+            case "gzip", "x-gzip" -> Optional.of(new ContentDecoder(true));
+            case "deflate" -> Optional.of(new ContentDecoder(false));
+            default -> throw new IOException("Unsupported Content-Encoding: " + contentEncoding);
+        };
+    }
+
+    /**
+     * Decodes the next chunk of encoded input.
+     *
+     * @return The decoded bytes available so far, possibly empty
+     */
+    byte[] decode(byte[] input, int offset, int length) throws IOException {
+        inputSize += length;
+        var out = new ByteArrayOutputStream(Math.max(32, length * 4));
+        var remaining = Arrays.copyOfRange(input, offset, offset + length);
+        while (remaining.length > 0) {
+            remaining = switch (state) {
+                case HEADER -> readHeader(remaining);
+                case BODY -> inflate(remaining, out);
+                case TRAILER -> readTrailer(remaining);
+                // Trailing bytes after a deflate stream carry no content
+                case DONE -> NO_BYTES;
+            };
+        }
+        return out.toByteArray();
+    }
+
+    /**
+     * Checks that the encoded input ended on a stream boundary.
+     *
+     * @throws EOFException If the input was truncated
+     */
+    void finish() throws IOException {
+        var complete = inputSize == 0
+                || (gzip ? state == State.HEADER && pending.size() == 0 && members > 0 : state == State.DONE);
+        if (!complete) {
+            throw new EOFException("Unexpected end of " + (gzip ? "gzip" : "deflate") + " encoded content");
+        }
+    }
+
+    @Override
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+        }
+    }
+
+    private byte[] readHeader(byte[] input) throws IOException {
+        pending.write(input, 0, input.length);
+        var buffered = pending.toByteArray();
+        var headerLength = gzip ? gzipHeaderLength(buffered) : (buffered.length >= 2 ? 0 : -1);
+        if (headerLength < 0) {
+            return NO_BYTES;
+        }
+        if (inflater == null) {
+            inflater = new Inflater(gzip || !isZlibHeader(buffered));
+        }
+        pending.reset();
+        state = State.BODY;
+        return Arrays.copyOfRange(buffered, headerLength, buffered.length);
+    }
+
+    private byte[] inflate(byte[] input, ByteArrayOutputStream out) throws IOException {
+        inflater.setInput(input);
+        try {
+            while (!inflater.finished()) {
+                var read = inflater.inflate(chunk);
+                if (read == 0) {
+                    if (inflater.needsDictionary()) {
+                        throw new ZipException("Preset dictionaries are not supported");
+                    }
+                    break;
+                }
+                out.write(chunk, 0, read);
+                crc.update(chunk, 0, read);
+                memberSize += read;
+            }
+        } catch (DataFormatException e) {
+            throw new ZipException("Invalid compressed content: " + e.getMessage());
+        }
+        if (!inflater.finished()) {
+            return NO_BYTES;
+        }
+        state = gzip ? State.TRAILER : State.DONE;
+        return Arrays.copyOfRange(input, input.length - inflater.getRemaining(), input.length);
+    }
+
+    private byte[] readTrailer(byte[] input) throws IOException {
+        pending.write(input, 0, input.length);
+        if (pending.size() < GZIP_TRAILER_SIZE) {
+            return NO_BYTES;
+        }
+        var buffered = pending.toByteArray();
+        if (littleEndianInt(buffered, 0) != crc.getValue() || littleEndianInt(buffered, 4) != (memberSize & 0xffffffffL)) {
+            throw new ZipException("Corrupt gzip trailer");
+        }
+        members++;
+        memberSize = 0;
+        crc.reset();
+        inflater.reset();
+        pending.reset();
+        state = State.HEADER;
+        return Arrays.copyOfRange(buffered, GZIP_TRAILER_SIZE, buffered.length);
+    }
+
+    /**
+     * @return The length of the gzip member header, or -1 if more bytes are needed
+     */
+    private static int gzipHeaderLength(byte[] header) throws ZipException {
+        if (header.length < GZIP_HEADER_SIZE) {
+            return -1;
+        }
+        if ((header[0] & 0xff | (header[1] & 0xff) << 8) != GZIP_MAGIC || header[2] != 8) {
+            throw new ZipException("Not in gzip format");
+        }
+        var flags = header[3];
+        var position = GZIP_HEADER_SIZE;
+        if ((flags & FEXTRA) != 0) {
+            if (header.length < position + 2) {
+                return -1;
+            }
+            position += 2 + (header[position] & 0xff | (header[position + 1] & 0xff) << 8);
+        }
+        for (var flag : new int[] {FNAME, FCOMMENT}) {
+            if ((flags & flag) != 0) {
+                while (position < header.length && header[position] != 0) {
+                    position++;
+                }
+                if (position++ >= header.length) {
+                    return -1;
+                }
+            }
+        }
+        if ((flags & FHCRC) != 0) {
+            position += 2;
+        }
+        return position <= header.length ? position : -1;
+    }
+
+    private static boolean isZlibHeader(byte[] header) {
+        var cmf = header[0] & 0xff;
+        var flg = header[1] & 0xff;
+        return (cmf & 0x0f) == 8 && (cmf >> 4) <= 7 && (cmf << 8 | flg) % 31 == 0;
+    }
+
+    private static long littleEndianInt(byte[] bytes, int offset) {
+        return (bytes[offset] & 0xffL) | (bytes[offset + 1] & 0xffL) << 8
+                | (bytes[offset + 2] & 0xffL) << 16 | (bytes[offset + 3] & 0xffL) << 24;
+    }
+}
@@ -0,0 +1,37 @@
+package ludo.mentis.aciem.mdc.service;
+
+import java.util.Optional;
+import java.util.regex.Pattern;
+
+/**
+ * Parsed {@code Content-Range} header of a 206 Partial Content response, e.g. {@code bytes 0-1023/4096}.
+ *
+ * @param start First byte position of the part, inclusive
+ * @param end Last byte position of the part, inclusive
+ * @param total Length of the whole representation, or -1 if the server sent {@code *}
+ */
+record ContentRange(long start, long end, long total) {
+
+    private static final Pattern BYTES_RANGE = Pattern.compile("bytes\\s+(\\d+)-(\\d+)/(\\d+|\\*)",
+            Pattern.CASE_INSENSITIVE);
+
+    static Optional<ContentRange> parse(String header) {
+        if (header == null) {
+            return Optional.empty();
+        }
+        var matcher = BYTES_RANGE.matcher(header.trim());
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        var total = "*".equals(matcher.group(3)) ? -1 : Long.parseLong(matcher.group(3));
+        return Optional.of(new ContentRange(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2)), total));
+    }
+
+    long length() {
+        return end - start + 1;
+    }
+
+    boolean isComplete() {
+        return total >= 0 && end + 1 >= total;
+    }
+}
@@ -0,0 +1,148 @@
+package ludo.mentis.aciem.mdc.service;
+
+import java.io.IOException;
+import java.net.http.HttpResponse;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Flow;
+
+/**
+ * Body handler that decodes {@code gzip}/{@code deflate} response bodies as they stream in, before
+ * handing them to the wrapped handler. Bodies without a content coding pass through unchanged.
+ * Wire and decoded byte counts of every body are reported to a {@link TransferListener}.
+ *
+ * @param <T> The body type produced by the wrapped handler
+ */
+class DecodingBodyHandler<T> implements HttpResponse.BodyHandler<T> {
+
+    private final HttpResponse.BodyHandler<T> delegate;
+    private final TransferListener listener;
+
+    DecodingBodyHandler(HttpResponse.BodyHandler<T> delegate, TransferListener listener) {
+        this.delegate = delegate;
+        this.listener = listener;
+    }
+
+    /**
+     * Receives the size of each completely received body.
+     */
+    @FunctionalInterface
+    interface TransferListener {
+        void onTransfer(long wireBytes, long decodedBytes);
+    }
+
+    @Override
+    public HttpResponse.BodySubscriber<T> apply(HttpResponse.ResponseInfo responseInfo) {
+        var downstream = delegate.apply(responseInfo);
+        try {
+            var decoder = ContentDecoder.forContentEncoding(
+                    responseInfo.headers().firstValue("Content-Encoding").orElse(null));
+            return new DecodingSubscriber<>(downstream, decoder.orElse(null), null, listener);
+        } catch (IOException e) {
+            return new DecodingSubscriber<>(downstream, null, e, listener);
+        }
+    }
+
+    private static final class DecodingSubscriber<T> implements HttpResponse.BodySubscriber<T> {
+        private final HttpResponse.BodySubscriber<T> downstream;
+        private final ContentDecoder decoder;
+        private final IOException unsupported;
+        private final TransferListener listener;
+        private Flow.Subscription subscription;
+        private long wireBytes;
+        private long decodedBytes;
+        private boolean failed;
+
+        private DecodingSubscriber(HttpResponse.BodySubscriber<T> downstream, ContentDecoder decoder,
+                                   IOException unsupported, TransferListener listener) {
+            this.downstream = downstream;
+            this.decoder = decoder;
+            this.unsupported = unsupported;
+            this.listener = listener;
+        }
+
+        @Override
+        public CompletionStage<T> getBody() {
+            return downstream.getBody();
+        }
+
+        @Override
+        public void onSubscribe(Flow.Subscription subscription) {
+            this.subscription = subscription;
+            downstream.onSubscribe(subscription);
+            if (unsupported != null) {
+                fail(unsupported);
+            }
+        }
+
+        @Override
+        public void onNext(List<ByteBuffer> buffers) {
+            if (failed) {
+                return;
+            }
+            for (var buffer : buffers) {
+                wireBytes += buffer.remaining();
+            }
+            if (decoder == null) {
+                buffers.forEach(buffer -> decodedBytes += buffer.remaining());
+                downstream.onNext(buffers);
+                return;
+            }
+            try {
+                var decoded = new ArrayList<ByteBuffer>(buffers.size());
+                for (var buffer : buffers) {
+                    var bytes = new byte[buffer.remaining()];
+                    buffer.get(bytes);
+                    var output = decoder.decode(bytes, 0, bytes.length);
+                    decodedBytes += output.length;
+                    decoded.add(ByteBuffer.wrap(output));
+                }
+                // Always forward, even if empty, so the downstream demand accounting stays in step
+                downstream.onNext(decoded);
+            } catch (IOException e) {
+                fail(e);
+            }
+        }
+
+        @Override
+        public void onError(Throwable throwable) {
+            if (!failed) {
+                failed = true;
+                release();
+                downstream.onError(throwable);
+            }
+        }
+
+        @Override
+        public void onComplete() {
+            if (failed) {
+                return;
+            }
+            try {
+                if (decoder != null) {
+                    decoder.finish();
+                }
+            } catch (IOException e) {
+                fail(e);
+                return;
+            }
+            release();
+            listener.onTransfer(wireBytes, decodedBytes);
+            downstream.onComplete();
+        }
+
+        private void fail(IOException error) {
+            Optional.ofNullable(subscription).ifPresent(Flow.Subscription::cancel);
+            onError(error);
+        }
+
+        private void release() {
+            if (decoder != null) {
+                decoder.close();
+            }
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package ludo.mentis.aciem.mdc.service;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.springframework.stereotype.Component;
+
+import java.net.URL;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+
+/**
+ * Micrometer meters of {@link HttpClientFileDownloadService}: request latency, time to first byte and
+ * bytes transferred, tagged with the job and source host of each download.
+ */
+@Component
+public class DownloadMetrics {
+
+    static final String REQUEST = "mdc.download.request";
+    static final String TIME_TO_FIRST_BYTE = "mdc.download.ttfb";
+    static final String BYTES = "mdc.download.bytes";
+
+    private final MeterRegistry registry;
+
+    public DownloadMetrics(MeterRegistry registry) {
+        this.registry = registry;
+    }
+
+    /**
+     * Resolves the tags of a download. Must be called on the thread that starts the download,
+     * since the job is taken from the step running on it.
+     */
+    public Tags tagsFor(URL url) {
+        return MetricTags.forUrl(url);
+    }
+
+    /**
+     * Records one HTTP attempt, from sending the request to receiving the whole body or the error.
+     *
+     * @param outcome The status code, or the simple name of the exception
+     */
+    public void recordRequest(Tags tags, Duration latency, String outcome) {
+        Timer.builder(REQUEST)
+                .description("HTTP request latency, including the body transfer")
+                .tags(tags)
+                .tag("outcome", outcome)
+                .register(registry)
+                .record(latency);
+    }
+
+    /**
+     * Records the size of a response body before and after content decoding.
+     */
+    public void recordTransfer(Tags tags, long wireBytes, long decodedBytes) {
+        bytes(tags, "wire").record(wireBytes);
+        bytes(tags, "decoded").record(decodedBytes);
+    }
+
+    /**
+     * Wraps a body handler to record the time from {@code startedNanos} until the response headers arrive,
+     * i.e. when the body starts streaming.
+     */
+    public <T> HttpResponse.BodyHandler<T> timeToFirstByte(HttpResponse.BodyHandler<T> bodyHandler, Tags tags,
+                                                           long startedNanos) {
+        var timer = Timer.builder(TIME_TO_FIRST_BYTE)
+                .description("Time from sending a request to receiving the response headers")
+                .tags(tags)
+                .register(registry);
+        return responseInfo -> {
+            timer.record(Duration.ofNanos(System.nanoTime() - startedNanos));
+            return bodyHandler.apply(responseInfo);
+        };
+    }
+
+    private DistributionSummary bytes(Tags tags, String measure) {
+        return DistributionSummary.builder(BYTES)
+                .description("Response body size")
+                .baseUnit("bytes")
+                .tags(tags)
+                .tag("measure", measure)
+                .register(registry);
+    }
+}
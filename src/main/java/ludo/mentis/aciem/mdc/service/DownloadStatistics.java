@@ -0,0 +1,86 @@
+package ludo.mentis.aciem.mdc.service;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Running totals of the HTTP attempts made by {@link HttpClientFileDownloadService}.
+ * Thread-safe, so it can be shared by the blocking and asynchronous download paths.
+ */
+public class DownloadStatistics {
+
+    private final LongAdder attempts = new LongAdder();
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final LongAdder totalLatencyNanos = new LongAdder();
+    private final LongAccumulator maxLatencyNanos = new LongAccumulator(Math::max, 0);
+    private final AtomicLong lastLatencyNanos = new AtomicLong();
+    private final LongAdder wireBytes = new LongAdder();
+    private final LongAdder decodedBytes = new LongAdder();
+
+    /**
+     * Records one HTTP attempt.
+     *
+     * @param latency Time from sending the request to receiving the response or the error
+     * @param retried Whether another attempt will be made
+     * @param failed Whether this was the last attempt and the download failed
+     */
+    public void recordAttempt(Duration latency, boolean retried, boolean failed) {
+        var nanos = latency.toNanos();
+        attempts.increment();
+        totalLatencyNanos.add(nanos);
+        maxLatencyNanos.accumulate(nanos);
+        lastLatencyNanos.set(nanos);
+        if (retried) {
+            retries.increment();
+        }
+        if (failed) {
+            failures.increment();
+        }
+    }
+
+    /**
+     * Records one response body.
+     *
+     * @param wire Bytes received from the network, before content decoding
+     * @param decoded Bytes after content decoding; equal to {@code wire} for uncompressed bodies
+     */
+    public void recordTransfer(long wire, long decoded) {
+        wireBytes.add(wire);
+        decodedBytes.add(decoded);
+    }
+
+    public long getAttempts() {
+        return attempts.sum();
+    }
+
+    public long getRetries() {
+        return retries.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    public Duration getTotalLatency() {
+        return Duration.ofNanos(totalLatencyNanos.sum());
+    }
+
+    public Duration getMaxLatency() {
+        return Duration.ofNanos(maxLatencyNanos.get());
+    }
+
+    public Duration getLastLatency() {
+        return Duration.ofNanos(lastLatencyNanos.get());
+    }
+
+    public long getWireBytes() {
+        return wireBytes.sum();
+    }
+
+    public long getDecodedBytes() {
+        return decodedBytes.sum();
+    }
+}
@@ -2,12 +2,14 @@ package ludo.mentis.aciem.mdc.service;
 
 import ludo.mentis.aciem.mdc.exception.DownloadException;
 import ludo.mentis.aciem.mdc.model.HttpMethod;
+import ludo.mentis.aciem.mdc.model.PublicationStatus;
 
 import org.springframework.core.io.Resource;
 
 import java.net.URL;
 import java.nio.file.Path;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Service interface for downloading files from URLs.
@@ -60,4 +62,60 @@ public interface FileDownloadService {
      */
     void downloadFile(URL url, HttpMethod method, Map<String, String> parameters, Path destinationPath) 
             throws DownloadException, InterruptedException;
-}
\ No newline at end of file
+
+    /**
+     * Asynchronously downloads a file from the specified URL and returns it as a Resource.
+     *
+     * @param url The URL to download from
+     * @return A future completed with the downloaded file, or exceptionally with a DownloadException
+     */
+    default CompletableFuture<Resource> downloadFileAsync(URL url) {
+        return downloadFileAsync(url, HttpMethod.GET, null);
+    }
+
+    /**
+     * Asynchronously downloads a file from the specified URL and saves it to the specified path.
+     *
+     * @param url The URL to download from
+     * @param destinationPath The path to save the file to
+     * @return A future completed with the destination path, or exceptionally with a DownloadException
+     */
+    default CompletableFuture<Path> downloadFileAsync(URL url, Path destinationPath) {
+        return downloadFileAsync(url, HttpMethod.GET, null, destinationPath);
+    }
+
+    /**
+     * Asynchronously downloads a file using the specified HTTP method and parameters, without blocking
+     * the calling thread while the transfer is in progress.
+     *
+     * @param url The URL to download from
+     * @param method The HTTP method to use (GET or POST)
+     * @param parameters The parameters to include in the request (query string for GET, form data for POST)
+     * @return A future completed with the downloaded file, or exceptionally with a DownloadException
+     */
+    CompletableFuture<Resource> downloadFileAsync(URL url, HttpMethod method, Map<String, String> parameters);
+
+    /**
+     * Asynchronously downloads a file using the specified HTTP method and parameters and saves it to
+     * the specified path, without blocking the calling thread while the transfer is in progress.
+     *
+     * @param url The URL to download from
+     * @param method The HTTP method to use (GET or POST)
+     * @param parameters The parameters to include in the request (query string for GET, form data for POST)
+     * @param destinationPath The path to save the file to
+     * @return A future completed with the destination path, or exceptionally with a DownloadException
+     */
+    CompletableFuture<Path> downloadFileAsync(URL url, HttpMethod method, Map<String, String> parameters,
+                                              Path destinationPath);
+
+    /**
+     * Checks whether the file at the specified URL is published without downloading it, with a single
+     * HEAD request (or a one-byte ranged GET when the server does not support HEAD). Failures are not
+     * retried and are reported as {@link PublicationStatus#UNKNOWN}.
+     *
+     * @param url The URL of the file
+     * @return Whether the file is published
+     * @throws InterruptedException If the probe is interrupted
+     */
+    PublicationStatus probe(URL url) throws InterruptedException;
+}
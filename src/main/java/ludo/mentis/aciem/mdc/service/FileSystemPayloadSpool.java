@@ -0,0 +1,104 @@
+package ludo.mentis.aciem.mdc.service;
+
+import jakarta.annotation.PostConstruct;
+import ludo.mentis.aciem.mdc.config.PayloadSpoolProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.core.io.Resource;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+@Service
+public class FileSystemPayloadSpool implements PayloadSpool {
+    private static final Logger log = LoggerFactory.getLogger(FileSystemPayloadSpool.class);
+    private static final String SPOOL_FILE_SUFFIX = ".payload";
+
+    private final PayloadSpoolProperties properties;
+    private final Path spoolDirectory;
+
+    public FileSystemPayloadSpool(PayloadSpoolProperties properties) {
+        this.properties = properties;
+        this.spoolDirectory = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+    }
+
+    @PostConstruct
+    void purgeStaleFiles() {
+        if (!properties.isEnabled() || !Files.isDirectory(spoolDirectory)) {
+            return;
+        }
+        var cutoff = Instant.now().minus(Duration.ofHours(properties.getMaxAgeHours()));
+        try (var files = Files.list(spoolDirectory)) {
+            files.filter(file -> file.getFileName().toString().endsWith(SPOOL_FILE_SUFFIX))
+                    .filter(file -> isOlderThan(file, cutoff))
+                    .forEach(file -> release(file.toString()));
+        } catch (IOException e) {
+            log.warn("Could not purge stale spool files in {}: {}", spoolDirectory, e.getMessage());
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public Path allocate(String source) throws IOException {
+        Files.createDirectories(spoolDirectory);
+        var spoolFile = Files.createTempFile(spoolDirectory, source + "-", SPOOL_FILE_SUFFIX);
+        log.debug("Allocated spool file {}", spoolFile);
+        return spoolFile;
+    }
+
+    @Override
+    public String toHandle(Path spoolFile) {
+        return spoolFile.toAbsolutePath().normalize().toString();
+    }
+
+    @Override
+    public Resource open(String handle) {
+        var spoolFile = resolveHandle(handle);
+        if (!Files.isRegularFile(spoolFile)) {
+            throw new IllegalArgumentException("Spooled payload not found: " + handle);
+        }
+        return new FileSystemResource(spoolFile);
+    }
+
+    @Override
+    public void release(String handle) {
+        if (handle == null) {
+            return;
+        }
+        try {
+            if (Files.deleteIfExists(resolveHandle(handle))) {
+                log.debug("Released spool file {}", handle);
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            log.warn("Failed to release spool file {}: {}", handle, e.getMessage());
+        }
+    }
+
+    private Path resolveHandle(String handle) {
+        if (handle == null || handle.isBlank()) {
+            throw new IllegalArgumentException("Spool handle cannot be null or empty");
+        }
+        var spoolFile = Path.of(handle).toAbsolutePath().normalize();
+        if (!spoolFile.startsWith(spoolDirectory)) {
+            throw new IllegalArgumentException("Spool handle is outside the spool directory: " + handle);
+        }
+        return spoolFile;
+    }
+
+    private boolean isOlderThan(Path file, Instant cutoff) {
+        try {
+            return Files.getLastModifiedTime(file).toInstant().isBefore(cutoff);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
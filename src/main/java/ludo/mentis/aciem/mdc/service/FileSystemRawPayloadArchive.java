@@ -0,0 +1,256 @@
+package ludo.mentis.aciem.mdc.service;
+
+import jakarta.annotation.PostConstruct;
+import ludo.mentis.aciem.mdc.config.RawPayloadArchiveProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayInputStream;
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * File system implementation of {@link RawPayloadArchive}.
+ * <p>
+ * Layout under the archive directory:
+ * <pre>
+ * objects/ab/abcdef...gz          gzip-compressed payload, named after the SHA-256 of its content
+ * index/&lt;source&gt;/yyyy-MM-dd.idx   one "archivedAt digest" line per download, latest last
+ * </pre>
+ * Index lines older than the retention period are purged on startup. Blobs are shared by identical downloads,
+ * so a blob is only deleted when no remaining index line refers to it.
+ */
+@Service
+public class FileSystemRawPayloadArchive implements RawPayloadArchive {
+    private static final Logger log = LoggerFactory.getLogger(FileSystemRawPayloadArchive.class);
+    private static final String OBJECT_SUFFIX = ".gz";
+    private static final String INDEX_SUFFIX = ".idx";
+    private static final Pattern DIGEST_PATTERN = Pattern.compile("[0-9a-f]{64}");
+    private static final Pattern SOURCE_PATTERN = Pattern.compile("[A-Za-z0-9_.-]+");
+
+    private final RawPayloadArchiveProperties properties;
+    private final Path objectsDirectory;
+    private final Path indexDirectory;
+
+    public FileSystemRawPayloadArchive(RawPayloadArchiveProperties properties) {
+        this.properties = properties;
+        var root = Path.of(properties.getDirectory()).toAbsolutePath().normalize();
+        this.objectsDirectory = root.resolve("objects");
+        this.indexDirectory = root.resolve("index");
+    }
+
+    @PostConstruct
+    void purgeExpiredPayloads() {
+        if (!properties.isEnabled() || !Files.isDirectory(indexDirectory)) {
+            return;
+        }
+        var cutoff = Instant.now().minus(Duration.ofDays(properties.getMaxAgeDays()));
+        try {
+            var referenced = new HashSet<String>();
+            var expired = 0;
+            try (var indexFiles = Files.walk(indexDirectory)) {
+                for (var indexFile : indexFiles.filter(file -> file.toString().endsWith(INDEX_SUFFIX)).toList()) {
+                    expired += purgeIndex(indexFile, cutoff, referenced);
+                }
+            }
+            var deleted = 0;
+            if (Files.isDirectory(objectsDirectory)) {
+                try (var files = Files.walk(objectsDirectory)) {
+                    for (var objectFile : files.filter(file -> file.toString().endsWith(OBJECT_SUFFIX)).toList()) {
+                        var name = objectFile.getFileName().toString();
+                        if (!referenced.contains(name.substring(0, name.length() - OBJECT_SUFFIX.length()))) {
+                            Files.delete(objectFile);
+                            deleted++;
+                        }
+                    }
+                }
+            }
+            if (expired > 0) {
+                log.info("Purged {} archived downloads older than {} days and {} unreferenced payloads", expired,
+                        properties.getMaxAgeDays(), deleted);
+            }
+        } catch (IOException | UncheckedIOException e) {
+            log.warn("Could not purge expired payloads in {}: {}", indexDirectory.getParent(), e.getMessage());
+        }
+    }
+
+    /**
+     * Drops the lines of an index file archived before the cutoff, deleting the file when none is left, and adds
+     * the digests of the remaining lines to the referenced ones.
+     *
+     * @return The number of lines dropped
+     */
+    private static int purgeIndex(Path indexFile, Instant cutoff, Set<String> referenced) throws IOException {
+        var lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+        var kept = new ArrayList<String>(lines.size());
+        for (var line : lines) {
+            var parts = line.trim().split(" ");
+            if (isArchivedBefore(parts[0], cutoff)) {
+                continue;
+            }
+            kept.add(line);
+            referenced.add(parts[parts.length - 1]);
+        }
+        if (kept.isEmpty()) {
+            Files.delete(indexFile);
+        } else if (kept.size() < lines.size()) {
+            Files.write(indexFile, kept, StandardCharsets.UTF_8);
+        }
+        return lines.size() - kept.size();
+    }
+
+    private static boolean isArchivedBefore(String archivedAt, Instant cutoff) {
+        try {
+            return Instant.parse(archivedAt).isBefore(cutoff);
+        } catch (DateTimeParseException e) {
+            return false;
+        }
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    @Override
+    public boolean isReplayEnabled() {
+        return properties.isReplay();
+    }
+
+    @Override
+    public String archive(String source, LocalDate referenceDate, Path payload) throws IOException {
+        try (var in = Files.newInputStream(payload)) {
+            return archive(source, referenceDate, in);
+        }
+    }
+
+    @Override
+    public String archive(String source, LocalDate referenceDate, byte[] payload) throws IOException {
+        return archive(source, referenceDate, new ByteArrayInputStream(payload));
+    }
+
+    @Override
+    public Optional<String> find(String source, LocalDate referenceDate) {
+        var indexFile = indexFile(source, referenceDate);
+        if (!Files.isRegularFile(indexFile)) {
+            return Optional.empty();
+        }
+        try {
+            List<String> lines = Files.readAllLines(indexFile, StandardCharsets.UTF_8);
+            for (int i = lines.size() - 1; i >= 0; i--) {
+                var parts = lines.get(i).trim().split(" ");
+                var digest = parts[parts.length - 1];
+                if (DIGEST_PATTERN.matcher(digest).matches() && Files.isRegularFile(objectFile(digest))) {
+                    return Optional.of(digest);
+                }
+            }
+        } catch (IOException e) {
+            log.warn("Could not read archive index {}: {}", indexFile, e.getMessage());
+        }
+        return Optional.empty();
+    }
+
+    @Override
+    public void restore(String digest, Path target) throws IOException {
+        try (var in = openObject(digest)) {
+            Files.copy(in, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    @Override
+    public byte[] read(String digest) throws IOException {
+        try (var in = openObject(digest)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private synchronized String archive(String source, LocalDate referenceDate, InputStream payload)
+            throws IOException {
+        Files.createDirectories(objectsDirectory);
+        var temp = Files.createTempFile(objectsDirectory, "incoming-", OBJECT_SUFFIX + ".tmp");
+        try {
+            var digestStream = new DigestInputStream(payload, newSha256());
+            try (var out = new GZIPOutputStream(Files.newOutputStream(temp))) {
+                digestStream.transferTo(out);
+            }
+            var digest = HexFormat.of().formatHex(digestStream.getMessageDigest().digest());
+
+            var objectFile = objectFile(digest);
+            if (Files.exists(objectFile)) {
+                log.debug("Payload {} already archived, skipping blob write", digest);
+            } else {
+                Files.createDirectories(objectFile.getParent());
+                Files.move(temp, objectFile, StandardCopyOption.ATOMIC_MOVE);
+            }
+            appendToIndex(source, referenceDate, digest);
+            log.info("Archived {} payload for {} as {}", source, referenceDate, digest);
+            return digest;
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+
+    private void appendToIndex(String source, LocalDate referenceDate, String digest) throws IOException {
+        var indexFile = indexFile(source, referenceDate);
+        Files.createDirectories(indexFile.getParent());
+        Files.writeString(indexFile, Instant.now() + " " + digest + System.lineSeparator(), StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND);
+    }
+
+    private InputStream openObject(String digest) throws IOException {
+        if (digest == null || !DIGEST_PATTERN.matcher(digest).matches()) {
+            throw new IllegalArgumentException("Invalid payload digest: " + digest);
+        }
+        var objectFile = objectFile(digest);
+        if (!Files.isRegularFile(objectFile)) {
+            throw new FileNotFoundException("Archived payload not found: " + digest);
+        }
+        return new GZIPInputStream(Files.newInputStream(objectFile));
+    }
+
+    private Path objectFile(String digest) {
+        return objectsDirectory.resolve(digest.substring(0, 2)).resolve(digest + OBJECT_SUFFIX);
+    }
+
+    private Path indexFile(String source, LocalDate referenceDate) {
+        if (source == null || !SOURCE_PATTERN.matcher(source).matches()) {
+            throw new IllegalArgumentException("Invalid archive source: " + source);
+        }
+        if (referenceDate == null) {
+            throw new IllegalArgumentException("Reference date cannot be null");
+        }
+        return indexDirectory.resolve(source).resolve(referenceDate + INDEX_SUFFIX);
+    }
+
+    private static MessageDigest newSha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+}
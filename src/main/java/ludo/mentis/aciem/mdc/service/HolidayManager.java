@@ -4,6 +4,7 @@ import ludo.mentis.aciem.mdc.exception.HolidayLoadException;
 import ludo.mentis.aciem.mdc.exception.HolidaysNotAvailableException;
 
 import java.time.LocalDate;
+import java.util.List;
 
 /**
  * Interface for managing holidays and date calculations
@@ -26,4 +27,16 @@ public interface HolidayManager {
      */
     LocalDate calculateTargetDate(int daysBack, boolean considerBusinessDays, String countryCode)
             throws HolidaysNotAvailableException;
-}
\ No newline at end of file
+
+    /**
+     * Lists the business days (weekdays that are not holidays) between two dates
+     *
+     * @param startDate the first date of the range, inclusive
+     * @param endDate the last date of the range, inclusive
+     * @param countryCode the country code for holiday lookup
+     * @return the business days of the range, in ascending order
+     * @throws HolidaysNotAvailableException if holidays are not available for the given country
+     */
+    List<LocalDate> businessDaysBetween(LocalDate startDate, LocalDate endDate, String countryCode)
+            throws HolidaysNotAvailableException;
+}
@@ -78,6 +78,26 @@ public class HolidayManagerImpl implements HolidayManager {
         return calculatedDate;
     }
 
+    @Override
+    public List<LocalDate> businessDaysBetween(LocalDate startDate, LocalDate endDate, String countryCode)
+            throws HolidaysNotAvailableException {
+        if (startDate == null || endDate == null) {
+            throw new IllegalArgumentException("Start and end dates must not be null");
+        }
+        if (startDate.isAfter(endDate)) {
+            throw new IllegalArgumentException("Start date %s is after end date %s".formatted(startDate, endDate));
+        }
+        if (countryCode == null || countryCode.isBlank()) {
+            throw new IllegalArgumentException("Country code must not be null or blank");
+        }
+        validateHolidayAvailability(true, countryCode);
+
+        var countryHolidays = holidaysByCountry.get(countryCode);
+        return startDate.datesUntil(endDate.plusDays(1))
+                .filter(date -> isValidDay(date, true, countryHolidays))
+                .toList();
+    }
+
     private boolean isValidDay(LocalDate date, boolean considerBusinessDays, Set<LocalDate> countryHolidays) {
         if (!considerBusinessDays) {
             return true;
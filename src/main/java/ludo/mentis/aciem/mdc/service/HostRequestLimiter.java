@@ -0,0 +1,206 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.HttpClientProperties;
+import ludo.mentis.aciem.mdc.config.HttpClientProperties.HostLimitProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.net.URI;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+import java.util.stream.Collectors;
+
+/**
+ * Enforces per-host limits on outbound requests: a maximum number of requests in flight and a
+ * token-bucket rate limit. Limits are looked up by host name, falling back to the default limit.
+ * <p>
+ * Callers acquire a {@link Permit} before sending a request and close it when the response (or error)
+ * arrives. The blocking variant waits on the calling thread; the asynchronous variant never blocks and
+ * completes once a slot and a token are available.
+ */
+public class HostRequestLimiter {
+    private static final Logger log = LoggerFactory.getLogger(HostRequestLimiter.class);
+
+    private final HostLimitProperties defaultLimit;
+    private final Map<String, HostLimitProperties> hostLimits;
+    private final LongSupplier nanoClock;
+    private final Map<String, HostState> hosts = new ConcurrentHashMap<>();
+
+    public HostRequestLimiter(HttpClientProperties properties) {
+        this(properties, System::nanoTime);
+    }
+
+    HostRequestLimiter(HttpClientProperties properties, LongSupplier nanoClock) {
+        this.defaultLimit = properties.getDefaultHostLimit() != null
+                ? properties.getDefaultHostLimit() : new HostLimitProperties();
+        this.hostLimits = properties.getHostLimits() == null ? Map.of() : properties.getHostLimits().entrySet()
+                .stream()
+                .collect(Collectors.toMap(entry -> entry.getKey().toLowerCase(Locale.ROOT), Map.Entry::getValue));
+        this.nanoClock = nanoClock;
+    }
+
+    /**
+     * Blocks until a request to the URI's host is allowed.
+     *
+     * @param uri The request URI
+     * @return The permit, to be closed when the request completes
+     * @throws InterruptedException If interrupted while waiting
+     */
+    public Permit acquire(URI uri) throws InterruptedException {
+        var host = stateFor(uri);
+        var slot = host.acquireSlot();
+        try {
+            slot.get();
+        } catch (InterruptedException e) {
+            if (!slot.cancel(false)) {
+                host.releaseSlot();
+            }
+            throw e;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Unexpected failure waiting for a request slot", e);
+        }
+
+        var permit = new Permit(host);
+        try {
+            var waitNanos = host.reserveToken();
+            if (waitNanos > 0) {
+                log.debug("Rate limit for {} reached, waiting {} ms", host.name, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+                TimeUnit.NANOSECONDS.sleep(waitNanos);
+            }
+            return permit;
+        } catch (InterruptedException e) {
+            permit.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Returns a future completed once a request to the URI's host is allowed, without blocking the caller.
+     *
+     * @param uri The request URI
+     * @return A future completed with the permit, to be closed when the request completes
+     */
+    public CompletableFuture<Permit> acquireAsync(URI uri) {
+        var host = stateFor(uri);
+        return host.acquireSlot().thenCompose(ignored -> {
+            var permit = new Permit(host);
+            var waitNanos = host.reserveToken();
+            if (waitNanos <= 0) {
+                return CompletableFuture.completedFuture(permit);
+            }
+            log.debug("Rate limit for {} reached, delaying request {} ms", host.name, TimeUnit.NANOSECONDS.toMillis(waitNanos));
+            var delayed = CompletableFuture.delayedExecutor(waitNanos, TimeUnit.NANOSECONDS);
+            return CompletableFuture.supplyAsync(() -> permit, delayed);
+        });
+    }
+
+    /**
+     * @return The number of requests currently in flight to the host
+     */
+    public int getInFlight(String host) {
+        var state = hosts.get(host.toLowerCase(Locale.ROOT));
+        return state == null ? 0 : state.inFlight();
+    }
+
+    private HostState stateFor(URI uri) {
+        var host = uri.getHost() == null ? "" : uri.getHost().toLowerCase(Locale.ROOT);
+        return hosts.computeIfAbsent(host, name -> new HostState(name, hostLimits.getOrDefault(name, defaultLimit)));
+    }
+
+    /**
+     * Allowance to send one request. Closing it frees the in-flight slot; closing twice has no effect.
+     */
+    public static final class Permit implements AutoCloseable {
+        private final HostState host;
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        private Permit(HostState host) {
+            this.host = host;
+        }
+
+        @Override
+        public void close() {
+            if (released.compareAndSet(false, true)) {
+                host.releaseSlot();
+            }
+        }
+    }
+
+    private final class HostState {
+        private final String name;
+        private final int maxInFlight;
+        private final double tokensPerNano;
+        private final int burst;
+        private final Deque<CompletableFuture<Void>> waiters = new ArrayDeque<>();
+        private int inFlight;
+        private double tokens;
+        private long lastRefill;
+
+        private HostState(String name, HostLimitProperties limit) {
+            this.name = name;
+            this.maxInFlight = limit.getMaxInFlight();
+            this.tokensPerNano = limit.getRequestsPerSecond() / TimeUnit.SECONDS.toNanos(1);
+            this.burst = Math.max(1, limit.getBurst());
+            this.tokens = burst;
+            this.lastRefill = nanoClock.getAsLong();
+        }
+
+        synchronized int inFlight() {
+            return inFlight;
+        }
+
+        synchronized CompletableFuture<Void> acquireSlot() {
+            if (maxInFlight <= 0 || inFlight < maxInFlight) {
+                inFlight++;
+                return CompletableFuture.completedFuture(null);
+            }
+            var waiter = new CompletableFuture<Void>();
+            waiters.add(waiter);
+            log.debug("{} requests in flight to {}, queueing request", inFlight, name);
+            return waiter;
+        }
+
+        /**
+         * Hands the slot to the next live waiter, or frees it if nobody is waiting.
+         */
+        void releaseSlot() {
+            while (true) {
+                CompletableFuture<Void> next;
+                synchronized (this) {
+                    next = waiters.poll();
+                    if (next == null) {
+                        inFlight--;
+                        return;
+                    }
+                }
+                if (next.complete(null)) {
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Takes one token from the bucket, going into debt if it is empty.
+         *
+         * @return How long the caller must wait before sending, in nanoseconds
+         */
+        synchronized long reserveToken() {
+            if (tokensPerNano <= 0) {
+                return 0;
+            }
+            var now = nanoClock.getAsLong();
+            tokens = Math.min(burst, tokens + (now - lastRefill) * tokensPerNano);
+            lastRefill = now;
+            tokens -= 1;
+            return tokens >= 0 ? 0 : (long) Math.ceil(-tokens / tokensPerNano);
+        }
+    }
+}
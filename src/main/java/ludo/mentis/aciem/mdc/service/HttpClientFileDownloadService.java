@@ -1,21 +1,35 @@
 package ludo.mentis.aciem.mdc.service;
 
 import java.io.IOException;
+import java.io.InputStream;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.net.URL;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
 import java.nio.charset.StandardCharsets;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
 import java.time.Duration;
+import java.util.ArrayList;
 import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
+import io.micrometer.core.instrument.Tags;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 import org.springframework.stereotype.Service;
@@ -23,19 +37,47 @@ import org.springframework.stereotype.Service;
 import ludo.mentis.aciem.mdc.config.HttpClientProperties;
 import ludo.mentis.aciem.mdc.exception.DownloadException;
 import ludo.mentis.aciem.mdc.model.HttpMethod;
+import ludo.mentis.aciem.mdc.model.PublicationStatus;
 
 @Service
 public class HttpClientFileDownloadService implements FileDownloadService {
     private static final Logger log = LoggerFactory.getLogger(HttpClientFileDownloadService.class);
     private static final int MAX_ERROR_SNIPPET_LENGTH = 512;
     private static final String ERROR_BODY_UNAVAILABLE = "[Could not retrieve body snippet]";
+    private static final int NOT_MODIFIED = 304;
+    private static final int PARTIAL_CONTENT = 206;
+    private static final int RANGE_NOT_SATISFIABLE = 416;
+    private static final int NOT_FOUND = 404;
+    private static final int METHOD_NOT_ALLOWED = 405;
+    private static final int GONE = 410;
+    private static final int NOT_IMPLEMENTED = 501;
 
     private final HttpClient httpClient;
     private final HttpClientProperties properties;
+    private final HttpValidatorCache validatorCache;
+    private final RetryPolicy retryPolicy;
+    private final HostRequestLimiter hostLimiter;
+    private final DownloadStatistics statistics;
+    private final DownloadMetrics metrics;
 
-    public HttpClientFileDownloadService(HttpClient httpClient, HttpClientProperties properties) {
+    public HttpClientFileDownloadService(HttpClient httpClient, HttpClientProperties properties,
+                                         HttpValidatorCache validatorCache) {
+        this(httpClient, properties, validatorCache, null);
+    }
+
+    /**
+     * @param metrics Meters recording latency, time to first byte and transferred bytes; null disables them
+     */
+    @Autowired
+    public HttpClientFileDownloadService(HttpClient httpClient, HttpClientProperties properties,
+                                         HttpValidatorCache validatorCache, DownloadMetrics metrics) {
         this.httpClient = httpClient;
         this.properties = properties;
+        this.validatorCache = validatorCache;
+        this.retryPolicy = new RetryPolicy(properties.getRetry());
+        this.hostLimiter = new HostRequestLimiter(properties);
+        this.statistics = new DownloadStatistics();
+        this.metrics = metrics;
         log.info("HttpClientFileDownloadService initialized.");
     }
     
@@ -52,22 +94,15 @@ public class HttpClientFileDownloadService implements FileDownloadService {
     @Override
     public Resource downloadFile(URL url, HttpMethod method, Map<String, String> parameters) 
             throws DownloadException, InterruptedException {
-        var request = createHttpRequest(url, method, parameters, 
+        var baseRequest = createHttpRequest(url, method, parameters, 
                 Duration.ofMinutes(properties.getRequestTimeoutMinutes()));
+        var cached = lookupCache(baseRequest, method);
+        var request = cached.map(entry -> validatorCache.withValidators(baseRequest, entry)).orElse(baseRequest);
         log.info("Sending {} request to download URL (to memory): {}", method, url);
 
         try {
-            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofByteArray());
-            validateResponse(response, url, null);
-
-            var body = response.body();
-            logSuccessfulDownload(url, body);
-
-            if (body == null) {
-                throw new DownloadException("Download successful (status %d) but response body was null for URL: %s"
-                        .formatted(response.statusCode(), url));
-            }
-            return new ByteArrayResource(body);
+            var response = sendWithRetry(request, decoding(HttpResponse.BodyHandlers.ofByteArray(), metricTags(url)), url);
+            return handleMemoryResponse(response, request.uri(), url, method, cached);
         } catch (IOException e) {
             throw createDownloadException("I/O error downloading " + url, e);
         }
@@ -76,20 +111,627 @@ public class HttpClientFileDownloadService implements FileDownloadService {
     @Override
     public void downloadFile(URL url, HttpMethod method, Map<String, String> parameters, Path destinationPath) 
             throws DownloadException, InterruptedException {
-        var request = createHttpRequest(url, method, parameters, 
+        var baseRequest = createHttpRequest(url, method, parameters, 
                 Duration.ofMinutes(properties.getFileRequestTimeoutMinutes()));
         ensureDirectoryExists(destinationPath);
+        var cached = lookupCache(baseRequest, method);
+        var request = cached.map(entry -> validatorCache.withValidators(baseRequest, entry)).orElse(baseRequest);
 
         log.info("Sending {} request to download URL: {} to Path: {}", method, url, destinationPath);
         try {
-            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofFile(destinationPath));
-            validateResponse(response, url, destinationPath);
-            log.info("Successfully downloaded file to: {}", response.body());
+            var response = method == HttpMethod.GET && properties.getRange().isResumeEnabled()
+                    ? downloadWithRanges(request, url, destinationPath)
+                    : sendWithRetry(request, HttpResponse.BodyHandlers.ofFile(destinationPath), url);
+            handleFileResponse(response, request.uri(), url, method, cached, destinationPath, metricTags(url));
         } catch (IOException e) {
             throw createDownloadException("I/O error downloading " + url + " to " + destinationPath, e);
         }
     }
 
+    @Override
+    public CompletableFuture<Resource> downloadFileAsync(URL url, HttpMethod method, Map<String, String> parameters) {
+        HttpRequest request;
+        Optional<HttpValidatorCache.Entry> cached;
+        try {
+            var baseRequest = createHttpRequest(url, method, parameters,
+                    Duration.ofMinutes(properties.getRequestTimeoutMinutes()));
+            cached = lookupCache(baseRequest, method);
+            request = cached.map(entry -> validatorCache.withValidators(baseRequest, entry)).orElse(baseRequest);
+        } catch (DownloadException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.info("Sending async {} request to download URL (to memory): {}", method, url);
+
+        return sendAsyncWithRetry(request, decoding(HttpResponse.BodyHandlers.ofByteArray(), metricTags(url)), url)
+                .handle((response, error) -> {
+                    try {
+                        if (error != null) {
+                            throw asDownloadException("I/O error downloading " + url, error);
+                        }
+                        return handleMemoryResponse(response, request.uri(), url, method, cached);
+                    } catch (IOException e) {
+                        throw new CompletionException(asDownloadException("I/O error downloading " + url, e));
+                    }
+                });
+    }
+
+    @Override
+    public CompletableFuture<Path> downloadFileAsync(URL url, HttpMethod method, Map<String, String> parameters,
+                                                     Path destinationPath) {
+        HttpRequest request;
+        Optional<HttpValidatorCache.Entry> cached;
+        try {
+            var baseRequest = createHttpRequest(url, method, parameters,
+                    Duration.ofMinutes(properties.getFileRequestTimeoutMinutes()));
+            ensureDirectoryExists(destinationPath);
+            cached = lookupCache(baseRequest, method);
+            request = cached.map(entry -> validatorCache.withValidators(baseRequest, entry)).orElse(baseRequest);
+        } catch (DownloadException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        log.info("Sending async {} request to download URL: {} to Path: {}", method, url, destinationPath);
+
+        var errorMessage = "I/O error downloading " + url + " to " + destinationPath;
+        var tags = metricTags(url);
+        return sendAsyncWithRetry(request, HttpResponse.BodyHandlers.ofFile(destinationPath), url)
+                .handle((response, error) -> {
+                    try {
+                        if (error != null) {
+                            throw asDownloadException(errorMessage, error);
+                        }
+                        handleFileResponse(response, request.uri(), url, method, cached, destinationPath, tags);
+                        return destinationPath;
+                    } catch (IOException e) {
+                        throw new CompletionException(asDownloadException(errorMessage, e));
+                    }
+                });
+    }
+
+    @Override
+    public PublicationStatus probe(URL url) throws InterruptedException {
+        HttpRequest head;
+        try {
+            head = HttpRequest.newBuilder(url.toURI())
+                    .timeout(Duration.ofMinutes(properties.getRequestTimeoutMinutes()))
+                    .method("HEAD", HttpRequest.BodyPublishers.noBody())
+                    .build();
+        } catch (URISyntaxException e) {
+            throw new IllegalArgumentException("Invalid URL syntax: " + url, e);
+        }
+        var response = sendProbe(head, url);
+        if (response != null && (response.statusCode() == METHOD_NOT_ALLOWED
+                || response.statusCode() == NOT_IMPLEMENTED)) {
+            var firstByte = HttpRequest.newBuilder(head, (name, value) -> true)
+                    .GET()
+                    .header("Range", "bytes=0-0")
+                    .build();
+            response = sendProbe(firstByte, url);
+        }
+        var status = publicationStatus(response);
+        log.debug("Probe of {} answered {}: {}", url, response != null ? response.statusCode() : "nothing", status);
+        return status;
+    }
+
+    /**
+     * Sends a single probe request under the per-host limits. The body, if any, is not read.
+     *
+     * @return The response, or null if the request failed
+     */
+    private HttpResponse<InputStream> sendProbe(HttpRequest request, URL url) throws InterruptedException {
+        var permit = hostLimiter.acquire(request.uri());
+        try {
+            var response = httpClient.send(request, HttpResponse.BodyHandlers.ofInputStream());
+            if (response.body() != null) {
+                response.body().close();
+            }
+            return response;
+        } catch (IOException e) {
+            log.debug("Probe of {} failed: {}", url, e.toString());
+            return null;
+        } finally {
+            permit.close();
+        }
+    }
+
+    private static PublicationStatus publicationStatus(HttpResponse<?> response) {
+        if (response == null) {
+            return PublicationStatus.UNKNOWN;
+        }
+        var statusCode = response.statusCode();
+        if (statusCode == NOT_FOUND || statusCode == GONE) {
+            return PublicationStatus.NOT_PUBLISHED;
+        }
+        if (!HttpStatus.isSuccess(statusCode)) {
+            return PublicationStatus.UNKNOWN;
+        }
+        var empty = statusCode != PARTIAL_CONTENT
+                && response.headers().firstValueAsLong("Content-Length").orElse(-1) == 0;
+        return empty ? PublicationStatus.NOT_PUBLISHED : PublicationStatus.PUBLISHED;
+    }
+
+    /**
+     * Sends the request, retrying retryable statuses and exceptions according to the retry policy.
+     * Each attempt waits for a permit from the per-host limiter and releases it before any backoff.
+     * Returns the last response (which may still be an error) once no further retry is allowed.
+     */
+    protected <T> HttpResponse<T> sendWithRetry(HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, URL url)
+            throws IOException, InterruptedException {
+        return sendWithRetry(attempt -> request, bodyHandler, url, failure -> false);
+    }
+
+    /**
+     * Variant of {@link #sendWithRetry(HttpRequest, HttpResponse.BodyHandler, URL)} where each attempt may
+     * send a different request (e.g. a Range request resuming a partial body), and where I/O failures
+     * matching {@code resumable} are retried even if the retry policy does not classify them as retryable.
+     */
+    private <T> HttpResponse<T> sendWithRetry(AttemptRequest requestForAttempt, HttpResponse.BodyHandler<T> bodyHandler,
+                                              URL url, Predicate<IOException> resumable)
+            throws IOException, InterruptedException {
+        var deadline = System.nanoTime() + retryPolicy.getDeadline().toNanos();
+        var tags = metricTags(url);
+        for (int attempt = 1; ; attempt++) {
+            var request = requestForAttempt.create(attempt);
+            var permit = hostLimiter.acquire(request.uri());
+            var started = System.nanoTime();
+            HttpResponse<T> response = null;
+            IOException failure = null;
+            try {
+                response = httpClient.send(request, timeToFirstByte(bodyHandler, tags, started));
+            } catch (IOException e) {
+                failure = e;
+            } finally {
+                permit.close();
+            }
+
+            var delay = nextRetryDelay(attempt, response, failure, deadline,
+                    failure != null && resumable.test(failure));
+            recordAttempt(url, tags, attempt, response, failure, started, delay);
+            if (delay.isEmpty()) {
+                if (failure != null) {
+                    throw failure;
+                }
+                return response;
+            }
+            sleep(delay.get());
+        }
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncWithRetry(HttpRequest request,
+                                                                     HttpResponse.BodyHandler<T> bodyHandler,
+                                                                     URL url) {
+        var deadline = System.nanoTime() + retryPolicy.getDeadline().toNanos();
+        return sendAsyncAttempt(request, bodyHandler, url, metricTags(url), 1, deadline);
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendAsyncAttempt(HttpRequest request,
+                                                                   HttpResponse.BodyHandler<T> bodyHandler,
+                                                                   URL url, Tags tags, int attempt, long deadline) {
+        return hostLimiter.acquireAsync(request.uri())
+                .thenCompose(permit -> sendPermittedAsyncAttempt(request, bodyHandler, url, tags, attempt, deadline,
+                        permit));
+    }
+
+    private <T> CompletableFuture<HttpResponse<T>> sendPermittedAsyncAttempt(
+            HttpRequest request, HttpResponse.BodyHandler<T> bodyHandler, URL url, Tags tags, int attempt,
+            long deadline, HostRequestLimiter.Permit permit) {
+        var started = System.nanoTime();
+        return httpClient.sendAsync(request, timeToFirstByte(bodyHandler, tags, started))
+                .whenComplete((response, error) -> permit.close())
+                .handle((response, error) -> {
+                    var delay = nextRetryDelay(attempt, response, error, deadline, false);
+                    recordAttempt(url, tags, attempt, response, error, started, delay);
+                    if (delay.isEmpty()) {
+                        return error != null
+                                ? CompletableFuture.<HttpResponse<T>>failedFuture(error)
+                                : CompletableFuture.completedFuture(response);
+                    }
+                    var delayedExecutor = CompletableFuture.delayedExecutor(delay.get().toMillis(), TimeUnit.MILLISECONDS);
+                    return CompletableFuture.runAsync(() -> { }, delayedExecutor)
+                            .thenCompose(ignored -> sendAsyncAttempt(request, bodyHandler, url, tags, attempt + 1, deadline));
+                })
+                .thenCompose(Function.identity());
+    }
+
+    private Optional<Duration> nextRetryDelay(int attempt, HttpResponse<?> response, Throwable error, long deadline,
+                                              boolean resumable) {
+        var retryable = error != null
+                ? resumable || retryPolicy.isRetryable(error)
+                : retryPolicy.isRetryableStatus(response.statusCode());
+        if (!retryable || attempt >= retryPolicy.getMaxAttempts()) {
+            return Optional.empty();
+        }
+        var delay = retryPolicy.backoff(attempt, error != null ? null : response.headers());
+        if (System.nanoTime() + delay.toNanos() > deadline) {
+            log.warn("Not retrying: waiting {} ms would exceed the download deadline of {}",
+                    delay.toMillis(), retryPolicy.getDeadline());
+            return Optional.empty();
+        }
+        return Optional.of(delay);
+    }
+
+    private void recordAttempt(URL url, Tags tags, int attempt, HttpResponse<?> response, Throwable error,
+                               long started, Optional<Duration> retryDelay) {
+        var latency = Duration.ofNanos(System.nanoTime() - started);
+        var failed = retryDelay.isEmpty() && (error != null || !isSuccessOrNotModified(response.statusCode()));
+        statistics.recordAttempt(latency, retryDelay.isPresent(), failed);
+        if (metrics != null) {
+            var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            metrics.recordRequest(tags, latency,
+                    cause != null ? cause.getClass().getSimpleName() : String.valueOf(response.statusCode()));
+        }
+
+        var outcome = error != null ? error.toString() : "status " + response.statusCode();
+        if (retryDelay.isPresent()) {
+            log.warn("Attempt {}/{} for {} failed with {} after {} ms, retrying in {} ms",
+                    attempt, retryPolicy.getMaxAttempts(), url, outcome, latency.toMillis(), retryDelay.get().toMillis());
+        } else {
+            log.info("Attempt {}/{} for {} finished with {} after {} ms",
+                    attempt, retryPolicy.getMaxAttempts(), url, outcome, latency.toMillis());
+        }
+    }
+
+    private static boolean isSuccessOrNotModified(int statusCode) {
+        return HttpStatus.isSuccess(statusCode) || statusCode == NOT_MODIFIED;
+    }
+
+    /**
+     * Waits before the next attempt of a blocking download.
+     */
+    protected void sleep(Duration delay) throws InterruptedException {
+        Thread.sleep(delay.toMillis());
+    }
+
+    /**
+     * @return Attempt, retry and latency totals of all downloads made by this service
+     */
+    public DownloadStatistics getStatistics() {
+        return statistics;
+    }
+
+    /**
+     * Downloads a GET response body into a file using byte ranges. The first request asks for the first
+     * part only; if the server answers 206 for a larger representation, the remaining parts are fetched
+     * in parallel. If a transfer is interrupted and the server sent a strong validator, the next attempt
+     * resumes from the bytes already written with Range/If-Range instead of starting over.
+     */
+    private HttpResponse<Path> downloadWithRanges(HttpRequest request, URL url, Path destinationPath)
+            throws IOException, InterruptedException {
+        var rangeProperties = properties.getRange();
+        var bodyHandler = new ResumableFileBodyHandler(destinationPath);
+        var response = sendWithRetry(attempt -> {
+            var offset = attempt > 1 ? bodyHandler.resumeOffset() : 0;
+            bodyHandler.prepare(offset);
+            if (offset > 0) {
+                log.info("Resuming download of {} from byte {}", url, offset);
+                return withRange(request, "bytes=" + offset + "-", bodyHandler.validator(), false);
+            }
+            if (rangeProperties.isParallelEnabled()) {
+                return withRange(request, "bytes=0-" + (rangeProperties.getPartSizeBytes() - 1), null, false);
+            }
+            return request;
+        }, bodyHandler, url, failure -> bodyHandler.isTransferStarted());
+
+        if (response.statusCode() == RANGE_NOT_SATISFIABLE && !bodyHandler.isTransferStarted()) {
+            // Typically an empty representation, which has no first byte to ask for
+            return sendWithRetry(request, HttpResponse.BodyHandlers.ofFile(destinationPath), url);
+        }
+        if (bodyHandler.isRangeMismatch()) {
+            cleanupFailedDownload(destinationPath);
+            throw new DownloadException("Server returned an unexpected Content-Range for " + url);
+        }
+        if (response.statusCode() == PARTIAL_CONTENT) {
+            var contentRange = ContentRange.parse(header(response, "Content-Range"))
+                    .orElseThrow(() -> new DownloadException("Missing Content-Range in partial response for " + url));
+            if (contentRange.total() < 0) {
+                throw new DownloadException("Server did not report the total length of " + url);
+            }
+            if (!contentRange.isComplete()) {
+                fetchRemainingParts(request, url, destinationPath, contentRange.end() + 1, contentRange.total(),
+                        bodyHandler.validator());
+            }
+        }
+        return response;
+    }
+
+    private void fetchRemainingParts(HttpRequest request, URL url, Path destinationPath, long from, long total,
+                                     String validator) throws IOException, InterruptedException {
+        var rangeProperties = properties.getRange();
+        var remaining = total - from;
+        var partSize = Math.max(rangeProperties.getPartSizeBytes(),
+                (remaining + rangeProperties.getMaxParallelParts() - 1) / rangeProperties.getMaxParallelParts());
+        var partFiles = new ArrayList<Path>();
+        var partRanges = new ArrayList<long[]>();
+        var futures = new ArrayList<CompletableFuture<HttpResponse<Path>>>();
+        try {
+            for (long start = from; start < total; start += partSize) {
+                var end = Math.min(start + partSize, total) - 1;
+                var partFile = destinationPath.resolveSibling(destinationPath.getFileName() + ".part" + partFiles.size());
+                partFiles.add(partFile);
+                partRanges.add(new long[] {start, end});
+                var partRequest = withRange(request, "bytes=" + start + "-" + end, validator, true);
+                futures.add(sendAsyncWithRetry(partRequest, HttpResponse.BodyHandlers.ofFile(partFile), url));
+            }
+            log.info("Fetching remaining {} bytes of {} in {} parallel ranges", remaining, url, futures.size());
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new)).get();
+
+            try (var out = Files.newOutputStream(destinationPath, StandardOpenOption.APPEND)) {
+                for (int i = 0; i < futures.size(); i++) {
+                    var partResponse = futures.get(i).get();
+                    var expected = partRanges.get(i);
+                    var contentRange = ContentRange.parse(header(partResponse, "Content-Range"));
+                    if (partResponse.statusCode() != PARTIAL_CONTENT || contentRange.isEmpty()
+                            || contentRange.get().start() != expected[0] || contentRange.get().end() != expected[1]
+                            || Files.size(partFiles.get(i)) != contentRange.get().length()) {
+                        throw new DownloadException("Range %d-%d of %s failed or the file changed during download (status %d)"
+                                .formatted(expected[0], expected[1], url, partResponse.statusCode()));
+                    }
+                    Files.copy(partFiles.get(i), out);
+                }
+            }
+        } catch (ExecutionException e) {
+            cleanupFailedDownload(destinationPath);
+            throw asDownloadException("I/O error downloading ranges of " + url, e.getCause());
+        } catch (IOException e) {
+            cleanupFailedDownload(destinationPath);
+            throw e;
+        } finally {
+            futures.forEach(future -> future.cancel(false));
+            for (var partFile : partFiles) {
+                Files.deleteIfExists(partFile);
+            }
+        }
+    }
+
+    /**
+     * Copies the request with a Range header. Parts of a parallel download drop the cache validators,
+     * since a 304 is meaningless for a single range, and carry If-Range so a changed file is detected.
+     */
+    private HttpRequest withRange(HttpRequest request, String range, String validator, boolean dropConditionals) {
+        var builder = HttpRequest.newBuilder(request, (name, value) -> !dropConditionals
+                || !(name.equalsIgnoreCase("If-None-Match") || name.equalsIgnoreCase("If-Modified-Since")));
+        builder.setHeader("Range", range);
+        if (validator != null) {
+            builder.setHeader("If-Range", validator);
+        }
+        return builder.build();
+    }
+
+    /**
+     * Checks the downloaded file against the length and checksum announced by the server, when available.
+     */
+    protected void verifyIntegrity(HttpResponse<?> response, Path destinationPath) throws IOException {
+        var headers = response.headers();
+        if (headers == null || response.statusCode() == NOT_MODIFIED) {
+            return;
+        }
+        var expectedLength = expectedLength(response);
+        try {
+            if (expectedLength >= 0 && Files.size(destinationPath) != expectedLength) {
+                throw new DownloadException("Incomplete download of %s: expected %d bytes but got %d"
+                        .formatted(destinationPath, expectedLength, Files.size(destinationPath)));
+            }
+            var digest = RepresentationDigest.fromHeaders(headers, response.statusCode() != PARTIAL_CONTENT);
+            if (digest.isPresent()) {
+                digest.get().verify(destinationPath);
+                log.debug("{} checksum verified for {}", digest.get().algorithm(), destinationPath);
+            }
+        } catch (IOException e) {
+            cleanupFailedDownload(destinationPath);
+            throw e;
+        }
+    }
+
+    /**
+     * Decodes a gzip/deflate encoded file in place. File downloads are decoded only once complete, so
+     * ranges, resumed transfers and integrity checks all work on the encoded bytes the server sent.
+     */
+    private void decodeContent(HttpResponse<?> response, Path destinationPath, Tags tags) throws IOException {
+        if (response.headers() == null) {
+            return;
+        }
+        var wireSize = Files.size(destinationPath);
+        var contentEncoding = header(response, "Content-Encoding");
+        var decodedFile = destinationPath.resolveSibling(destinationPath.getFileName() + ".decoding");
+        try (var decoder = ContentDecoder.forContentEncoding(contentEncoding).orElse(null)) {
+            if (decoder == null) {
+                recordTransfer(tags, wireSize, wireSize);
+                return;
+            }
+            try (var in = Files.newInputStream(destinationPath); var out = Files.newOutputStream(decodedFile)) {
+                var buffer = new byte[64 * 1024];
+                int read;
+                while ((read = in.read(buffer)) != -1) {
+                    out.write(decoder.decode(buffer, 0, read));
+                }
+                decoder.finish();
+            }
+            Files.move(decodedFile, destinationPath, StandardCopyOption.REPLACE_EXISTING);
+            var decodedSize = Files.size(destinationPath);
+            recordTransfer(tags, wireSize, decodedSize);
+            log.debug("Decoded {} content of {}: {} bytes on the wire, {} bytes decoded",
+                    contentEncoding, destinationPath, wireSize, decodedSize);
+        } catch (IOException e) {
+            Files.deleteIfExists(decodedFile);
+            cleanupFailedDownload(destinationPath);
+            throw new DownloadException("Could not decode %s content of %s".formatted(contentEncoding, destinationPath), e);
+        }
+    }
+
+    private <T> HttpResponse.BodyHandler<T> decoding(HttpResponse.BodyHandler<T> bodyHandler, Tags tags) {
+        return properties.getCompression().isEnabled() || metrics != null
+                ? new DecodingBodyHandler<>(bodyHandler, (wire, decoded) -> recordTransfer(tags, wire, decoded))
+                : bodyHandler;
+    }
+
+    private <T> HttpResponse.BodyHandler<T> timeToFirstByte(HttpResponse.BodyHandler<T> bodyHandler, Tags tags,
+                                                            long startedNanos) {
+        return metrics != null ? metrics.timeToFirstByte(bodyHandler, tags, startedNanos) : bodyHandler;
+    }
+
+    private void recordTransfer(Tags tags, long wireBytes, long decodedBytes) {
+        statistics.recordTransfer(wireBytes, decodedBytes);
+        if (metrics != null) {
+            metrics.recordTransfer(tags, wireBytes, decodedBytes);
+        }
+    }
+
+    private Tags metricTags(URL url) {
+        return metrics != null ? metrics.tagsFor(url) : Tags.empty();
+    }
+
+    private long expectedLength(HttpResponse<?> response) {
+        if (response.statusCode() == PARTIAL_CONTENT) {
+            return ContentRange.parse(header(response, "Content-Range")).map(ContentRange::total).orElse(-1L);
+        }
+        var encoding = response.headers().firstValue("Content-Encoding").orElse("identity");
+        if (!encoding.equalsIgnoreCase("identity")) {
+            return -1;
+        }
+        return response.headers().firstValueAsLong("Content-Length").orElse(-1L);
+    }
+
+    private static String header(HttpResponse<?> response, String name) {
+        return response.headers() == null ? null : response.headers().firstValue(name).orElse(null);
+    }
+
+    @FunctionalInterface
+    private interface AttemptRequest {
+        HttpRequest create(int attempt) throws IOException;
+    }
+
+    /**
+     * Writes a (possibly partial) response body into a file, appending when the server honours a resume
+     * Range request and leaving already written bytes untouched on error responses.
+     */
+    private static final class ResumableFileBodyHandler implements HttpResponse.BodyHandler<Path> {
+        private final Path file;
+        private volatile long offset;
+        private volatile String validator;
+        private volatile boolean transferStarted;
+        private volatile boolean rangeMismatch;
+
+        private ResumableFileBodyHandler(Path file) {
+            this.file = file;
+        }
+
+        void prepare(long offset) {
+            this.offset = offset;
+            this.transferStarted = false;
+            this.rangeMismatch = false;
+        }
+
+        long resumeOffset() throws IOException {
+            return validator != null && Files.exists(file) ? Files.size(file) : 0;
+        }
+
+        String validator() {
+            return validator;
+        }
+
+        boolean isTransferStarted() {
+            return transferStarted;
+        }
+
+        boolean isRangeMismatch() {
+            return rangeMismatch;
+        }
+
+        @Override
+        public HttpResponse.BodySubscriber<Path> apply(HttpResponse.ResponseInfo responseInfo) {
+            var status = responseInfo.statusCode();
+            if (status == PARTIAL_CONTENT) {
+                var contentRange = ContentRange.parse(responseInfo.headers().firstValue("Content-Range").orElse(null));
+                if (contentRange.isEmpty() || contentRange.get().start() != offset) {
+                    rangeMismatch = true;
+                    return HttpResponse.BodySubscribers.replacing(file);
+                }
+                if (offset == 0) {
+                    validator = strongValidator(responseInfo.headers());
+                }
+                transferStarted = true;
+                return offset > 0
+                        ? HttpResponse.BodySubscribers.ofFile(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.APPEND)
+                        : HttpResponse.BodySubscribers.ofFile(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                                StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            if (HttpStatus.isSuccess(status)) {
+                validator = strongValidator(responseInfo.headers());
+                transferStarted = true;
+                return HttpResponse.BodySubscribers.ofFile(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                        StandardOpenOption.TRUNCATE_EXISTING);
+            }
+            return HttpResponse.BodySubscribers.replacing(file);
+        }
+
+        /**
+         * If-Range only accepts a strong ETag or a Last-Modified date.
+         */
+        private static String strongValidator(HttpHeaders headers) {
+            var etag = headers.firstValue("ETag").filter(value -> !value.startsWith("W/"));
+            return etag.or(() -> headers.firstValue("Last-Modified")).orElse(null);
+        }
+    }
+
+    private Resource handleMemoryResponse(HttpResponse<byte[]> response, URI uri, URL url, HttpMethod method,
+                                          Optional<HttpValidatorCache.Entry> cached) throws IOException {
+        if (response.statusCode() == NOT_MODIFIED && cached.isPresent()) {
+            validatorCache.recordHit(uri);
+            return new ByteArrayResource(cached.get().readBody());
+        }
+        validateResponse(response, url, null);
+
+        var body = response.body();
+        logSuccessfulDownload(url, body);
+
+        if (body == null) {
+            throw new DownloadException("Download successful (status %d) but response body was null for URL: %s"
+                    .formatted(response.statusCode(), url));
+        }
+        if (isCacheable(method)) {
+            validatorCache.recordMiss(uri);
+            validatorCache.store(uri, response.headers(), body);
+        }
+        return new ByteArrayResource(body);
+    }
+
+    private void handleFileResponse(HttpResponse<Path> response, URI uri, URL url, HttpMethod method,
+                                    Optional<HttpValidatorCache.Entry> cached, Path destinationPath, Tags tags)
+            throws IOException {
+        if (response.statusCode() == NOT_MODIFIED && cached.isPresent()) {
+            validatorCache.recordHit(uri);
+            Files.copy(cached.get().bodyFile(), destinationPath, StandardCopyOption.REPLACE_EXISTING);
+            return;
+        }
+        validateResponse(response, url, destinationPath);
+        verifyIntegrity(response, destinationPath);
+        decodeContent(response, destinationPath, tags);
+        log.info("Successfully downloaded file to: {}", response.body());
+        if (isCacheable(method)) {
+            validatorCache.recordMiss(uri);
+            validatorCache.store(uri, response.headers(), destinationPath);
+        }
+    }
+
+    private DownloadException asDownloadException(String message, Throwable error) {
+        var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (cause instanceof DownloadException downloadException) {
+            return downloadException;
+        }
+        if (cause instanceof IOException ioException) {
+            return createDownloadException(message, ioException);
+        }
+        return new DownloadException(message, cause);
+    }
+
+    private boolean isCacheable(HttpMethod method) {
+        return method == HttpMethod.GET && validatorCache.isEnabled();
+    }
+
+    private Optional<HttpValidatorCache.Entry> lookupCache(HttpRequest request, HttpMethod method) {
+        return isCacheable(method) ? validatorCache.lookup(request.uri()) : Optional.empty();
+    }
+
     protected HttpRequest createHttpRequest(URL url, Duration timeout) throws DownloadException {
         return createHttpRequest(url, HttpMethod.GET, null, timeout);
     }
@@ -127,6 +769,9 @@ public class HttpClientFileDownloadService implements FileDownloadService {
                 // Default to GET
                 requestBuilder.GET();
             }
+            if (properties.getCompression().isEnabled()) {
+                requestBuilder.header("Accept-Encoding", "gzip, deflate");
+            }
             
             return requestBuilder.build();
         } catch (URISyntaxException e) {
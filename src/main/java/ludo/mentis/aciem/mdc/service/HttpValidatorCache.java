@@ -0,0 +1,190 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.HttpClientProperties;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Optional;
+import java.util.Properties;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * On-disk cache of HTTP validators (ETag / Last-Modified) and the response body they belong to.
+ * Used by {@link HttpClientFileDownloadService} to turn repeated GET downloads of an unchanged file
+ * into conditional requests that the server can answer with 304 Not Modified.
+ */
+@Component
+public class HttpValidatorCache {
+    private static final Logger log = LoggerFactory.getLogger(HttpValidatorCache.class);
+    private static final String BODY_SUFFIX = ".body";
+    private static final String META_SUFFIX = ".meta";
+    private static final String ETAG = "ETag";
+    private static final String LAST_MODIFIED = "Last-Modified";
+
+    private final boolean enabled;
+    private final Path cacheDirectory;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    public HttpValidatorCache(HttpClientProperties properties) {
+        var cacheProperties = properties.getCache();
+        this.enabled = cacheProperties.isEnabled();
+        this.cacheDirectory = Path.of(cacheProperties.getDirectory()).toAbsolutePath().normalize();
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Looks up the cached validators for the given URI.
+     *
+     * @param uri The request URI, including any query string
+     * @return The cache entry, or empty if the URI was never cached or its body is missing
+     */
+    public Optional<Entry> lookup(URI uri) {
+        if (!enabled) {
+            return Optional.empty();
+        }
+        var key = keyFor(uri);
+        var metaFile = cacheDirectory.resolve(key + META_SUFFIX);
+        var bodyFile = cacheDirectory.resolve(key + BODY_SUFFIX);
+        if (!Files.isRegularFile(metaFile) || !Files.isRegularFile(bodyFile)) {
+            return Optional.empty();
+        }
+        try (InputStream in = Files.newInputStream(metaFile)) {
+            var meta = new Properties();
+            meta.load(in);
+            var entry = new Entry(meta.getProperty(ETAG), meta.getProperty(LAST_MODIFIED), bodyFile);
+            return entry.hasValidators() ? Optional.of(entry) : Optional.empty();
+        } catch (IOException e) {
+            log.warn("Could not read cache entry for {}: {}", uri, e.getMessage());
+            return Optional.empty();
+        }
+    }
+
+    /**
+     * Returns a copy of the request carrying If-None-Match / If-Modified-Since for the given entry.
+     */
+    public HttpRequest withValidators(HttpRequest request, Entry entry) {
+        var builder = HttpRequest.newBuilder(request, (name, value) -> true);
+        if (entry.etag() != null) {
+            builder.header("If-None-Match", entry.etag());
+        }
+        if (entry.lastModified() != null) {
+            builder.header("If-Modified-Since", entry.lastModified());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Stores an in-memory response body together with its validators.
+     * Responses without ETag or Last-Modified are not cacheable and are ignored.
+     */
+    public void store(URI uri, HttpHeaders headers, byte[] body) {
+        store(uri, headers, target -> Files.write(target, body));
+    }
+
+    /**
+     * Stores a response body that was downloaded to a file together with its validators.
+     */
+    public void store(URI uri, HttpHeaders headers, Path downloadedFile) {
+        store(uri, headers, target -> Files.copy(downloadedFile, target, StandardCopyOption.REPLACE_EXISTING));
+    }
+
+    public void recordHit(URI uri) {
+        var total = hits.incrementAndGet();
+        log.info("HTTP cache hit (304 Not Modified) for {}. Hits: {}, misses: {}", uri, total, misses.get());
+    }
+
+    public void recordMiss(URI uri) {
+        var total = misses.incrementAndGet();
+        log.debug("HTTP cache miss for {}. Hits: {}, misses: {}", uri, hits.get(), total);
+    }
+
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    private void store(URI uri, HttpHeaders headers, BodyWriter bodyWriter) {
+        if (!enabled || headers == null) {
+            return;
+        }
+        var etag = headers.firstValue(ETAG).orElse(null);
+        var lastModified = headers.firstValue(LAST_MODIFIED).orElse(null);
+        if (etag == null && lastModified == null) {
+            return;
+        }
+
+        var key = keyFor(uri);
+        try {
+            Files.createDirectories(cacheDirectory);
+            var bodyTemp = Files.createTempFile(cacheDirectory, key, BODY_SUFFIX + ".tmp");
+            bodyWriter.write(bodyTemp);
+            Files.move(bodyTemp, cacheDirectory.resolve(key + BODY_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+
+            var meta = new Properties();
+            meta.setProperty("url", uri.toString());
+            if (etag != null) {
+                meta.setProperty(ETAG, etag);
+            }
+            if (lastModified != null) {
+                meta.setProperty(LAST_MODIFIED, lastModified);
+            }
+            var metaTemp = Files.createTempFile(cacheDirectory, key, META_SUFFIX + ".tmp");
+            try (OutputStream out = Files.newOutputStream(metaTemp)) {
+                meta.store(out, null);
+            }
+            Files.move(metaTemp, cacheDirectory.resolve(key + META_SUFFIX), StandardCopyOption.REPLACE_EXISTING);
+            log.debug("Cached response validators for {}", uri);
+        } catch (IOException e) {
+            log.warn("Could not cache response for {}: {}", uri, e.getMessage());
+        }
+    }
+
+    private static String keyFor(URI uri) {
+        try {
+            var digest = MessageDigest.getInstance("SHA-256").digest(uri.toString().getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface BodyWriter {
+        void write(Path target) throws IOException;
+    }
+
+    /**
+     * Validators and body location of a cached response.
+     */
+    public record Entry(String etag, String lastModified, Path bodyFile) {
+
+        boolean hasValidators() {
+            return etag != null || lastModified != null;
+        }
+
+        public byte[] readBody() throws IOException {
+            return Files.readAllBytes(bodyFile);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ludo.mentis.aciem.mdc.service;
+
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.Resource;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * Service interface for spooling downloaded payloads to disk, so that only a small handle
+ * needs to travel through the job execution context between the download and processing steps.
+ */
+public interface PayloadSpool {
+
+    /**
+     * Whether payloads should be spooled to disk. When false, callers keep the payload in memory.
+     *
+     * @return true if spooling is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Allocates a new, empty spool file for the given source.
+     *
+     * @param source The source name (usually the job name), used as the spool file prefix
+     * @return The path of the allocated spool file
+     * @throws IOException If the spool file cannot be created
+     */
+    Path allocate(String source) throws IOException;
+
+    /**
+     * Returns the handle that identifies the given spool file in the execution context.
+     *
+     * @param spoolFile A path previously returned by {@link #allocate(String)}
+     * @return The handle for the spool file
+     */
+    String toHandle(Path spoolFile);
+
+    /**
+     * Opens a spooled payload as a Resource that can be streamed by readers.
+     *
+     * @param handle The handle returned by {@link #toHandle(Path)}
+     * @return The spooled payload as a Resource
+     * @throws IllegalArgumentException if the handle does not point to an existing spool file
+     */
+    Resource open(String handle);
+
+    /**
+     * Deletes a spooled payload. Unknown or already released handles are ignored.
+     *
+     * @param handle The handle returned by {@link #toHandle(Path)}
+     */
+    void release(String handle);
+
+    /**
+     * Resolves the payload of a download step, preferring the spool handle and falling back to
+     * the in-memory content when the payload was not spooled.
+     *
+     * @param handle The spool handle, or null if the payload was kept in memory
+     * @param fileContent The in-memory payload, used only when the handle is null
+     * @return The payload as a Resource
+     * @throws IllegalArgumentException if neither a handle nor the content is available
+     */
+    default Resource resolve(String handle, byte[] fileContent) {
+        return handle != null ? open(handle) : new ByteArrayResource(fileContent);
+    }
+}
@@ -0,0 +1,127 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.PublicationPollProperties;
+import ludo.mentis.aciem.mdc.exception.HolidaysNotAvailableException;
+import ludo.mentis.aciem.mdc.model.PublicationStatus;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Waits for the file of a reference date to be published before it is downloaded, so a run started
+ * before the source publishes does not fail on a missing or empty file.
+ * <p>
+ * The file URL is probed with {@link FileDownloadService#probe(URL)}, which costs a HEAD request. The wait
+ * between probes starts short, to get the file soon after it appears, and grows exponentially with jitter
+ * to send few requests when the publication is late. Only files of the current business day (or later)
+ * are awaited: past files are either there or never will be, and nothing is published on holidays.
+ */
+@Service
+public class PublicationPoller {
+
+    private static final Logger log = LoggerFactory.getLogger(PublicationPoller.class);
+
+    private final FileDownloadService fileDownloadService;
+    private final HolidayManager holidayManager;
+    private final PublicationPollProperties properties;
+    private final DoubleSupplier random;
+    private final Clock clock;
+
+    @Autowired
+    public PublicationPoller(FileDownloadService fileDownloadService, HolidayManager holidayManager,
+                             PublicationPollProperties properties) {
+        this(fileDownloadService, holidayManager, properties, () -> ThreadLocalRandom.current().nextDouble(),
+                Clock.systemDefaultZone());
+    }
+
+    PublicationPoller(FileDownloadService fileDownloadService, HolidayManager holidayManager,
+                      PublicationPollProperties properties, DoubleSupplier random, Clock clock) {
+        this.fileDownloadService = fileDownloadService;
+        this.holidayManager = holidayManager;
+        this.properties = properties;
+        this.random = random;
+        this.clock = clock;
+    }
+
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+
+    /**
+     * Probes the file URL until the file is published, the probe cannot tell, or the deadline passes.
+     *
+     * @param url The URL of the file
+     * @param referenceDate The date the file is published for
+     * @return true if the file was found published, false if it was not awaited or the wait ended without it
+     * @throws InterruptedException If the wait is interrupted
+     */
+    public boolean awaitPublication(URL url, LocalDate referenceDate) throws InterruptedException {
+        if (!isAwaited(referenceDate)) {
+            return false;
+        }
+        var deadline = clock.instant().plus(Duration.ofMinutes(properties.getDeadlineMinutes()));
+        var interval = Duration.ofSeconds(properties.getInitialIntervalSeconds());
+        for (var probe = 1; ; probe++) {
+            var status = fileDownloadService.probe(url);
+            if (status == PublicationStatus.PUBLISHED) {
+                if (probe > 1) {
+                    log.info("{} published, found after {} probes", url, probe);
+                }
+                return true;
+            }
+            if (status == PublicationStatus.UNKNOWN) {
+                log.info("Cannot tell whether {} is published, downloading it", url);
+                return false;
+            }
+            var remaining = Duration.between(clock.instant(), deadline);
+            if (remaining.isNegative() || remaining.isZero()) {
+                log.warn("{} not published after {} probes in {} minutes, downloading it anyway",
+                        url, probe, properties.getDeadlineMinutes());
+                return false;
+            }
+            var wait = jittered(interval);
+            wait = wait.compareTo(remaining) < 0 ? wait : remaining;
+            log.info("{} not published yet (probe {}), probing again in {} s", url, probe, wait.toSeconds());
+            sleep(wait);
+            interval = next(interval);
+        }
+    }
+
+    private boolean isAwaited(LocalDate referenceDate) {
+        if (!properties.isEnabled() || referenceDate == null || referenceDate.isBefore(LocalDate.now(clock))) {
+            return false;
+        }
+        try {
+            return !holidayManager.businessDaysBetween(referenceDate, referenceDate, properties.getCountryCode())
+                    .isEmpty();
+        } catch (HolidaysNotAvailableException e) {
+            log.warn("Cannot tell whether {} is a business day, not awaiting publication: {}", referenceDate,
+                    e.getMessage());
+            return false;
+        }
+    }
+
+    private Duration jittered(Duration interval) {
+        return Duration.ofMillis(Math.round(interval.toMillis() * (1.0 - properties.getJitter() * random.getAsDouble())));
+    }
+
+    private Duration next(Duration interval) {
+        var grown = Math.round(interval.toMillis() * properties.getMultiplier());
+        return Duration.ofMillis(Math.min(grown, Duration.ofSeconds(properties.getMaxIntervalSeconds()).toMillis()));
+    }
+
+    /**
+     * Waits before the next probe.
+     */
+    protected void sleep(Duration delay) throws InterruptedException {
+        Thread.sleep(delay.toMillis());
+    }
+}
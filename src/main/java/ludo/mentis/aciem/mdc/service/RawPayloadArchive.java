@@ -0,0 +1,77 @@
+package ludo.mentis.aciem.mdc.service;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Optional;
+
+/**
+ * Service interface for keeping the raw payloads fetched by the download steps in a local,
+ * content-addressed store. Identical payloads are stored once, and every payload is indexed by
+ * source and reference date so that a past date can be reprocessed without hitting the network.
+ */
+public interface RawPayloadArchive {
+
+    /**
+     * Whether downloaded payloads should be archived.
+     *
+     * @return true if archiving is enabled
+     */
+    boolean isEnabled();
+
+    /**
+     * Whether download steps should take archived payloads instead of downloading them again.
+     *
+     * @return true if replay is enabled
+     */
+    boolean isReplayEnabled();
+
+    /**
+     * Archives a payload that was downloaded to a file.
+     *
+     * @param source The source name (usually the job name)
+     * @param referenceDate The reference date the payload belongs to
+     * @param payload The downloaded file
+     * @return The SHA-256 digest (hex) that identifies the archived payload
+     * @throws IOException If the payload cannot be read or stored
+     */
+    String archive(String source, LocalDate referenceDate, Path payload) throws IOException;
+
+    /**
+     * Archives a payload that was downloaded to memory.
+     *
+     * @param source The source name (usually the job name)
+     * @param referenceDate The reference date the payload belongs to
+     * @param payload The downloaded content
+     * @return The SHA-256 digest (hex) that identifies the archived payload
+     * @throws IOException If the payload cannot be stored
+     */
+    String archive(String source, LocalDate referenceDate, byte[] payload) throws IOException;
+
+    /**
+     * Finds the digest of the latest payload archived for a source and reference date.
+     *
+     * @param source The source name
+     * @param referenceDate The reference date
+     * @return The digest, or empty if nothing was archived
+     */
+    Optional<String> find(String source, LocalDate referenceDate);
+
+    /**
+     * Decompresses an archived payload into the given file.
+     *
+     * @param digest The digest returned by {@link #archive} or {@link #find}
+     * @param target The file to write
+     * @throws IOException If the payload is missing or cannot be written
+     */
+    void restore(String digest, Path target) throws IOException;
+
+    /**
+     * Reads an archived payload into memory.
+     *
+     * @param digest The digest returned by {@link #archive} or {@link #find}
+     * @return The decompressed payload
+     * @throws IOException If the payload is missing or cannot be read
+     */
+    byte[] read(String digest) throws IOException;
+}
@@ -0,0 +1,114 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.exception.DownloadException;
+
+import java.io.IOException;
+import java.net.http.HttpHeaders;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Checksum of a whole representation announced by the server, used to verify a downloaded file.
+ * Supports {@code Repr-Digest} (RFC 9530), {@code Digest} (RFC 3230) and, for complete 200 responses,
+ * {@code Content-MD5}. The strongest supported algorithm is preferred.
+ */
+final class RepresentationDigest {
+
+    private static final Map<String, String> ALGORITHMS = Map.of(
+            "sha-512", "SHA-512",
+            "sha-256", "SHA-256",
+            "md5", "MD5");
+    private static final String[] PREFERENCE = {"sha-512", "sha-256", "md5"};
+
+    private final String algorithm;
+    private final byte[] expected;
+
+    private RepresentationDigest(String algorithm, byte[] expected) {
+        this.algorithm = algorithm;
+        this.expected = expected;
+    }
+
+    /**
+     * Extracts the representation digest from response headers.
+     *
+     * @param headers The response headers, may be null
+     * @param completeResponse Whether the headers belong to a 200 response, where Content-MD5 covers the whole body
+     * @return The digest, or empty if the server did not announce a supported one
+     */
+    static Optional<RepresentationDigest> fromHeaders(HttpHeaders headers, boolean completeResponse) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+        var digest = headers.firstValue("Repr-Digest").flatMap(RepresentationDigest::parse);
+        if (digest.isEmpty()) {
+            digest = headers.firstValue("Digest").flatMap(RepresentationDigest::parse);
+        }
+        if (digest.isEmpty() && completeResponse) {
+            digest = headers.firstValue("Content-MD5").flatMap(value -> decode("md5", value));
+        }
+        return digest;
+    }
+
+    private static Optional<RepresentationDigest> parse(String header) {
+        for (var preferred : PREFERENCE) {
+            for (var member : header.split(",")) {
+                var separator = member.indexOf('=');
+                if (separator <= 0) {
+                    continue;
+                }
+                var name = member.substring(0, separator).trim().toLowerCase(Locale.ROOT);
+                if (name.equals(preferred)) {
+                    // RFC 9530 wraps the value in colons (byte sequence), RFC 3230 does not
+                    var value = member.substring(separator + 1).trim().replace(":", "");
+                    var digest = decode(name, value);
+                    if (digest.isPresent()) {
+                        return digest;
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    private static Optional<RepresentationDigest> decode(String name, String base64) {
+        try {
+            return Optional.of(new RepresentationDigest(ALGORITHMS.get(name), Base64.getDecoder().decode(base64.trim())));
+        } catch (IllegalArgumentException e) {
+            return Optional.empty();
+        }
+    }
+
+    String algorithm() {
+        return algorithm;
+    }
+
+    /**
+     * Verifies the file against the announced digest.
+     *
+     * @throws DownloadException If the file does not match
+     */
+    void verify(Path file) throws IOException {
+        MessageDigest messageDigest;
+        try {
+            messageDigest = MessageDigest.getInstance(algorithm);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(algorithm + " not available", e);
+        }
+        try (var in = Files.newInputStream(file)) {
+            var buffer = new byte[64 * 1024];
+            int read;
+            while ((read = in.read(buffer)) != -1) {
+                messageDigest.update(buffer, 0, read);
+            }
+        }
+        if (!MessageDigest.isEqual(expected, messageDigest.digest())) {
+            throw new DownloadException("%s checksum mismatch for downloaded file %s".formatted(algorithm, file));
+        }
+    }
+}
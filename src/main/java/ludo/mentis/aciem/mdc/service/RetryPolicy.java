@@ -0,0 +1,93 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.HttpClientProperties.RetryProperties;
+
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.DoubleSupplier;
+
+/**
+ * Decides whether a failed download attempt is retried and how long to wait before the next one.
+ * Statuses and exceptions are classified according to {@link RetryProperties}; waits grow
+ * exponentially with jitter, and a {@code Retry-After} header sent by the server takes precedence.
+ */
+public class RetryPolicy {
+
+    private final RetryProperties properties;
+    private final DoubleSupplier random;
+    private final Clock clock;
+
+    public RetryPolicy(RetryProperties properties) {
+        this(properties, () -> ThreadLocalRandom.current().nextDouble(), Clock.systemUTC());
+    }
+
+    RetryPolicy(RetryProperties properties, DoubleSupplier random, Clock clock) {
+        this.properties = properties;
+        this.random = random;
+        this.clock = clock;
+    }
+
+    public int getMaxAttempts() {
+        return properties.getMaxAttempts();
+    }
+
+    public Duration getDeadline() {
+        return Duration.ofSeconds(properties.getDeadlineSeconds());
+    }
+
+    public boolean isRetryableStatus(int statusCode) {
+        return properties.getRetryableStatuses().contains(statusCode);
+    }
+
+    public boolean isRetryable(Throwable error) {
+        var cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return properties.getRetryableExceptions().stream().anyMatch(type -> type.isInstance(cause));
+    }
+
+    /**
+     * Computes the wait before the next attempt.
+     *
+     * @param attempt The attempt that just failed, starting at 1
+     * @param headers The headers of the failed response, or null if the attempt failed with an exception
+     * @return The wait before the next attempt
+     */
+    public Duration backoff(int attempt, HttpHeaders headers) {
+        return retryAfter(headers).orElseGet(() -> exponentialBackoff(attempt));
+    }
+
+    private Duration exponentialBackoff(int attempt) {
+        var backoff = properties.getInitialBackoffMillis() * Math.pow(properties.getMultiplier(), attempt - 1.0);
+        var capped = Math.min(backoff, properties.getMaxBackoffMillis());
+        var jittered = capped * (1.0 - properties.getJitter() * random.getAsDouble());
+        return Duration.ofMillis(Math.round(jittered));
+    }
+
+    private Optional<Duration> retryAfter(HttpHeaders headers) {
+        if (headers == null) {
+            return Optional.empty();
+        }
+        return headers.firstValue("Retry-After").map(String::trim).flatMap(this::parseRetryAfter);
+    }
+
+    private Optional<Duration> parseRetryAfter(String value) {
+        try {
+            return Optional.of(Duration.ofSeconds(Math.max(0, Long.parseLong(value))));
+        } catch (NumberFormatException e) {
+            // Not delta-seconds, try HTTP-date
+        }
+        try {
+            var retryAt = ZonedDateTime.parse(value, DateTimeFormatter.RFC_1123_DATE_TIME).toInstant();
+            var wait = Duration.between(clock.instant(), retryAt);
+            return Optional.of(wait.isNegative() ? Duration.ZERO : wait);
+        } catch (DateTimeParseException e) {
+            return Optional.empty();
+        }
+    }
+}
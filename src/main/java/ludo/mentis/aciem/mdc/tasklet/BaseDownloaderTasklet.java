@@ -2,18 +2,28 @@ package ludo.mentis.aciem.mdc.tasklet;
 
 import ludo.mentis.aciem.mdc.model.HttpMethod;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.PublicationPoller;
+import ludo.mentis.aciem.mdc.service.RawPayloadArchive;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.batch.core.StepContribution;
 import org.springframework.batch.core.scope.context.ChunkContext;
 import org.springframework.batch.core.step.tasklet.Tasklet;
+import org.springframework.batch.item.ExecutionContext;
 import org.springframework.batch.repeat.RepeatStatus;
 import org.springframework.lang.NonNull;
 import org.springframework.core.io.Resource;
 
+import java.io.IOException;
 import java.net.MalformedURLException;
 import java.net.URL;
+import java.nio.file.Files;
 import java.time.LocalDate;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 
 /**
  * Base abstract class for all downloader tasklets.
@@ -21,8 +31,23 @@ import java.util.Map;
  */
 public abstract class BaseDownloaderTasklet implements Tasklet {
 
+    /**
+     * Job context key holding the downloaded payload when it is kept in memory.
+     */
+    public static final String FILE_CONTENT_KEY = "fileContent";
+
+    /**
+     * Job context key holding the spool handle when the payload is spooled to disk.
+     */
+    public static final String PAYLOAD_HANDLE_KEY = "payloadHandle";
+
+    private static final Logger log = LoggerFactory.getLogger(BaseDownloaderTasklet.class);
+
     protected final FileDownloadService fileDownloadService;
     protected final LocalDate referenceDate;
+    private PayloadSpool payloadSpool;
+    private RawPayloadArchive rawPayloadArchive;
+    private PublicationPoller publicationPoller;
 
     /**
      * Constructor for tasklets that require a reference date.
@@ -45,14 +70,67 @@ public abstract class BaseDownloaderTasklet implements Tasklet {
         this.referenceDate = null;
     }
 
+    /**
+     * Enables the payload-handle mode: the payload is downloaded straight into a spool file and only
+     * its handle is put in the job context. Without a spool (or with spooling disabled) the whole
+     * payload is kept in the job context as a byte array.
+     *
+     * @param payloadSpool The spool used to store downloaded payloads
+     */
+    public void setPayloadSpool(PayloadSpool payloadSpool) {
+        this.payloadSpool = payloadSpool;
+    }
+
+    /**
+     * Enables archiving of the raw payload. When the archive has replay enabled and already holds a
+     * payload for the same source and reference date, it is used instead of downloading again.
+     *
+     * @param rawPayloadArchive The archive used to store and replay raw payloads
+     */
+    public void setRawPayloadArchive(RawPayloadArchive rawPayloadArchive) {
+        this.rawPayloadArchive = rawPayloadArchive;
+    }
+
+    /**
+     * Enables waiting for the publication of the file of the reference date before downloading it.
+     * Only GET downloads of a file for a reference date are awaited.
+     *
+     * @param publicationPoller The poller probing the file URL until the file is published
+     */
+    public void setPublicationPoller(PublicationPoller publicationPoller) {
+        this.publicationPoller = publicationPoller;
+    }
+
     @Override
     public RepeatStatus execute(@NonNull StepContribution contribution, @NonNull ChunkContext chunkContext) 
             throws Exception {
-        var jobContext = contribution.getStepExecution()
-                .getJobExecution()
-                .getExecutionContext();
+        var jobExecution = contribution.getStepExecution().getJobExecution();
+        var jobContext = jobExecution.getExecutionContext();
+
+        var source = jobExecution.getJobInstance().getJobName();
+        jobContext.putString(MetricTags.SOURCE_CONTEXT_KEY, MetricTags.sourceOf(getFileUrl()));
+
+        if (payloadSpool != null && payloadSpool.isEnabled()) {
+            var handle = downloadToSpool(source);
+            jobContext.put(PAYLOAD_HANDLE_KEY, handle);
+        } else {
+            jobContext.put(FILE_CONTENT_KEY, downloadToMemory(source));
+        }
+
+        // Put optional data in a job context
+        putAdditionalDataInContext(jobContext);
+
+        return RepeatStatus.FINISHED;
+    }
+
+    private byte[] downloadToMemory(String source) throws Exception {
+        var archived = findArchivedPayload(source);
+        if (archived.isPresent()) {
+            return rawPayloadArchive.read(archived.get());
+        }
 
         URL fileUrl = getFileUrl();
+        awaitPublication(fileUrl);
         Resource fileResource;
 
         if (usePostMethod()) {
@@ -69,14 +147,88 @@ public abstract class BaseDownloaderTasklet implements Tasklet {
         if (fileContent.length == 0) {
             throw new IllegalStateException(getFileEmptyErrorMessage());
         }
+        if (isArchiving()) {
+            archiveQuietly(source, () -> rawPayloadArchive.archive(source, archiveDate(), fileContent));
+        }
+        return fileContent;
+    }
 
-        // Put common data in a job context
-        jobContext.put("fileContent", fileContent);
+    private String downloadToSpool(String source) throws Exception {
+        URL fileUrl = getFileUrl();
+        var spoolFile = payloadSpool.allocate(source);
+        var handle = payloadSpool.toHandle(spoolFile);
+        try {
+            var archived = findArchivedPayload(source);
+            if (archived.isPresent()) {
+                rawPayloadArchive.restore(archived.get(), spoolFile);
+                return handle;
+            }
+            awaitPublication(fileUrl);
+            if (usePostMethod()) {
+                fileDownloadService.downloadFile(fileUrl, HttpMethod.POST, getRequestParameters(), spoolFile);
+            } else {
+                fileDownloadService.downloadFile(fileUrl, spoolFile);
+            }
+            if (!Files.exists(spoolFile)) {
+                throw new IllegalStateException(getFileNullErrorMessage());
+            }
+            if (Files.size(spoolFile) == 0) {
+                throw new IllegalStateException(getFileEmptyErrorMessage());
+            }
+            if (isArchiving()) {
+                archiveQuietly(source, () -> rawPayloadArchive.archive(source, archiveDate(), spoolFile));
+            }
+            return handle;
+        } catch (Exception e) {
+            payloadSpool.release(handle);
+            throw e;
+        }
+    }
 
-        // Put optional data in a job context
-        putAdditionalDataInContext(jobContext, fileContent);
+    private void awaitPublication(URL fileUrl) throws InterruptedException {
+        if (publicationPoller != null && publicationPoller.isEnabled() && !usePostMethod() && referenceDate != null) {
+            publicationPoller.awaitPublication(fileUrl, referenceDate);
+        }
+    }
 
-        return RepeatStatus.FINISHED;
+    private boolean isArchiving() {
+        return rawPayloadArchive != null && rawPayloadArchive.isEnabled();
+    }
+
+    private Optional<String> findArchivedPayload(String source) {
+        if (rawPayloadArchive == null || !rawPayloadArchive.isReplayEnabled()) {
+            return Optional.empty();
+        }
+        var archived = rawPayloadArchive.find(source, archiveDate());
+        if (archived.isPresent()) {
+            log.info("Replaying archived {} payload {} for {}, skipping download", source, archived.get(), archiveDate());
+        } else {
+            log.info("No archived {} payload for {}, downloading", source, archiveDate());
+        }
+        return archived;
+    }
+
+    /**
+     * Archiving is a side effect of the download: a failure to archive is logged but does not fail the step.
+     */
+    private void archiveQuietly(String source, ArchiveAction action) {
+        try {
+            action.archive();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not archive {} payload for {}: {}", source, archiveDate(), e.getMessage());
+        }
+    }
+
+    /**
+     * Sources without a reference date are archived under the date they were downloaded.
+     */
+    private LocalDate archiveDate() {
+        return referenceDate != null ? referenceDate : LocalDate.now();
+    }
+
+    @FunctionalInterface
+    private interface ArchiveAction {
+        String archive() throws IOException;
     }
 
     /**
@@ -128,9 +280,8 @@ public abstract class BaseDownloaderTasklet implements Tasklet {
      * Default implementation adds referenceDate if it's not null.
      *
      * @param jobContext The job context
-     * @param fileContent The downloaded file content
      */
-    protected void putAdditionalDataInContext(org.springframework.batch.item.ExecutionContext jobContext, byte[] fileContent) {
+    protected void putAdditionalDataInContext(ExecutionContext jobContext) {
         if (referenceDate != null) {
             jobContext.put("referenceDate", referenceDate);
         }
@@ -40,8 +40,8 @@ public class BrazilianBondPricesDownloader extends BaseDownloaderTasklet {
     }
 
     @Override
-    protected void putAdditionalDataInContext(ExecutionContext jobContext, byte[] fileContent) {
-        super.putAdditionalDataInContext(jobContext, fileContent);
+    protected void putAdditionalDataInContext(ExecutionContext jobContext) {
+        super.putAdditionalDataInContext(jobContext);
         String fileName = getFileName();
         jobContext.put("fileName", fileName);
     }
@@ -0,0 +1,141 @@
+package ludo.mentis.aciem.mdc.util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+
+import java.util.Arrays;
+
+/**
+ * Estimates the column widths of a sheet from the longest value written to each column, as an alternative to
+ * {@link Sheet#autoSizeColumn(int)}.
+ * <p>
+ * {@code autoSizeColumn} lays out the text of every cell of the column with AWT font metrics, which is slow and needs
+ * a font subsystem on headless servers. Here the rendered length of each value, in characters, is tracked as the cell
+ * is written, so applying the widths only takes one step per column. Lengths follow the cell's data format: numbers as
+ * Excel's General format shows them (at most 10 significant digits, no trailing zeros) and dates as their pattern
+ * renders them.
+ */
+public class ColumnWidthEstimator {
+
+    /**
+     * Width units per character, as used by {@link Sheet#setColumnWidth(int, int)}.
+     */
+    static final int UNITS_PER_CHARACTER = 256;
+    /**
+     * Characters added to the longest value, for the cell margins.
+     */
+    static final int PADDING = 1;
+    static final int MAX_WIDTH = 255 * UNITS_PER_CHARACTER;
+
+    private static final double SCIENTIFIC_LOWER_BOUND = 1E-10;
+    private static final double SCIENTIFIC_UPPER_BOUND = 1E11;
+    private static final int GENERAL_SIGNIFICANT_DIGITS = 10;
+    private static final int SCIENTIFIC_DECIMALS = 5;
+    private static final long[] POWERS_OF_TEN = new long[GENERAL_SIGNIFICANT_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (var i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private int[] lengths = new int[16];
+
+    /**
+     * Records a value of the given rendered length written to the column.
+     */
+    public void track(int column, int length) {
+        if (column >= lengths.length) {
+            lengths = Arrays.copyOf(lengths, Math.max(column + 1, lengths.length * 2));
+        }
+        if (length > lengths[column]) {
+            lengths[column] = length;
+        }
+    }
+
+    /**
+     * @return The length of the longest value recorded for the column, or 0 if there is none
+     */
+    public int length(int column) {
+        return column < lengths.length ? lengths[column] : 0;
+    }
+
+    /**
+     * Sets the width of the first {@code columnCount} columns of the sheet from the recorded lengths. Columns without
+     * recorded values keep their width.
+     */
+    public void apply(Sheet sheet, int columnCount) {
+        for (var column = 0; column < columnCount; column++) {
+            var length = length(column);
+            if (length > 0) {
+                sheet.setColumnWidth(column, widthOf(length));
+            }
+        }
+    }
+
+    /**
+     * @return The column width, in units of 1/256 of a character, that fits a value of the given length
+     */
+    public static int widthOf(int length) {
+        return Math.min((length + PADDING) * UNITS_PER_CHARACTER, MAX_WIDTH);
+    }
+
+    /**
+     * @return The number of characters of the value in its widest line
+     */
+    public static int lengthOf(String value) {
+        var longest = 0;
+        var lineStart = 0;
+        for (var i = 0; i < value.length(); i++) {
+            if (value.charAt(i) == '\n') {
+                longest = Math.max(longest, i - lineStart);
+                lineStart = i + 1;
+            }
+        }
+        return Math.max(longest, value.length() - lineStart);
+    }
+
+    /**
+     * @return The number of characters of the value as shown with Excel's General number format
+     */
+    public static int generalLengthOf(double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return "#NUM!".length();
+        }
+        var sign = value < 0 ? 1 : 0;
+        var abs = Math.abs(value);
+        if (abs == 0) {
+            return 1;
+        }
+        if (abs < SCIENTIFIC_LOWER_BOUND || abs >= SCIENTIFIC_UPPER_BOUND) {
+            // e.g. 1.23457E+11: the mantissa with at most 5 decimals and an exponent of at least 2 digits
+            var exponent = (int) Math.floor(Math.log10(abs));
+            var mantissa = abs / Math.pow(10, exponent);
+            var exponentDigits = Math.max(2, String.valueOf(Math.abs(exponent)).length());
+            return sign + 1 + decimalsLength(mantissa, SCIENTIFIC_DECIMALS) + 2 + exponentDigits;
+        }
+        var integerDigits = abs < 1 ? 1 : (int) Math.floor(Math.log10(abs)) + 1;
+        var decimals = abs < 1 ? GENERAL_SIGNIFICANT_DIGITS : GENERAL_SIGNIFICANT_DIGITS - integerDigits;
+        return sign + integerDigits + decimalsLength(abs, decimals);
+    }
+
+    /**
+     * @return The length of the decimal point and decimals of a positive value rounded to at most the given number of
+     * decimals, without trailing zeros
+     */
+    private static int decimalsLength(double value, int maxDecimals) {
+        if (maxDecimals <= 0) {
+            return 0;
+        }
+        var scaled = Math.round((value - Math.floor(value)) * POWERS_OF_TEN[maxDecimals]);
+        if (scaled == POWERS_OF_TEN[maxDecimals]) {
+            scaled = 0;
+        }
+        var decimals = maxDecimals;
+        while (decimals > 0 && scaled % 10 == 0) {
+            scaled /= 10;
+            decimals--;
+        }
+        return decimals > 0 ? 1 + decimals : 0;
+    }
+}
@@ -55,4 +55,22 @@ public interface ExcelHelper {
      * @param value  the Number value to set
      */
     void setCellValue(Row row, int column, Number value);
-}
\ No newline at end of file
+
+    /**
+     * Sets the width of the first columns of a sheet to fit the longest value this helper wrote to each of them, as
+     * rendered by the cell's data format, without measuring the cells again.
+     *
+     * @param sheet       the sheet whose columns are sized
+     * @param columnCount the number of columns to size
+     */
+    void autosizeColumns(Sheet sheet, int columnCount);
+
+    /**
+     * Sets the width of the columns of a sheet with a header row to fit the header or the longest value this helper
+     * wrote to the column, whichever is longer.
+     *
+     * @param sheet         the sheet whose columns are sized
+     * @param columnHeaders the headers of the columns, in order
+     */
+    void autosizeColumns(Sheet sheet, String[] columnHeaders);
+}
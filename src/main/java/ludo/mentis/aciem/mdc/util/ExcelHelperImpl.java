@@ -1,24 +1,40 @@
 package ludo.mentis.aciem.mdc.util;
 
 import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
+import org.springframework.beans.factory.config.ConfigurableBeanFactory;
+import org.springframework.context.annotation.Scope;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.Map;
 
 /**
  * Implementation of ExcelHelper interface.
  * Provides utility methods for working with Excel cells and styles.
+ * <p>
+ * Holds the cell styles of the workbook it was initialized with, so each writer gets its own instance;
+ * source jobs running in parallel would otherwise overwrite each other's styles. The length of every value written is
+ * recorded per sheet and column by a {@link ColumnWidthEstimator}, so columns are sized without measuring the cells.
  */
 @Component
+@Scope(ConfigurableBeanFactory.SCOPE_PROTOTYPE)
 public class ExcelHelperImpl implements ExcelHelper {
     private CellStyle dateCellStyle;
     private CellStyle dateTimeCellStyle;
+    private int dateLength;
+    private int dateTimeLength;
+    private final Map<String, ColumnWidthEstimator> estimators = new HashMap<>();
+    private Sheet lastSheet;
+    private ColumnWidthEstimator lastEstimator;
 
     /**
      * {@inheritDoc}
@@ -26,6 +42,18 @@ public class ExcelHelperImpl implements ExcelHelper {
     public void init(Sheet sheet) {
         this.dateCellStyle = createDateCellStyle(sheet.getWorkbook());
         this.dateTimeCellStyle = createDateTimeCellStyle(sheet.getWorkbook());
+        this.dateLength = renderedLength(dateCellStyle);
+        this.dateTimeLength = renderedLength(dateTimeCellStyle);
+    }
+
+    /**
+     * Date patterns have a fixed width, so the length of one rendered date is that of every date in the style.
+     */
+    private static int renderedLength(CellStyle cellStyle) {
+        var sample = DateUtil.getExcelDate(LocalDateTime.of(2000, 12, 31, 23, 59, 59));
+        return new DataFormatter()
+                .formatRawCellContents(sample, cellStyle.getDataFormat(), cellStyle.getDataFormatString())
+                .length();
     }
 
     /**
@@ -62,6 +90,7 @@ public class ExcelHelperImpl implements ExcelHelper {
     public void setCellValue(Row row, int column, String value) {
         if (value != null) {
             row.createCell(column).setCellValue(value);
+            estimator(row.getSheet()).track(column, ColumnWidthEstimator.lengthOf(value));
         }
     }
 
@@ -74,6 +103,7 @@ public class ExcelHelperImpl implements ExcelHelper {
             var cell = row.createCell(column);
             cell.setCellValue(Date.from(value.atStartOfDay(ZoneId.systemDefault()).toInstant()));
             cell.setCellStyle(dateCellStyle);
+            estimator(row.getSheet()).track(column, dateLength);
         }
     }
 
@@ -86,6 +116,7 @@ public class ExcelHelperImpl implements ExcelHelper {
             var cell = row.createCell(column);
             cell.setCellValue(Date.from(value.atZone(ZoneId.systemDefault()).toInstant()));
             cell.setCellStyle(dateTimeCellStyle);
+            estimator(row.getSheet()).track(column, dateTimeLength);
         }
     }
 
@@ -95,9 +126,40 @@ public class ExcelHelperImpl implements ExcelHelper {
     @Override
     public void setCellValue(Row row, int column, Number value) {
         if (value != null) {
-            row.createCell(column).setCellValue(value.doubleValue());
+            var number = value.doubleValue();
+            row.createCell(column).setCellValue(number);
+            estimator(row.getSheet()).track(column, ColumnWidthEstimator.generalLengthOf(number));
         }
     }
 
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void autosizeColumns(Sheet sheet, int columnCount) {
+        estimator(sheet).apply(sheet, columnCount);
+    }
+
+    /**
+     * {@inheritDoc}
+     */
+    @Override
+    public void autosizeColumns(Sheet sheet, String[] columnHeaders) {
+        var estimator = estimator(sheet);
+        for (var column = 0; column < columnHeaders.length; column++) {
+            estimator.track(column, ColumnWidthEstimator.lengthOf(columnHeaders[column]));
+        }
+        estimator.apply(sheet, columnHeaders.length);
+    }
 
+    /**
+     * Estimators are kept by sheet name, which stays the same when a sheet is moved to a streaming workbook.
+     */
+    private ColumnWidthEstimator estimator(Sheet sheet) {
+        if (sheet != lastSheet) {
+            lastEstimator = estimators.computeIfAbsent(sheet.getSheetName(), name -> new ColumnWidthEstimator());
+            lastSheet = sheet;
+        }
+        return lastEstimator;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,77 @@
+package ludo.mentis.aciem.mdc.util;
+
+import io.micrometer.core.instrument.Tags;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.scope.context.StepSynchronizationManager;
+
+import java.net.URL;
+import java.util.Locale;
+
+/**
+ * Common tags of the application metrics. Every meter is tagged with the job that produced it, the id of
+ * the job execution, so that concurrent executions of a job keep their meters apart, and the source (host) its
+ * data came from, all resolved from the step running on the current thread.
+ */
+public final class MetricTags {
+
+    public static final String JOB = "job";
+    public static final String EXECUTION = "execution";
+    public static final String SOURCE = "source";
+    public static final String STEP = "step";
+
+    /**
+     * Job context key holding the host the job downloads from, put by the download step so the
+     * processing steps can tag their metrics with it.
+     */
+    public static final String SOURCE_CONTEXT_KEY = "metricsSource";
+
+    private static final String NONE = "none";
+
+    private MetricTags() {
+    }
+
+    /**
+     * @return Job, execution and source tags of the step running on the current thread
+     */
+    public static Tags current() {
+        return Tags.of(JOB, currentJob(), EXECUTION, currentExecution(), SOURCE, currentSource());
+    }
+
+    /**
+     * @return Job and execution tags of the step running on the current thread, with the URL's host as source
+     */
+    public static Tags forUrl(URL url) {
+        return Tags.of(JOB, currentJob(), EXECUTION, currentExecution(), SOURCE, sourceOf(url));
+    }
+
+    /**
+     * @return Value of the execution tag of the meters of a job execution
+     */
+    public static String executionOf(JobExecution jobExecution) {
+        return String.valueOf(jobExecution.getId());
+    }
+
+    public static String sourceOf(URL url) {
+        return url == null || url.getHost() == null || url.getHost().isEmpty()
+                ? NONE : url.getHost().toLowerCase(Locale.ROOT);
+    }
+
+    private static String currentJob() {
+        var context = StepSynchronizationManager.getContext();
+        return context != null ? context.getJobName() : NONE;
+    }
+
+    private static String currentExecution() {
+        var context = StepSynchronizationManager.getContext();
+        return context != null ? executionOf(context.getStepExecution().getJobExecution()) : NONE;
+    }
+
+    private static String currentSource() {
+        var context = StepSynchronizationManager.getContext();
+        if (context == null) {
+            return NONE;
+        }
+        var source = context.getStepExecution().getJobExecution().getExecutionContext().get(SOURCE_CONTEXT_KEY);
+        return source != null ? source.toString() : NONE;
+    }
+}
@@ -0,0 +1,280 @@
+package ludo.mentis.aciem.mdc.util;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Parses the decimal numbers of the source files straight from their text or bytes, shared by all readers.
+ * <p>
+ * A codec knows one pair of separators: {@link #PT_BR} ({@code 1.234,56}) or {@link #EN_US} ({@code 1,234.56}).
+ * Grouping separators are accepted anywhere in the integer part, an optional exponent ({@code 7.9E-02}) is applied,
+ * and the scale written in the text is kept, so {@code "14,10"} is {@code 14.10}. Blank text and dash placeholders
+ * ({@code -}, {@code --}) have no value. Anything else fails with a {@link NumberFormatException}.
+ * <p>
+ * Numbers with up to 18 significant digits are accumulated in a {@code long}, without intermediate strings or
+ * {@code NumberFormat} instances; longer ones fall back to the {@link BigDecimal} string constructor. Codecs hold
+ * no mutable state and are safe to share between threads.
+ */
+public final class NumberCodec {
+
+    public static final NumberCodec PT_BR = new NumberCodec('.', ',');
+    public static final NumberCodec EN_US = new NumberCodec(',', '.');
+
+    /**
+     * Returned by the scaled parse methods for blank text and dash placeholders.
+     */
+    public static final long NO_VALUE = Long.MIN_VALUE;
+
+    private static final int MAX_LONG_DIGITS = 18;
+    private static final int MAX_EXPONENT_DIGITS = 9;
+    private static final long OVERFLOW = Long.MIN_VALUE;
+    private static final long[] POWERS_OF_TEN = new long[MAX_LONG_DIGITS + 1];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (var i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+    }
+
+    private final char groupingSeparator;
+    private final char decimalSeparator;
+
+    private NumberCodec(char groupingSeparator, char decimalSeparator) {
+        this.groupingSeparator = groupingSeparator;
+        this.decimalSeparator = decimalSeparator;
+    }
+
+    /**
+     * @return The number, or null if the text is null, blank or a dash placeholder
+     * @throws NumberFormatException If the text is not a number
+     */
+    public BigDecimal parse(CharSequence text) {
+        return text == null ? null : decode(text, 0, text.length());
+    }
+
+    /**
+     * @return The number in {@code text[start, end)}, or null if it is blank or a dash placeholder
+     * @throws NumberFormatException If the text is not a number
+     */
+    public BigDecimal parse(CharSequence text, int start, int end) {
+        return decode(text, start, end);
+    }
+
+    /**
+     * Parses ASCII digits and separators.
+     *
+     * @return The number in {@code bytes[start, end)}, or null if it is blank or a dash placeholder
+     * @throws NumberFormatException If the bytes are not a number
+     */
+    public BigDecimal parse(byte[] bytes, int start, int end) {
+        return decode(bytes, start, end);
+    }
+
+    /**
+     * @return The number multiplied by {@code 10^scale} and rounded half up, or {@link #NO_VALUE} if the text is
+     * null, blank or a dash placeholder
+     * @throws NumberFormatException If the text is not a number
+     * @throws ArithmeticException If the scaled number does not fit in a {@code long}
+     */
+    public long parseScaled(CharSequence text, int scale) {
+        return text == null ? NO_VALUE : decodeScaled(text, 0, text.length(), scale);
+    }
+
+    /**
+     * @return The number in {@code bytes[start, end)} multiplied by {@code 10^scale} and rounded half up, or
+     * {@link #NO_VALUE} if it is blank or a dash placeholder
+     * @throws NumberFormatException If the bytes are not a number
+     * @throws ArithmeticException If the scaled number does not fit in a {@code long}
+     */
+    public long parseScaled(byte[] bytes, int start, int end, int scale) {
+        return decodeScaled(bytes, start, end, scale);
+    }
+
+    private BigDecimal decode(Object source, int from, int to) {
+        var start = trimStart(source, from, to);
+        var end = trimEnd(source, start, to);
+        if (isPlaceholder(source, start, end)) {
+            return null;
+        }
+        var unscaled = unscaled(source, start, end);
+        if (unscaled == OVERFLOW) {
+            return new BigDecimal(normalized(source, start, end));
+        }
+        return BigDecimal.valueOf(unscaled, Math.toIntExact(scale(source, start, end)));
+    }
+
+    private long decodeScaled(Object source, int from, int to, int targetScale) {
+        var start = trimStart(source, from, to);
+        var end = trimEnd(source, start, to);
+        if (isPlaceholder(source, start, end)) {
+            return NO_VALUE;
+        }
+        var unscaled = unscaled(source, start, end);
+        if (unscaled == OVERFLOW) {
+            return new BigDecimal(normalized(source, start, end)).movePointRight(targetScale)
+                    .setScale(0, RoundingMode.HALF_UP).longValueExact();
+        }
+        return rescale(unscaled, targetScale - scale(source, start, end));
+    }
+
+    private static long rescale(long unscaled, long shift) {
+        if (unscaled == 0) {
+            return 0;
+        }
+        if (shift >= 0) {
+            if (shift > MAX_LONG_DIGITS) {
+                throw new ArithmeticException("Overflow");
+            }
+            var scaled = Math.multiplyExact(unscaled, POWERS_OF_TEN[(int) shift]);
+            if (scaled == NO_VALUE) {
+                throw new ArithmeticException("Overflow");
+            }
+            return scaled;
+        }
+        if (-shift > MAX_LONG_DIGITS) {
+            return 0;
+        }
+        var divisor = POWERS_OF_TEN[(int) -shift];
+        var quotient = unscaled / divisor;
+        var remainder = Math.abs(unscaled % divisor);
+        return remainder * 2 >= divisor ? quotient + Long.signum(unscaled) : quotient;
+    }
+
+    /**
+     * Validates the number and accumulates its digits.
+     *
+     * @return The signed digits without separators, or {@link #OVERFLOW} if they do not fit in a {@code long}
+     */
+    private long unscaled(Object source, int start, int end) {
+        var i = start;
+        var sign = charAt(source, i);
+        var negative = sign == '-';
+        if (negative || sign == '+') {
+            i++;
+        }
+        long value = 0;
+        var significantDigits = 0;
+        var digits = false;
+        var fraction = false;
+        for (; i < end; i++) {
+            var c = charAt(source, i);
+            if (c >= '0' && c <= '9') {
+                digits = true;
+                if (significantDigits <= MAX_LONG_DIGITS) {
+                    value = value * 10 + (c - '0');
+                    if (value != 0) {
+                        significantDigits++;
+                    }
+                }
+            } else if (c == decimalSeparator && !fraction) {
+                fraction = true;
+            } else if (c == groupingSeparator && !fraction) {
+                // grouping separators carry no value
+            } else if ((c == 'e' || c == 'E') && digits) {
+                exponent(source, start, i + 1, end);
+                break;
+            } else {
+                throw invalid(source, start, end);
+            }
+        }
+        if (!digits) {
+            throw invalid(source, start, end);
+        }
+        if (significantDigits > MAX_LONG_DIGITS) {
+            return OVERFLOW;
+        }
+        return negative ? -value : value;
+    }
+
+    /**
+     * @return The number of fraction digits minus the exponent of a number already validated
+     */
+    private long scale(Object source, int start, int end) {
+        long fractionDigits = 0;
+        var fraction = false;
+        for (var i = start; i < end; i++) {
+            var c = charAt(source, i);
+            if (c == decimalSeparator) {
+                fraction = true;
+            } else if (c == 'e' || c == 'E') {
+                return fractionDigits - exponent(source, start, i + 1, end);
+            } else if (fraction && c >= '0' && c <= '9') {
+                fractionDigits++;
+            }
+        }
+        return fractionDigits;
+    }
+
+    private static int exponent(Object source, int numberStart, int start, int end) {
+        var i = start;
+        var negative = i < end && charAt(source, i) == '-';
+        if (i < end && (negative || charAt(source, i) == '+')) {
+            i++;
+        }
+        if (i == end || end - i > MAX_EXPONENT_DIGITS) {
+            throw invalid(source, numberStart, end);
+        }
+        var value = 0;
+        for (; i < end; i++) {
+            var c = charAt(source, i);
+            if (c < '0' || c > '9') {
+                throw invalid(source, numberStart, end);
+            }
+            value = value * 10 + (c - '0');
+        }
+        return negative ? -value : value;
+    }
+
+    private String normalized(Object source, int start, int end) {
+        var normalized = new StringBuilder(end - start);
+        for (var i = start; i < end; i++) {
+            var c = charAt(source, i);
+            if (c == decimalSeparator) {
+                normalized.append('.');
+            } else if (c != groupingSeparator) {
+                normalized.append(c);
+            }
+        }
+        return normalized.toString();
+    }
+
+    private static boolean isPlaceholder(Object source, int start, int end) {
+        for (var i = start; i < end; i++) {
+            if (charAt(source, i) != '-') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int trimStart(Object source, int start, int end) {
+        while (start < end && isSpace(charAt(source, start))) {
+            start++;
+        }
+        return start;
+    }
+
+    private static int trimEnd(Object source, int start, int end) {
+        while (end > start && isSpace(charAt(source, end - 1))) {
+            end--;
+        }
+        return end;
+    }
+
+    private static boolean isSpace(char c) {
+        return c == '\u00A0' || Character.isWhitespace(c);
+    }
+
+    private static char charAt(Object source, int index) {
+        return source instanceof byte[] bytes ? (char) (bytes[index] & 0xFF) : ((CharSequence) source).charAt(index);
+    }
+
+    private static NumberFormatException invalid(Object source, int start, int end) {
+        var text = source instanceof byte[] bytes
+                ? new String(bytes, start, end - start, StandardCharsets.ISO_8859_1)
+                : ((CharSequence) source).subSequence(start, end).toString();
+        return new NumberFormatException("Invalid number: " + text);
+    }
+}
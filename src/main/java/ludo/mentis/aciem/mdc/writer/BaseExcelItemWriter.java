@@ -1,39 +1,326 @@
 package ludo.mentis.aciem.mdc.writer;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import ludo.mentis.aciem.mdc.config.ExcelWriterProperties;
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
 import ludo.mentis.aciem.mdc.exception.BackupException;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
+import ludo.mentis.aciem.mdc.util.MetricTags;
 import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.usermodel.Cell;
+import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
 import org.apache.poi.ss.usermodel.Workbook;
 import org.apache.poi.ss.usermodel.WorkbookFactory;
 import org.apache.poi.ss.util.AreaReference;
 import org.apache.poi.ss.util.CellRangeAddress;
 import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFSheet;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
-import org.springframework.batch.item.ItemWriter;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ItemStreamException;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.io.IOException;
 import java.io.UncheckedIOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
 
-public abstract class BaseExcelItemWriter<T> implements ItemWriter<T> {
+/**
+ * Base class of the writers that put the items of a source in a table of an Excel workbook.
+ * <p>
+ * Each chunk only appends its rows to the data sheet. The table, the column widths and the single save of the
+ * workbook are done when the step ends, as a {@link StepExecutionListener}, so the output cost is linear in the
+ * number of rows. A chunk only counts as complete once its transaction commits: rows of a chunk that failed or was
+ * rolled back are left out of the saved sheet when they are still in memory, and a step that did not complete leaves
+ * the output file as it was.
+ * <p>
+ * The data sheet starts in an in-memory {@link XSSFWorkbook}. When streaming is enabled and the sheet grows past the
+ * row threshold, the rows written so far are moved to an {@link SXSSFWorkbook} built on the same workbook, which keeps
+ * only a window of rows in memory and flushes the others to (optionally compressed) temp files, so the heap no longer
+ * grows with the row count.
+ * <p>
+ * With sheet replace enabled and an existing output file, the workbook is not loaded: the sheets of this writer are
+ * built in a streaming workbook that only holds the styles of the file, and the save rewrites just their parts inside
+ * the file (see {@link SheetPartReplacer}), so the cost no longer grows with the sheets consumers add to it.
+ */
+public abstract class BaseExcelItemWriter<T> implements ItemStreamWriter<T>, StepExecutionListener {
+    private static final Logger log = LoggerFactory.getLogger(BaseExcelItemWriter.class);
     private static final String AUDIT_SHEET_NAME = "Audit";
+    static final String SAVE_TIME = "mdc.writer.save";
     protected final BackupService backupService;
     protected final Path outputPath;
     protected final LocalDate referenceDate;
     protected final ExcelHelper excelHelper;
+    private final SheetReplaceProperties sheetReplaceProperties;
+    private MeterRegistry meterRegistry;
+    private ExcelWriterProperties streamingProperties;
+
+    private Workbook workbook;
+    private Sheet dataSheet;
+    private String[] pendingColumnHeaders;
+    private String pendingTableName;
+    private String pendingTableStyle;
+    private int lastWrittenRow;
+    private int lastCompletedRow;
+    private boolean replacingSheets;
+    private boolean workbookClosed;
 
     protected BaseExcelItemWriter(BackupService backupService, ExcelHelper excelHelper, LocalDate referenceDate,
                                   String outputDir, String fileName) {
+        this(backupService, excelHelper, referenceDate, outputDir, fileName, null, null);
+    }
+
+    /**
+     * @param streamingProperties    When and how the data sheet is streamed, see
+     *                               {@link #setStreamingProperties(ExcelWriterProperties)}. They are needed here
+     *                               because with sheet replace the data sheet is streamed from its creation.
+     * @param sheetReplaceProperties Whether the sheets of an existing output file are replaced without loading the
+     *                               workbook. Without them, the workbook is always loaded.
+     */
+    protected BaseExcelItemWriter(BackupService backupService, ExcelHelper excelHelper, LocalDate referenceDate,
+                                  String outputDir, String fileName, ExcelWriterProperties streamingProperties,
+                                  SheetReplaceProperties sheetReplaceProperties) {
         this.backupService = backupService;
         this.excelHelper = excelHelper;
         this.outputPath = Path.of(outputDir, fileName);
         this.referenceDate = referenceDate;
+        this.streamingProperties = streamingProperties;
+        this.sheetReplaceProperties = sheetReplaceProperties;
+    }
+
+    /**
+     * Sets the registry where the workbook save time is recorded. Without one, no metric is recorded.
+     *
+     * @param meterRegistry The registry of the application metrics
+     */
+    public void setMeterRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Sets when and how a growing data sheet is switched to a streaming workbook. Without them, the sheet is always
+     * kept in memory.
+     *
+     * @param streamingProperties The streaming settings of the Excel writers
+     */
+    public void setStreamingProperties(ExcelWriterProperties streamingProperties) {
+        this.streamingProperties = streamingProperties;
+        if (dataSheet instanceof SXSSFSheet streamingSheet) {
+            streamingSheet.setRandomAccessWindowSize(streamingProperties.getRowAccessWindow());
+        }
+    }
+
+    /**
+     * Opens the output workbook, replacing the sheet with the given name and the audit sheet, and creates that sheet
+     * with its header row as the data sheet of this writer.
+     */
+    protected void initializeDataSheet(String sheetName, String[] columnHeaders) {
+        this.workbook = this.openForSheetReplace();
+        if (this.workbook == null) {
+            this.workbook = this.initializeWorkbook(sheetName);
+            this.removeExistingSheet(this.workbook, AUDIT_SHEET_NAME);
+        }
+        this.dataSheet = this.workbook.createSheet(sheetName);
+        this.excelHelper.init(this.dataSheet);
+        this.writeHeader(this.dataSheet, columnHeaders);
+    }
+
+    /**
+     * @return A streaming workbook with the styles of the existing output file, or null if the whole workbook has to
+     * be loaded: sheet replace is disabled, there is no output file yet or its parts could not be read
+     */
+    private Workbook openForSheetReplace() {
+        if (sheetReplaceProperties == null || !sheetReplaceProperties.isEnabled() || !Files.exists(outputPath)) {
+            return null;
+        }
+        try {
+            var styles = SheetPartReplacer.openStyles(outputPath);
+            this.handleBackup();
+            this.replacingSheets = true;
+            // SXSSF writes strings inline by default, so the shared strings of the file stay valid
+            var settings = streamingProperties != null ? streamingProperties : new ExcelWriterProperties();
+            return new SXSSFWorkbook(styles, settings.getRowAccessWindow(), settings.isCompressTempFiles());
+        } catch (IOException | RuntimeException e) {
+            log.warn("Could not read the parts of {}, loading the whole workbook: {}", outputPath.getFileName(),
+                    e.getMessage());
+            return null;
+        }
+    }
+
+    protected Workbook getWorkbook() {
+        return workbook;
+    }
+
+    protected Sheet getDataSheet() {
+        return dataSheet;
+    }
+
+    /**
+     * Creates a row of the data sheet, switching the sheet to streaming first if the row is past the threshold.
+     */
+    protected Row createDataRow(int rowNum) {
+        if (shouldStartStreaming(rowNum)) {
+            startStreaming();
+        }
+        lastWrittenRow = Math.max(lastWrittenRow, rowNum);
+        return dataSheet.createRow(rowNum);
+    }
+
+    /**
+     * Ends the writing of a chunk, recording how the data table is finished when the step ends. Inside a
+     * transaction, the chunk only completes when the transaction commits, so the rows of a rolled back chunk are
+     * treated as incomplete.
+     */
+    protected void completeChunk(String[] columnHeaders, String tableName, String tableStyle) {
+        var chunkEnd = lastWrittenRow;
+        Runnable complete = () -> {
+            this.pendingColumnHeaders = columnHeaders;
+            this.pendingTableName = tableName;
+            this.pendingTableStyle = tableStyle;
+            this.lastCompletedRow = Math.max(lastCompletedRow, chunkEnd);
+        };
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            complete.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                complete.run();
+            }
+        });
+    }
+
+    /**
+     * Adds the table and the column widths to the data sheet and saves the workbook, once, if any chunk was
+     * completed and the step did not fail. Otherwise the output file is left untouched. The save is done here rather
+     * than on close, where an error no longer changes the status of the step: a failed save fails the step.
+     */
+    @Override
+    public ExitStatus afterStep(StepExecution stepExecution) {
+        if (pendingTableName == null) {
+            return null;
+        }
+        var status = stepExecution.getStatus();
+        try {
+            if (status.isUnsuccessful() || status == BatchStatus.STOPPED) {
+                log.warn("Step did not complete, {} is left as it was", outputPath.getFileName());
+                return null;
+            }
+            this.removeIncompleteRows();
+            this.autosizeColumns(dataSheet, pendingColumnHeaders);
+            this.createTable(dataSheet, pendingColumnHeaders, pendingTableName, pendingTableStyle);
+            this.saveWorkbook(workbook);
+            return null;
+        } catch (IOException | RuntimeException e) {
+            var failure = new ItemStreamException("Could not save workbook: " + outputPath, e);
+            log.error(failure.getMessage(), e);
+            stepExecution.upgradeStatus(BatchStatus.FAILED);
+            stepExecution.addFailureException(failure);
+            return ExitStatus.FAILED.addExitDescription(failure);
+        } finally {
+            pendingTableName = null;
+        }
+    }
+
+    /**
+     * Releases the workbook if it was not saved, which also removes the streaming temp files.
+     */
+    @Override
+    public void close() throws ItemStreamException {
+        if (workbook == null || workbookClosed) {
+            return;
+        }
+        try {
+            workbook.close();
+        } catch (IOException e) {
+            throw new ItemStreamException("Could not release workbook: " + outputPath, e);
+        } finally {
+            workbookClosed = true;
+        }
+    }
+
+    /**
+     * Removes the rows written after the last completed chunk, as far as they are still in memory.
+     */
+    private void removeIncompleteRows() {
+        if (lastWrittenRow <= lastCompletedRow) {
+            return;
+        }
+        log.warn("Rows {} to {} of {} belong to a chunk that did not complete and are left out",
+                lastCompletedRow + 1, lastWrittenRow, outputPath.getFileName());
+        for (var rowNum = lastWrittenRow; rowNum > lastCompletedRow; rowNum--) {
+            var row = dataSheet.getRow(rowNum);
+            if (row != null) {
+                dataSheet.removeRow(row);
+            }
+        }
+        lastWrittenRow = lastCompletedRow;
+    }
+
+    protected boolean isStreaming() {
+        return workbook instanceof SXSSFWorkbook;
+    }
+
+    private boolean shouldStartStreaming(int rowNum) {
+        return streamingProperties != null && streamingProperties.isEnabled() && !isStreaming()
+                && rowNum > streamingProperties.getRowThreshold() && workbook instanceof XSSFWorkbook;
+    }
+
+    /**
+     * Moves the data sheet to a streaming workbook wrapping the current one. The other sheets stay as they are; the
+     * rows of the data sheet are copied, with their styles, into a new streaming sheet at the same position.
+     */
+    private void startStreaming() {
+        var xssfWorkbook = (XSSFWorkbook) workbook;
+        var inMemorySheet = dataSheet;
+        var sheetName = inMemorySheet.getSheetName();
+        var sheetIndex = xssfWorkbook.getSheetIndex(inMemorySheet);
+        xssfWorkbook.removeSheetAt(sheetIndex);
+
+        var streamingWorkbook = new SXSSFWorkbook(xssfWorkbook, streamingProperties.getRowAccessWindow(),
+                streamingProperties.isCompressTempFiles());
+        var streamingSheet = streamingWorkbook.createSheet(sheetName);
+        streamingWorkbook.setSheetOrder(sheetName, sheetIndex);
+        for (var row : inMemorySheet) {
+            var copy = streamingSheet.createRow(row.getRowNum());
+            for (var cell : row) {
+                copyCell(cell, copy.createCell(cell.getColumnIndex()));
+            }
+        }
+        log.info("Sheet {} of {} passed {} rows, switched to streaming", sheetName, outputPath.getFileName(),
+                streamingProperties.getRowThreshold());
+        this.workbook = streamingWorkbook;
+        this.dataSheet = streamingSheet;
+    }
+
+    private static void copyCell(Cell source, Cell target) {
+        switch (source.getCellType()) {
+            case STRING -> target.setCellValue(source.getStringCellValue());
+            case NUMERIC -> target.setCellValue(source.getNumericCellValue());
+            case BOOLEAN -> target.setCellValue(source.getBooleanCellValue());
+            case FORMULA -> target.setCellFormula(source.getCellFormula());
+            default -> {
+                // blank cells only carry their style
+            }
+        }
+        target.setCellStyle(source.getCellStyle());
     }
 
     protected Workbook initializeWorkbook() {
@@ -97,8 +384,7 @@ public abstract class BaseExcelItemWriter<T> implements ItemWriter<T> {
         this.excelHelper.setCellValue(userRow, 1, System.getProperty("user.name"));
 
         // Auto-size columns
-        auditSheet.autoSizeColumn(0);
-        auditSheet.autoSizeColumn(1);
+        this.excelHelper.autosizeColumns(auditSheet, 2);
     }
 
     protected void createTable(Sheet sheet, String[] columnHeaders, String tableName, String tableStyle) {
@@ -107,11 +393,18 @@ public abstract class BaseExcelItemWriter<T> implements ItemWriter<T> {
                 new CellReference(sheet.getLastRowNum(), columnHeaders.length - 1),
                 SpreadsheetVersion.EXCEL2007
         );
-        var xssfSheet = (XSSFSheet) sheet;
+        var xssfSheet = sheet instanceof SXSSFSheet
+                ? ((SXSSFWorkbook) sheet.getWorkbook()).getXSSFWorkbook().getSheet(sheet.getSheetName())
+                : (XSSFSheet) sheet;
         var table = xssfSheet.createTable(area);
         table.setName(tableName);
         table.setDisplayName(tableName);
         table.setStyleName(tableStyle);
+        // POI names the columns after the header cells, which a streaming sheet no longer holds in memory
+        var tableColumns = table.getCTTable().getTableColumns();
+        for (var i = 0; i < columnHeaders.length; i++) {
+            tableColumns.getTableColumnArray(i).setName(columnHeaders[i]);
+        }
     }
 
     protected void writeHeader(Sheet sheet, String[] columnHeaders) {
@@ -125,15 +418,47 @@ public abstract class BaseExcelItemWriter<T> implements ItemWriter<T> {
     	if (!Files.exists(this.outputPath.getParent())) {
             Files.createDirectories(this.outputPath.getParent());
         }
-        try (var out = Files.newOutputStream(this.outputPath)) {
-            workbook.write(out);
+        var started = System.nanoTime();
+        if (replacingSheets && workbook == this.workbook) {
+            this.replaceSheets(workbook);
+        } else {
+            try (var out = Files.newOutputStream(this.outputPath)) {
+                workbook.write(out);
+            }
         }
+        // closing a streaming workbook also removes its temp files
         workbook.close();
+        if (workbook == this.workbook) {
+            workbookClosed = true;
+        }
+        if (meterRegistry != null) {
+            Timer.builder(SAVE_TIME).description("Time spent writing the workbook to disk")
+                    .tags(MetricTags.current())
+                    .register(meterRegistry).record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
     }
 
-    protected void autosizeColumns(Sheet sheet, String[] columnHeaders) {
-        for (var i = 0; i < columnHeaders.length; i++) {
-            sheet.autoSizeColumn(i);
+    /**
+     * Writes the sheets of the workbook to a temp file and puts their parts in place of those of the output file.
+     */
+    private void replaceSheets(Workbook workbook) throws IOException {
+        workbook.forEach(sheet -> sheet.setSelected(false));
+        var directory = this.outputPath.getParent();
+        var sheets = Files.createTempFile(directory, "sheets-", ".xlsx");
+        var replaced = Files.createTempFile(directory, "replaced-", ".xlsx");
+        try {
+            try (var out = Files.newOutputStream(sheets)) {
+                workbook.write(out);
+            }
+            SheetPartReplacer.replaceSheets(this.outputPath, sheets, replaced);
+            Files.move(replaced, this.outputPath, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+            Files.deleteIfExists(sheets);
+            Files.deleteIfExists(replaced);
         }
     }
+
+    protected void autosizeColumns(Sheet sheet, String[] columnHeaders) {
+        this.excelHelper.autosizeColumns(sheet, columnHeaders);
+    }
 }
@@ -1,10 +1,10 @@
 package ludo.mentis.aciem.mdc.writer;
 
+import ludo.mentis.aciem.mdc.config.ExcelWriterProperties;
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
 import ludo.mentis.aciem.mdc.model.BrazilianBondPrice;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.batch.item.Chunk;
 
 import java.time.LocalDate;
@@ -21,17 +21,19 @@ public class BrazilianBondPricesExcelWriter extends BaseExcelItemWriter<Brazilia
             "Interv. Ind. Inf. (D+1)", "Interv. Ind. Sup. (D+1)", "Critério"
     };
 
-    private final Workbook workbook;
-    private final Sheet sheet;
     private int currentRow = 1;
 
     public BrazilianBondPricesExcelWriter(BackupService backupService, ExcelHelper excelHelper, LocalDate referenceDate, String outputDir) {
-        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME);
-        this.workbook = this.initializeWorkbook(SHEET_NAME);
-        this.sheet = workbook.createSheet(SHEET_NAME);
-        this.excelHelper.init(this.sheet);
-        this.writeHeader(this.sheet, COLUMN_HEADERS);
-        this.createAuditSheet(this.workbook, "Brazilian Bond Prices - Audit Information", referenceDate);
+        this(backupService, excelHelper, referenceDate, outputDir, null, null);
+    }
+
+    public BrazilianBondPricesExcelWriter(BackupService backupService, ExcelHelper excelHelper, LocalDate referenceDate,
+                                          String outputDir, ExcelWriterProperties streamingProperties,
+                                          SheetReplaceProperties sheetReplaceProperties) {
+        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME, streamingProperties,
+                sheetReplaceProperties);
+        this.initializeDataSheet(SHEET_NAME, COLUMN_HEADERS);
+        this.createAuditSheet(this.getWorkbook(), "Brazilian Bond Prices - Audit Information", referenceDate);
     }
 
     @Override
@@ -39,13 +41,11 @@ public class BrazilianBondPricesExcelWriter extends BaseExcelItemWriter<Brazilia
         for (var item : chunk) {
             this.writeRow(item);
         }
-        this.autosizeColumns(sheet, COLUMN_HEADERS);
-        this.createTable(sheet, COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
-        this.saveWorkbook(this.workbook);
+        this.completeChunk(COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
     }
 
     protected void writeRow(BrazilianBondPrice item) {
-        var row = sheet.createRow(currentRow++);
+        var row = this.createDataRow(currentRow++);
         excelHelper.setCellValue(row, 0, item.getTitle());
         excelHelper.setCellValue(row, 1, item.getReferenceDate());
         excelHelper.setCellValue(row, 2, item.getSelicCode());
@@ -0,0 +1,70 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.batch.item.file.transform.LineAggregator;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the items as comma-separated values (RFC 4180) in UTF-8, with a header line of the column names. Values
+ * are quoted only when they contain a comma, a quote or a line break; decimals are written in plain notation and
+ * dates in ISO-8601, as {@link OutputSchema#text(Object)} formats them. Null values are left empty.
+ */
+@Component
+public class CsvOutputFormat implements OutputFormat {
+
+    public static final String NAME = "csv";
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public <T> ItemStreamWriter<T> createWriter(OutputSchema<T> schema, Path outputDir) {
+        var fileName = schema.name() + "." + NAME;
+        return new FlatFileItemWriterBuilder<T>()
+                .name(fileName)
+                .saveState(false)
+                .resource(new FileSystemResource(outputDir.resolve(fileName)))
+                .encoding(StandardCharsets.UTF_8.name())
+                .lineSeparator("\n")
+                .headerCallback(writer -> writer.write(String.join(",",
+                        schema.columns().stream().map(column -> quote(column.name())).toList())))
+                .lineAggregator(new CsvLineAggregator<>(schema.columns()))
+                .build();
+    }
+
+    static String quote(String text) {
+        for (var i = 0; i < text.length(); i++) {
+            var c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return '"' + text.replace("\"", "\"\"") + '"';
+            }
+        }
+        return text;
+    }
+
+    private record CsvLineAggregator<T>(List<OutputSchema.Column<T>> columns) implements LineAggregator<T> {
+
+        @Override
+        public String aggregate(T item) {
+            var line = new StringBuilder(16 * columns.size());
+            for (var i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    line.append(',');
+                }
+                var value = columns.get(i).value().apply(item);
+                if (value != null) {
+                    line.append(quote(OutputSchema.text(value)));
+                }
+            }
+            return line.toString();
+        }
+    }
+}
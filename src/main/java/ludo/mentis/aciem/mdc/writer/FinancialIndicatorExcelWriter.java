@@ -1,10 +1,10 @@
 package ludo.mentis.aciem.mdc.writer;
 
+import ludo.mentis.aciem.mdc.config.ExcelWriterProperties;
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
 import ludo.mentis.aciem.mdc.model.FinancialIndicator;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.batch.item.Chunk;
 
 import java.time.LocalDate;
@@ -18,17 +18,19 @@ public class FinancialIndicatorExcelWriter extends BaseExcelItemWriter<Financial
             "ID", "Group", "Description", "Value", "Last Update"
     };
 
-    private final Workbook workbook;
-    private final Sheet sheet;
     private int currentRow = 1;
 
     public FinancialIndicatorExcelWriter(BackupService backupService, ExcelHelper excelHelper, String outputDir) {
-        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME);
-        this.workbook = this.initializeWorkbook(SHEET_NAME);
-        this.sheet = workbook.createSheet(SHEET_NAME);
-        this.excelHelper.init(this.sheet);
-        this.writeHeader(this.sheet, COLUMN_HEADERS);
-        this.createAuditSheet(this.workbook, "Financial Indicators - Audit Information", LocalDate.now());
+        this(backupService, excelHelper, outputDir, null, null);
+    }
+
+    public FinancialIndicatorExcelWriter(BackupService backupService, ExcelHelper excelHelper,
+                                         String outputDir, ExcelWriterProperties streamingProperties,
+                                         SheetReplaceProperties sheetReplaceProperties) {
+        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME, streamingProperties,
+                sheetReplaceProperties);
+        this.initializeDataSheet(SHEET_NAME, COLUMN_HEADERS);
+        this.createAuditSheet(this.getWorkbook(), "Financial Indicators - Audit Information", LocalDate.now());
     }
 
     @Override
@@ -36,13 +38,11 @@ public class FinancialIndicatorExcelWriter extends BaseExcelItemWriter<Financial
         for (var item : chunk) {
             this.writeRow(item);
         }
-        this.autosizeColumns(sheet, COLUMN_HEADERS);
-        this.createTable(sheet, COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
-        this.saveWorkbook(this.workbook);
+        this.completeChunk(COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
     }
 
     protected void writeRow(FinancialIndicator item) {
-        var row = sheet.createRow(currentRow++);
+        var row = this.createDataRow(currentRow++);
         excelHelper.setCellValue(row, 0, item.getSecurityIdentificationCode());
         excelHelper.setCellValue(row, 1, item.getGroupDescription());
         excelHelper.setCellValue(row, 2, item.getDescription());
@@ -0,0 +1,82 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.StreamWriteFeature;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.file.builder.FlatFileItemWriterBuilder;
+import org.springframework.batch.item.file.transform.LineAggregator;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Writes the items as JSON Lines: one JSON object per line, in UTF-8, with a member per column in the order of the
+ * schema. Numbers are JSON numbers (decimals in plain notation, so no precision is lost), dates are ISO-8601
+ * strings and null values are JSON nulls.
+ */
+@Component
+public class JsonLinesOutputFormat implements OutputFormat {
+
+    public static final String NAME = "jsonl";
+
+    private final JsonFactory jsonFactory = JsonFactory.builder()
+            .enable(StreamWriteFeature.WRITE_BIGDECIMAL_AS_PLAIN)
+            .build();
+
+    @Override
+    public String name() {
+        return NAME;
+    }
+
+    @Override
+    public <T> ItemStreamWriter<T> createWriter(OutputSchema<T> schema, Path outputDir) {
+        var fileName = schema.name() + "." + NAME;
+        return new FlatFileItemWriterBuilder<T>()
+                .name(fileName)
+                .saveState(false)
+                .resource(new FileSystemResource(outputDir.resolve(fileName)))
+                .encoding(StandardCharsets.UTF_8.name())
+                .lineSeparator("\n")
+                .lineAggregator(new JsonLineAggregator<>(jsonFactory, schema.columns()))
+                .build();
+    }
+
+    private record JsonLineAggregator<T>(JsonFactory jsonFactory, List<OutputSchema.Column<T>> columns)
+            implements LineAggregator<T> {
+
+        @Override
+        public String aggregate(T item) {
+            var line = new StringWriter(32 * columns.size());
+            try (var generator = jsonFactory.createGenerator(line)) {
+                generator.writeStartObject();
+                for (var column : columns) {
+                    generator.writeFieldName(column.name());
+                    var value = column.value().apply(item);
+                    if (value == null) {
+                        generator.writeNull();
+                    } else if (value instanceof BigDecimal decimal) {
+                        generator.writeNumber(decimal);
+                    } else if (value instanceof Long || value instanceof Integer || value instanceof BigInteger) {
+                        generator.writeNumber(value.toString());
+                    } else if (value instanceof Number number) {
+                        generator.writeNumber(number.doubleValue());
+                    } else {
+                        generator.writeString(OutputSchema.text(value));
+                    }
+                }
+                generator.writeEndObject();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            return line.toString();
+        }
+    }
+}
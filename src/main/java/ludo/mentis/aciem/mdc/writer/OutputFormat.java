@@ -0,0 +1,30 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import org.springframework.batch.item.ItemStreamWriter;
+
+import java.nio.file.Path;
+
+/**
+ * A machine-readable format the items of a source can be written in, next to or instead of the Excel workbook.
+ * Implementations are Spring beans; {@link OutputWriterFactory} picks those configured for each job by their
+ * {@link #name()}.
+ */
+public interface OutputFormat {
+
+    /**
+     * @return Name of the format in the {@code output-format} properties, also used as the extension of its files
+     */
+    String name();
+
+    /**
+     * Creates a writer that streams the items to a new file of the format, replacing the file of a previous run
+     * when the step opens it. Like the Excel writer, it does not keep its position in the step execution context: a
+     * restarted step reads the whole payload again and writes the file from the start.
+     *
+     * @param schema    Layout of the items
+     * @param outputDir Directory of the file, named after the schema
+     * @param <T>       Type of the items
+     * @return The writer, which must be opened and closed as an {@link org.springframework.batch.item.ItemStream}
+     */
+    <T> ItemStreamWriter<T> createWriter(OutputSchema<T> schema, Path outputDir);
+}
@@ -0,0 +1,48 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Layout of the items of a source in the machine-readable output formats: the base name of the output files and
+ * the named columns, in order, with the value each takes from an item.
+ *
+ * @param name    Base name of the output files, to which each format adds its extension
+ * @param columns Columns of the output, in order
+ * @param <T>     Type of the items
+ */
+public record OutputSchema<T>(String name, List<Column<T>> columns) {
+
+    public OutputSchema {
+        columns = List.copyOf(columns);
+    }
+
+    /**
+     * @param name  Name of the column, in camel case as the field of the item it comes from
+     * @param value Value of the column for an item: a {@link String}, {@link Number}, {@link java.time.LocalDate},
+     *              {@link java.time.LocalDateTime} or null
+     * @param <T>   Type of the items
+     */
+    public record Column<T>(String name, Function<? super T, ?> value) {
+    }
+
+    /**
+     * Text of a value in the text formats: decimals in plain notation, without an exponent, and date-times in
+     * ISO-8601 always with their seconds. Dates and other values are written as their {@code toString()}.
+     *
+     * @param value A column value, not null
+     * @return The text of the value
+     */
+    public static String text(Object value) {
+        if (value instanceof BigDecimal decimal) {
+            return decimal.toPlainString();
+        }
+        if (value instanceof LocalDateTime dateTime) {
+            return DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(dateTime);
+        }
+        return value.toString();
+    }
+}
@@ -0,0 +1,105 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import ludo.mentis.aciem.mdc.model.BrazilianBondPrice;
+import ludo.mentis.aciem.mdc.model.ExchangeRateParity;
+import ludo.mentis.aciem.mdc.model.FinancialIndicator;
+import ludo.mentis.aciem.mdc.model.InterestRateCurve;
+import ludo.mentis.aciem.mdc.model.Ptax;
+import ludo.mentis.aciem.mdc.model.TradingAdjustment;
+import ludo.mentis.aciem.mdc.model.UpdatedNominalValue;
+import ludo.mentis.aciem.mdc.writer.OutputSchema.Column;
+
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * The {@link OutputSchema} of each source. Files have the base name of the Excel workbook of the source and every
+ * field of the items, so that machine formats do not lose what the Excel layout merges or leaves out.
+ */
+public final class OutputSchemas {
+
+    public static final OutputSchema<Ptax> PTAX = new OutputSchema<>("Ptax", List.of(
+            new Column<>("buyValue", Ptax::getBuyValue),
+            new Column<>("sellValue", Ptax::getSellValue),
+            new Column<>("timestamp", Ptax::getTimestamp)));
+
+    public static final OutputSchema<FinancialIndicator> FINANCIAL_INDICATORS = new OutputSchema<>(
+            "FinancialIndicators", List.of(
+            new Column<>("securityIdentificationCode", FinancialIndicator::getSecurityIdentificationCode),
+            new Column<>("groupDescription", FinancialIndicator::getGroupDescription),
+            new Column<>("description", FinancialIndicator::getDescription),
+            new Column<>("value", FinancialIndicator::getValue),
+            new Column<>("rate", FinancialIndicator::getRate),
+            new Column<>("lastUpdate", FinancialIndicator::getLastUpdate)));
+
+    public static final OutputSchema<BrazilianBondPrice> BRAZILIAN_BOND_PRICES = new OutputSchema<>(
+            "BrazilianBondPrices", List.of(
+            new Column<>("title", BrazilianBondPrice::getTitle),
+            new Column<>("referenceDate", BrazilianBondPrice::getReferenceDate),
+            new Column<>("selicCode", BrazilianBondPrice::getSelicCode),
+            new Column<>("baseDate", BrazilianBondPrice::getBaseDate),
+            new Column<>("maturityDate", BrazilianBondPrice::getMaturityDate),
+            new Column<>("buyRate", BrazilianBondPrice::getBuyRate),
+            new Column<>("sellRate", BrazilianBondPrice::getSellRate),
+            new Column<>("indicativeRate", BrazilianBondPrice::getIndicativeRate),
+            new Column<>("price", BrazilianBondPrice::getPrice),
+            new Column<>("standardDeviation", BrazilianBondPrice::getStandardDeviation),
+            new Column<>("lowerIntervalD0", BrazilianBondPrice::getLowerIntervalD0),
+            new Column<>("upperIntervalD0", BrazilianBondPrice::getUpperIntervalD0),
+            new Column<>("lowerIntervalD1", BrazilianBondPrice::getLowerIntervalD1),
+            new Column<>("upperIntervalD1", BrazilianBondPrice::getUpperIntervalD1),
+            new Column<>("criteria", BrazilianBondPrice::getCriteria)));
+
+    public static final OutputSchema<ExchangeRateParity> EXCHANGE_RATE_PARITY = new OutputSchema<>(
+            "ExchangeRateParity", List.of(
+            new Column<>("referenceDate", ExchangeRateParity::getReferenceDate),
+            new Column<>("currencyId", ExchangeRateParity::getCurrencyId),
+            new Column<>("type", ExchangeRateParity::getType),
+            new Column<>("currencyCode", ExchangeRateParity::getCurrencyCode),
+            new Column<>("buyRate", ExchangeRateParity::getBuyRate),
+            new Column<>("sellRate", ExchangeRateParity::getSellRate),
+            new Column<>("buyParity", ExchangeRateParity::getBuyParity),
+            new Column<>("sellParity", ExchangeRateParity::getSellParity)));
+
+    public static final OutputSchema<InterestRateCurve> INTEREST_RATE_CURVE = new OutputSchema<>(
+            "InterestRateCurve", List.of(
+            new Column<>("referenceDate", InterestRateCurve::getReferenceDate),
+            new Column<>("description", InterestRateCurve::getDescription),
+            new Column<>("beta1", InterestRateCurve::getBeta1),
+            new Column<>("beta2", InterestRateCurve::getBeta2),
+            new Column<>("beta3", InterestRateCurve::getBeta3),
+            new Column<>("beta4", InterestRateCurve::getBeta4),
+            new Column<>("lambda1", InterestRateCurve::getLambda1),
+            new Column<>("lambda2", InterestRateCurve::getLambda2)));
+
+    public static final OutputSchema<UpdatedNominalValue> UPDATED_NOMINAL_VALUE = new OutputSchema<>(
+            "UpdatedNominalValue", List.of(
+            new Column<>("referenceDate", UpdatedNominalValue::getReferenceDate),
+            new Column<>("security", UpdatedNominalValue::getSecurity),
+            new Column<>("selicCode", UpdatedNominalValue::getSelicCode),
+            new Column<>("value", UpdatedNominalValue::getValue),
+            new Column<>("index", UpdatedNominalValue::getIndex),
+            new Column<>("reference", UpdatedNominalValue::getReference),
+            new Column<>("validSince", UpdatedNominalValue::getValidSince)));
+
+    private OutputSchemas() {
+    }
+
+    /**
+     * The trading adjustments do not carry their date, which the Excel workbook keeps in its audit sheet, so each
+     * row of the machine formats gets the reference date of the run.
+     *
+     * @param referenceDate Trading session of the adjustments
+     * @return The schema of the trading adjustments of the session
+     */
+    public static OutputSchema<TradingAdjustment> tradingAdjustments(LocalDate referenceDate) {
+        return new OutputSchema<>("TradingAdjustments", List.of(
+                new Column<>("referenceDate", item -> referenceDate),
+                new Column<>("commodity", TradingAdjustment::getCommodity),
+                new Column<>("maturity", TradingAdjustment::getMaturity),
+                new Column<>("previousAdjustmentPrice", TradingAdjustment::getPreviousAdjustmentPrice),
+                new Column<>("currentAdjustmentPrice", TradingAdjustment::getCurrentAdjustmentPrice),
+                new Column<>("variation", TradingAdjustment::getVariation),
+                new Column<>("adjustmentValuePerContract", TradingAdjustment::getAdjustmentValuePerContract)));
+    }
+}
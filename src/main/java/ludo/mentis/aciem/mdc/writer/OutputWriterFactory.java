@@ -0,0 +1,112 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import ludo.mentis.aciem.mdc.config.OutputFormatProperties;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.ItemWriter;
+import org.springframework.batch.item.support.CompositeItemWriter;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Creates the writer of the process step of a job for the formats configured in {@link OutputFormatProperties}.
+ * <p>
+ * The Excel workbook is a format like the {@link OutputFormat} beans, but its writers are built by the job
+ * configurations, so it is passed as a supplier and only created when the job writes it. When a job writes
+ * several formats, a {@link CompositeItemWriter} hands every chunk to each of their writers, so the items are read
+ * and processed once; the composite opens, updates and closes the writers, and passes the step events to those that
+ * listen to them, as the step does with a single one.
+ */
+@Component
+public class OutputWriterFactory {
+
+    public static final String EXCEL = "excel";
+
+    private final OutputFormatProperties properties;
+    private final Map<String, OutputFormat> formats = new LinkedHashMap<>();
+
+    public OutputWriterFactory(List<OutputFormat> formats, OutputFormatProperties properties) {
+        this.properties = properties;
+        formats.forEach(format -> this.formats.put(format.name(), format));
+        properties.getDefaults().forEach(name -> checkFormat("output-format.defaults", name));
+        properties.getJobs().forEach((jobName, names) ->
+                names.forEach(name -> checkFormat("output-format.jobs." + jobName, name)));
+    }
+
+    /**
+     * @param jobName     Name of the job, whose entry in output-format.jobs, if any, selects the formats
+     * @param schema      Layout of the items in the {@link OutputFormat}s
+     * @param outputDir   Directory of the files of the {@link OutputFormat}s
+     * @param excelWriter Creates the Excel writer of the job
+     * @param <T>         Type of the items
+     * @return The writer of the only format of the job, or a composite of the writers of its formats
+     */
+    public <T> ItemWriter<T> createWriter(String jobName, OutputSchema<T> schema, Path outputDir,
+                                          Supplier<? extends ItemWriter<T>> excelWriter) {
+        var writers = new ArrayList<ItemWriter<? super T>>();
+        for (var name : new LinkedHashSet<>(properties.formatsOf(jobName))) {
+            writers.add(EXCEL.equals(name) ? excelWriter.get() : formats.get(name).createWriter(schema, outputDir));
+        }
+        if (writers.size() == 1) {
+            @SuppressWarnings("unchecked")
+            var writer = (ItemWriter<T>) writers.get(0);
+            return writer;
+        }
+        return new ListeningCompositeItemWriter<>(writers);
+    }
+
+    private void checkFormat(String property, String name) {
+        if (!EXCEL.equals(name) && !formats.containsKey(name)) {
+            var known = new ArrayList<String>();
+            known.add(EXCEL);
+            known.addAll(formats.keySet());
+            throw new IllegalArgumentException("Unknown output format in %s: %s, expected one of %s"
+                    .formatted(property, name, known));
+        }
+    }
+
+    /**
+     * A composite writer that also passes the step events to its writers that are {@link StepExecutionListener}s,
+     * since the step only registers the writer it is given.
+     */
+    private static class ListeningCompositeItemWriter<T> extends CompositeItemWriter<T>
+            implements StepExecutionListener {
+        private final List<ItemWriter<? super T>> writers;
+
+        ListeningCompositeItemWriter(List<ItemWriter<? super T>> writers) {
+            super(writers);
+            this.writers = writers;
+        }
+
+        @Override
+        public void beforeStep(StepExecution stepExecution) {
+            for (var writer : writers) {
+                if (writer instanceof StepExecutionListener listener) {
+                    listener.beforeStep(stepExecution);
+                }
+            }
+        }
+
+        @Override
+        public ExitStatus afterStep(StepExecution stepExecution) {
+            ExitStatus exitStatus = null;
+            for (var writer : writers) {
+                if (writer instanceof StepExecutionListener listener) {
+                    var writerStatus = listener.afterStep(stepExecution);
+                    if (writerStatus != null) {
+                        exitStatus = exitStatus == null ? writerStatus : exitStatus.and(writerStatus);
+                    }
+                }
+            }
+            return exitStatus;
+        }
+    }
+}
@@ -1,10 +1,10 @@
 package ludo.mentis.aciem.mdc.writer;
 
+import ludo.mentis.aciem.mdc.config.ExcelWriterProperties;
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
 import ludo.mentis.aciem.mdc.model.Ptax;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.batch.item.Chunk;
 
 import java.time.LocalDate;
@@ -18,17 +18,19 @@ public class PtaxExcelWriter extends BaseExcelItemWriter<Ptax> {
             "Buy Value", "Sell Value", "Last Update"
     };
 
-    private final Workbook workbook;
-    private final Sheet sheet;
     private int currentRow = 1;
 
     public PtaxExcelWriter(BackupService backupService, ExcelHelper excelHelper, String outputDir) {
-        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME);
-        this.workbook = this.initializeWorkbook(SHEET_NAME);
-        this.sheet = workbook.createSheet(SHEET_NAME);
-        this.excelHelper.init(this.sheet);
-        this.writeHeader(this.sheet, COLUMN_HEADERS);
-        this.createAuditSheet(this.workbook, "PTAX", LocalDate.now());
+        this(backupService, excelHelper, outputDir, null, null);
+    }
+
+    public PtaxExcelWriter(BackupService backupService, ExcelHelper excelHelper,
+                           String outputDir, ExcelWriterProperties streamingProperties,
+                           SheetReplaceProperties sheetReplaceProperties) {
+        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME, streamingProperties,
+                sheetReplaceProperties);
+        this.initializeDataSheet(SHEET_NAME, COLUMN_HEADERS);
+        this.createAuditSheet(this.getWorkbook(), "PTAX", LocalDate.now());
     }
 
     @Override
@@ -36,13 +38,11 @@ public class PtaxExcelWriter extends BaseExcelItemWriter<Ptax> {
         for (var item : chunk) {
             this.writeRow(item);
         }
-        this.autosizeColumns(sheet, COLUMN_HEADERS);
-        this.createTable(sheet, COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
-        this.saveWorkbook(this.workbook);
+        this.completeChunk(COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
     }
 
     protected void writeRow(Ptax item) {
-        var row = sheet.createRow(currentRow++);
+        var row = this.createDataRow(currentRow++);
         excelHelper.setCellValue(row, 0, item.getBuyValue());
         excelHelper.setCellValue(row, 1, item.getSellValue());
         excelHelper.setCellValue(row, 2, item.getTimestamp());
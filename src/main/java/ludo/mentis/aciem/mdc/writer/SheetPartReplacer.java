@@ -0,0 +1,439 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import org.apache.commons.compress.archivers.zip.ZipArchiveEntry;
+import org.apache.commons.compress.archivers.zip.ZipArchiveOutputStream;
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.poi.openxml4j.opc.ContentTypes;
+import org.apache.poi.openxml4j.opc.PackageRelationshipTypes;
+import org.apache.poi.xssf.usermodel.XSSFRelation;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.w3c.dom.Document;
+import org.w3c.dom.Element;
+import org.xml.sax.SAXException;
+
+import javax.xml.XMLConstants;
+import javax.xml.parsers.DocumentBuilderFactory;
+import javax.xml.parsers.ParserConfigurationException;
+import javax.xml.transform.OutputKeys;
+import javax.xml.transform.TransformerException;
+import javax.xml.transform.TransformerFactory;
+import javax.xml.transform.dom.DOMSource;
+import javax.xml.transform.stream.StreamResult;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Replaces sheets of an existing {@code .xlsx} file by working on its zip entries, without loading the workbook.
+ * <p>
+ * The new sheets are built in a workbook opened with {@link #openStyles(Path)}, which only holds the styles (and theme)
+ * of the existing file, so the style indexes of the new cells are valid in it; strings must be written inline, as
+ * streaming workbooks do. {@link #replaceSheets(Path, Path, Path)} then writes the existing file again with the parts
+ * of the new sheets and their tables in place of those of the sheets with the same names, and with the workbook,
+ * workbook relationships, content types and styles entries rewritten. Every other entry, including the sheets added
+ * by consumers and the shared strings, is copied as stored, without being decompressed.
+ */
+class SheetPartReplacer {
+
+    private static final String MAIN_NS = "http://schemas.openxmlformats.org/spreadsheetml/2006/main";
+    private static final String RELATIONSHIPS_NS = "http://schemas.openxmlformats.org/package/2006/relationships";
+    private static final String DOCUMENT_RELATIONSHIPS_NS =
+            "http://schemas.openxmlformats.org/officeDocument/2006/relationships";
+    private static final String CONTENT_TYPES_NS = "http://schemas.openxmlformats.org/package/2006/content-types";
+    private static final String CONTENT_TYPES_PART = "[Content_Types].xml";
+    private static final String PACKAGE_RELATIONSHIPS_PART = "_rels/.rels";
+    private static final String STYLES_TYPE = "/styles";
+    private static final String THEME_TYPE = "/theme";
+    private static final String TABLE_TYPE = "/table";
+
+    private SheetPartReplacer() {
+    }
+
+    /**
+     * Opens a workbook without sheets that has the styles and the theme of an existing file.
+     *
+     * @throws IOException If the file is not an {@code .xlsx} workbook with a styles part
+     */
+    static XSSFWorkbook openStyles(Path existing) throws IOException {
+        try (var zip = ZipFile.builder().setPath(existing).get()) {
+            var workbookPart = officeDocumentPart(zip);
+            var relationships = parse(zip, relationshipsPart(workbookPart));
+            var styles = bytes(zip, targetOfType(relationships, workbookPart, STYLES_TYPE));
+            var themePart = targetOfType(relationships, workbookPart, THEME_TYPE);
+
+            var skeleton = new ByteArrayOutputStream();
+            try (var out = new ZipArchiveOutputStream(skeleton)) {
+                var themeOverride = themePart == null ? "" : """
+                        <Override PartName="/xl/theme/theme1.xml" ContentType="%s"/>\
+                        """.formatted(XSSFRelation.THEME.getContentType());
+                put(out, CONTENT_TYPES_PART, """
+                        <Types xmlns="%s">\
+                        <Default Extension="rels" ContentType="%s"/>\
+                        <Default Extension="xml" ContentType="application/xml"/>\
+                        <Override PartName="/xl/workbook.xml" ContentType="%s"/>\
+                        <Override PartName="/xl/styles.xml" ContentType="%s"/>%s\
+                        </Types>""".formatted(CONTENT_TYPES_NS, ContentTypes.RELATIONSHIPS_PART,
+                        XSSFRelation.WORKBOOK.getContentType(), XSSFRelation.STYLES.getContentType(), themeOverride));
+                put(out, PACKAGE_RELATIONSHIPS_PART, """
+                        <Relationships xmlns="%s">\
+                        <Relationship Id="rId1" Type="%s" Target="xl/workbook.xml"/>\
+                        </Relationships>""".formatted(RELATIONSHIPS_NS, PackageRelationshipTypes.CORE_DOCUMENT));
+                put(out, "xl/workbook.xml", """
+                        <workbook xmlns="%s" xmlns:r="%s">\
+                        <bookViews><workbookView/></bookViews><sheets/>\
+                        </workbook>""".formatted(MAIN_NS, DOCUMENT_RELATIONSHIPS_NS));
+                var themeRelationship = themePart == null ? "" : """
+                        <Relationship Id="rId2" Type="%s" Target="theme/theme1.xml"/>\
+                        """.formatted(XSSFRelation.THEME.getRelation());
+                put(out, "xl/_rels/workbook.xml.rels", """
+                        <Relationships xmlns="%s">\
+                        <Relationship Id="rId1" Type="%s" Target="styles.xml"/>%s\
+                        </Relationships>""".formatted(RELATIONSHIPS_NS, XSSFRelation.STYLES.getRelation(),
+                        themeRelationship));
+                put(out, "xl/styles.xml", styles);
+                if (themePart != null) {
+                    put(out, "xl/theme/theme1.xml", bytes(zip, themePart));
+                }
+            }
+            return new XSSFWorkbook(new ByteArrayInputStream(skeleton.toByteArray()));
+        }
+    }
+
+    /**
+     * Writes to {@code output} the {@code existing} file with the sheets of the {@code generated} one, which must have
+     * been built on {@link #openStyles(Path)} of the existing file. Existing sheets with the same names keep their
+     * position; the others are added at the end.
+     */
+    static void replaceSheets(Path existing, Path generated, Path output) throws IOException {
+        try (var source = ZipFile.builder().setPath(existing).get();
+             var fresh = ZipFile.builder().setPath(generated).get();
+             var out = new ZipArchiveOutputStream(output)) {
+            new Merge(source, fresh).writeTo(out);
+        }
+    }
+
+    /**
+     * The rewritten entries of one replacement, worked out before anything is written.
+     */
+    private static final class Merge {
+        private final ZipFile source;
+        private final ZipFile fresh;
+        private final String workbookPart;
+        private final Document workbook;
+        private final Document relationships;
+        private final Document contentTypes;
+        private final String stylesPart;
+        private final byte[] styles;
+        private final Set<String> droppedParts = new HashSet<>();
+        private final Set<String> takenParts = new HashSet<>();
+        private final Map<String, String> copiedParts = new LinkedHashMap<>();
+        private final Map<String, byte[]> rewrittenParts = new LinkedHashMap<>();
+
+        Merge(ZipFile source, ZipFile fresh) throws IOException {
+            this.source = source;
+            this.fresh = fresh;
+            this.workbookPart = officeDocumentPart(source);
+            this.workbook = parse(source, workbookPart);
+            this.relationships = parse(source, relationshipsPart(workbookPart));
+            this.contentTypes = parse(source, CONTENT_TYPES_PART);
+            this.stylesPart = targetOfType(relationships, workbookPart, STYLES_TYPE);
+            var freshWorkbookPart = officeDocumentPart(fresh);
+            var freshRelationships = parse(fresh, relationshipsPart(freshWorkbookPart));
+            this.styles = bytes(fresh, targetOfType(freshRelationships, freshWorkbookPart, STYLES_TYPE));
+            if (stylesPart == null) {
+                throw new IOException("Workbook has no styles part");
+            }
+            Collections.list(source.getEntries()).forEach(entry -> takenParts.add(entry.getName()));
+
+            var freshContentTypes = parse(fresh, CONTENT_TYPES_PART);
+            var freshWorkbook = parse(fresh, freshWorkbookPart);
+            var nextTableId = dropAndCountTables(freshWorkbook);
+            for (var sheet : elements(freshWorkbook, MAIN_NS, "sheet")) {
+                var relationship = byId(freshRelationships, sheet.getAttributeNS(DOCUMENT_RELATIONSHIPS_NS, "id"));
+                var freshPart = resolve(freshWorkbookPart, relationship.getAttribute("Target"));
+                var part = freePart("xl/worksheets/sheet");
+                copiedParts.put(part, freshPart);
+                addOverride(part, contentType(freshContentTypes, freshPart));
+                nextTableId = addTables(freshPart, part, freshContentTypes, nextTableId);
+                placeSheet(sheet.getAttribute("name"), part, relationship.getAttribute("Type"));
+            }
+            rewrittenParts.put(workbookPart, serialize(workbook));
+            rewrittenParts.put(relationshipsPart(workbookPart), serialize(relationships));
+            rewrittenParts.put(CONTENT_TYPES_PART, serialize(contentTypes));
+            rewrittenParts.put(stylesPart, styles);
+        }
+
+        /**
+         * Marks the parts of the existing sheets being replaced as dropped.
+         *
+         * @return The first table id not used by the tables that are kept
+         */
+        private long dropAndCountTables(Document freshWorkbook) throws IOException {
+            var replacedNames = new HashSet<String>();
+            for (var sheet : elements(freshWorkbook, MAIN_NS, "sheet")) {
+                replacedNames.add(sheet.getAttribute("name"));
+            }
+            for (var sheet : elements(workbook, MAIN_NS, "sheet")) {
+                if (!replacedNames.contains(sheet.getAttribute("name"))) {
+                    continue;
+                }
+                var relationship = byId(relationships, sheet.getAttributeNS(DOCUMENT_RELATIONSHIPS_NS, "id"));
+                var part = resolve(workbookPart, relationship.getAttribute("Target"));
+                droppedParts.add(part);
+                var sheetRelationshipsPart = relationshipsPart(part);
+                if (source.getEntry(sheetRelationshipsPart) != null) {
+                    droppedParts.add(sheetRelationshipsPart);
+                    for (var tableRelationship : elements(parse(source, sheetRelationshipsPart), RELATIONSHIPS_NS,
+                            "Relationship")) {
+                        if (tableRelationship.getAttribute("Type").endsWith(TABLE_TYPE)) {
+                            droppedParts.add(resolve(part, tableRelationship.getAttribute("Target")));
+                        }
+                    }
+                }
+            }
+            var maxTableId = 0L;
+            for (var override : elements(contentTypes, CONTENT_TYPES_NS, "Override")) {
+                var part = override.getAttribute("PartName").substring(1);
+                if (XSSFRelation.TABLE.getContentType().equals(override.getAttribute("ContentType"))
+                        && !droppedParts.contains(part) && source.getEntry(part) != null) {
+                    var id = parse(source, part).getDocumentElement().getAttribute("id");
+                    maxTableId = Math.max(maxTableId, id.isEmpty() ? 0 : Long.parseLong(id));
+                }
+            }
+            for (var override : elements(contentTypes, CONTENT_TYPES_NS, "Override")) {
+                if (droppedParts.contains(override.getAttribute("PartName").substring(1))) {
+                    override.getParentNode().removeChild(override);
+                }
+            }
+            return maxTableId + 1;
+        }
+
+        /**
+         * Renames the tables of a new sheet to free parts and ids, rewriting the sheet relationships to match.
+         *
+         * @return The next free table id
+         */
+        private long addTables(String freshPart, String part, Document freshContentTypes, long nextTableId)
+                throws IOException {
+            var freshRelationshipsPart = relationshipsPart(freshPart);
+            if (fresh.getEntry(freshRelationshipsPart) == null) {
+                return nextTableId;
+            }
+            var sheetRelationships = parse(fresh, freshRelationshipsPart);
+            for (var relationship : elements(sheetRelationships, RELATIONSHIPS_NS, "Relationship")) {
+                if (!relationship.getAttribute("Type").endsWith(TABLE_TYPE)) {
+                    throw new IOException("Unsupported part in a new sheet: " + relationship.getAttribute("Type"));
+                }
+                var freshTablePart = resolve(freshPart, relationship.getAttribute("Target"));
+                var table = parse(fresh, freshTablePart);
+                table.getDocumentElement().setAttribute("id", String.valueOf(nextTableId++));
+                var tablePart = freePart("xl/tables/table");
+                rewrittenParts.put(tablePart, serialize(table));
+                addOverride(tablePart, contentType(freshContentTypes, freshTablePart));
+                relationship.setAttribute("Target", "/" + tablePart);
+            }
+            rewrittenParts.put(relationshipsPart(part), serialize(sheetRelationships));
+            return nextTableId;
+        }
+
+        /**
+         * Points the existing sheet with the given name to the new part, or adds a sheet at the end if there is none.
+         */
+        private void placeSheet(String name, String part, String type) {
+            for (var sheet : elements(workbook, MAIN_NS, "sheet")) {
+                if (name.equals(sheet.getAttribute("name"))) {
+                    byId(relationships, sheet.getAttributeNS(DOCUMENT_RELATIONSHIPS_NS, "id"))
+                            .setAttribute("Target", "/" + part);
+                    return;
+                }
+            }
+            var ids = new HashSet<String>();
+            for (var relationship : elements(relationships, RELATIONSHIPS_NS, "Relationship")) {
+                ids.add(relationship.getAttribute("Id"));
+            }
+            var id = 1;
+            while (ids.contains("rId" + id)) {
+                id++;
+            }
+            var relationship = relationships.createElementNS(RELATIONSHIPS_NS, "Relationship");
+            relationship.setAttribute("Id", "rId" + id);
+            relationship.setAttribute("Type", type);
+            relationship.setAttribute("Target", "/" + part);
+            relationships.getDocumentElement().appendChild(relationship);
+
+            var sheets = elements(workbook, MAIN_NS, "sheets");
+            if (sheets.isEmpty()) {
+                throw new IllegalStateException("Workbook has no sheets element");
+            }
+            var sheetId = 0L;
+            for (var sheet : elements(workbook, MAIN_NS, "sheet")) {
+                sheetId = Math.max(sheetId, Long.parseLong(sheet.getAttribute("sheetId")));
+            }
+            var sheet = workbook.createElementNS(MAIN_NS, sheets.get(0).getPrefix() == null
+                    ? "sheet" : sheets.get(0).getPrefix() + ":sheet");
+            sheet.setAttribute("name", name);
+            sheet.setAttribute("sheetId", String.valueOf(sheetId + 1));
+            sheet.setAttributeNS(DOCUMENT_RELATIONSHIPS_NS, "r:id", "rId" + id);
+            sheets.get(0).appendChild(sheet);
+        }
+
+        private void addOverride(String part, String contentType) {
+            var override = contentTypes.createElementNS(CONTENT_TYPES_NS, "Override");
+            override.setAttribute("PartName", "/" + part);
+            override.setAttribute("ContentType", contentType);
+            contentTypes.getDocumentElement().appendChild(override);
+        }
+
+        private String freePart(String prefix) {
+            var number = 1;
+            while (takenParts.contains(prefix + number + ".xml")) {
+                number++;
+            }
+            var part = prefix + number + ".xml";
+            takenParts.add(part);
+            return part;
+        }
+
+        void writeTo(ZipArchiveOutputStream out) throws IOException {
+            for (var entry : Collections.list(source.getEntries())) {
+                var name = entry.getName();
+                if (droppedParts.contains(name)) {
+                    continue;
+                }
+                var rewritten = rewrittenParts.remove(name);
+                if (rewritten != null) {
+                    put(out, name, rewritten);
+                } else {
+                    out.addRawArchiveEntry(entry, source.getRawInputStream(entry));
+                }
+            }
+            for (var copied : copiedParts.entrySet()) {
+                var entry = fresh.getEntry(copied.getValue());
+                var renamed = new ZipArchiveEntry(copied.getKey());
+                renamed.setMethod(entry.getMethod());
+                renamed.setCrc(entry.getCrc());
+                renamed.setSize(entry.getSize());
+                renamed.setCompressedSize(entry.getCompressedSize());
+                out.addRawArchiveEntry(renamed, fresh.getRawInputStream(entry));
+            }
+            for (var rewritten : rewrittenParts.entrySet()) {
+                put(out, rewritten.getKey(), rewritten.getValue());
+            }
+        }
+    }
+
+    private static String officeDocumentPart(ZipFile zip) throws IOException {
+        var part = targetOfType(parse(zip, PACKAGE_RELATIONSHIPS_PART), "", "/officeDocument");
+        if (part == null) {
+            throw new IOException("Package has no office document");
+        }
+        return part;
+    }
+
+    /**
+     * @return The part targeted by the first relationship whose type ends with the given suffix, or null
+     */
+    private static String targetOfType(Document relationships, String sourcePart, String typeSuffix) {
+        for (var relationship : elements(relationships, RELATIONSHIPS_NS, "Relationship")) {
+            if (relationship.getAttribute("Type").endsWith(typeSuffix)
+                    && !"External".equals(relationship.getAttribute("TargetMode"))) {
+                return resolve(sourcePart, relationship.getAttribute("Target"));
+            }
+        }
+        return null;
+    }
+
+    private static Element byId(Document relationships, String id) {
+        for (var relationship : elements(relationships, RELATIONSHIPS_NS, "Relationship")) {
+            if (id.equals(relationship.getAttribute("Id"))) {
+                return relationship;
+            }
+        }
+        throw new IllegalStateException("Relationship not found: " + id);
+    }
+
+    private static String contentType(Document contentTypes, String part) throws IOException {
+        for (var override : elements(contentTypes, CONTENT_TYPES_NS, "Override")) {
+            if (override.getAttribute("PartName").equals("/" + part)) {
+                return override.getAttribute("ContentType");
+            }
+        }
+        throw new IOException("No content type for " + part);
+    }
+
+    /**
+     * @return The zip entry name of a relationship target, relative to the part that holds the relationship
+     */
+    static String resolve(String sourcePart, String target) {
+        return URI.create("/" + sourcePart).resolve(target).normalize().getPath().substring(1);
+    }
+
+    static String relationshipsPart(String part) {
+        var slash = part.lastIndexOf('/');
+        return part.substring(0, slash + 1) + "_rels/" + part.substring(slash + 1) + ".rels";
+    }
+
+    private static List<Element> elements(Document document, String namespace, String localName) {
+        var nodes = document.getElementsByTagNameNS(namespace, localName);
+        var elements = new ArrayList<Element>(nodes.getLength());
+        for (var i = 0; i < nodes.getLength(); i++) {
+            elements.add((Element) nodes.item(i));
+        }
+        return elements;
+    }
+
+    private static byte[] bytes(ZipFile zip, String part) throws IOException {
+        var entry = part == null ? null : zip.getEntry(part);
+        if (entry == null) {
+            throw new IOException("Part not found: " + part);
+        }
+        try (var in = zip.getInputStream(entry)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static Document parse(ZipFile zip, String part) throws IOException {
+        try {
+            var factory = DocumentBuilderFactory.newInstance();
+            factory.setNamespaceAware(true);
+            factory.setFeature("http://apache.org/xml/features/disallow-doctype-decl", true);
+            factory.setFeature(XMLConstants.FEATURE_SECURE_PROCESSING, true);
+            return factory.newDocumentBuilder().parse(new ByteArrayInputStream(bytes(zip, part)));
+        } catch (ParserConfigurationException | SAXException e) {
+            throw new IOException("Could not parse " + part, e);
+        }
+    }
+
+    private static byte[] serialize(Document document) throws IOException {
+        try {
+            var transformer = TransformerFactory.newInstance().newTransformer();
+            transformer.setOutputProperty(OutputKeys.ENCODING, StandardCharsets.UTF_8.name());
+            transformer.setOutputProperty(OutputKeys.STANDALONE, "yes");
+            var out = new ByteArrayOutputStream();
+            transformer.transform(new DOMSource(document), new StreamResult(out));
+            return out.toByteArray();
+        } catch (TransformerException e) {
+            throw new IOException("Could not write XML part", e);
+        }
+    }
+
+    private static void put(ZipArchiveOutputStream out, String name, String content) throws IOException {
+        put(out, name, content.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static void put(ZipArchiveOutputStream out, String name, byte[] content) throws IOException {
+        out.putArchiveEntry(new ZipArchiveEntry(name));
+        out.write(content);
+        out.closeArchiveEntry();
+    }
+}
@@ -1,10 +1,10 @@
 package ludo.mentis.aciem.mdc.writer;
 
+import ludo.mentis.aciem.mdc.config.ExcelWriterProperties;
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
 import ludo.mentis.aciem.mdc.model.TradingAdjustment;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
-import org.apache.poi.ss.usermodel.Sheet;
-import org.apache.poi.ss.usermodel.Workbook;
 import org.springframework.batch.item.Chunk;
 
 import java.time.LocalDate;
@@ -19,17 +19,19 @@ public class TradingAdjustmentsExcelWriter extends BaseExcelItemWriter<TradingAd
             "Variação", "Valor do ajuste por contrato (R$)"
     };
 
-    private final Workbook workbook;
-    private final Sheet sheet;
     private int currentRow = 1;
 
     public TradingAdjustmentsExcelWriter(BackupService backupService, ExcelHelper excelHelper, LocalDate referenceDate, String outputDir) {
-        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME);
-        this.workbook = this.initializeWorkbook(SHEET_NAME);
-        this.sheet = workbook.createSheet(SHEET_NAME);
-        this.excelHelper.init(this.sheet);
-        this.writeHeader(this.sheet, COLUMN_HEADERS);
-        this.createAuditSheet(this.workbook, "Ajustes do Pregão - Audit Information", referenceDate);
+        this(backupService, excelHelper, referenceDate, outputDir, null, null);
+    }
+
+    public TradingAdjustmentsExcelWriter(BackupService backupService, ExcelHelper excelHelper, LocalDate referenceDate,
+                                         String outputDir, ExcelWriterProperties streamingProperties,
+                                         SheetReplaceProperties sheetReplaceProperties) {
+        super(backupService, excelHelper, LocalDate.now(), outputDir, FILE_NAME, streamingProperties,
+                sheetReplaceProperties);
+        this.initializeDataSheet(SHEET_NAME, COLUMN_HEADERS);
+        this.createAuditSheet(this.getWorkbook(), "Ajustes do Pregão - Audit Information", referenceDate);
     }
 
     @Override
@@ -37,13 +39,11 @@ public class TradingAdjustmentsExcelWriter extends BaseExcelItemWriter<TradingAd
         for (var item : chunk) {
             this.writeRow(item);
         }
-        this.autosizeColumns(sheet, COLUMN_HEADERS);
-        this.createTable(sheet, COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
-        this.saveWorkbook(this.workbook);
+        this.completeChunk(COLUMN_HEADERS, TABLE_NAME, TABLE_STYLE);
     }
 
     protected void writeRow(TradingAdjustment item) {
-        var row = sheet.createRow(currentRow++);
+        var row = this.createDataRow(currentRow++);
         excelHelper.setCellValue(row, 0, item.getCommodity());
         excelHelper.setCellValue(row, 1, item.getMaturity());
         excelHelper.setCellValue(row, 2, item.getPreviousAdjustmentPrice());
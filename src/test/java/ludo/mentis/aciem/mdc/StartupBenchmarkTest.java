@@ -0,0 +1,82 @@
+package ludo.mentis.aciem.mdc;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the launch time of the application with the default (H2) job repository and in the
+ * resourceless profile. Each launch is a new JVM, as when the application is started by a scheduler,
+ * that starts the context without running a job and exits. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class StartupBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(StartupBenchmarkTest.class);
+    private static final int WARMUP_LAUNCHES = 1;
+    private static final int MEASURED_LAUNCHES = 5;
+    private static final List<String> PROFILES = List.of("default", "resourceless");
+
+    @Test
+    void compareStartupTimeOfDefaultAndResourcelessModes() throws Exception {
+        // Given
+        for (var launch = 0; launch < WARMUP_LAUNCHES; launch++) {
+            for (var profile : PROFILES) {
+                launch(profile);
+            }
+        }
+        var timings = Map.of("default", new ArrayList<Long>(), "resourceless", new ArrayList<Long>());
+
+        // When
+        for (var launch = 0; launch < MEASURED_LAUNCHES; launch++) {
+            for (var profile : PROFILES) {
+                timings.get(profile).add(launch(profile));
+            }
+        }
+
+        // Then
+        var defaultMedian = median(timings.get("default"));
+        var resourcelessMedian = median(timings.get("resourceless"));
+        log.info("Median launch time over {} launches: default {} ms, resourceless {} ms ({} ms saved)",
+                MEASURED_LAUNCHES, defaultMedian, resourcelessMedian, defaultMedian - resourcelessMedian);
+        assertTrue(defaultMedian > 0 && resourcelessMedian > 0);
+    }
+
+    private long launch(String profile) throws IOException, InterruptedException {
+        var java = Path.of(System.getProperty("java.home"), "bin", "java").toString();
+        var start = System.nanoTime();
+        var process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                MdcApplication.class.getName(),
+                "--spring.profiles.active=" + profile,
+                "--spring.batch.job.enabled=false",
+                "--spring.main.banner-mode=off",
+                "--logging.level.root=WARN",
+                "--logging.level.ludo.mentis.aciem.mdc=WARN",
+                "--DB_USER=sa",
+                "--DB_PASSWORD=")
+                .redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.to(new File(System.getProperty("java.io.tmpdir"), "mdc-startup-benchmark.log")))
+                .start();
+        assertTrue(process.waitFor(2, TimeUnit.MINUTES), "Launch in " + profile + " mode timed out");
+        var elapsed = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        assertEquals(0, process.exitValue(), "Launch in " + profile + " mode failed");
+        return elapsed;
+    }
+
+    private static long median(List<Long> timings) {
+        var sorted = timings.stream().sorted().toList();
+        return sorted.get(sorted.size() / 2);
+    }
+}
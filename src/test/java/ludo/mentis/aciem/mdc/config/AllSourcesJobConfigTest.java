@@ -0,0 +1,174 @@
+package ludo.mentis.aciem.mdc.config;
+
+import ludo.mentis.aciem.mdc.listener.SourceStatusListener;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AllSourcesJobConfigTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTransactionManager transactionManager;
+    private JobRepository jobRepository;
+    private TaskExecutorJobLauncher jobLauncher;
+    private final Set<String> threads = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new JdbcTransactionManager(database);
+        var factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(database);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void allSourcesJob_shouldRunSourcesInParallel_andIsolateFailures() throws Exception {
+        // Given
+        var allStarted = new CountDownLatch(3);
+        var job = new AllSourcesJobConfig(jobRepository).allSourcesJob(
+                List.of(sourceJob("Ptax", allStarted, false),
+                        sourceJob("TradingAdjustments", allStarted, true),
+                        sourceJob("FinancialIndicators", allStarted, false)),
+                jobLauncher, executor(3), new RunIdIncrementer(), new SourceStatusListener());
+
+        // When
+        var execution = jobLauncher.run(job, new JobParametersBuilder().addLong("run.id", 1L).toJobParameters());
+
+        // Then
+        assertEquals(BatchStatus.FAILED, execution.getStatus());
+        assertEquals(3, threads.size(), "Each source should run on its own thread");
+        var steps = execution.getStepExecutions();
+        assertEquals(3, steps.size(), "A failing source should not stop the others");
+        var description = execution.getExitStatus().getExitDescription();
+        assertTrue(description.contains("FinancialIndicators=COMPLETED; Ptax=COMPLETED; TradingAdjustments=FAILED"),
+                description);
+    }
+
+    @Test
+    void allSourcesJob_shouldRerunOnlyFailedSources_whenRestarted() throws Exception {
+        // Given
+        var runs = new ConcurrentHashMap<String, Integer>();
+        var failing = new boolean[]{true};
+        var job = new AllSourcesJobConfig(jobRepository).allSourcesJob(
+                List.of(countingJob("Ptax", runs, () -> false), countingJob("TradingAdjustments", runs, () -> failing[0])),
+                jobLauncher, executor(2), new RunIdIncrementer(), new SourceStatusListener());
+        var parameters = new JobParametersBuilder().addLong("run.id", 1L).toJobParameters();
+        assertEquals(BatchStatus.FAILED, jobLauncher.run(job, parameters).getStatus());
+
+        // When
+        failing[0] = false;
+        var restarted = jobLauncher.run(job, parameters);
+
+        // Then
+        assertEquals(BatchStatus.COMPLETED, restarted.getStatus());
+        assertEquals(1, runs.get("Ptax"));
+        assertEquals(2, runs.get("TradingAdjustments"));
+    }
+
+    @Test
+    void allSourcesJob_shouldNotRunMoreSourcesThanTheConcurrencyLimit() throws Exception {
+        // Given
+        var running = new AtomicInteger();
+        var maxRunning = new AtomicInteger();
+        var sources = List.of("A", "B", "C", "D").stream()
+                .map(name -> new JobBuilder(name, jobRepository)
+                        .start(new StepBuilder(name + "Step", jobRepository)
+                                .tasklet((contribution, chunkContext) -> {
+                                    maxRunning.accumulateAndGet(running.incrementAndGet(), Math::max);
+                                    Thread.sleep(50);
+                                    running.decrementAndGet();
+                                    return RepeatStatus.FINISHED;
+                                }, transactionManager)
+                                .build())
+                        .build())
+                .map(Job.class::cast)
+                .toList();
+        var job = new AllSourcesJobConfig(jobRepository).allSourcesJob(sources, jobLauncher, executor(2),
+                new RunIdIncrementer(), new SourceStatusListener());
+
+        // When
+        var execution = jobLauncher.run(job, new JobParametersBuilder().addLong("run.id", 1L).toJobParameters());
+
+        // Then
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertTrue(maxRunning.get() <= 2, "At most two sources should run at a time");
+    }
+
+    private Job sourceJob(String name, CountDownLatch allStarted, boolean fail) {
+        return new JobBuilder(name, jobRepository)
+                .start(new StepBuilder(name + "Step", jobRepository)
+                        .tasklet((contribution, chunkContext) -> {
+                            threads.add(Thread.currentThread().getName());
+                            allStarted.countDown();
+                            // Sources only get here together if they run in parallel
+                            assertTrue(allStarted.await(10, TimeUnit.SECONDS));
+                            if (fail) {
+                                throw new IllegalStateException(name + " is unavailable");
+                            }
+                            return RepeatStatus.FINISHED;
+                        }, transactionManager)
+                        .build())
+                .build();
+    }
+
+    private Job countingJob(String name, ConcurrentHashMap<String, Integer> runs,
+                            BooleanSupplier fail) {
+        return new JobBuilder(name, jobRepository)
+                .start(new StepBuilder(name + "Step", jobRepository)
+                        .tasklet((contribution, chunkContext) -> {
+                            runs.merge(name, 1, Integer::sum);
+                            if (fail.getAsBoolean()) {
+                                throw new IllegalStateException(name + " is unavailable");
+                            }
+                            return RepeatStatus.FINISHED;
+                        }, transactionManager)
+                        .build())
+                .build();
+    }
+
+    private static SimpleAsyncTaskExecutor executor(int concurrencyLimit) {
+        var executor = new SimpleAsyncTaskExecutor("test-sources-");
+        executor.setConcurrencyLimit(concurrencyLimit);
+        return executor;
+    }
+}
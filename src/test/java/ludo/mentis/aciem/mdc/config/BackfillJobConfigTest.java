@@ -0,0 +1,165 @@
+package ludo.mentis.aciem.mdc.config;
+
+import ludo.mentis.aciem.mdc.partition.BusinessDayPartitioner;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.partition.support.Partitioner;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+
+import java.time.LocalDate;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BackfillJobConfigTest {
+
+    private static final List<LocalDate> DAYS = List.of(
+            LocalDate.of(2025, 4, 16), LocalDate.of(2025, 4, 17), LocalDate.of(2025, 4, 22));
+
+    private EmbeddedDatabase database;
+    private JdbcTransactionManager transactionManager;
+    private JobRepository jobRepository;
+    private TaskExecutorJobLauncher jobLauncher;
+    private final Map<LocalDate, Integer> runs = new ConcurrentHashMap<>();
+    private final Set<String> outputSubdirectories = ConcurrentHashMap.newKeySet();
+    private final Set<LocalDate> failingDays = ConcurrentHashMap.newKeySet();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new JdbcTransactionManager(database);
+        var factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(database);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void backfillStep_shouldRunSourceJobOncePerBusinessDay() throws Exception {
+        // When
+        var execution = jobLauncher.run(backfillJob(), parameters());
+
+        // Then
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertEquals(Map.of(DAYS.get(0), 1, DAYS.get(1), 1, DAYS.get(2), 1), runs);
+        assertEquals(Set.of("2025-04-16", "2025-04-17", "2025-04-22"), outputSubdirectories);
+    }
+
+    @Test
+    void backfillStep_shouldRerunOnlyFailedDays_whenRestarted() throws Exception {
+        // Given
+        failingDays.add(DAYS.get(1));
+        var job = backfillJob();
+        assertEquals(BatchStatus.FAILED, jobLauncher.run(job, parameters()).getStatus());
+
+        // When
+        failingDays.clear();
+        var restarted = jobLauncher.run(job, parameters());
+
+        // Then
+        assertEquals(BatchStatus.COMPLETED, restarted.getStatus());
+        assertEquals(Map.of(DAYS.get(0), 1, DAYS.get(1), 2, DAYS.get(2), 1), runs);
+    }
+
+    @Test
+    void partitionParameters_shouldAddReferenceDateAndOutputSubdirectoryToBackfillParameters() {
+        // Given
+        var jobExecution = MetaDataInstanceFactory.createJobExecution(
+                "Backfill", 1L, 1L, new JobParametersBuilder().addString("source", "Ptax").toJobParameters());
+        var stepExecution = jobExecution.createStepExecution("BackfillWorker:date-2025-04-16");
+        stepExecution.getExecutionContext().put(BusinessDayPartitioner.REFERENCE_DATE_KEY, DAYS.get(0));
+        stepExecution.getExecutionContext().putString(BusinessDayPartitioner.OUTPUT_SUBDIRECTORY_KEY, "2025-04-16");
+
+        // When
+        var parameters = BackfillJobConfig.partitionParameters(null, stepExecution);
+
+        // Then
+        assertEquals("Ptax", parameters.getString("source"));
+        assertEquals(DAYS.get(0), parameters.getLocalDate("referenceDate"));
+        assertEquals("2025-04-16", parameters.getString("outputSubdirectory"));
+    }
+
+    private Job backfillJob() {
+        var step = new BackfillJobConfig(jobRepository)
+                .backfillStep(sourceJob(), partitioner(), jobLauncher, executor());
+        return new JobBuilder("Backfill", jobRepository).start(step).build();
+    }
+
+    private Job sourceJob() {
+        return new JobBuilder("BrazilianBondPrices", jobRepository)
+                .start(new StepBuilder("DownloadFile", jobRepository)
+                        .tasklet((contribution, chunkContext) -> {
+                            var parameters = contribution.getStepExecution().getJobParameters();
+                            var referenceDate = parameters.getLocalDate("referenceDate");
+                            runs.merge(referenceDate, 1, Integer::sum);
+                            outputSubdirectories.add(parameters.getString("outputSubdirectory"));
+                            if (failingDays.contains(referenceDate)) {
+                                throw new IllegalStateException("No file for " + referenceDate);
+                            }
+                            return RepeatStatus.FINISHED;
+                        }, transactionManager)
+                        .build())
+                .build();
+    }
+
+    private static Partitioner partitioner() {
+        return gridSize -> {
+            var partitions = new LinkedHashMap<String, ExecutionContext>();
+            for (var day : DAYS) {
+                var context = new ExecutionContext();
+                context.put(BusinessDayPartitioner.REFERENCE_DATE_KEY, day);
+                context.putString(BusinessDayPartitioner.OUTPUT_SUBDIRECTORY_KEY, day.toString());
+                partitions.put("date-" + day, context);
+            }
+            return partitions;
+        };
+    }
+
+    private static JobParameters parameters() {
+        return new JobParametersBuilder()
+                .addString("source", "BrazilianBondPrices")
+                .addString("startDate", "2025-04-16")
+                .addString("endDate", "2025-04-22")
+                .toJobParameters();
+    }
+
+    private static SimpleAsyncTaskExecutor executor() {
+        var executor = new SimpleAsyncTaskExecutor("test-backfill-");
+        executor.setConcurrencyLimit(2);
+        return executor;
+    }
+}
@@ -0,0 +1,25 @@
+package ludo.mentis.aciem.mdc.config;
+
+import io.micrometer.core.instrument.Metrics;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class MetricsConfigTest {
+
+    @Test
+    void meterRegistry_shouldLeaveGlobalRegistry_whenContextCloses() {
+        // Given
+        var context = new AnnotationConfigApplicationContext(MetricsConfig.class);
+        var registry = context.getBean("meterRegistry");
+        assertTrue(Metrics.globalRegistry.getRegistries().contains(registry));
+
+        // When
+        context.close();
+
+        // Then
+        assertFalse(Metrics.globalRegistry.getRegistries().contains(registry));
+    }
+}
@@ -0,0 +1,161 @@
+package ludo.mentis.aciem.mdc.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ludo.mentis.aciem.mdc.reader.JsonReaderRegistry;
+import ludo.mentis.aciem.mdc.service.BackupService;
+import ludo.mentis.aciem.mdc.service.FileSystemPayloadSpool;
+import ludo.mentis.aciem.mdc.util.ExcelHelperImpl;
+import ludo.mentis.aciem.mdc.writer.CsvOutputFormat;
+import ludo.mentis.aciem.mdc.writer.OutputFormat;
+import ludo.mentis.aciem.mdc.writer.OutputSchema;
+import ludo.mentis.aciem.mdc.writer.OutputSchemas;
+import ludo.mentis.aciem.mdc.writer.OutputWriterFactory;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class PtaxJobConfigTest {
+
+    private static final int ITEM_COUNT = 2500;
+
+    @TempDir
+    Path tempDir;
+
+    private EmbeddedDatabase database;
+    private JdbcTransactionManager transactionManager;
+    private JobRepository jobRepository;
+    private TaskExecutorJobLauncher jobLauncher;
+    private final FailingOnceFormat failingFormat = new FailingOnceFormat();
+
+    @BeforeEach
+    void setUp() throws Exception {
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("/org/springframework/batch/core/schema-h2.sql")
+                .build();
+        transactionManager = new JdbcTransactionManager(database);
+        var factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(database);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+        jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void processFileStep_shouldWriteAllItems_whenRestartedAfterFailedChunk() throws Exception {
+        // Given
+        var spoolProperties = new PayloadSpoolProperties();
+        spoolProperties.setDirectory(tempDir.resolve("spool").toString());
+        var payloadSpool = new FileSystemPayloadSpool(spoolProperties);
+        var spoolFile = payloadSpool.allocate(PtaxJobConfig.JOB_NAME);
+        Files.writeString(spoolFile, payload());
+        var payloadHandle = payloadSpool.toHandle(spoolFile);
+        var outputDir = tempDir.resolve("out");
+        var parameters = new JobParametersBuilder().addLong("run.id", 1L).toJobParameters();
+
+        // When
+        var failed = run(parameters, payloadSpool, payloadHandle, outputDir);
+        var restarted = run(parameters, payloadSpool, payloadHandle, outputDir);
+
+        // Then
+        assertEquals(BatchStatus.FAILED, failed.getStatus());
+        assertEquals(BatchStatus.COMPLETED, restarted.getStatus());
+        assertEquals(failed.getJobInstance().getId(), restarted.getJobInstance().getId());
+        var step = restarted.getStepExecutions().iterator().next();
+        assertEquals(ITEM_COUNT, step.getReadCount(), "The restarted step should read the whole payload again");
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputDir.resolve("Ptax.xlsx")))) {
+            var sheet = workbook.getSheet("PX");
+            assertEquals(ITEM_COUNT, sheet.getLastRowNum());
+            assertEquals("A1:C" + (ITEM_COUNT + 1), sheet.getTables().get(0).getArea().formatAsString());
+        }
+        var csvLines = Files.readAllLines(outputDir.resolve(OutputSchemas.PTAX.name() + ".csv"));
+        assertEquals(ITEM_COUNT + 1, csvLines.size());
+    }
+
+    private JobExecution run(JobParameters parameters, FileSystemPayloadSpool payloadSpool, String payloadHandle,
+                             Path outputDir) throws Exception {
+        return jobLauncher.run(ptaxProcessJob(payloadSpool, payloadHandle, outputDir), parameters);
+    }
+
+    /**
+     * Builds the job anew for each run, as the job scope does with the step, its reader and its writers.
+     */
+    private Job ptaxProcessJob(FileSystemPayloadSpool payloadSpool, String payloadHandle, Path outputDir) {
+        var outputFormatProperties = new OutputFormatProperties();
+        outputFormatProperties.getJobs().put(PtaxJobConfig.JOB_NAME,
+                List.of(OutputWriterFactory.EXCEL, CsvOutputFormat.NAME, FailingOnceFormat.NAME));
+        var outputWriterFactory = new OutputWriterFactory(List.of(new CsvOutputFormat(), failingFormat),
+                outputFormatProperties);
+        var step = new PtaxJobConfig(jobRepository, transactionManager).processFileStepPX(
+                null, payloadHandle, outputDir.toString(), mock(BackupService.class), new ExcelHelperImpl(),
+                new ExcelWriterProperties(), new SheetReplaceProperties(), outputWriterFactory, payloadSpool,
+                new JsonReaderRegistry(), new SimpleMeterRegistry());
+        return new JobBuilder(PtaxJobConfig.JOB_NAME, jobRepository).start(step).build();
+    }
+
+    private static String payload() {
+        return IntStream.range(0, ITEM_COUNT)
+                .mapToObj(i -> """
+                        {"cotacaoCompra": 5.%04d, "cotacaoVenda": 5.%04d, "dataHoraCotacao": "2025-04-01 13:07:29.553"}\
+                        """.formatted(i, i + 1))
+                .collect(Collectors.joining(",", "{\"value\": [", "]}"));
+    }
+
+    /**
+     * Fails the second chunk of the first run, after the other writers of the composite wrote it.
+     */
+    private static class FailingOnceFormat implements OutputFormat {
+        static final String NAME = "failing";
+        private boolean failed;
+
+        @Override
+        public String name() {
+            return NAME;
+        }
+
+        @Override
+        public <T> ItemStreamWriter<T> createWriter(OutputSchema<T> schema, Path outputDir) {
+            var chunks = new int[1];
+            return chunk -> {
+                if (!failed && ++chunks[0] == 2) {
+                    failed = true;
+                    throw new IllegalStateException("Could not write chunk " + chunks[0]);
+                }
+            };
+        }
+    }
+}
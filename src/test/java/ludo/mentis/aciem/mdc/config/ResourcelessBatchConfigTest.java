@@ -0,0 +1,100 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
+import org.springframework.batch.repeat.RepeatStatus;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ResourcelessBatchConfigTest {
+
+    private final ResourcelessBatchConfig config = new ResourcelessBatchConfig();
+
+    private JobRepository jobRepository;
+    private PlatformTransactionManager transactionManager;
+    private JobLauncher jobLauncher;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        jobRepository = config.jobRepository();
+        transactionManager = config.transactionManager();
+        jobLauncher = config.jobLauncher(jobRepository);
+    }
+
+    @Test
+    void jobLauncher_shouldRunJobPassingDataBetweenSteps() throws Exception {
+        // Given
+        var received = new AtomicReference<String>();
+        var job = twoStepJob("Ptax", received, false);
+
+        // When
+        var execution = jobLauncher.run(job, new JobParameters());
+
+        // Then
+        assertEquals(BatchStatus.COMPLETED, execution.getStatus());
+        assertEquals("payload", received.get());
+    }
+
+    @Test
+    void jobLauncher_shouldReportFailure_whenStepFails() throws Exception {
+        // Given
+        var job = twoStepJob("Ptax", new AtomicReference<>(), true);
+
+        // When
+        var execution = jobLauncher.run(job, new JobParameters());
+
+        // Then
+        assertEquals(BatchStatus.FAILED, execution.getStatus());
+        assertEquals(1, execution.getAllFailureExceptions().size());
+    }
+
+    @Test
+    void jobExplorer_shouldStartFirstRunOfEveryJob() {
+        // Given
+        var job = new JobBuilder("Ptax", jobRepository)
+                .incrementer(new RunIdIncrementer())
+                .start(new StepBuilder("Step", jobRepository)
+                        .tasklet((contribution, chunkContext) -> RepeatStatus.FINISHED, transactionManager)
+                        .build())
+                .build();
+
+        // When
+        var parameters = new JobParametersBuilder(new JobParameters(), config.jobExplorer()).getNextJobParameters(job)
+                .toJobParameters();
+
+        // Then
+        assertEquals(1L, parameters.getLong("run.id"));
+    }
+
+    private Job twoStepJob(String name, AtomicReference<String> received, boolean fail) {
+        var download = new StepBuilder("DownloadFile", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    if (fail) {
+                        throw new IllegalStateException("Download failed");
+                    }
+                    contribution.getStepExecution().getJobExecution().getExecutionContext().put("payload", "payload");
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+        var process = new StepBuilder("ProcessFileStep", jobRepository)
+                .tasklet((contribution, chunkContext) -> {
+                    received.set(contribution.getStepExecution().getJobExecution().getExecutionContext()
+                            .getString("payload"));
+                    return RepeatStatus.FINISHED;
+                }, transactionManager)
+                .build();
+        return new JobBuilder(name, jobRepository).start(download).next(process).build();
+    }
+}
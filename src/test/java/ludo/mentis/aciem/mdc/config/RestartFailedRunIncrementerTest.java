@@ -0,0 +1,71 @@
+package ludo.mentis.aciem.mdc.config;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RestartFailedRunIncrementerTest {
+
+    @Mock
+    private JobExplorer jobExplorer;
+
+    @Test
+    void getNext_shouldReturnIdentifyingParametersOfLastRun_whenItFailed() {
+        // Given
+        var parameters = new JobParametersBuilder()
+                .addLong("run.id", 3L)
+                .addString("source", "Ptax")
+                .addString("note", "not identifying", false)
+                .toJobParameters();
+        var lastExecution = MetaDataInstanceFactory.createJobExecution("AllSources", 1L, 5L, parameters);
+        lastExecution.setStatus(BatchStatus.FAILED);
+        when(jobExplorer.getLastJobInstance("AllSources")).thenReturn(lastExecution.getJobInstance());
+        when(jobExplorer.getLastJobExecution(lastExecution.getJobInstance())).thenReturn(lastExecution);
+
+        // When
+        var next = new RestartFailedRunIncrementer(jobExplorer, "AllSources").getNext(parameters);
+
+        // Then
+        assertEquals(3L, next.getLong("run.id"));
+        assertEquals("Ptax", next.getString("source"));
+        assertNull(next.getString("note"));
+    }
+
+    @Test
+    void getNext_shouldIncrementRunId_whenLastRunCompleted() {
+        // Given
+        var parameters = new JobParametersBuilder().addLong("run.id", 3L).toJobParameters();
+        var lastExecution = MetaDataInstanceFactory.createJobExecution("AllSources", 1L, 5L, parameters);
+        lastExecution.setStatus(BatchStatus.COMPLETED);
+        when(jobExplorer.getLastJobInstance("AllSources")).thenReturn(lastExecution.getJobInstance());
+        when(jobExplorer.getLastJobExecution(lastExecution.getJobInstance())).thenReturn(lastExecution);
+
+        // When
+        var next = new RestartFailedRunIncrementer(jobExplorer, "AllSources").getNext(parameters);
+
+        // Then
+        assertEquals(4L, next.getLong("run.id"));
+    }
+
+    @Test
+    void getNext_shouldStartFirstRun_whenJobNeverRan() {
+        // Given
+        when(jobExplorer.getLastJobInstance("Backfill")).thenReturn(null);
+
+        // When
+        var next = new RestartFailedRunIncrementer(jobExplorer, "Backfill").getNext(new JobParametersBuilder().toJobParameters());
+
+        // Then
+        assertEquals(1L, next.getLong("run.id"));
+    }
+}
@@ -0,0 +1,137 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ludo.mentis.aciem.mdc.config.MetricsProperties;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricsReportListenerTest {
+
+    @TempDir
+    Path tempDir;
+
+    private SimpleMeterRegistry registry;
+    private MetricsProperties properties;
+    private MetricsReportListener listener;
+    private JobExecution jobExecution;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        properties = new MetricsProperties();
+        properties.setDirectory(tempDir.toString());
+        listener = new MetricsReportListener(registry, properties);
+        jobExecution = MetaDataInstanceFactory.createJobExecution("Ptax", 1L, 1L);
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+    }
+
+    @Test
+    void afterJob_shouldReportAndRemoveMetersOfTheJob() throws Exception {
+        // Given
+        Counter.builder("mdc.writer.rows").tags(MetricTags.JOB, "Ptax", MetricTags.EXECUTION, "1",
+                        MetricTags.SOURCE, "olinda.bcb.gov.br")
+                .register(registry).increment(42);
+        Counter.builder("spring.batch.item.read").tag("spring.batch.item.read.job.name", "Ptax")
+                .register(registry).increment(42);
+        Counter.builder("mdc.writer.rows").tags(MetricTags.JOB, "Other", MetricTags.EXECUTION, "2",
+                        MetricTags.SOURCE, "none")
+                .register(registry).increment(7);
+
+        // When
+        listener.afterJob(jobExecution);
+
+        // Then
+        var lines = Files.readAllLines(tempDir.resolve("metrics-" + LocalDate.now() + ".jsonl"));
+        assertEquals(2, lines.size());
+        var line = new ObjectMapper().readTree(lines.get(0));
+        assertEquals("Ptax", line.get("job").asText());
+        assertEquals("COMPLETED", line.get("status").asText());
+        assertEquals("mdc.writer.rows", line.get("name").asText());
+        assertEquals("counter", line.get("type").asText());
+        assertEquals("olinda.bcb.gov.br", line.get("tags").get(MetricTags.SOURCE).asText());
+        assertEquals(42.0, line.get("count").asDouble());
+        assertEquals(1, registry.getMeters().size(), "Only the meters of other jobs should remain");
+    }
+
+    @Test
+    void afterJob_shouldOnlyRemoveMeters_whenReportIsDisabled() {
+        // Given
+        properties.setEnabled(false);
+        Counter.builder("mdc.writer.rows").tags(MetricTags.JOB, "Ptax", MetricTags.EXECUTION, "1")
+                .register(registry).increment();
+
+        // When
+        listener.afterJob(jobExecution);
+
+        // Then
+        assertTrue(registry.getMeters().isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("metrics-" + LocalDate.now() + ".jsonl")));
+    }
+
+    @Test
+    void afterJob_shouldNotFail_whenReportCannotBeWritten() throws Exception {
+        // Given
+        var blocker = Files.createFile(tempDir.resolve("not-a-directory"));
+        properties.setDirectory(blocker.toString());
+        Counter.builder("mdc.writer.rows").tags(MetricTags.JOB, "Ptax", MetricTags.EXECUTION, "1")
+                .register(registry).increment();
+
+        // When / Then
+        assertDoesNotThrow(() -> listener.afterJob(jobExecution));
+        assertTrue(registry.getMeters().isEmpty());
+    }
+
+    @Test
+    void afterJob_shouldLeaveMetersOfOtherRunningExecutionsOfTheJob() throws Exception {
+        // Given
+        var other = MetaDataInstanceFactory.createJobExecution("Ptax", 1L, 2L);
+        listener.beforeJob(jobExecution);
+        listener.beforeJob(other);
+        Counter.builder("mdc.writer.rows").tags(MetricTags.JOB, "Ptax", MetricTags.EXECUTION, "1")
+                .register(registry).increment(42);
+        Counter.builder("mdc.writer.rows").tags(MetricTags.JOB, "Ptax", MetricTags.EXECUTION, "2")
+                .register(registry).increment(7);
+        Counter.builder("spring.batch.item.read").tag("spring.batch.item.read.job.name", "Ptax")
+                .register(registry).increment(49);
+
+        // When
+        listener.afterJob(jobExecution);
+
+        // Then
+        var report = tempDir.resolve("metrics-" + LocalDate.now() + ".jsonl");
+        var lines = Files.readAllLines(report);
+        assertEquals(1, lines.size());
+        assertEquals(42.0, new ObjectMapper().readTree(lines.get(0)).get("count").asDouble());
+        assertEquals(2, registry.getMeters().size());
+
+        // When
+        other.setStatus(BatchStatus.COMPLETED);
+        listener.afterJob(other);
+
+        // Then
+        lines = Files.readAllLines(report);
+        assertEquals(3, lines.size());
+        var counts = new HashMap<String, Double>();
+        for (var line : lines.subList(1, 3)) {
+            var json = new ObjectMapper().readTree(line);
+            counts.put(json.get("name").asText(), json.get("count").asDouble());
+        }
+        assertEquals(Map.of("mdc.writer.rows", 7.0, "spring.batch.item.read", 49.0), counts);
+        assertTrue(registry.getMeters().isEmpty());
+    }
+}
@@ -0,0 +1,72 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.tasklet.BaseDownloaderTasklet;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PayloadSpoolCleanupListenerTest {
+
+    @Mock
+    private PayloadSpool payloadSpool;
+
+    private PayloadSpoolCleanupListener listener;
+    private JobExecution jobExecution;
+
+    @BeforeEach
+    void setUp() {
+        listener = new PayloadSpoolCleanupListener(payloadSpool);
+        jobExecution = MetaDataInstanceFactory.createJobExecution();
+        jobExecution.getExecutionContext().putString(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY, "/spool/Ptax-1.payload");
+    }
+
+    @Test
+    void afterJob_shouldReleasePayload_whenJobCompleted() {
+        // Given
+        jobExecution.setStatus(BatchStatus.COMPLETED);
+
+        // When
+        listener.afterJob(jobExecution);
+
+        // Then
+        verify(payloadSpool).release("/spool/Ptax-1.payload");
+        assertFalse(jobExecution.getExecutionContext().containsKey(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY));
+    }
+
+    @Test
+    void afterJob_shouldKeepPayload_whenJobFailed() {
+        // Given
+        jobExecution.setStatus(BatchStatus.FAILED);
+
+        // When
+        listener.afterJob(jobExecution);
+
+        // Then
+        verifyNoInteractions(payloadSpool);
+        assertTrue(jobExecution.getExecutionContext().containsKey(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY));
+    }
+
+    @Test
+    void afterJob_shouldDoNothing_whenPayloadWasNotSpooled() {
+        // Given
+        var inMemoryExecution = MetaDataInstanceFactory.createJobExecution();
+        inMemoryExecution.setStatus(BatchStatus.COMPLETED);
+
+        // When
+        listener.afterJob(inMemoryExecution);
+
+        // Then
+        verify(payloadSpool, never()).release(any());
+    }
+}
@@ -0,0 +1,83 @@
+package ludo.mentis.aciem.mdc.listener;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecution;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class StepMetricsListenerTest {
+
+    private SimpleMeterRegistry registry;
+    private StepMetricsListener listener;
+    private StepExecution stepExecution;
+
+    @BeforeEach
+    void setUp() {
+        registry = new SimpleMeterRegistry();
+        listener = new StepMetricsListener(registry);
+        var jobExecution = MetaDataInstanceFactory.createJobExecution("Ptax", 1L, 1L);
+        stepExecution = MetaDataInstanceFactory.createStepExecution(jobExecution, "ProcessFileStep", 1L);
+        stepExecution.getJobExecution().getExecutionContext().putString(MetricTags.SOURCE_CONTEXT_KEY, "olinda.bcb.gov.br");
+        stepExecution.setExitStatus(ExitStatus.COMPLETED);
+    }
+
+    @Test
+    void afterStep_shouldRecordItemsParsedAndRowsWritten_taggedWithJobStepAndSource() {
+        // Given
+        listener.beforeStep(stepExecution);
+        for (var i = 0; i < 3; i++) {
+            listener.beforeRead();
+            listener.afterRead("item" + i);
+        }
+        listener.afterWrite(Chunk.of("item0", "item1", "item2"));
+
+        // When
+        var exitStatus = listener.afterStep(stepExecution);
+
+        // Then
+        assertEquals(ExitStatus.COMPLETED, exitStatus);
+        var tags = new String[]{MetricTags.JOB, "Ptax", MetricTags.EXECUTION, "1", MetricTags.STEP, "ProcessFileStep",
+                MetricTags.SOURCE, "olinda.bcb.gov.br"};
+        assertEquals(3, registry.get(StepMetricsListener.ITEMS_READ).tags(tags).counter().count());
+        assertEquals(1, registry.get(StepMetricsListener.PARSE_TIME).tags(tags).timer().count());
+        assertEquals(3, registry.get(StepMetricsListener.ROWS_WRITTEN).tags(tags).counter().count());
+    }
+
+    @Test
+    void afterStep_shouldRecordOnlyAllocation_whenStepReadsNoItems() {
+        // Given
+        listener.beforeStep(stepExecution);
+
+        // When
+        listener.afterStep(stepExecution);
+
+        // Then
+        assertNull(registry.find(StepMetricsListener.ITEMS_READ).counter());
+        assertNull(registry.find(StepMetricsListener.ROWS_WRITTEN).counter());
+        var allocated = registry.find(StepMetricsListener.ALLOCATED).summary();
+        assertTrue(allocated == null || allocated.count() == 1);
+    }
+
+    @Test
+    void afterStep_shouldTagSourceAsNone_whenJobContextHasNoSource() {
+        // Given
+        stepExecution.getJobExecution().getExecutionContext().remove(MetricTags.SOURCE_CONTEXT_KEY);
+        listener.beforeStep(stepExecution);
+        listener.beforeRead();
+        listener.afterRead("item");
+
+        // When
+        listener.afterStep(stepExecution);
+
+        // Then
+        assertEquals(1, registry.get(StepMetricsListener.ITEMS_READ).tag(MetricTags.SOURCE, "none").counter().count());
+    }
+}
@@ -0,0 +1,63 @@
+package ludo.mentis.aciem.mdc.partition;
+
+import ludo.mentis.aciem.mdc.exception.HolidaysNotAvailableException;
+import ludo.mentis.aciem.mdc.service.HolidayManager;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class BusinessDayPartitionerTest {
+
+    private static final LocalDate START = LocalDate.of(2025, 4, 17);
+    private static final LocalDate END = LocalDate.of(2025, 4, 22);
+
+    @Mock
+    private HolidayManager holidayManager;
+
+    @Test
+    void partition_shouldCreateOnePartitionPerBusinessDay() throws Exception {
+        // Given
+        when(holidayManager.businessDaysBetween(START, END, "BRA"))
+                .thenReturn(List.of(LocalDate.of(2025, 4, 17), LocalDate.of(2025, 4, 21)));
+        var partitioner = new BusinessDayPartitioner(holidayManager, START, END, "BRA");
+
+        // When
+        var partitions = partitioner.partition(1);
+
+        // Then
+        assertEquals(List.of("date-2025-04-17", "date-2025-04-21"), List.copyOf(partitions.keySet()));
+        var context = partitions.get("date-2025-04-21");
+        assertEquals(LocalDate.of(2025, 4, 21), context.get(BusinessDayPartitioner.REFERENCE_DATE_KEY));
+        assertEquals("2025-04-21", context.getString(BusinessDayPartitioner.OUTPUT_SUBDIRECTORY_KEY));
+    }
+
+    @Test
+    void partition_shouldReturnNoPartitions_whenRangeHasNoBusinessDays() throws Exception {
+        // Given
+        when(holidayManager.businessDaysBetween(START, END, "BRA")).thenReturn(List.of());
+        var partitioner = new BusinessDayPartitioner(holidayManager, START, END, "BRA");
+
+        // When / Then
+        assertTrue(partitioner.partition(4).isEmpty());
+    }
+
+    @Test
+    void partition_shouldFail_whenHolidaysAreNotAvailable() throws Exception {
+        // Given
+        when(holidayManager.businessDaysBetween(START, END, "BRA"))
+                .thenThrow(new HolidaysNotAvailableException("No holidays loaded"));
+        var partitioner = new BusinessDayPartitioner(holidayManager, START, END, "BRA");
+
+        // When / Then
+        var exception = assertThrows(IllegalStateException.class, () -> partitioner.partition(4));
+        assertInstanceOf(HolidaysNotAvailableException.class, exception.getCause());
+    }
+}
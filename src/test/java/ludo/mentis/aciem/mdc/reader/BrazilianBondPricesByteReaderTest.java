@@ -0,0 +1,219 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import ludo.mentis.aciem.mdc.model.BrazilianBondPrice;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.batch.item.file.FlatFileParseException;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BrazilianBondPricesByteReaderTest {
+
+    private static final String HEADER = "ANBIMA\n\nTitulo@Data Referencia@Codigo SELIC\n";
+
+    private byte[] goodFileContent;
+    private byte[] badFileContent;
+    private String fileName;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        // Load test files
+        var goodFile = new ClassPathResource("BrazilianBondPrices_Good.txt");
+        var badFile = new ClassPathResource("BrazilianBondPrices_Bad.txt");
+
+        goodFileContent = Files.readAllBytes(goodFile.getFile().toPath());
+        badFileContent = Files.readAllBytes(badFile.getFile().toPath());
+        fileName = "test.txt";
+    }
+
+    @Test
+    void shouldReadValidFile() throws Exception {
+        // Given
+        var reader = new BrazilianBondPricesByteReader(goodFileContent, fileName);
+        reader.open(new ExecutionContext());
+
+        // When
+        var firstItem = reader.read();
+
+        // Then
+        assertNotNull(firstItem);
+        assertEquals("LTN", firstItem.getTitle());
+        assertEquals(LocalDate.of(2025, 4, 2), firstItem.getReferenceDate());
+        assertEquals("100000", firstItem.getSelicCode());
+        assertEquals(LocalDate.of(2022, 1, 7), firstItem.getBaseDate());
+        assertEquals(LocalDate.of(2025, 7, 1), firstItem.getMaturityDate());
+        assertEquals(new BigDecimal("14.4135"), firstItem.getBuyRate());
+        assertEquals(new BigDecimal("14.3062"), firstItem.getSellRate());
+        assertEquals(new BigDecimal("14.3685"), firstItem.getIndicativeRate());
+        assertEquals(new BigDecimal("968.539902"), firstItem.getPrice());
+        assertEquals(new BigDecimal("0.04678601964241"), firstItem.getStandardDeviation());
+        assertEquals(new BigDecimal("14.2154"), firstItem.getLowerIntervalD0());
+        assertEquals(new BigDecimal("14.5007"), firstItem.getUpperIntervalD0());
+        assertEquals(new BigDecimal("14.288"), firstItem.getLowerIntervalD1());
+        assertEquals(new BigDecimal("14.5722"), firstItem.getUpperIntervalD1());
+        assertEquals("Calculado", firstItem.getCriteria());
+    }
+
+    @Test
+    void shouldReadSameItemsAsFlatFileReader() throws Exception {
+        // Given
+        var expected = readAll(new BrazilianBondPricesCsvReader(goodFileContent, fileName));
+
+        // When
+        var actual = readAll(new BrazilianBondPricesByteReader(goodFileContent, fileName));
+
+        // Then
+        assertEquals(48, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldReturnNull_forDashedValues() throws Exception {
+        // Given
+        var reader = new BrazilianBondPricesByteReader(goodFileContent, fileName);
+        reader.open(new ExecutionContext());
+
+        // When - the 29th item (line 32) has "--" values
+        BrazilianBondPrice item = null;
+        for (int i = 0; i < 29; i++) {
+            item = reader.read();
+        }
+
+        // Then
+        assertNotNull(item);
+        assertEquals("LFT", item.getTitle());
+        assertEquals(LocalDate.of(2031, 6, 1), item.getMaturityDate());
+        assertNull(item.getLowerIntervalD0());
+        assertNull(item.getUpperIntervalD0());
+        assertNotNull(item.getLowerIntervalD1());
+    }
+
+    @Test
+    void shouldParseGroupedNegativeAndLongNumbers() throws Exception {
+        // Given
+        var content = HEADER
+                + "NTN-B@20250402@760199@20000715@20350515@-0,50@1.234,50@100,000000@12345678901234567890,123@0@@ @--@--@Calculado\r\n";
+        var reader = new BrazilianBondPricesByteReader(content.getBytes(StandardCharsets.UTF_8), fileName);
+        reader.open(new ExecutionContext());
+
+        // When
+        var item = reader.read();
+
+        // Then
+        assertEquals(new BigDecimal("-0.50"), item.getBuyRate());
+        assertEquals(new BigDecimal("1234.50"), item.getSellRate());
+        assertEquals(new BigDecimal("100.000000"), item.getIndicativeRate());
+        assertEquals(new BigDecimal("12345678901234567890.123"), item.getPrice());
+        assertEquals(BigDecimal.ZERO, item.getStandardDeviation());
+        assertNull(item.getLowerIntervalD0());
+        assertNull(item.getUpperIntervalD0());
+        assertEquals("Calculado", item.getCriteria());
+        assertNull(reader.read());
+    }
+
+    @Test
+    void shouldThrowExceptionForIncompleteLine() {
+        // Given
+        var reader = new BrazilianBondPricesByteReader(badFileContent, fileName);
+        reader.open(new ExecutionContext());
+
+        // When/Then
+        for (int i = 0; i < 22; i++) {
+            assertDoesNotThrow(reader::read);
+        }
+        var exception = assertThrows(FlatFileParseException.class, reader::read);
+        assertEquals(26, exception.getLineNumber());
+    }
+
+    @Test
+    void shouldThrowExceptionForExtraFields() {
+        // Given
+        var content = HEADER + "LTN@20250402@100000@20220107@20250701@1@1@1@1@1@1@1@1@1@Calculado@Extra\n";
+        var reader = new BrazilianBondPricesByteReader(content.getBytes(StandardCharsets.UTF_8), fileName);
+        reader.open(new ExecutionContext());
+
+        // When/Then
+        assertThrows(FlatFileParseException.class, reader::read);
+    }
+
+    @Test
+    void shouldThrowExceptionForInvalidNumber() {
+        // Given
+        var content = HEADER + "LTN@20250402@100000@20220107@20250701@1,2,3@1@1@1@1@1@1@1@1@Calculado\n";
+        var reader = new BrazilianBondPricesByteReader(content.getBytes(StandardCharsets.UTF_8), fileName);
+        reader.open(new ExecutionContext());
+
+        // When/Then
+        var exception = assertThrows(FlatFileParseException.class, reader::read);
+        assertEquals(4, exception.getLineNumber());
+    }
+
+    @Test
+    void shouldResumeAfterLastReadItem_onRestart() throws Exception {
+        // Given
+        var executionContext = new ExecutionContext();
+        var firstRun = new BrazilianBondPricesByteReader(goodFileContent, fileName);
+        firstRun.open(executionContext);
+        for (int i = 0; i < 10; i++) {
+            firstRun.read();
+        }
+        firstRun.update(executionContext);
+        firstRun.close();
+        var expected = readAll(new BrazilianBondPricesByteReader(goodFileContent, fileName)).subList(10, 48);
+
+        // When
+        var restarted = new BrazilianBondPricesByteReader(goodFileContent, fileName);
+        restarted.open(executionContext);
+        var remaining = new ArrayList<BrazilianBondPrice>();
+        BrazilianBondPrice item;
+        while ((item = restarted.read()) != null) {
+            remaining.add(item);
+        }
+
+        // Then
+        assertEquals(expected, remaining);
+    }
+
+    @Test
+    void shouldThrowExceptionForNullFileContent() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> new BrazilianBondPricesByteReader((byte[]) null, fileName));
+    }
+
+    @Test
+    void shouldThrowExceptionForEmptyFileName() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> new BrazilianBondPricesByteReader(goodFileContent, ""));
+    }
+
+    @Test
+    void shouldThrowExceptionForNegativeLinesToSkip() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> new BrazilianBondPricesByteReader(goodFileContent, fileName, -1));
+    }
+
+    static List<BrazilianBondPrice> readAll(ItemStreamReader<BrazilianBondPrice> reader) throws Exception {
+        var items = new ArrayList<BrazilianBondPrice>();
+        reader.open(new ExecutionContext());
+        try {
+            BrazilianBondPrice item;
+            while ((item = reader.read()) != null) {
+                items.add(item);
+            }
+        } finally {
+            reader.close();
+        }
+        return items;
+    }
+}
@@ -149,7 +149,7 @@ class BrazilianBondPricesCsvReaderTest {
     @Test
     void shouldThrowExceptionForNullFileContent() {
         // When/Then
-        assertThrows(IllegalArgumentException.class, () -> new BrazilianBondPricesCsvReader(null, fileName));
+        assertThrows(IllegalArgumentException.class, () -> new BrazilianBondPricesCsvReader((byte[]) null, fileName));
     }
 
     @Test
@@ -0,0 +1,90 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import ludo.mentis.aciem.mdc.model.BrazilianBondPrice;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayOutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the CPU time and heap allocation per row of the {@code FlatFileItemReader} based
+ * {@link BrazilianBondPricesCsvReader} and the byte-level {@link BrazilianBondPricesByteReader} on a large
+ * bond price file. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class BrazilianBondPricesReaderBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(BrazilianBondPricesReaderBenchmarkTest.class);
+    private static final int ROWS = 200_000;
+    private static final int WARMUP_ITERATIONS = 5;
+    private static final int MEASURED_ITERATIONS = 10;
+
+    @Test
+    void compareFlatFileAndByteReaders() throws Exception {
+        // Given
+        var content = largeFile();
+        var fileName = "ms250402.txt";
+
+        // When
+        var flatFile = measure(() -> new BrazilianBondPricesCsvReader(content, fileName));
+        var bytes = measure(() -> new BrazilianBondPricesByteReader(content, fileName));
+
+        // Then
+        log.info("Per row over {} rows: FlatFileItemReader {} ns, {} bytes; byte reader {} ns, {} bytes ({}x faster)",
+                ROWS, flatFile.nanosPerRow(), flatFile.bytesPerRow(), bytes.nanosPerRow(), bytes.bytesPerRow(),
+                String.format("%.1f", (double) flatFile.nanosPerRow() / bytes.nanosPerRow()));
+        assertTrue(bytes.nanosPerRow() > 0 && flatFile.nanosPerRow() > 0);
+    }
+
+    private static byte[] largeFile() throws Exception {
+        var lines = Files.readAllLines(new ClassPathResource("BrazilianBondPrices_Good.txt").getFile().toPath());
+        var output = new ByteArrayOutputStream();
+        for (var header : lines.subList(0, 3)) {
+            output.write((header + "\n").getBytes());
+        }
+        var rows = lines.subList(3, lines.size());
+        for (var row = 0; row < ROWS; row++) {
+            output.write((rows.get(row % rows.size()) + "\n").getBytes());
+        }
+        return output.toByteArray();
+    }
+
+    private static Result measure(Supplier<ItemStreamReader<BrazilianBondPrice>> readers) throws Exception {
+        for (var iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            assertEquals(ROWS, readAll(readers.get()));
+        }
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        var cpuBefore = threads.getCurrentThreadCpuTime();
+        for (var iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+            readAll(readers.get());
+        }
+        var rows = (long) ROWS * MEASURED_ITERATIONS;
+        return new Result((threads.getCurrentThreadCpuTime() - cpuBefore) / rows,
+                (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / rows);
+    }
+
+    private static int readAll(ItemStreamReader<BrazilianBondPrice> reader) throws Exception {
+        reader.open(new ExecutionContext());
+        var count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        reader.close();
+        return count;
+    }
+
+    private record Result(long nanosPerRow, long bytesPerRow) {
+    }
+}
@@ -80,7 +80,7 @@ class ExchangeRateParityCsvReaderTest {
     @Test
     void shouldThrowExceptionForNullFileContent() {
         // When/Then
-        assertThrows(IllegalArgumentException.class, () -> new ExchangeRateParityCsvReader(null, fileName));
+        assertThrows(IllegalArgumentException.class, () -> new ExchangeRateParityCsvReader((byte[]) null, fileName));
     }
 
     @Test
@@ -78,6 +78,39 @@ class FinancialIndicatorJsonReaderTest {
     @Test
     void shouldThrowExceptionForNullFileContent() {
         // When/Then
-        assertThrows(IllegalArgumentException.class, () -> new FinancialIndicatorJsonReader(null));
+        assertThrows(IllegalArgumentException.class, () -> new FinancialIndicatorJsonReader((byte[]) null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldResumeAfterLastReadItem_onRestart() throws Exception {
+        // Given
+        var content = Files.readAllBytes(new ClassPathResource("FinancialIndicator_Good.json").getFile().toPath());
+        var executionContext = new ExecutionContext();
+        var firstRun = new FinancialIndicatorJsonReader(content);
+        firstRun.open(executionContext);
+        firstRun.read();
+        firstRun.read();
+        var thirdItem = firstRun.read();
+        firstRun.close();
+        var resumeContext = new ExecutionContext();
+        var secondRun = new FinancialIndicatorJsonReader(content);
+        secondRun.open(resumeContext);
+        secondRun.read();
+        secondRun.read();
+        secondRun.update(resumeContext);
+        secondRun.close();
+
+        // When
+        var restarted = new FinancialIndicatorJsonReader(content);
+        restarted.open(resumeContext);
+        var item = restarted.read();
+        int remaining = 1;
+        while (restarted.read() != null) {
+            remaining++;
+        }
+
+        // Then
+        assertEquals(thirdItem.getSecurityIdentificationCode(), item.getSecurityIdentificationCode());
+        assertEquals(5, remaining);
+    }
+}
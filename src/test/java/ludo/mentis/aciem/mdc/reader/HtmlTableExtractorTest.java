@@ -0,0 +1,175 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HtmlTableExtractorTest {
+
+    private static final Charset WINDOWS_1252 = Charset.forName("windows-1252");
+
+    @Test
+    void shouldExtractSameCellsAsJsoup() throws IOException {
+        // Given
+        var resource = new ClassPathResource("TradingAdjustments_Good.html");
+        var expected = new ArrayList<List<String>>();
+        try (var input = resource.getInputStream()) {
+            var table = Jsoup.parse(input, "windows-1252", "").getElementById("tblDadosAjustes");
+            for (var row : table.select("tbody > tr")) {
+                expected.add(row.select("td").eachText());
+            }
+        }
+
+        // When
+        var actual = extractAll(new HtmlTableExtractor(resource.getInputStream(), WINDOWS_1252, "tblDadosAjustes"));
+
+        // Then
+        assertEquals(590, actual.size());
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    void shouldSkipHeaderCommentsAndScripts() throws IOException {
+        // Given
+        var html = """
+                <html><head><script>var s = "<table id='t'><tr><td>x</td></tr></table>";</script>
+                <style>td > b { color: red }</style></head><body>
+                <table id="other"><tr><td>ignored</td></tr></table>
+                <!-- <table id="t"><tr><td>commented</td></tr></table> -->
+                <table class="responsive" id='t'>
+                  <thead><tr><th>Header</th><td>header cell</td></tr></thead>
+                  <tbody>
+                    <tr><th>Label</th><td>  A &amp; B&nbsp;</td><td><b>1,5</b><br>kg</td></tr>
+                  </tbody>
+                </table></body></html>""";
+
+        // When
+        var rows = extractAll(extractor(html));
+
+        // Then
+        assertEquals(List.of(List.of("A & B", "1,5 kg")), rows);
+    }
+
+    @Test
+    void shouldCloseUnclosedCellsAndRows_andReadRowsWithoutTbody() throws IOException {
+        // Given
+        var html = "<table id=t><tr><td>a<td>b<tr><td>c</table>";
+
+        // When
+        var rows = extractAll(extractor(html));
+
+        // Then
+        assertEquals(List.of(List.of("a", "b"), List.of("c")), rows);
+    }
+
+    @Test
+    void shouldKeepNestedTableTextInCell() throws IOException {
+        // Given
+        var html = "<table id=t><tr><td>outer<table><tr><td>inner</td></tr></table></td><td>next</td></tr></table>";
+
+        // When
+        var rows = extractAll(extractor(html));
+
+        // Then
+        assertEquals(List.of(List.of("outer inner", "next")), rows);
+    }
+
+    @Test
+    void shouldReturnEmptyRow_forRowWithoutTdCells() throws IOException {
+        // Given
+        var extractor = extractor("<table id=t><tbody><tr><th>only header</th></tr></tbody></table>");
+
+        // When
+        var row = extractor.nextRow();
+
+        // Then
+        assertTrue(row.isEmpty());
+        assertNull(extractor.nextRow());
+    }
+
+    @Test
+    void shouldStopReadingInput_whenTableEnds() throws IOException {
+        // Given
+        var html = "<table id=t><tr><td>1</td></tr></table>" + "<p>trailer</p>".repeat(100_000);
+        var input = new CountingInputStream(new ByteArrayInputStream(html.getBytes(StandardCharsets.US_ASCII)));
+        var extractor = new HtmlTableExtractor(input, WINDOWS_1252, "t");
+
+        // When
+        var rows = extractAll(extractor);
+
+        // Then
+        assertEquals(List.of(List.of("1")), rows);
+        assertTrue(input.count < 64 * 1024, "read " + input.count + " bytes");
+        assertTrue(input.closed);
+    }
+
+    @Test
+    void shouldThrowException_whenTableIsMissing() {
+        // Given
+        var extractor = extractor("<html><body><table id=other></table></body></html>");
+
+        // When/Then
+        var exception = assertThrows(IOException.class, extractor::nextRow);
+        assertEquals("Table with id 't' not found.", exception.getMessage());
+    }
+
+    @Test
+    void shouldDecodeWindows1252() throws IOException {
+        // Given
+        var html = "<table id=t><tr><td>Rande da África</td></tr></table>".getBytes(WINDOWS_1252);
+
+        // When
+        var rows = extractAll(new HtmlTableExtractor(new ByteArrayInputStream(html), WINDOWS_1252, "t"));
+
+        // Then
+        assertEquals("Rande da África", rows.get(0).get(0));
+    }
+
+    private static HtmlTableExtractor extractor(String html) {
+        return new HtmlTableExtractor(new ByteArrayInputStream(html.getBytes(WINDOWS_1252)), WINDOWS_1252, "t");
+    }
+
+    private static List<List<String>> extractAll(HtmlTableExtractor extractor) throws IOException {
+        var rows = new ArrayList<List<String>>();
+        try (extractor) {
+            List<String> row;
+            while ((row = extractor.nextRow()) != null) {
+                rows.add(List.copyOf(row));
+            }
+        }
+        return rows;
+    }
+
+    private static class CountingInputStream extends FilterInputStream {
+        private long count;
+        private boolean closed;
+
+        CountingInputStream(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            var read = super.read(b, off, len);
+            count += Math.max(read, 0);
+            return read;
+        }
+
+        @Override
+        public void close() throws IOException {
+            closed = true;
+            super.close();
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamReader;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.core.io.ClassPathResource;
+
+import java.nio.file.Files;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the deserialization throughput of the JSON readers when each run builds its own {@code ObjectMapper}
+ * (as the readers did before {@link JsonReaderRegistry}) and when all runs share the registry's readers. Each run
+ * reads one small source payload, as a daily job does. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class JsonReaderBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(JsonReaderBenchmarkTest.class);
+    private static final int WARMUP_RUNS = 2_000;
+    private static final int MEASURED_RUNS = 10_000;
+
+    private final JsonReaderRegistry registry = new JsonReaderRegistry();
+
+    @Test
+    void comparePerRunAndSharedPtaxReaders() throws Exception {
+        // Given
+        var content = Files.readAllBytes(new ClassPathResource("Ptax_good.json").getFile().toPath());
+
+        // When
+        var perRun = measure(() -> new PtaxJsonReader(new ByteArrayResource(content),
+                JsonReaderRegistry.ptaxReader()), 22);
+        var shared = measure(() -> new PtaxJsonReader(new ByteArrayResource(content), registry.ptax()), 22);
+
+        // Then
+        report("Ptax", perRun, shared);
+    }
+
+    @Test
+    void comparePerRunAndSharedFinancialIndicatorReaders() throws Exception {
+        // Given
+        var content = Files.readAllBytes(new ClassPathResource("FinancialIndicator_Good.json").getFile().toPath());
+
+        // When
+        var perRun = measure(() -> new FinancialIndicatorJsonReader(new ByteArrayResource(content),
+                JsonReaderRegistry.financialIndicatorReader()), 7);
+        var shared = measure(() -> new FinancialIndicatorJsonReader(new ByteArrayResource(content),
+                registry.financialIndicators()), 7);
+
+        // Then
+        report("Financial indicators", perRun, shared);
+    }
+
+    private static void report(String source, double perRun, double shared) {
+        log.info("{}: {} items/s with a mapper per run, {} items/s with shared readers ({}x)", source,
+                String.format("%.0f", perRun), String.format("%.0f", shared), String.format("%.1f", shared / perRun));
+        assertTrue(perRun > 0 && shared > 0);
+    }
+
+    /**
+     * @return Items read per second
+     */
+    private static double measure(Supplier<ItemStreamReader<?>> readers, int itemsPerRun) throws Exception {
+        for (var run = 0; run < WARMUP_RUNS; run++) {
+            assertEquals(itemsPerRun, readAll(readers.get()));
+        }
+        var start = System.nanoTime();
+        for (var run = 0; run < MEASURED_RUNS; run++) {
+            readAll(readers.get());
+        }
+        var seconds = (System.nanoTime() - start) / 1e9;
+        return (double) itemsPerRun * MEASURED_RUNS / seconds;
+    }
+
+    private static int readAll(ItemStreamReader<?> reader) throws Exception {
+        reader.open(new ExecutionContext());
+        var count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        reader.close();
+        return count;
+    }
+}
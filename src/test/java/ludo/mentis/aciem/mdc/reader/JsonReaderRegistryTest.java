@@ -0,0 +1,82 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import ludo.mentis.aciem.mdc.model.FinancialIndicator;
+import ludo.mentis.aciem.mdc.model.Ptax;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.core.io.ClassPathResource;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonReaderRegistryTest {
+
+    private final JsonReaderRegistry registry = new JsonReaderRegistry();
+
+    @Test
+    void shouldReturnSameReaders_onEveryCall() {
+        // When & Then
+        assertSame(registry.ptax(), registry.ptax());
+        assertSame(registry.financialIndicators(), registry.financialIndicators());
+    }
+
+    @Test
+    void ptax_shouldReadUsNumbersAndTimestamps() throws Exception {
+        // Given
+        var json = "{\"cotacaoCompra\":5.70450,\"cotacaoVenda\":5.70510,\"dataHoraCotacao\":\"2025-04-01 13:07:29.553\"}";
+
+        // When
+        Ptax ptax = registry.ptax().readValue(json);
+
+        // Then
+        assertEquals(new BigDecimal("5.70450"), ptax.getBuyValue());
+        assertEquals(LocalDateTime.of(2025, 4, 1, 13, 7, 29, 553000000), ptax.getTimestamp());
+    }
+
+    @Test
+    void financialIndicators_shouldReadBrazilianNumbersAndDates() throws Exception {
+        // Given
+        var reader = new FinancialIndicatorJsonReader(new ClassPathResource("FinancialIndicator_Good.json"),
+                registry.financialIndicators());
+        reader.open(new ExecutionContext());
+
+        // When
+        FinancialIndicator first = reader.read();
+
+        // Then
+        assertEquals(new BigDecimal("38.06"), first.getRate());
+        assertEquals(LocalDate.of(2025, 5, 2), first.getLastUpdate());
+        reader.close();
+    }
+
+    @Test
+    void shouldShareReaders_betweenJobRuns() throws Exception {
+        // Given
+        var first = new PtaxJsonReader(new ClassPathResource("Ptax_good.json"), registry.ptax());
+        var second = new PtaxJsonReader(new ClassPathResource("Ptax_good.json"), registry.ptax());
+        first.open(new ExecutionContext());
+        second.open(new ExecutionContext());
+
+        // When
+        var fromFirst = first.read();
+        var fromSecond = second.read();
+
+        // Then
+        assertEquals(fromFirst.getBuyValue(), fromSecond.getBuyValue());
+        assertEquals(fromFirst.getTimestamp(), fromSecond.getTimestamp());
+        first.close();
+        second.close();
+    }
+
+    @Test
+    void shouldThrowException_forNullObjectReader() {
+        // When & Then
+        assertThrows(IllegalArgumentException.class,
+                () -> new PtaxJsonReader(new ClassPathResource("Ptax_good.json"), null));
+        assertThrows(IllegalArgumentException.class,
+                () -> new FinancialIndicatorJsonReader(new ClassPathResource("FinancialIndicator_Good.json"), null));
+    }
+}
@@ -4,6 +4,7 @@ import ludo.mentis.aciem.mdc.model.Ptax;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ParseException;
 import org.springframework.core.io.ClassPathResource;
 
 import java.io.IOException;
@@ -78,6 +79,73 @@ class PtaxJsonReaderTest {
     @Test
     void shouldThrowExceptionForNullFileContent() {
         // When/Then
-        assertThrows(IllegalArgumentException.class, () -> new PtaxJsonReader(null));
+        assertThrows(IllegalArgumentException.class, () -> new PtaxJsonReader((byte[]) null));
     }
-}
\ No newline at end of file
+
+    @Test
+    void shouldResumeAfterLastReadItem_onRestart() throws IOException {
+        // Given
+        var content = Files.readAllBytes(new ClassPathResource("Ptax_good.json").getFile().toPath());
+        var executionContext = new ExecutionContext();
+        var firstRun = new PtaxJsonReader(content);
+        firstRun.open(executionContext);
+        for (int i = 0; i < 5; i++) {
+            firstRun.read();
+        }
+        firstRun.update(executionContext);
+        firstRun.close();
+
+        // When
+        var restarted = new PtaxJsonReader(content);
+        restarted.open(executionContext);
+        var sixthItem = restarted.read();
+        int remaining = 1;
+        while (restarted.read() != null) {
+            remaining++;
+        }
+
+        // Then
+        assertEquals(new BigDecimal("5.93620"), sixthItem.getBuyValue());
+        assertEquals(17, remaining);
+    }
+
+    @Test
+    void shouldReturnNull_whenValueArrayIsMissing() {
+        // Given
+        var jsonReader = new PtaxJsonReader("{\"@odata.context\":\"x\"}".getBytes());
+        jsonReader.open(new ExecutionContext());
+
+        // When/Then
+        assertNull(jsonReader.read());
+    }
+
+    @Test
+    void shouldSkipOtherFieldsBeforeValueArray() {
+        // Given
+        var json = """
+                {"@odata.context":{"nested":[1,2,{"value":[]}]},
+                 "value":[{"cotacaoCompra":5.1,"cotacaoVenda":5.2,"dataHoraCotacao":"2025-04-01 13:07:29.553"}],
+                 "trailer":true}""";
+        var jsonReader = new PtaxJsonReader(json.getBytes());
+        jsonReader.open(new ExecutionContext());
+
+        // When
+        var item = jsonReader.read();
+
+        // Then
+        assertEquals(new BigDecimal("5.1"), item.getBuyValue());
+        assertNull(jsonReader.read());
+        assertNull(jsonReader.read());
+    }
+
+    @Test
+    void shouldThrowParseException_forInvalidItem() {
+        // Given
+        var json = "{\"value\":[{\"cotacaoCompra\":\"abc\"}]}";
+        var jsonReader = new PtaxJsonReader(json.getBytes());
+        jsonReader.open(new ExecutionContext());
+
+        // When/Then
+        assertThrows(ParseException.class, jsonReader::read);
+    }
+}
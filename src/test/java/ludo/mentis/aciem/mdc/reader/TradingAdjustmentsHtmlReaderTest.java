@@ -90,7 +90,7 @@ class TradingAdjustmentsHtmlReaderTest {
     @Test
     void shouldHandleNullFileContent() {
         // Given
-        var reader = new TradingAdjustmentsHtmlReader(null);
+        var reader = new TradingAdjustmentsHtmlReader((byte[]) null);
 
         // When/Then
         // Should throw NullPointerException when trying to read
@@ -130,12 +130,14 @@ class TradingAdjustmentsHtmlReaderTest {
     }
 
     @Test
-    void shouldThrowExceptionForInvalidNumberFormat() {
+    void shouldThrowExceptionForInvalidNumberFormat() throws Exception {
         // Given
         var reader = new TradingAdjustmentsHtmlReader(badFileContent);
 
         // When/Then
-        // Should throw ParseException because of the invalid number format
+        // Rows are parsed lazily: the valid first row is returned, the row with missing columns is skipped,
+        // and the invalid number format fails the read that reaches it
+        assertEquals("DOL", reader.read().getCommodity());
         assertThrows(ParseException.class, reader::read);
     }
 
@@ -0,0 +1,112 @@
+package ludo.mentis.aciem.mdc.reader;
+
+import org.jsoup.Jsoup;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.ClassPathResource;
+
+import java.io.ByteArrayInputStream;
+import java.lang.ref.Reference;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.util.concurrent.Callable;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the CPU time, heap allocation and retained heap per page of building a jsoup DOM to walk
+ * {@code #tblDadosAjustes tbody > tr} (how {@link TradingAdjustmentsHtmlReader} used to parse the B3 page) and of the
+ * streaming {@link TradingAdjustmentsHtmlReader}. Runs only with {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class TradingAdjustmentsReaderBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(TradingAdjustmentsReaderBenchmarkTest.class);
+    private static final int ROWS = 590;
+    private static final int WARMUP_ITERATIONS = 50;
+    private static final int MEASURED_ITERATIONS = 200;
+
+    @FunctionalInterface
+    private interface PageParser {
+        int parse(byte[] page) throws Exception;
+    }
+
+    @Test
+    void compareDomAndStreamingParsers() throws Exception {
+        // Given
+        var page = Files.readAllBytes(new ClassPathResource("TradingAdjustments_Good.html").getFile().toPath());
+
+        // When
+        var dom = measure(page, TradingAdjustmentsReaderBenchmarkTest::parseDom);
+        var streaming = measure(page, TradingAdjustmentsReaderBenchmarkTest::parseStreaming);
+
+        var domRetained = retainedKb(() -> Jsoup.parse(new ByteArrayInputStream(page), "windows-1252", ""));
+        var streamingRetained = retainedKb(() -> {
+            var reader = new TradingAdjustmentsHtmlReader(page);
+            reader.read();
+            return reader;
+        });
+
+        // Then
+        log.info("Per {} KB page: jsoup DOM {} µs, {} KB allocated; streaming {} µs, {} KB allocated ({}x faster)",
+                page.length / 1024, dom.micros(), dom.allocatedKb(), streaming.micros(), streaming.allocatedKb(),
+                String.format("%.1f", (double) dom.micros() / streaming.micros()));
+        log.info("Heap held while iterating rows: jsoup DOM {} KB; streaming {} KB", domRetained, streamingRetained);
+        assertTrue(dom.micros() > 0 && streaming.micros() > 0);
+    }
+
+    private static int parseDom(byte[] page) throws Exception {
+        var document = Jsoup.parse(new ByteArrayInputStream(page), "windows-1252", "");
+        var count = 0;
+        for (var row : document.getElementById("tblDadosAjustes").select("tbody > tr")) {
+            if (row.select("td").size() >= 5) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static int parseStreaming(byte[] page) throws Exception {
+        var reader = new TradingAdjustmentsHtmlReader(page);
+        var count = 0;
+        while (reader.read() != null) {
+            count++;
+        }
+        reader.close();
+        return count;
+    }
+
+    /**
+     * @return The heap still used, after a garbage collection, by what the parser keeps while rows are iterated
+     */
+    private static long retainedKb(Callable<Object> parser) throws Exception {
+        var memory = ManagementFactory.getMemoryMXBean();
+        System.gc();
+        var before = memory.getHeapMemoryUsage().getUsed();
+        var parsed = parser.call();
+        System.gc();
+        var after = memory.getHeapMemoryUsage().getUsed();
+        Reference.reachabilityFence(parsed);
+        return Math.max(after - before, 0) / 1_024;
+    }
+
+    private static Result measure(byte[] page, PageParser parser) throws Exception {
+        for (var iteration = 0; iteration < WARMUP_ITERATIONS; iteration++) {
+            assertEquals(ROWS, parser.parse(page));
+        }
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        var allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        var cpuBefore = threads.getCurrentThreadCpuTime();
+        for (var iteration = 0; iteration < MEASURED_ITERATIONS; iteration++) {
+            parser.parse(page);
+        }
+        return new Result((threads.getCurrentThreadCpuTime() - cpuBefore) / MEASURED_ITERATIONS / 1_000,
+                (threads.getCurrentThreadAllocatedBytes() - allocatedBefore) / MEASURED_ITERATIONS / 1_024);
+    }
+
+    private record Result(long micros, long allocatedKb) {
+    }
+}
@@ -0,0 +1,185 @@
+package ludo.mentis.aciem.mdc.repository;
+
+import ludo.mentis.aciem.mdc.config.BatchRepositoryProperties;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.JobExecution;
+import org.springframework.batch.core.JobParametersBuilder;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.JobRepositoryFactoryBean;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabase;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseBuilder;
+import org.springframework.jdbc.datasource.embedded.EmbeddedDatabaseType;
+import org.springframework.jdbc.support.JdbcTransactionManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchMetadataMaintenanceTest {
+
+    private EmbeddedDatabase database;
+    private JdbcTemplate jdbcTemplate;
+    private JobRepository jobRepository;
+    private BatchRepositoryProperties properties;
+    private BatchMetadataMaintenance maintenance;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        // The schema is applied twice, as on every startup of a durable repository
+        database = new EmbeddedDatabaseBuilder()
+                .setType(EmbeddedDatabaseType.H2)
+                .generateUniqueName(true)
+                .addScript("classpath:db/batch-schema-h2.sql")
+                .addScript("classpath:db/batch-schema-h2.sql")
+                .build();
+        jdbcTemplate = new JdbcTemplate(database);
+        var transactionManager = new JdbcTransactionManager(database);
+        var factory = new JobRepositoryFactoryBean();
+        factory.setDataSource(database);
+        factory.setTransactionManager(transactionManager);
+        factory.afterPropertiesSet();
+        jobRepository = factory.getObject();
+        properties = new BatchRepositoryProperties();
+        maintenance = new BatchMetadataMaintenance(database, transactionManager, properties, "BATCH_");
+    }
+
+    @AfterEach
+    void tearDown() {
+        database.shutdown();
+    }
+
+    @Test
+    void recoverInterruptedExecutions_shouldMarkRunningExecutionsAsFailed() throws Exception {
+        // Given
+        var interrupted = run("Ptax", 1L, BatchStatus.STARTED);
+        var completed = run("Ptax", 2L, BatchStatus.COMPLETED);
+
+        // When
+        var recovered = maintenance.recoverInterruptedExecutions();
+
+        // Then
+        assertEquals(1, recovered);
+        assertEquals(BatchStatus.FAILED, jobRepository.getLastJobExecution("Ptax", interrupted.getJobParameters()).getStatus());
+        var step = jobRepository.getLastStepExecution(interrupted.getJobInstance(), "DownloadFile");
+        assertEquals(BatchStatus.FAILED, step.getStatus());
+        assertNotNull(step.getEndTime());
+        assertEquals(BatchStatus.COMPLETED, jobRepository.getLastJobExecution("Ptax", completed.getJobParameters()).getStatus());
+    }
+
+    @Test
+    void recoverInterruptedExecutions_shouldLetTheInterruptedRunBeRestarted() throws Exception {
+        // Given
+        var interrupted = run("Ptax", 1L, BatchStatus.STARTED);
+        maintenance.recoverInterruptedExecutions();
+
+        // When
+        var restarted = jobRepository.createJobExecution("Ptax", interrupted.getJobParameters());
+
+        // Then
+        assertEquals(interrupted.getJobInstance().getId(), restarted.getJobInstance().getId());
+    }
+
+    @Test
+    void purgeExpiredInstances_shouldDeleteInstancesWithNoExecutionSinceCutoff() throws Exception {
+        // Given
+        var old = run("Ptax", 1L, BatchStatus.COMPLETED);
+        var recent = run("Ptax", 2L, BatchStatus.FAILED);
+        endedAt(old, LocalDateTime.now().minusDays(120));
+
+        // When
+        var purged = maintenance.purgeExpiredInstances(LocalDateTime.now().minusDays(90));
+
+        // Then
+        assertEquals(1, purged);
+        assertNull(jobRepository.getLastJobExecution("Ptax", old.getJobParameters()));
+        assertNotNull(jobRepository.getLastJobExecution("Ptax", recent.getJobParameters()));
+        assertEquals(1, count("BATCH_JOB_INSTANCE"));
+        assertEquals(1, count("BATCH_STEP_EXECUTION"));
+        assertEquals(1, count("BATCH_STEP_EXECUTION_CONTEXT"));
+        assertEquals(1, count("BATCH_JOB_EXECUTION_CONTEXT"));
+    }
+
+    @Test
+    void purgeExpiredInstances_shouldKeepInstance_whenAnyExecutionIsRecent() throws Exception {
+        // Given
+        var failed = run("Backfill", 1L, BatchStatus.FAILED);
+        endedAt(failed, LocalDateTime.now().minusDays(120));
+        var restarted = jobRepository.createJobExecution("Backfill", failed.getJobParameters());
+        restarted.setStatus(BatchStatus.COMPLETED);
+        restarted.setEndTime(LocalDateTime.now());
+        jobRepository.update(restarted);
+
+        // When
+        var purged = maintenance.purgeExpiredInstances(LocalDateTime.now().minusDays(90));
+
+        // Then
+        assertEquals(0, purged);
+        assertEquals(2, count("BATCH_JOB_EXECUTION"));
+    }
+
+    @Test
+    void purgeExpiredInstances_shouldUseRetentionPeriod_andDoNothing_whenDisabled() throws Exception {
+        // Given
+        var old = run("Ptax", 1L, BatchStatus.COMPLETED);
+        endedAt(old, LocalDateTime.now().minusDays(120));
+        properties.setRetentionDays(90);
+        properties.setPurgeEnabled(false);
+
+        // When
+        var purgedWhenDisabled = maintenance.purgeExpiredInstances();
+        properties.setPurgeEnabled(true);
+        var purged = maintenance.purgeExpiredInstances();
+
+        // Then
+        assertEquals(0, purgedWhenDisabled);
+        assertEquals(1, purged);
+        assertNull(jobRepository.getLastJobExecution("Ptax", old.getJobParameters()));
+    }
+
+    @Test
+    void maintain_shouldDoNothing_whenDisabled() throws Exception {
+        // Given
+        properties.setRecoverOnStartup(false);
+        properties.setPurgeEnabled(false);
+        var interrupted = run("Ptax", 1L, BatchStatus.STARTED);
+
+        // When
+        maintenance.maintain();
+
+        // Then
+        assertEquals(BatchStatus.STARTED, jobRepository.getLastJobExecution("Ptax", interrupted.getJobParameters()).getStatus());
+    }
+
+    private JobExecution run(String jobName, long runId, BatchStatus status) throws Exception {
+        var parameters = new JobParametersBuilder().addLong("run.id", runId).toJobParameters();
+        var jobExecution = jobRepository.createJobExecution(jobName, parameters);
+        jobExecution.setStartTime(LocalDateTime.now());
+        jobExecution.setStatus(status);
+        var stepExecution = jobExecution.createStepExecution("DownloadFile");
+        stepExecution.setStatus(status);
+        jobRepository.add(stepExecution);
+        jobRepository.updateExecutionContext(stepExecution);
+        if (!status.isRunning()) {
+            jobExecution.setEndTime(LocalDateTime.now());
+            stepExecution.setEndTime(LocalDateTime.now());
+            jobRepository.update(stepExecution);
+        }
+        jobRepository.update(jobExecution);
+        jobRepository.updateExecutionContext(jobExecution);
+        return jobExecution;
+    }
+
+    private void endedAt(JobExecution jobExecution, LocalDateTime endTime) {
+        jdbcTemplate.update("UPDATE BATCH_JOB_EXECUTION SET CREATE_TIME = ?, END_TIME = ? WHERE JOB_EXECUTION_ID = ?",
+                Timestamp.valueOf(endTime), Timestamp.valueOf(endTime), jobExecution.getId());
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+}
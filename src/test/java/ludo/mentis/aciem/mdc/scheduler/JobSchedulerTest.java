@@ -0,0 +1,202 @@
+package ludo.mentis.aciem.mdc.scheduler;
+
+import ludo.mentis.aciem.mdc.config.SchedulerProperties;
+import ludo.mentis.aciem.mdc.repository.BatchMetadataMaintenance;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.batch.core.Job;
+import org.springframework.batch.core.JobParameter;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.explore.JobExplorer;
+import org.springframework.batch.core.launch.JobLauncher;
+import org.springframework.batch.core.launch.support.RunIdIncrementer;
+import org.springframework.batch.core.repository.JobExecutionAlreadyRunningException;
+import org.springframework.batch.core.repository.JobRepository;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class JobSchedulerTest {
+
+    private static final String EVERY_SECOND = "* * * * * *";
+
+    @Mock
+    private JobLauncher jobLauncher;
+    @Mock
+    private JobExplorer jobExplorer;
+    @Mock
+    private JobRepository jobRepository;
+    @Mock
+    private BatchMetadataMaintenance metadataMaintenance;
+
+    private JobScheduler scheduler;
+
+    @AfterEach
+    void tearDown() {
+        if (scheduler != null) {
+            scheduler.stop();
+        }
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenScheduledJobDoesNotExist() {
+        // Given
+        var properties = properties(Map.of("Unknown", EVERY_SECOND));
+        var jobs = List.of(job("Ptax"));
+
+        // When
+        var exception = assertThrows(IllegalArgumentException.class,
+                () -> new JobScheduler(jobs, jobLauncher, jobExplorer, jobRepository, metadataMaintenance,
+                        properties));
+
+        // Then
+        assertTrue(exception.getMessage().contains("Unknown"));
+    }
+
+    @Test
+    void constructor_shouldThrowException_whenJobRepositoryIsResourceless() {
+        // Given
+        var properties = properties(Map.of("Ptax", EVERY_SECOND));
+        var jobs = List.of(job("Ptax"));
+        var resourcelessRepository = new ResourcelessJobRepository();
+
+        // When & Then
+        assertThrows(IllegalStateException.class,
+                () -> new JobScheduler(jobs, jobLauncher, jobExplorer, resourcelessRepository, metadataMaintenance,
+                        properties));
+    }
+
+    @Test
+    void start_shouldLaunchScheduledJobs_withNextRunId() throws Exception {
+        // Given
+        var ptax = job("Ptax");
+        when(jobLauncher.run(eq(ptax), any())).thenReturn(MetaDataInstanceFactory.createJobExecution());
+        scheduler = new JobScheduler(List.of(ptax, job("TradingAdjustments")), jobLauncher, jobExplorer,
+                jobRepository, metadataMaintenance, properties(Map.of("Ptax", EVERY_SECOND)));
+
+        // When
+        scheduler.start();
+
+        // Then
+        assertTrue(scheduler.isRunning());
+        verify(jobLauncher, timeout(3000).atLeastOnce())
+                .run(ptax, new JobParameters(Map.of("run.id", new JobParameter<>(1L, Long.class))));
+        verify(jobLauncher, never()).run(argThat(job -> "TradingAdjustments".equals(job.getName())), any());
+    }
+
+    @Test
+    void start_shouldRunDifferentJobsInParallel_andNeverOverlapRunsOfSameJob() throws Exception {
+        // Given
+        var running = new ConcurrentHashMap<String, AtomicInteger>();
+        var maxRunningPerJob = new AtomicInteger();
+        var maxRunningOverall = new AtomicInteger();
+        var overall = new AtomicInteger();
+        when(jobLauncher.run(any(), any())).thenAnswer(invocation -> {
+            Job job = invocation.getArgument(0);
+            var perJob = running.computeIfAbsent(job.getName(), name -> new AtomicInteger()).incrementAndGet();
+            maxRunningPerJob.accumulateAndGet(perJob, Math::max);
+            maxRunningOverall.accumulateAndGet(overall.incrementAndGet(), Math::max);
+            Thread.sleep(1500);
+            running.get(job.getName()).decrementAndGet();
+            overall.decrementAndGet();
+            return MetaDataInstanceFactory.createJobExecution();
+        });
+        scheduler = new JobScheduler(List.of(job("Ptax"), job("TradingAdjustments")), jobLauncher, jobExplorer,
+                jobRepository, metadataMaintenance,
+                properties(Map.of("Ptax", EVERY_SECOND, "TradingAdjustments", EVERY_SECOND)));
+
+        // When
+        scheduler.start();
+        Thread.sleep(4000);
+        scheduler.stop();
+
+        // Then
+        assertEquals(1, maxRunningPerJob.get());
+        assertEquals(2, maxRunningOverall.get());
+    }
+
+    @Test
+    void launch_shouldNotPropagateFailure_whenJobCannotBeLaunched() throws Exception {
+        // Given
+        var ptax = job("Ptax");
+        when(jobLauncher.run(eq(ptax), any())).thenThrow(new JobExecutionAlreadyRunningException("Already running"));
+        scheduler = new JobScheduler(List.of(ptax), jobLauncher, jobExplorer, jobRepository, metadataMaintenance,
+                properties(Map.of("Ptax", EVERY_SECOND)));
+
+        // When & Then
+        assertDoesNotThrow(() -> scheduler.launch(ptax));
+    }
+
+    @Test
+    void start_shouldPurgeMetadata_onItsSchedule() {
+        // Given
+        var properties = properties(Map.of());
+        properties.setMetadataPurgeCron(EVERY_SECOND);
+        scheduler = new JobScheduler(List.of(job("Ptax")), jobLauncher, jobExplorer, jobRepository,
+                metadataMaintenance, properties);
+
+        // When
+        scheduler.start();
+
+        // Then
+        verify(metadataMaintenance, timeout(3000).atLeastOnce()).purgeExpiredInstances();
+        verifyNoInteractions(jobLauncher);
+    }
+
+    @Test
+    void purgeMetadata_shouldNotPropagateFailure() {
+        // Given
+        when(metadataMaintenance.purgeExpiredInstances()).thenThrow(new IllegalStateException("Database is down"));
+        scheduler = new JobScheduler(List.of(job("Ptax")), jobLauncher, jobExplorer, jobRepository,
+                metadataMaintenance, properties(Map.of("Ptax", EVERY_SECOND)));
+
+        // When & Then
+        assertDoesNotThrow(() -> scheduler.purgeMetadata());
+    }
+
+    @Test
+    void stop_shouldStopLaunchingJobs() throws Exception {
+        // Given
+        var ptax = job("Ptax");
+        scheduler = new JobScheduler(List.of(ptax), jobLauncher, jobExplorer, jobRepository, metadataMaintenance,
+                properties(Map.of("Ptax", EVERY_SECOND)));
+        scheduler.start();
+
+        // When
+        scheduler.stop();
+        var launchesAtStop = mockingDetails(jobLauncher).getInvocations().size();
+        Thread.sleep(1500);
+
+        // Then
+        assertFalse(scheduler.isRunning());
+        assertEquals(launchesAtStop, mockingDetails(jobLauncher).getInvocations().size());
+    }
+
+    private static Job job(String name) {
+        var job = mock(Job.class);
+        lenient().when(job.getName()).thenReturn(name);
+        lenient().when(job.getJobParametersIncrementer()).thenReturn(new RunIdIncrementer());
+        return job;
+    }
+
+    private static SchedulerProperties properties(Map<String, String> jobs) {
+        var properties = new SchedulerProperties();
+        properties.setEnabled(true);
+        properties.setJobs(jobs);
+        properties.setShutdownTimeoutSeconds(5);
+        return properties;
+    }
+}
@@ -0,0 +1,115 @@
+package ludo.mentis.aciem.mdc.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentDecoderTest {
+
+    private static final byte[] TEXT = "data;taxa;valor\n02/01/2024;11,65;1.234,56\n".repeat(200)
+            .getBytes(StandardCharsets.UTF_8);
+
+    @Test
+    void forContentEncoding_shouldReturnEmpty_forIdentityOrMissingEncoding() throws Exception {
+        assertTrue(ContentDecoder.forContentEncoding(null).isEmpty());
+        assertTrue(ContentDecoder.forContentEncoding("identity").isEmpty());
+    }
+
+    @Test
+    void forContentEncoding_shouldRejectUnsupportedEncoding() {
+        assertThrows(IOException.class, () -> ContentDecoder.forContentEncoding("br"));
+    }
+
+    @Test
+    void decode_shouldDecodeGzip_whenFedOneByteAtATime() throws Exception {
+        // Given
+        var encoded = gzip(TEXT);
+
+        // When
+        var decoded = decode("gzip", encoded, 1);
+
+        // Then
+        assertArrayEquals(TEXT, decoded);
+    }
+
+    @Test
+    void decode_shouldDecodeConcatenatedGzipMembers() throws Exception {
+        // Given
+        var encoded = new ByteArrayOutputStream();
+        encoded.write(gzip(TEXT));
+        encoded.write(gzip(TEXT));
+        var expected = new ByteArrayOutputStream();
+        expected.write(TEXT);
+        expected.write(TEXT);
+
+        // When
+        var decoded = decode("x-gzip", encoded.toByteArray(), 1000);
+
+        // Then
+        assertArrayEquals(expected.toByteArray(), decoded);
+    }
+
+    @Test
+    void decode_shouldDecodeZlibWrappedAndRawDeflate() throws Exception {
+        assertArrayEquals(TEXT, decode("deflate", deflate(TEXT, false), 7));
+        assertArrayEquals(TEXT, decode("deflate", deflate(TEXT, true), 7));
+    }
+
+    @Test
+    void finish_shouldFail_whenContentIsTruncated() throws Exception {
+        // Given
+        var encoded = gzip(TEXT);
+
+        // When / Then
+        try (var decoder = ContentDecoder.forContentEncoding("gzip").orElseThrow()) {
+            decoder.decode(encoded, 0, encoded.length - 4);
+            assertThrows(EOFException.class, decoder::finish);
+        }
+    }
+
+    @Test
+    void decode_shouldFail_whenGzipTrailerDoesNotMatch() throws Exception {
+        // Given
+        var encoded = gzip(TEXT);
+        encoded[encoded.length - 8] ^= 0x01;
+
+        // When / Then
+        assertThrows(ZipException.class, () -> decode("gzip", encoded, 512));
+    }
+
+    private static byte[] decode(String encoding, byte[] encoded, int chunkSize) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var decoder = ContentDecoder.forContentEncoding(encoding).orElseThrow()) {
+            for (int offset = 0; offset < encoded.length; offset += chunkSize) {
+                out.write(decoder.decode(encoded, offset, Math.min(chunkSize, encoded.length - offset)));
+            }
+            decoder.finish();
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static byte[] deflate(byte[] bytes, boolean raw) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var deflate = new DeflaterOutputStream(out, new Deflater(Deflater.DEFAULT_COMPRESSION, raw))) {
+            deflate.write(bytes);
+        }
+        return out.toByteArray();
+    }
+}
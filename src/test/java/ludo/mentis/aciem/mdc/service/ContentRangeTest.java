@@ -0,0 +1,43 @@
+package ludo.mentis.aciem.mdc.service;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentRangeTest {
+
+    @Test
+    void parse_shouldReadStartEndAndTotal() {
+        // When
+        var range = ContentRange.parse("bytes 1024-2047/4096").orElseThrow();
+
+        // Then
+        assertEquals(1024, range.start());
+        assertEquals(2047, range.end());
+        assertEquals(4096, range.total());
+        assertEquals(1024, range.length());
+        assertFalse(range.isComplete());
+    }
+
+    @Test
+    void parse_shouldMarkLastPartAsComplete() {
+        assertTrue(ContentRange.parse("bytes 0-99/100").orElseThrow().isComplete());
+    }
+
+    @Test
+    void parse_shouldAcceptUnknownTotal() {
+        // When
+        var range = ContentRange.parse("bytes 0-99/*").orElseThrow();
+
+        // Then
+        assertEquals(-1, range.total());
+        assertFalse(range.isComplete());
+    }
+
+    @Test
+    void parse_shouldRejectMissingOrMalformedHeaders() {
+        assertTrue(ContentRange.parse(null).isEmpty());
+        assertTrue(ContentRange.parse("bytes */100").isEmpty());
+        assertTrue(ContentRange.parse("items 0-9/10").isEmpty());
+    }
+}
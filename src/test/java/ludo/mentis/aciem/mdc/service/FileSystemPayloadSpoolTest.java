@@ -0,0 +1,122 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.PayloadSpoolProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemPayloadSpoolTest {
+
+    @TempDir
+    Path tempDir;
+
+    private Path spoolDirectory;
+    private PayloadSpoolProperties properties;
+    private FileSystemPayloadSpool spool;
+
+    @BeforeEach
+    void setUp() {
+        spoolDirectory = tempDir.resolve("spool");
+        properties = new PayloadSpoolProperties();
+        properties.setDirectory(spoolDirectory.toString());
+        spool = new FileSystemPayloadSpool(properties);
+    }
+
+    @Test
+    void allocate_shouldCreateEmptyFileInsideSpoolDirectory() throws IOException {
+        // When
+        var spoolFile = spool.allocate("Ptax");
+
+        // Then
+        assertTrue(Files.exists(spoolFile));
+        assertEquals(0, Files.size(spoolFile));
+        assertEquals(spoolDirectory.toAbsolutePath(), spoolFile.getParent().toAbsolutePath());
+        assertTrue(spoolFile.getFileName().toString().startsWith("Ptax-"));
+    }
+
+    @Test
+    void open_shouldReturnResourceWithSpooledContent() throws IOException {
+        // Given
+        var spoolFile = spool.allocate("Ptax");
+        Files.writeString(spoolFile, "payload");
+        var handle = spool.toHandle(spoolFile);
+
+        // When
+        var resource = spool.open(handle);
+
+        // Then
+        assertEquals("payload", resource.getContentAsString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    void open_shouldThrowIllegalArgumentException_whenHandleIsOutsideSpoolDirectory() throws IOException {
+        // Given
+        var outsideFile = Files.writeString(tempDir.resolve("outside.payload"), "payload");
+        var handle = outsideFile.toString();
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> spool.open(handle));
+    }
+
+    @Test
+    void open_shouldThrowIllegalArgumentException_whenPayloadWasReleased() throws IOException {
+        // Given
+        var handle = spool.toHandle(spool.allocate("Ptax"));
+        spool.release(handle);
+
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () -> spool.open(handle));
+    }
+
+    @Test
+    void release_shouldDeleteSpoolFile() throws IOException {
+        // Given
+        var spoolFile = spool.allocate("Ptax");
+
+        // When
+        spool.release(spool.toHandle(spoolFile));
+
+        // Then
+        assertFalse(Files.exists(spoolFile));
+    }
+
+    @Test
+    void release_shouldIgnoreNullHandle() {
+        assertDoesNotThrow(() -> spool.release(null));
+    }
+
+    @Test
+    void resolve_shouldFallBackToInMemoryContent_whenHandleIsNull() throws IOException {
+        // When
+        var resource = spool.resolve(null, "in-memory".getBytes());
+
+        // Then
+        assertArrayEquals("in-memory".getBytes(), resource.getContentAsByteArray());
+    }
+
+    @Test
+    void purgeStaleFiles_shouldDeleteOnlyFilesOlderThanMaxAge() throws IOException {
+        // Given
+        properties.setMaxAgeHours(1);
+        var staleFile = spool.allocate("Ptax");
+        var freshFile = spool.allocate("Ptax");
+        Files.setLastModifiedTime(staleFile, FileTime.from(Instant.now().minus(Duration.ofHours(2))));
+
+        // When
+        spool.purgeStaleFiles();
+
+        // Then
+        assertFalse(Files.exists(staleFile));
+        assertTrue(Files.exists(freshFile));
+    }
+}
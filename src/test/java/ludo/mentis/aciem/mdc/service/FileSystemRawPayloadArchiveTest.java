@@ -0,0 +1,156 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.RawPayloadArchiveProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.FileNotFoundException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FileSystemRawPayloadArchiveTest {
+
+    @TempDir
+    Path tempDir;
+
+    private RawPayloadArchiveProperties properties;
+    private FileSystemRawPayloadArchive archive;
+    private LocalDate referenceDate;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RawPayloadArchiveProperties();
+        properties.setDirectory(tempDir.toString());
+        archive = new FileSystemRawPayloadArchive(properties);
+        referenceDate = LocalDate.of(2024, 1, 15);
+    }
+
+    @Test
+    void archive_shouldStoreCompressedBlobNamedAfterSha256() throws IOException {
+        // When
+        var digest = archive.archive("Ptax", referenceDate, "abc".getBytes());
+
+        // Then
+        assertEquals("ba7816bf8f01cfea414140de5dae2223b00361a396177a9cb410ff61f20015ad", digest);
+        var blob = tempDir.resolve("objects").resolve("ba").resolve(digest + ".gz");
+        assertTrue(Files.isRegularFile(blob));
+        try (var in = new GZIPInputStream(Files.newInputStream(blob))) {
+            assertArrayEquals("abc".getBytes(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    void archive_shouldStoreIdenticalPayloadsOnce() throws IOException {
+        // Given
+        var payloadFile = Files.writeString(tempDir.resolve("download.csv"), "same content");
+
+        // When
+        var first = archive.archive("Ptax", referenceDate, payloadFile);
+        var second = archive.archive("Ptax", referenceDate.plusDays(1), "same content".getBytes());
+
+        // Then
+        assertEquals(first, second);
+        try (var blobs = Files.walk(tempDir.resolve("objects"))) {
+            assertEquals(1, blobs.filter(Files::isRegularFile).count());
+        }
+        assertEquals(first, archive.find("Ptax", referenceDate).orElseThrow());
+        assertEquals(first, archive.find("Ptax", referenceDate.plusDays(1)).orElseThrow());
+    }
+
+    @Test
+    void find_shouldReturnLatestPayloadForSourceAndDate() throws IOException {
+        // Given
+        archive.archive("Ptax", referenceDate, "first".getBytes());
+        var latest = archive.archive("Ptax", referenceDate, "second".getBytes());
+
+        // When/Then
+        assertEquals(latest, archive.find("Ptax", referenceDate).orElseThrow());
+        assertArrayEquals("second".getBytes(), archive.read(latest));
+    }
+
+    @Test
+    void find_shouldReturnEmpty_whenNothingWasArchived() throws IOException {
+        // Given
+        archive.archive("Ptax", referenceDate, "content".getBytes());
+
+        // When/Then
+        assertTrue(archive.find("Ptax", referenceDate.minusDays(1)).isEmpty());
+        assertTrue(archive.find("TradingAdjustments", referenceDate).isEmpty());
+    }
+
+    @Test
+    void restore_shouldDecompressPayloadIntoTargetFile() throws IOException {
+        // Given
+        var digest = archive.archive("Ptax", referenceDate, "restored".getBytes());
+        var target = tempDir.resolve("target.payload");
+
+        // When
+        archive.restore(digest, target);
+
+        // Then
+        assertEquals("restored", Files.readString(target));
+    }
+
+    @Test
+    void read_shouldThrowFileNotFoundException_whenDigestIsUnknown() {
+        var unknown = "0".repeat(64);
+        assertThrows(FileNotFoundException.class, () -> archive.read(unknown));
+    }
+
+    @Test
+    void read_shouldThrowIllegalArgumentException_whenDigestIsMalformed() {
+        assertThrows(IllegalArgumentException.class, () -> archive.read("../../etc/passwd"));
+    }
+
+    @Test
+    void archive_shouldThrowIllegalArgumentException_whenSourceIsInvalid() {
+        assertThrows(IllegalArgumentException.class,
+                () -> archive.archive("../Ptax", referenceDate, "content".getBytes()));
+    }
+
+    @Test
+    void purgeExpiredPayloads_shouldDropOldDownloadsAndTheBlobsNoOtherDownloadShares() throws IOException {
+        // Given
+        properties.setEnabled(true);
+        properties.setMaxAgeDays(30);
+        var expired = archive.archive("Ptax", referenceDate, "expired".getBytes());
+        var shared = archive.archive("Ptax", referenceDate.plusDays(1), "shared".getBytes());
+        archive.archive("Ptax", referenceDate.plusDays(2), "shared".getBytes());
+        var old = Instant.now().minus(Duration.ofDays(31));
+        Files.writeString(tempDir.resolve("index/Ptax/2024-01-15.idx"), old + " " + expired + "\n");
+        Files.writeString(tempDir.resolve("index/Ptax/2024-01-16.idx"), old + " " + shared + "\n");
+
+        // When
+        archive.purgeExpiredPayloads();
+
+        // Then
+        assertFalse(Files.exists(tempDir.resolve("index/Ptax/2024-01-15.idx")));
+        assertFalse(Files.exists(tempDir.resolve("index/Ptax/2024-01-16.idx")));
+        assertTrue(archive.find("Ptax", referenceDate).isEmpty());
+        assertFalse(Files.exists(tempDir.resolve("objects").resolve(expired.substring(0, 2)).resolve(expired + ".gz")));
+        assertEquals(Optional.of(shared), archive.find("Ptax", referenceDate.plusDays(2)));
+        assertArrayEquals("shared".getBytes(), archive.read(shared));
+    }
+
+    @Test
+    void purgeExpiredPayloads_shouldKeepArchive_whenDisabled() throws IOException {
+        // Given
+        var digest = archive.archive("Ptax", referenceDate, "abc".getBytes());
+        Files.writeString(tempDir.resolve("index/Ptax/2024-01-15.idx"), "2000-01-01T00:00:00Z " + digest + "\n");
+
+        // When
+        archive.purgeExpiredPayloads();
+
+        // Then
+        assertEquals(Optional.of(digest), archive.find("Ptax", referenceDate));
+    }
+}
@@ -258,4 +258,48 @@ class HolidayManagerImplTest {
         assertTrue(result.isEmpty());
     }
 
-}
\ No newline at end of file
+
+    @Test
+    void businessDaysBetween_shouldSkipWeekendsAndHolidays() throws Exception {
+        // Given
+        when(holidayRepository.findAll()).thenReturn(createTestHolidays());
+        holidayManager.initialize();
+
+        // When - Thursday 2025-04-17 to Tuesday 2025-04-22, with Good Friday on 2025-04-18
+        var days = holidayManager.businessDaysBetween(LocalDate.of(2025, 4, 17), LocalDate.of(2025, 4, 22), "BRA");
+
+        // Then
+        assertEquals(List.of(LocalDate.of(2025, 4, 17), LocalDate.of(2025, 4, 21), LocalDate.of(2025, 4, 22)), days);
+    }
+
+    @Test
+    void businessDaysBetween_shouldReturnEmptyList_whenRangeHasNoBusinessDays() throws Exception {
+        // Given
+        when(holidayRepository.findAll()).thenReturn(createTestHolidays());
+        holidayManager.initialize();
+
+        // When - Saturday and Sunday
+        var days = holidayManager.businessDaysBetween(LocalDate.of(2025, 4, 19), LocalDate.of(2025, 4, 20), "BRA");
+
+        // Then
+        assertTrue(days.isEmpty());
+    }
+
+    @Test
+    void businessDaysBetween_shouldThrowException_whenStartDateIsAfterEndDate() {
+        // When/Then
+        assertThrows(IllegalArgumentException.class, () ->
+                holidayManager.businessDaysBetween(LocalDate.of(2025, 4, 22), LocalDate.of(2025, 4, 17), "BRA"));
+    }
+
+    @Test
+    void businessDaysBetween_shouldThrowHolidaysNotAvailableException_whenCountryHolidaysNotLoaded() throws Exception {
+        // Given
+        when(holidayRepository.findAll()).thenReturn(createTestHolidays());
+        holidayManager.initialize();
+
+        // When/Then
+        assertThrows(HolidaysNotAvailableException.class, () ->
+                holidayManager.businessDaysBetween(LocalDate.of(2025, 4, 17), LocalDate.of(2025, 4, 22), "ARG"));
+    }
+}
@@ -0,0 +1,179 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.HttpClientProperties;
+import ludo.mentis.aciem.mdc.config.HttpClientProperties.HostLimitProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HostRequestLimiterTest {
+
+    private static final URI ANBIMA = URI.create("https://www.anbima.com.br/informacoes/vna/vna-down.asp");
+    private static final URI B3 = URI.create("https://www2.bmf.com.br/pages/portal/bmfbovespa/lumis/lum-ajustes-do-pregao-ptBR.asp");
+
+    private HttpClientProperties properties;
+    private AtomicLong nanoTime;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HttpClientProperties();
+        nanoTime = new AtomicLong();
+    }
+
+    @Test
+    void acquireAsync_shouldQueueRequests_whenMaxInFlightIsReached() throws Exception {
+        // Given
+        properties.getDefaultHostLimit().setMaxInFlight(1);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+        var first = limiter.acquireAsync(ANBIMA).get();
+
+        // When
+        var second = limiter.acquireAsync(ANBIMA);
+
+        // Then
+        assertFalse(second.isDone());
+        first.close();
+        assertTrue(second.isDone());
+        assertEquals(1, limiter.getInFlight("www.anbima.com.br"));
+        second.get().close();
+        assertEquals(0, limiter.getInFlight("www.anbima.com.br"));
+    }
+
+    @Test
+    void acquire_shouldBlockUntilPermitIsReleased() throws Exception {
+        // Given
+        properties.getDefaultHostLimit().setMaxInFlight(1);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+        var first = limiter.acquire(ANBIMA);
+        var acquired = new CountDownLatch(1);
+        var waiter = new Thread(() -> {
+            try (var ignored = limiter.acquire(ANBIMA)) {
+                acquired.countDown();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+
+        // When
+        waiter.start();
+
+        // Then
+        assertFalse(acquired.await(100, TimeUnit.MILLISECONDS));
+        first.close();
+        assertTrue(acquired.await(5, TimeUnit.SECONDS));
+        waiter.join();
+    }
+
+    @Test
+    void acquire_shouldApplyLimitsPerHost() throws Exception {
+        // Given
+        properties.getDefaultHostLimit().setMaxInFlight(1);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+        limiter.acquire(ANBIMA);
+
+        // When
+        var otherHost = limiter.acquireAsync(B3);
+
+        // Then
+        assertTrue(otherHost.isDone());
+    }
+
+    @Test
+    void acquireAsync_shouldUseHostSpecificLimit_ignoringCase() throws Exception {
+        // Given
+        var anbimaLimit = new HostLimitProperties();
+        anbimaLimit.setMaxInFlight(2);
+        properties.getDefaultHostLimit().setMaxInFlight(1);
+        properties.getHostLimits().put("WWW.ANBIMA.COM.BR", anbimaLimit);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+
+        // When
+        var first = limiter.acquireAsync(ANBIMA);
+        var second = limiter.acquireAsync(ANBIMA);
+        var third = limiter.acquireAsync(ANBIMA);
+
+        // Then
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+    }
+
+    @Test
+    void acquireAsync_shouldDelayRequests_whenTokenBucketIsEmpty() throws Exception {
+        // Given
+        properties.getDefaultHostLimit().setMaxInFlight(0);
+        properties.getDefaultHostLimit().setRequestsPerSecond(10);
+        properties.getDefaultHostLimit().setBurst(2);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+
+        // When
+        var first = limiter.acquireAsync(ANBIMA);
+        var second = limiter.acquireAsync(ANBIMA);
+        var third = limiter.acquireAsync(ANBIMA);
+
+        // Then
+        assertTrue(first.isDone());
+        assertTrue(second.isDone());
+        assertFalse(third.isDone());
+        assertNotNull(third.get(5, TimeUnit.SECONDS));
+    }
+
+    @Test
+    void acquire_shouldRefillTokensOverTime() {
+        // Given
+        properties.getDefaultHostLimit().setRequestsPerSecond(1);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+
+        // When/Then
+        assertTimeoutPreemptively(Duration.ofSeconds(1), () -> {
+            limiter.acquire(ANBIMA).close();
+            nanoTime.addAndGet(TimeUnit.SECONDS.toNanos(1));
+            limiter.acquire(ANBIMA).close();
+        });
+    }
+
+    @Test
+    void acquire_shouldGiveUpSlot_whenInterruptedWhileWaiting() throws Exception {
+        // Given
+        properties.getDefaultHostLimit().setMaxInFlight(1);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+        var first = limiter.acquire(ANBIMA);
+        var waiter = new Thread(() -> assertThrows(InterruptedException.class, () -> limiter.acquire(ANBIMA)));
+        waiter.start();
+        Thread.sleep(100);
+
+        // When
+        waiter.interrupt();
+        waiter.join();
+        first.close();
+
+        // Then
+        assertEquals(0, limiter.getInFlight("www.anbima.com.br"));
+        CompletableFuture<HostRequestLimiter.Permit> next = limiter.acquireAsync(ANBIMA);
+        assertTrue(next.isDone());
+    }
+
+    @Test
+    void permit_shouldReleaseSlotOnlyOnce() throws Exception {
+        // Given
+        properties.getDefaultHostLimit().setMaxInFlight(2);
+        var limiter = new HostRequestLimiter(properties, nanoTime::get);
+        var permit = limiter.acquire(ANBIMA);
+        limiter.acquire(ANBIMA);
+
+        // When
+        permit.close();
+        permit.close();
+
+        // Then
+        assertEquals(1, limiter.getInFlight("www.anbima.com.br"));
+    }
+}
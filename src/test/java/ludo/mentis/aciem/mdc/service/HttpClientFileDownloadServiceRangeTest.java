@@ -0,0 +1,273 @@
+package ludo.mentis.aciem.mdc.service;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import ludo.mentis.aciem.mdc.config.HttpClientProperties;
+import ludo.mentis.aciem.mdc.exception.DownloadException;
+import ludo.mentis.aciem.mdc.util.MetricTags;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.regex.Pattern;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Exercises ranged and compressed downloads against a local HTTP server, since resuming, splitting and
+ * streaming decoding depend on real partial responses, body publishers and dropped connections.
+ */
+class HttpClientFileDownloadServiceRangeTest {
+
+    private static final Pattern RANGE = Pattern.compile("bytes=(\\d+)-(\\d*)");
+
+    @TempDir
+    Path tempDir;
+
+    private HttpServer server;
+    private byte[] content;
+    private final List<String> ranges = new CopyOnWriteArrayList<>();
+    private final AtomicInteger requests = new AtomicInteger();
+    private volatile int dropFirstResponseAfterBytes = -1;
+    private volatile String reprDigest;
+    private volatile byte[] gzipped;
+    private HttpClientProperties properties;
+    private HttpClientFileDownloadService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        content = new byte[5000];
+        new Random(42).nextBytes(content);
+        // Half random, half repetitive, so the gzip form still spans several ranges
+        Arrays.fill(content, 2500, 5000, (byte) 'x');
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/file", this::serve);
+        server.start();
+
+        properties = new HttpClientProperties();
+        properties.getRetry().setInitialBackoffMillis(1);
+        properties.getRetry().setJitter(0.0);
+        properties.getDefaultHostLimit().setMaxInFlight(0);
+        properties.getRange().setPartSizeBytes(1024);
+        properties.getRange().setMaxParallelParts(2);
+        service = new HttpClientFileDownloadService(HttpClient.newHttpClient(), properties, mock(HttpValidatorCache.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        server.stop(0);
+    }
+
+    @Test
+    void downloadFile_shouldFetchRemainingRangesInParallelAndAssembleThem() throws Exception {
+        // Given
+        var destination = tempDir.resolve("file.bin");
+
+        // When
+        service.downloadFile(url(), destination);
+
+        // Then
+        assertArrayEquals(content, Files.readAllBytes(destination));
+        assertEquals(List.of("bytes=0-1023", "bytes=1024-3011", "bytes=3012-4999"), ranges.stream().sorted().toList());
+        assertEquals(content.length, service.getStatistics().getWireBytes());
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(destination), files.toList(), "Part files should be removed");
+        }
+    }
+
+    @Test
+    void downloadFile_shouldDownloadWholeBodyInOneRequest_whenParallelRangesAreDisabled() throws Exception {
+        // Given
+        properties.getRange().setParallelEnabled(false);
+        var destination = tempDir.resolve("file.bin");
+
+        // When
+        service.downloadFile(url(), destination);
+
+        // Then
+        assertArrayEquals(content, Files.readAllBytes(destination));
+        assertEquals(1, requests.get());
+        assertTrue(ranges.isEmpty());
+    }
+
+    @Test
+    void downloadFile_shouldResumeFromWrittenBytes_whenConnectionDrops() throws Exception {
+        // Given
+        properties.getRange().setParallelEnabled(false);
+        dropFirstResponseAfterBytes = 2000;
+        var destination = tempDir.resolve("file.bin");
+
+        // When
+        service.downloadFile(url(), destination);
+
+        // Then
+        assertArrayEquals(content, Files.readAllBytes(destination));
+        assertEquals(2, requests.get());
+        assertEquals(1, ranges.size());
+        assertTrue(ranges.get(0).matches("bytes=\\d+-"), "Second request should resume with an open range");
+        assertNotEquals("bytes=0-", ranges.get(0));
+    }
+
+    @Test
+    void downloadFile_shouldAcceptFile_whenReprDigestMatches() throws Exception {
+        // Given
+        reprDigest = "sha-256=:" + Base64.getEncoder().encodeToString(
+                MessageDigest.getInstance("SHA-256").digest(content)) + ":";
+        var destination = tempDir.resolve("file.bin");
+
+        // When
+        service.downloadFile(url(), destination);
+
+        // Then
+        assertArrayEquals(content, Files.readAllBytes(destination));
+    }
+
+    @Test
+    void downloadFile_shouldFailAndRemoveFile_whenReprDigestDoesNotMatch() throws Exception {
+        // Given
+        reprDigest = "sha-256=:" + Base64.getEncoder().encodeToString(new byte[32]) + ":";
+        var destination = tempDir.resolve("file.bin");
+
+        // When
+        var exception = assertThrows(DownloadException.class, () -> service.downloadFile(url(), destination));
+
+        // Then
+        assertTrue(exception.getCause().getMessage().contains("checksum mismatch"));
+        assertFalse(Files.exists(destination));
+    }
+
+    @Test
+    void downloadFile_shouldDecodeGzipFile_afterAssemblingRanges() throws Exception {
+        // Given
+        gzipped = gzip(content);
+        var destination = tempDir.resolve("file.bin");
+
+        // When
+        service.downloadFile(url(), destination);
+
+        // Then
+        assertArrayEquals(content, Files.readAllBytes(destination));
+        assertTrue(ranges.size() > 1, "The encoded file should still be fetched in ranges");
+        assertEquals(gzipped.length, service.getStatistics().getWireBytes());
+        assertEquals(content.length, service.getStatistics().getDecodedBytes());
+    }
+
+    @Test
+    void downloadFile_toMemory_shouldDecodeGzipBodyWhileStreaming() throws Exception {
+        // Given
+        gzipped = gzip(content);
+
+        // When
+        var resource = service.downloadFile(url());
+
+        // Then
+        assertArrayEquals(content, resource.getContentAsByteArray());
+        assertEquals(gzipped.length, service.getStatistics().getWireBytes());
+        assertEquals(content.length, service.getStatistics().getDecodedBytes());
+    }
+
+    @Test
+    void downloadFile_shouldRecordLatencyTimeToFirstByteAndBytes_whenMetricsAreEnabled() throws Exception {
+        // Given
+        gzipped = gzip(content);
+        var registry = new SimpleMeterRegistry();
+        service = new HttpClientFileDownloadService(HttpClient.newHttpClient(), properties,
+                mock(HttpValidatorCache.class), new DownloadMetrics(registry));
+
+        // When
+        service.downloadFile(url());
+
+        // Then
+        var request = registry.get(DownloadMetrics.REQUEST)
+                .tags(MetricTags.SOURCE, "127.0.0.1", MetricTags.JOB, "none", "outcome", "200").timer();
+        assertEquals(1, request.count());
+        assertEquals(1, registry.get(DownloadMetrics.TIME_TO_FIRST_BYTE).timer().count());
+        assertEquals(gzipped.length, registry.get(DownloadMetrics.BYTES).tag("measure", "wire").summary().totalAmount());
+        assertEquals(content.length, registry.get(DownloadMetrics.BYTES).tag("measure", "decoded").summary().totalAmount());
+    }
+
+    @Test
+    void downloadFile_shouldFailAndRemoveFile_whenGzipContentIsCorrupt() throws Exception {
+        // Given
+        gzipped = gzip(content);
+        gzipped[gzipped.length - 5] ^= 0x7f;
+        var destination = tempDir.resolve("file.bin");
+
+        // When / Then
+        assertThrows(DownloadException.class, () -> service.downloadFile(url(), destination));
+        assertFalse(Files.exists(destination));
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        var out = new ByteArrayOutputStream();
+        try (var gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private URL url() throws Exception {
+        return new URL("http://127.0.0.1:" + server.getAddress().getPort() + "/file");
+    }
+
+    private void serve(HttpExchange exchange) throws IOException {
+        var requestNumber = requests.incrementAndGet();
+        var headers = exchange.getResponseHeaders();
+        headers.add("ETag", "\"v1\"");
+        headers.add("Accept-Ranges", "bytes");
+        if (reprDigest != null) {
+            headers.add("Repr-Digest", reprDigest);
+        }
+        var body = content;
+        if (gzipped != null) {
+            assertTrue(exchange.getRequestHeaders().getFirst("Accept-Encoding").contains("gzip"));
+            headers.add("Content-Encoding", "gzip");
+            body = gzipped;
+        }
+        var range = exchange.getRequestHeaders().getFirst("Range");
+        int start = 0;
+        int end = body.length - 1;
+        int status = 200;
+        if (range != null) {
+            ranges.add(range);
+            var matcher = RANGE.matcher(range);
+            assertTrue(matcher.matches());
+            start = Integer.parseInt(matcher.group(1));
+            if (!matcher.group(2).isEmpty()) {
+                end = Math.min(end, Integer.parseInt(matcher.group(2)));
+            }
+            status = 206;
+            headers.add("Content-Range", "bytes %d-%d/%d".formatted(start, end, body.length));
+        }
+        var length = end - start + 1;
+        exchange.sendResponseHeaders(status, length);
+        var out = exchange.getResponseBody();
+        if (requestNumber == 1 && dropFirstResponseAfterBytes >= 0) {
+            out.write(body, start, dropFirstResponseAfterBytes);
+            out.flush();
+            // Closing before the announced length makes the server drop the connection
+            exchange.close();
+            return;
+        }
+        out.write(body, start, length);
+        exchange.close();
+    }
+}
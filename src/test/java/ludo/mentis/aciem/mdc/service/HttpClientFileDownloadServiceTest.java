@@ -2,22 +2,35 @@ package ludo.mentis.aciem.mdc.service;
 
 import ludo.mentis.aciem.mdc.config.HttpClientProperties;
 import ludo.mentis.aciem.mdc.exception.DownloadException;
+import ludo.mentis.aciem.mdc.model.HttpMethod;
+import ludo.mentis.aciem.mdc.model.PublicationStatus;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.io.IOException;
 import java.net.URISyntaxException;
+import java.net.ConnectException;
 import java.net.URL;
 import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -31,12 +44,18 @@ class HttpClientFileDownloadServiceTest {
     @Mock
     private HttpClientProperties properties;
 
+    @Mock
+    private HttpValidatorCache validatorCache;
+
     @Mock
     private HttpResponse<byte[]> byteArrayResponse;
 
     @Mock
     private HttpResponse<Path> fileResponse;
 
+    @Mock
+    private HttpResponse<byte[]> unavailableResponse;
+
     private HttpClientFileDownloadService service;
 
     @TempDir
@@ -45,10 +64,27 @@ class HttpClientFileDownloadServiceTest {
     private URL testUrl;
     private Path testDestinationPath;
     private byte[] testResponseBody;
+    private HttpClientProperties.RetryProperties retryProperties;
+    private List<Duration> sleeps;
+    private HttpClientProperties.CompressionProperties compressionProperties;
 
     @BeforeEach
     void setUp() throws Exception {
-        service = new HttpClientFileDownloadService(httpClient, properties);
+        retryProperties = new HttpClientProperties.RetryProperties();
+        retryProperties.setInitialBackoffMillis(10);
+        retryProperties.setJitter(0.0);
+        lenient().when(properties.getRetry()).thenReturn(retryProperties);
+        lenient().when(properties.getRange()).thenReturn(new HttpClientProperties.RangeProperties());
+        compressionProperties = new HttpClientProperties.CompressionProperties();
+        compressionProperties.setEnabled(false);
+        lenient().when(properties.getCompression()).thenReturn(compressionProperties);
+        sleeps = new ArrayList<>();
+        service = new HttpClientFileDownloadService(httpClient, properties, validatorCache) {
+            @Override
+            protected void sleep(Duration delay) {
+                sleeps.add(delay);
+            }
+        };
 
         // Set up test data
         testUrl = new URL("https://example.com/test.txt");
@@ -177,6 +213,25 @@ class HttpClientFileDownloadServiceTest {
         );
     }
 
+    @Test
+    void downloadFile_toPath_shouldFailAndRemoveFile_whenBodyIsShorterThanContentLength() throws Exception {
+        // Given
+        when(properties.getFileRequestTimeoutMinutes()).thenReturn(30);
+        Files.write(testDestinationPath, new byte[10]);
+        when(fileResponse.statusCode()).thenReturn(200);
+        when(fileResponse.headers()).thenReturn(HttpHeaders.of(
+                Map.of("Content-Length", List.of("100")), (name, value) -> true));
+        doReturn(fileResponse).when(httpClient).send(any(HttpRequest.class), any());
+
+        // When
+        var exception = assertThrows(DownloadException.class,
+                () -> service.downloadFile(testUrl, testDestinationPath));
+
+        // Then
+        assertTrue(exception.getCause().getMessage().contains("expected 100 bytes but got 10"));
+        assertFalse(Files.exists(testDestinationPath));
+    }
+
     @Test
     void createHttpRequest_shouldCreateRequest_withCorrectUriAndTimeout() throws Exception {
         // Given
@@ -191,6 +246,27 @@ class HttpClientFileDownloadServiceTest {
         assertEquals("GET", request.method());
     }
 
+    @Test
+    void createHttpRequest_shouldAcceptCompressedResponses_whenCompressionIsEnabled() throws Exception {
+        // Given
+        compressionProperties.setEnabled(true);
+
+        // When
+        var request = service.createHttpRequest(testUrl, Duration.ofMinutes(1));
+
+        // Then
+        assertEquals(Optional.of("gzip, deflate"), request.headers().firstValue("Accept-Encoding"));
+    }
+
+    @Test
+    void createHttpRequest_shouldNotAcceptCompressedResponses_whenCompressionIsDisabled() throws Exception {
+        // When
+        var request = service.createHttpRequest(testUrl, Duration.ofMinutes(1));
+
+        // Then
+        assertTrue(request.headers().firstValue("Accept-Encoding").isEmpty());
+    }
+
     @Test
     void createHttpRequest_shouldThrowIllegalArgumentException_whenUrlIsNull() {
         var timeout = Duration.ofMinutes(5);
@@ -253,7 +329,7 @@ class HttpClientFileDownloadServiceTest {
         var testPath = tempDir.resolve("test-dir").resolve("file.txt");
 
         // Create a service that will throw an IOException when createDirectories is called
-        var testService = new HttpClientFileDownloadService(httpClient, properties) {
+        var testService = new HttpClientFileDownloadService(httpClient, properties, validatorCache) {
             @Override
             protected void ensureDirectoryExists(Path destinationPath) throws DownloadException {
                 throw new DownloadException("Failed to create directory structure for " + destinationPath);
@@ -341,4 +417,415 @@ class HttpClientFileDownloadServiceTest {
         assertEquals(message, result.getMessage());
         assertEquals(cause, result.getCause());
     }
+
+    @Test
+    void downloadFile_shouldServeCachedBody_whenServerAnswersNotModified() throws Exception {
+        // Given
+        var cachedBody = Files.write(tempDir.resolve("cached.body"), testResponseBody);
+        var entry = new HttpValidatorCache.Entry("\"v1\"", null, cachedBody);
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(validatorCache.isEnabled()).thenReturn(true);
+        when(validatorCache.lookup(any())).thenReturn(Optional.of(entry));
+        when(validatorCache.withValidators(any(HttpRequest.class), eq(entry))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(byteArrayResponse.statusCode()).thenReturn(304);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(byteArrayResponse);
+
+        // When
+        var result = service.downloadFile(testUrl);
+
+        // Then
+        assertArrayEquals(testResponseBody, result.getContentAsByteArray());
+        verify(validatorCache).recordHit(testUrl.toURI());
+        verify(validatorCache, never()).store(any(), any(), any(byte[].class));
+    }
+
+    @Test
+    void downloadFile_shouldStoreResponseInCache_whenCacheMisses() throws Exception {
+        // Given
+        var headers = HttpHeaders.of(Map.of("ETag", List.of("\"v2\"")), (name, value) -> true);
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(validatorCache.isEnabled()).thenReturn(true);
+        when(validatorCache.lookup(any())).thenReturn(Optional.empty());
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(byteArrayResponse.headers()).thenReturn(headers);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(byteArrayResponse);
+
+        // When
+        service.downloadFile(testUrl);
+
+        // Then
+        verify(validatorCache).recordMiss(testUrl.toURI());
+        verify(validatorCache).store(testUrl.toURI(), headers, testResponseBody);
+    }
+
+    @Test
+    void downloadFile_toPath_shouldCopyCachedBody_whenServerAnswersNotModified() throws Exception {
+        // Given
+        var cachedBody = Files.write(tempDir.resolve("cached.body"), testResponseBody);
+        var entry = new HttpValidatorCache.Entry(null, "Wed, 21 Oct 2015 07:28:00 GMT", cachedBody);
+        when(properties.getFileRequestTimeoutMinutes()).thenReturn(30);
+        when(validatorCache.isEnabled()).thenReturn(true);
+        when(validatorCache.lookup(any())).thenReturn(Optional.of(entry));
+        when(validatorCache.withValidators(any(HttpRequest.class), eq(entry))).thenAnswer(invocation -> invocation.getArgument(0));
+        when(fileResponse.statusCode()).thenReturn(304);
+        doReturn(fileResponse).when(httpClient).send(any(HttpRequest.class), any());
+
+        // When
+        service.downloadFile(testUrl, testDestinationPath);
+
+        // Then
+        assertArrayEquals(testResponseBody, Files.readAllBytes(testDestinationPath));
+        verify(validatorCache).recordHit(testUrl.toURI());
+    }
+
+    @Test
+    void downloadFile_shouldNotUseCache_forPostRequests() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(byteArrayResponse);
+
+        // When
+        service.downloadFile(testUrl, HttpMethod.POST, Map.of("Dt_Ref", "01/01/2024"));
+
+        // Then
+        verify(validatorCache, never()).lookup(any());
+        verify(validatorCache, never()).store(any(), any(), any(byte[].class));
+    }
+
+    @Test
+    void downloadFileAsync_shouldCompleteWithResource_whenHttpClientReturnsSuccessfulResponse() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteArrayResponse));
+
+        // When
+        var result = service.downloadFileAsync(testUrl).get();
+
+        // Then
+        assertArrayEquals(testResponseBody, result.getContentAsByteArray());
+        verify(httpClient, never()).send(any(), any());
+    }
+
+    @Test
+    void downloadFileAsync_shouldSendFormParameters_whenMethodIsPost() throws Exception {
+        // Given
+        var requestCaptor = ArgumentCaptor.forClass(HttpRequest.class);
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.sendAsync(requestCaptor.capture(), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteArrayResponse));
+
+        // When
+        service.downloadFileAsync(testUrl, HttpMethod.POST, Map.of("Dt_Ref", "15/01/2024")).get();
+
+        // Then
+        var request = requestCaptor.getValue();
+        assertEquals("POST", request.method());
+        assertEquals("application/x-www-form-urlencoded", request.headers().firstValue("Content-Type").orElseThrow());
+        assertEquals(testUrl.toURI(), request.uri());
+    }
+
+    @Test
+    void downloadFileAsync_shouldCompleteExceptionallyWithDownloadException_whenTransferFails() {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.failedFuture(new IOException("Connection reset")));
+
+        // When
+        var future = service.downloadFileAsync(testUrl);
+
+        // Then
+        var exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(DownloadException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("I/O error downloading"));
+        assertInstanceOf(IOException.class, exception.getCause().getCause());
+    }
+
+    @Test
+    void downloadFileAsync_shouldCompleteExceptionallyWithDownloadException_whenStatusCodeIsNotSuccess() {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(500);
+        when(byteArrayResponse.body()).thenReturn("Internal error".getBytes());
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.completedFuture(byteArrayResponse));
+
+        // When
+        var future = service.downloadFileAsync(testUrl);
+
+        // Then
+        var exception = assertThrows(ExecutionException.class, future::get);
+        assertInstanceOf(DownloadException.class, exception.getCause());
+        assertTrue(exception.getCause().getMessage().contains("Status Code: 500"));
+    }
+
+    @Test
+    void downloadFileAsync_toPath_shouldCompleteWithDestinationPath() throws Exception {
+        // Given
+        when(properties.getFileRequestTimeoutMinutes()).thenReturn(30);
+        when(fileResponse.statusCode()).thenReturn(200);
+        when(fileResponse.body()).thenReturn(testDestinationPath);
+        doReturn(CompletableFuture.completedFuture(fileResponse)).when(httpClient).sendAsync(any(HttpRequest.class), any());
+
+        // When
+        var result = service.downloadFileAsync(testUrl, testDestinationPath).get();
+
+        // Then
+        assertEquals(testDestinationPath, result);
+    }
+
+    @Test
+    void downloadFile_shouldRetryRetryableStatus_andReturnLaterSuccessfulResponse() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(unavailableResponse.statusCode()).thenReturn(503);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(unavailableResponse, unavailableResponse, byteArrayResponse);
+
+        // When
+        var result = service.downloadFile(testUrl);
+
+        // Then
+        assertArrayEquals(testResponseBody, result.getContentAsByteArray());
+        verify(httpClient, times(3)).send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray()));
+        assertEquals(List.of(Duration.ofMillis(10), Duration.ofMillis(20)), sleeps);
+        assertEquals(3, service.getStatistics().getAttempts());
+        assertEquals(2, service.getStatistics().getRetries());
+        assertEquals(0, service.getStatistics().getFailures());
+    }
+
+    @Test
+    void downloadFile_shouldHonourRetryAfterHeader() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(unavailableResponse.statusCode()).thenReturn(429);
+        when(unavailableResponse.headers()).thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of("3")), (n, v) -> true));
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(unavailableResponse, byteArrayResponse);
+
+        // When
+        service.downloadFile(testUrl);
+
+        // Then
+        assertEquals(List.of(Duration.ofSeconds(3)), sleeps);
+    }
+
+    @Test
+    void downloadFile_shouldFail_whenRetryAfterExceedsDeadline() throws Exception {
+        // Given
+        retryProperties.setDeadlineSeconds(1);
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(unavailableResponse.statusCode()).thenReturn(503);
+        when(unavailableResponse.headers()).thenReturn(HttpHeaders.of(Map.of("Retry-After", List.of("120")), (n, v) -> true));
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(unavailableResponse);
+
+        // When/Then
+        var exception = assertThrows(DownloadException.class, () -> service.downloadFile(testUrl));
+        assertTrue(exception.getCause().getMessage().contains("Status Code: 503"));
+        assertTrue(sleeps.isEmpty());
+        verify(httpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void downloadFile_shouldThrowDownloadException_whenRetryableStatusPersistsAfterMaxAttempts() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(unavailableResponse.statusCode()).thenReturn(502);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(unavailableResponse);
+
+        // When/Then
+        assertThrows(DownloadException.class, () -> service.downloadFile(testUrl));
+        verify(httpClient, times(retryProperties.getMaxAttempts())).send(any(HttpRequest.class), any());
+        assertEquals(1, service.getStatistics().getFailures());
+    }
+
+    @Test
+    void downloadFile_shouldRetryRetryableException() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenThrow(new HttpTimeoutException("request timed out"))
+                .thenReturn(byteArrayResponse);
+
+        // When
+        var result = service.downloadFile(testUrl);
+
+        // Then
+        assertArrayEquals(testResponseBody, result.getContentAsByteArray());
+        assertEquals(1, sleeps.size());
+    }
+
+    @Test
+    void downloadFile_shouldNotRetryNonRetryableStatus() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(404);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(byteArrayResponse);
+
+        // When/Then
+        assertThrows(DownloadException.class, () -> service.downloadFile(testUrl));
+        verify(httpClient, times(1)).send(any(HttpRequest.class), any());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void downloadFileAsync_shouldRetryRetryableException() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.sendAsync(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenReturn(CompletableFuture.failedFuture(new ConnectException("Connection refused")))
+                .thenReturn(CompletableFuture.completedFuture(byteArrayResponse));
+
+        // When
+        var result = service.downloadFileAsync(testUrl).get();
+
+        // Then
+        assertArrayEquals(testResponseBody, result.getContentAsByteArray());
+        verify(httpClient, times(2)).sendAsync(any(HttpRequest.class), any());
+        assertEquals(1, service.getStatistics().getRetries());
+    }
+
+    @Test
+    void downloadFile_shouldReleaseHostPermit_whenRequestFails() throws Exception {
+        // Given
+        var hostLimit = new HttpClientProperties.HostLimitProperties();
+        hostLimit.setMaxInFlight(1);
+        when(properties.getDefaultHostLimit()).thenReturn(hostLimit);
+        var limitedService = new HttpClientFileDownloadService(httpClient, properties, validatorCache);
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(byteArrayResponse.statusCode()).thenReturn(200);
+        when(byteArrayResponse.body()).thenReturn(testResponseBody);
+        when(httpClient.send(any(HttpRequest.class), eq(HttpResponse.BodyHandlers.ofByteArray())))
+                .thenThrow(new IOException("Test IO exception"))
+                .thenReturn(byteArrayResponse);
+
+        // When/Then
+        assertThrows(DownloadException.class, () -> limitedService.downloadFile(testUrl));
+        var result = assertTimeoutPreemptively(Duration.ofSeconds(5), () -> limitedService.downloadFile(testUrl));
+        assertArrayEquals(testResponseBody, result.getContentAsByteArray());
+    }
+
+    @Test
+    void probe_shouldReturnPublished_whenHeadRequestSucceeds() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        var response = probeResponse(200, Map.of("Content-Length", List.of("1024")));
+        var requests = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.send(requests.capture(), any())).thenReturn(response);
+
+        // When
+        var status = service.probe(testUrl);
+
+        // Then
+        assertEquals(PublicationStatus.PUBLISHED, status);
+        assertEquals("HEAD", requests.getValue().method());
+        verify(httpClient, times(1)).send(any(HttpRequest.class), any());
+    }
+
+    @Test
+    void probe_shouldReturnNotPublished_whenFileIsMissing() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        var response = probeResponse(404, Map.of());
+        when(httpClient.send(any(HttpRequest.class), any())).thenReturn(response);
+
+        // When
+        var status = service.probe(testUrl);
+
+        // Then
+        assertEquals(PublicationStatus.NOT_PUBLISHED, status);
+    }
+
+    @Test
+    void probe_shouldReturnNotPublished_whenFileIsEmpty() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        var response = probeResponse(200, Map.of("Content-Length", List.of("0")));
+        when(httpClient.send(any(HttpRequest.class), any())).thenReturn(response);
+
+        // When
+        var status = service.probe(testUrl);
+
+        // Then
+        assertEquals(PublicationStatus.NOT_PUBLISHED, status);
+    }
+
+    @Test
+    void probe_shouldFallBackToRangedGet_whenHeadIsNotAllowed() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        var notAllowed = probeResponse(405, Map.of());
+        var partial = probeResponse(206, Map.of("Content-Range", List.of("bytes 0-0/1024")));
+        var requests = ArgumentCaptor.forClass(HttpRequest.class);
+        when(httpClient.send(requests.capture(), any())).thenReturn(notAllowed, partial);
+
+        // When
+        var status = service.probe(testUrl);
+
+        // Then
+        assertEquals(PublicationStatus.PUBLISHED, status);
+        var rangedGet = requests.getAllValues().get(1);
+        assertEquals("GET", rangedGet.method());
+        assertEquals(Optional.of("bytes=0-0"), rangedGet.headers().firstValue("Range"));
+    }
+
+    @Test
+    void probe_shouldReturnUnknown_withoutRetrying_whenRequestFails() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        when(httpClient.send(any(HttpRequest.class), any())).thenThrow(new ConnectException("Connection refused"));
+
+        // When
+        var status = service.probe(testUrl);
+
+        // Then
+        assertEquals(PublicationStatus.UNKNOWN, status);
+        verify(httpClient, times(1)).send(any(HttpRequest.class), any());
+        assertTrue(sleeps.isEmpty());
+    }
+
+    @Test
+    void probe_shouldReturnUnknown_whenServerRefusesProbe() throws Exception {
+        // Given
+        when(properties.getRequestTimeoutMinutes()).thenReturn(5);
+        var response = probeResponse(403, Map.of());
+        when(httpClient.send(any(HttpRequest.class), any())).thenReturn(response);
+
+        // When
+        var status = service.probe(testUrl);
+
+        // Then
+        assertEquals(PublicationStatus.UNKNOWN, status);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static HttpResponse<Object> probeResponse(int statusCode, Map<String, List<String>> headers) {
+        HttpResponse<Object> response = mock(HttpResponse.class);
+        lenient().when(response.statusCode()).thenReturn(statusCode);
+        lenient().when(response.headers()).thenReturn(HttpHeaders.of(headers, (name, value) -> true));
+        lenient().when(response.body()).thenReturn(new ByteArrayInputStream(new byte[0]));
+        return response;
+    }
 }
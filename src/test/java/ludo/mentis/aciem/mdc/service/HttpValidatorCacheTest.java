@@ -0,0 +1,120 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.HttpClientProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.URI;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HttpValidatorCacheTest {
+
+    @TempDir
+    Path tempDir;
+
+    private HttpClientProperties properties;
+    private HttpValidatorCache cache;
+    private URI uri;
+
+    @BeforeEach
+    void setUp() {
+        properties = new HttpClientProperties();
+        properties.getCache().setDirectory(tempDir.toString());
+        cache = new HttpValidatorCache(properties);
+        uri = URI.create("https://example.com/ms240101.txt");
+    }
+
+    @Test
+    void lookup_shouldReturnEmpty_whenUriWasNeverCached() {
+        assertTrue(cache.lookup(uri).isEmpty());
+    }
+
+    @Test
+    void store_shouldPersistBodyAndValidators() throws Exception {
+        // Given
+        var headers = headers(Map.of("ETag", List.of("\"abc\""), "Last-Modified", List.of("Mon, 01 Jan 2024 10:00:00 GMT")));
+
+        // When
+        cache.store(uri, headers, "content".getBytes());
+
+        // Then
+        var entry = cache.lookup(uri).orElseThrow();
+        assertEquals("\"abc\"", entry.etag());
+        assertEquals("Mon, 01 Jan 2024 10:00:00 GMT", entry.lastModified());
+        assertArrayEquals("content".getBytes(), entry.readBody());
+    }
+
+    @Test
+    void store_shouldCopyDownloadedFile() throws Exception {
+        // Given
+        var downloaded = Files.writeString(tempDir.resolve("download.txt"), "from file");
+
+        // When
+        cache.store(uri, headers(Map.of("ETag", List.of("\"f\""))), downloaded);
+
+        // Then
+        assertArrayEquals("from file".getBytes(), cache.lookup(uri).orElseThrow().readBody());
+    }
+
+    @Test
+    void store_shouldIgnoreResponse_whenItHasNoValidators() {
+        // When
+        cache.store(uri, headers(Map.of("Content-Type", List.of("text/plain"))), "content".getBytes());
+
+        // Then
+        assertTrue(cache.lookup(uri).isEmpty());
+    }
+
+    @Test
+    void store_shouldIgnoreResponse_whenCacheIsDisabled() {
+        // Given
+        properties.getCache().setEnabled(false);
+        var disabledCache = new HttpValidatorCache(properties);
+
+        // When
+        disabledCache.store(uri, headers(Map.of("ETag", List.of("\"abc\""))), "content".getBytes());
+
+        // Then
+        assertFalse(disabledCache.isEnabled());
+        assertTrue(cache.lookup(uri).isEmpty());
+    }
+
+    @Test
+    void withValidators_shouldAddConditionalHeaders() {
+        // Given
+        var request = HttpRequest.newBuilder(uri).GET().build();
+        var entry = new HttpValidatorCache.Entry("\"abc\"", "Mon, 01 Jan 2024 10:00:00 GMT", tempDir.resolve("x"));
+
+        // When
+        var conditional = cache.withValidators(request, entry);
+
+        // Then
+        assertEquals("\"abc\"", conditional.headers().firstValue("If-None-Match").orElseThrow());
+        assertEquals("Mon, 01 Jan 2024 10:00:00 GMT", conditional.headers().firstValue("If-Modified-Since").orElseThrow());
+        assertEquals(uri, conditional.uri());
+    }
+
+    @Test
+    void recordHitAndMiss_shouldUpdateCounters() {
+        // When
+        cache.recordHit(uri);
+        cache.recordMiss(uri);
+        cache.recordMiss(uri);
+
+        // Then
+        assertEquals(1, cache.getHitCount());
+        assertEquals(2, cache.getMissCount());
+    }
+
+    private static HttpHeaders headers(Map<String, List<String>> values) {
+        return HttpHeaders.of(values, (name, value) -> true);
+    }
+}
@@ -0,0 +1,213 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.PublicationPollProperties;
+import ludo.mentis.aciem.mdc.exception.HolidaysNotAvailableException;
+import ludo.mentis.aciem.mdc.model.PublicationStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.net.URL;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PublicationPollerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2025, 4, 30);
+
+    @Mock
+    private FileDownloadService fileDownloadService;
+
+    @Mock
+    private HolidayManager holidayManager;
+
+    private PublicationPollProperties properties;
+    private MutableClock clock;
+    private List<Duration> sleeps;
+    private PublicationPoller poller;
+    private URL url;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        properties = new PublicationPollProperties();
+        properties.setEnabled(true);
+        properties.setInitialIntervalSeconds(30);
+        properties.setMaxIntervalSeconds(100);
+        properties.setMultiplier(2.0);
+        properties.setJitter(0.0);
+        properties.setDeadlineMinutes(10);
+        clock = new MutableClock(TODAY.atTime(19, 0).toInstant(ZoneOffset.UTC));
+        sleeps = new ArrayList<>();
+        poller = new PublicationPoller(fileDownloadService, holidayManager, properties, () -> 0.5, clock) {
+            @Override
+            protected void sleep(Duration delay) {
+                sleeps.add(delay);
+                clock.advance(delay);
+            }
+        };
+        url = new URL("https://example.com/ms250430.txt");
+        lenient().when(holidayManager.businessDaysBetween(any(), any(), eq("BRA"))).thenAnswer(
+                invocation -> List.of((LocalDate) invocation.getArgument(0)));
+    }
+
+    @Test
+    void awaitPublication_shouldReturnImmediately_whenFileIsPublished() throws Exception {
+        // Given
+        when(fileDownloadService.probe(url)).thenReturn(PublicationStatus.PUBLISHED);
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertTrue(published);
+        assertTrue(sleeps.isEmpty());
+        verify(fileDownloadService, times(1)).probe(url);
+    }
+
+    @Test
+    void awaitPublication_shouldProbeWithGrowingIntervals_untilFileIsPublished() throws Exception {
+        // Given
+        when(fileDownloadService.probe(url)).thenReturn(PublicationStatus.NOT_PUBLISHED, PublicationStatus.NOT_PUBLISHED,
+                PublicationStatus.NOT_PUBLISHED, PublicationStatus.NOT_PUBLISHED, PublicationStatus.PUBLISHED);
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertTrue(published);
+        assertEquals(List.of(Duration.ofSeconds(30), Duration.ofSeconds(60), Duration.ofSeconds(100),
+                Duration.ofSeconds(100)), sleeps);
+    }
+
+    @Test
+    void awaitPublication_shouldApplyJitterToIntervals() throws Exception {
+        // Given
+        properties.setJitter(0.5);
+        when(fileDownloadService.probe(url)).thenReturn(PublicationStatus.NOT_PUBLISHED, PublicationStatus.PUBLISHED);
+
+        // When
+        poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertEquals(List.of(Duration.ofMillis(22500)), sleeps);
+    }
+
+    @Test
+    void awaitPublication_shouldGiveUp_whenDeadlinePasses() throws Exception {
+        // Given
+        when(fileDownloadService.probe(url)).thenReturn(PublicationStatus.NOT_PUBLISHED);
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertFalse(published);
+        assertEquals(Duration.ofMinutes(10), sleeps.stream().reduce(Duration.ZERO, Duration::plus));
+        verify(fileDownloadService, times(sleeps.size() + 1)).probe(url);
+    }
+
+    @Test
+    void awaitPublication_shouldStop_whenProbeCannotTell() throws Exception {
+        // Given
+        when(fileDownloadService.probe(url)).thenReturn(PublicationStatus.NOT_PUBLISHED, PublicationStatus.UNKNOWN);
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertFalse(published);
+        assertEquals(1, sleeps.size());
+    }
+
+    @Test
+    void awaitPublication_shouldNotProbe_forPastReferenceDates() throws Exception {
+        // When
+        var published = poller.awaitPublication(url, TODAY.minusDays(1));
+
+        // Then
+        assertFalse(published);
+        verify(fileDownloadService, never()).probe(any());
+    }
+
+    @Test
+    void awaitPublication_shouldNotProbe_onHolidays() throws Exception {
+        // Given
+        when(holidayManager.businessDaysBetween(TODAY, TODAY, "BRA")).thenReturn(List.of());
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertFalse(published);
+        verify(fileDownloadService, never()).probe(any());
+    }
+
+    @Test
+    void awaitPublication_shouldNotProbe_whenHolidaysAreNotAvailable() throws Exception {
+        // Given
+        when(holidayManager.businessDaysBetween(TODAY, TODAY, "BRA"))
+                .thenThrow(new HolidaysNotAvailableException("No holidays for BRA"));
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertFalse(published);
+        verify(fileDownloadService, never()).probe(any());
+    }
+
+    @Test
+    void awaitPublication_shouldNotProbe_whenDisabled() throws Exception {
+        // Given
+        properties.setEnabled(false);
+
+        // When
+        var published = poller.awaitPublication(url, TODAY);
+
+        // Then
+        assertFalse(published);
+        assertFalse(poller.isEnabled());
+        verify(fileDownloadService, never()).probe(any());
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant instant;
+
+        private MutableClock(Instant instant) {
+            this.instant = instant;
+        }
+
+        void advance(Duration duration) {
+            instant = instant.plus(duration);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return instant;
+        }
+    }
+}
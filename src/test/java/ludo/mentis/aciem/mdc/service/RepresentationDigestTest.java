@@ -0,0 +1,97 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.exception.DownloadException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.net.http.HttpHeaders;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RepresentationDigestTest {
+
+    private static final byte[] BODY = "payload".getBytes(StandardCharsets.UTF_8);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void fromHeaders_shouldPreferStrongestAlgorithm() throws Exception {
+        // Given
+        var headers = headers(Map.of("Repr-Digest", List.of(
+                "md5=:" + base64("MD5") + ":, sha-256=:" + base64("SHA-256") + ":")));
+
+        // When
+        var digest = RepresentationDigest.fromHeaders(headers, true);
+
+        // Then
+        assertTrue(digest.isPresent());
+        assertEquals("SHA-256", digest.get().algorithm());
+        digest.get().verify(file(BODY));
+    }
+
+    @Test
+    void fromHeaders_shouldReadLegacyDigestHeader() throws Exception {
+        // Given
+        var headers = headers(Map.of("Digest", List.of("SHA-256=" + base64("SHA-256"))));
+
+        // When
+        var digest = RepresentationDigest.fromHeaders(headers, true);
+
+        // Then
+        assertEquals("SHA-256", digest.orElseThrow().algorithm());
+    }
+
+    @Test
+    void fromHeaders_shouldUseContentMd5_onlyForCompleteResponses() throws Exception {
+        // Given
+        var headers = headers(Map.of("Content-MD5", List.of(base64("MD5"))));
+
+        // When / Then
+        assertEquals("MD5", RepresentationDigest.fromHeaders(headers, true).orElseThrow().algorithm());
+        assertTrue(RepresentationDigest.fromHeaders(headers, false).isEmpty());
+    }
+
+    @Test
+    void fromHeaders_shouldIgnoreUnsupportedAlgorithms() {
+        // Given
+        var headers = headers(Map.of("Repr-Digest", List.of("crc32c=:AAAAAA==:")));
+
+        // When / Then
+        assertTrue(RepresentationDigest.fromHeaders(headers, true).isEmpty());
+        assertTrue(RepresentationDigest.fromHeaders(null, true).isEmpty());
+    }
+
+    @Test
+    void verify_shouldThrow_whenFileDoesNotMatch() throws Exception {
+        // Given
+        var headers = headers(Map.of("Repr-Digest", List.of("sha-256=:" + base64("SHA-256") + ":")));
+        var digest = RepresentationDigest.fromHeaders(headers, true).orElseThrow();
+
+        // When
+        var exception = assertThrows(DownloadException.class,
+                () -> digest.verify(file("tampered".getBytes(StandardCharsets.UTF_8))));
+
+        // Then
+        assertTrue(exception.getMessage().contains("checksum mismatch"));
+    }
+
+    private Path file(byte[] content) throws Exception {
+        return Files.write(tempDir.resolve("body.bin"), content);
+    }
+
+    private static String base64(String algorithm) throws Exception {
+        return Base64.getEncoder().encodeToString(MessageDigest.getInstance(algorithm).digest(BODY));
+    }
+
+    private static HttpHeaders headers(Map<String, List<String>> values) {
+        return HttpHeaders.of(values, (name, value) -> true);
+    }
+}
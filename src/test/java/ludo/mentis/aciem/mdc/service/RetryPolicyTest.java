@@ -0,0 +1,131 @@
+package ludo.mentis.aciem.mdc.service;
+
+import ludo.mentis.aciem.mdc.config.HttpClientProperties.RetryProperties;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLHandshakeException;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpHeaders;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RetryPolicyTest {
+
+    private RetryProperties properties;
+    private Clock clock;
+
+    @BeforeEach
+    void setUp() {
+        properties = new RetryProperties();
+        properties.setInitialBackoffMillis(1000);
+        properties.setMaxBackoffMillis(5000);
+        properties.setMultiplier(2.0);
+        clock = Clock.fixed(Instant.parse("2024-01-15T10:00:00Z"), ZoneOffset.UTC);
+    }
+
+    @Test
+    void backoff_shouldGrowExponentiallyUpToMaximum_whenJitterIsDisabled() {
+        // Given
+        properties.setJitter(0.0);
+        var policy = new RetryPolicy(properties, () -> 0.5, clock);
+
+        // When/Then
+        assertEquals(Duration.ofMillis(1000), policy.backoff(1, null));
+        assertEquals(Duration.ofMillis(2000), policy.backoff(2, null));
+        assertEquals(Duration.ofMillis(4000), policy.backoff(3, null));
+        assertEquals(Duration.ofMillis(5000), policy.backoff(4, null));
+    }
+
+    @Test
+    void backoff_shouldApplyJitterAsFractionOfBackoff() {
+        // Given
+        properties.setJitter(0.5);
+
+        // When/Then
+        assertEquals(Duration.ofMillis(2000), new RetryPolicy(properties, () -> 0.0, clock).backoff(2, null));
+        assertEquals(Duration.ofMillis(1500), new RetryPolicy(properties, () -> 0.5, clock).backoff(2, null));
+        assertEquals(Duration.ofMillis(1000), new RetryPolicy(properties, () -> 1.0, clock).backoff(2, null));
+    }
+
+    @Test
+    void backoff_shouldUseRetryAfterSeconds_whenPresent() {
+        // Given
+        var policy = new RetryPolicy(properties, () -> 0.0, clock);
+
+        // When
+        var backoff = policy.backoff(1, headers("Retry-After", "7"));
+
+        // Then
+        assertEquals(Duration.ofSeconds(7), backoff);
+    }
+
+    @Test
+    void backoff_shouldUseRetryAfterHttpDate_whenPresent() {
+        // Given
+        var policy = new RetryPolicy(properties, () -> 0.0, clock);
+
+        // When
+        var backoff = policy.backoff(1, headers("Retry-After", "Mon, 15 Jan 2024 10:00:30 GMT"));
+
+        // Then
+        assertEquals(Duration.ofSeconds(30), backoff);
+    }
+
+    @Test
+    void backoff_shouldFallBackToExponentialBackoff_whenRetryAfterIsInvalid() {
+        // Given
+        properties.setJitter(0.0);
+        var policy = new RetryPolicy(properties, () -> 0.0, clock);
+
+        // When
+        var backoff = policy.backoff(1, headers("Retry-After", "soon"));
+
+        // Then
+        assertEquals(Duration.ofMillis(1000), backoff);
+    }
+
+    @Test
+    void isRetryableStatus_shouldClassifyConfiguredStatuses() {
+        var policy = new RetryPolicy(properties);
+
+        assertTrue(policy.isRetryableStatus(503));
+        assertTrue(policy.isRetryableStatus(429));
+        assertFalse(policy.isRetryableStatus(404));
+        assertFalse(policy.isRetryableStatus(200));
+    }
+
+    @Test
+    void isRetryable_shouldMatchConfiguredExceptionsAndSubclasses() {
+        var policy = new RetryPolicy(properties);
+
+        assertTrue(policy.isRetryable(new HttpConnectTimeoutException("timeout")));
+        assertTrue(policy.isRetryable(new ConnectException("refused")));
+        assertTrue(policy.isRetryable(new CompletionException(new ConnectException("refused"))));
+        assertFalse(policy.isRetryable(new SSLHandshakeException("bad certificate")));
+        assertFalse(policy.isRetryable(new IOException("generic")));
+    }
+
+    @Test
+    void isRetryable_shouldUseConfiguredExceptionList() {
+        // Given
+        properties.setRetryableExceptions(List.of(IOException.class));
+        var policy = new RetryPolicy(properties);
+
+        // When/Then
+        assertTrue(policy.isRetryable(new IOException("generic")));
+    }
+
+    private static HttpHeaders headers(String name, String value) {
+        return HttpHeaders.of(Map.of(name, List.of(value)), (n, v) -> true);
+    }
+}
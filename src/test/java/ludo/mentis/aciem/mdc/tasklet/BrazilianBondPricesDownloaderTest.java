@@ -1,10 +1,16 @@
 package ludo.mentis.aciem.mdc.tasklet;
 
+import ludo.mentis.aciem.mdc.config.RawPayloadArchiveProperties;
 import ludo.mentis.aciem.mdc.exception.DownloadException;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.FileSystemRawPayloadArchive;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.PublicationPoller;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.batch.core.StepContribution;
@@ -17,11 +23,19 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -40,6 +54,12 @@ class BrazilianBondPricesDownloaderTest {
     @Mock(strictness = Mock.Strictness.LENIENT)
     private StepContext stepContext;
 
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    private PayloadSpool payloadSpool;
+
+    @TempDir
+    Path tempDir;
+
     private BrazilianBondPricesDownloader tasklet;
     private ExecutionContext executionContext;
     private LocalDate referenceDate;
@@ -156,4 +176,162 @@ class BrazilianBondPricesDownloaderTest {
         // Then
         verify(fileDownloadService).downloadFile(new URL(expectedUrl));
     }
+
+    @Test
+    void execute_shouldSpoolPayloadAndPutOnlyHandleInJobContext_whenSpoolIsEnabled() throws Exception {
+        // Given
+        var spoolFile = tempDir.resolve("BrazilianBondPrices-1.payload");
+        when(payloadSpool.isEnabled()).thenReturn(true);
+        when(payloadSpool.allocate(any())).thenReturn(spoolFile);
+        when(payloadSpool.toHandle(spoolFile)).thenReturn(spoolFile.toString());
+        doAnswer(invocation -> Files.write(invocation.getArgument(1, Path.class), fileContent))
+                .when(fileDownloadService).downloadFile(any(URL.class), eq(spoolFile));
+        tasklet.setPayloadSpool(payloadSpool);
+
+        // When
+        var result = tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        assertEquals(RepeatStatus.FINISHED, result);
+        assertEquals(spoolFile.toString(), executionContext.getString(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY));
+        assertFalse(executionContext.containsKey(BaseDownloaderTasklet.FILE_CONTENT_KEY));
+        assertArrayEquals(fileContent, Files.readAllBytes(spoolFile));
+        assertEquals(referenceDate, executionContext.get("referenceDate"));
+    }
+
+    @Test
+    void execute_shouldReleaseSpoolFile_whenSpooledPayloadIsEmpty() throws Exception {
+        // Given
+        var spoolFile = Files.createFile(tempDir.resolve("BrazilianBondPrices-2.payload"));
+        when(payloadSpool.isEnabled()).thenReturn(true);
+        when(payloadSpool.allocate(any())).thenReturn(spoolFile);
+        when(payloadSpool.toHandle(spoolFile)).thenReturn(spoolFile.toString());
+        tasklet.setPayloadSpool(payloadSpool);
+
+        // When/Then
+        var exception = assertThrows(IllegalStateException.class, () -> tasklet.execute(stepContribution, chunkContext));
+        assertTrue(exception.getMessage().contains("is empty"));
+        verify(payloadSpool).release(spoolFile.toString());
+    }
+
+    @Test
+    void execute_shouldReleaseSpoolFile_whenSpooledDownloadFails() throws Exception {
+        // Given
+        var spoolFile = tempDir.resolve("BrazilianBondPrices-3.payload");
+        when(payloadSpool.isEnabled()).thenReturn(true);
+        when(payloadSpool.allocate(any())).thenReturn(spoolFile);
+        when(payloadSpool.toHandle(spoolFile)).thenReturn(spoolFile.toString());
+        doThrow(new DownloadException("Download failed"))
+                .when(fileDownloadService).downloadFile(any(URL.class), eq(spoolFile));
+        tasklet.setPayloadSpool(payloadSpool);
+
+        // When/Then
+        assertThrows(DownloadException.class, () -> tasklet.execute(stepContribution, chunkContext));
+        verify(payloadSpool).release(spoolFile.toString());
+    }
+
+    @Test
+    void execute_shouldArchiveDownloadedPayload_whenArchiveIsEnabled() throws Exception {
+        // Given
+        var archive = newArchive(false);
+        tasklet.setRawPayloadArchive(archive);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        var digest = archive.find("job", referenceDate).orElseThrow();
+        assertArrayEquals(fileContent, archive.read(digest));
+    }
+
+    @Test
+    void execute_shouldReplayArchivedPayloadWithoutDownloading_whenReplayIsEnabled() throws Exception {
+        // Given
+        var archive = newArchive(true);
+        archive.archive("job", referenceDate, "archived content".getBytes());
+        tasklet.setRawPayloadArchive(archive);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        verify(fileDownloadService, never()).downloadFile(any(URL.class));
+        assertArrayEquals("archived content".getBytes(), (byte[]) executionContext.get("fileContent"));
+    }
+
+    @Test
+    void execute_shouldRestoreArchivedPayloadIntoSpool_whenReplayIsEnabled() throws Exception {
+        // Given
+        var archive = newArchive(true);
+        archive.archive("job", referenceDate, "archived content".getBytes());
+        var spoolFile = tempDir.resolve("BrazilianBondPrices-4.payload");
+        when(payloadSpool.isEnabled()).thenReturn(true);
+        when(payloadSpool.allocate(any())).thenReturn(spoolFile);
+        when(payloadSpool.toHandle(spoolFile)).thenReturn(spoolFile.toString());
+        tasklet.setPayloadSpool(payloadSpool);
+        tasklet.setRawPayloadArchive(archive);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        verify(fileDownloadService, never()).downloadFile(any(URL.class), any(Path.class));
+        assertEquals("archived content", Files.readString(spoolFile));
+        assertEquals(spoolFile.toString(), executionContext.getString(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY));
+    }
+
+    @Test
+    void execute_shouldDownload_whenReplayIsEnabledButNothingWasArchived() throws Exception {
+        // Given
+        var archive = newArchive(true);
+        tasklet.setRawPayloadArchive(archive);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        verify(fileDownloadService).downloadFile(any(URL.class));
+        assertTrue(archive.find("job", referenceDate).isPresent());
+    }
+
+    @Test
+    void execute_shouldAwaitPublication_beforeDownloading() throws Exception {
+        // Given
+        var expectedUrl = new URL(baseUrl + "ms" + referenceDate.format(DateTimeFormatter.ofPattern("yyMMdd")) + ".txt");
+        var poller = mock(PublicationPoller.class);
+        when(poller.isEnabled()).thenReturn(true);
+        tasklet.setPublicationPoller(poller);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        InOrder order = inOrder(poller, fileDownloadService);
+        order.verify(poller).awaitPublication(expectedUrl, referenceDate);
+        order.verify(fileDownloadService).downloadFile(expectedUrl);
+    }
+
+    @Test
+    void execute_shouldNotAwaitPublication_whenReplayingArchivedPayload() throws Exception {
+        // Given
+        var archive = newArchive(true);
+        archive.archive("job", referenceDate, fileContent);
+        tasklet.setRawPayloadArchive(archive);
+        var poller = mock(PublicationPoller.class);
+        tasklet.setPublicationPoller(poller);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        verify(poller, never()).awaitPublication(any(), any());
+    }
+
+    private FileSystemRawPayloadArchive newArchive(boolean replay) {
+        var properties = new RawPayloadArchiveProperties();
+        properties.setDirectory(tempDir.resolve("archive").toString());
+        properties.setEnabled(true);
+        properties.setReplay(replay);
+        return new FileSystemRawPayloadArchive(properties);
+    }
 }
@@ -3,9 +3,12 @@ package ludo.mentis.aciem.mdc.tasklet;
 import ludo.mentis.aciem.mdc.exception.DownloadException;
 import ludo.mentis.aciem.mdc.model.HttpMethod;
 import ludo.mentis.aciem.mdc.service.FileDownloadService;
+import ludo.mentis.aciem.mdc.service.PayloadSpool;
+import ludo.mentis.aciem.mdc.service.PublicationPoller;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
 import org.mockito.ArgumentCaptor;
 import org.mockito.Captor;
 import org.mockito.Mock;
@@ -20,6 +23,8 @@ import org.springframework.core.io.ByteArrayResource;
 import org.springframework.core.io.Resource;
 
 import java.net.URL;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.time.LocalDate;
 import java.time.format.DateTimeFormatter;
 import java.util.Map;
@@ -27,6 +32,9 @@ import java.util.Map;
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
@@ -48,6 +56,12 @@ class InterestRateCurveDownloaderTest {
     @Captor
     private ArgumentCaptor<Map<String, String>> parametersCaptor;
 
+    @Mock(strictness = Mock.Strictness.LENIENT)
+    private PayloadSpool payloadSpool;
+
+    @TempDir
+    Path tempDir;
+
     private InterestRateCurveDownloader tasklet;
     private ExecutionContext executionContext;
     private LocalDate referenceDate;
@@ -157,4 +171,40 @@ class InterestRateCurveDownloaderTest {
         // Then
         verify(fileDownloadService).downloadFile(eq(new URL(customUrl)), eq(HttpMethod.POST), any());
     }
-}
\ No newline at end of file
+
+    @Test
+    void execute_shouldPostIntoSpoolFile_whenSpoolIsEnabled() throws Exception {
+        // Given
+        var spoolFile = tempDir.resolve("InterestRateCurves-1.payload");
+        when(payloadSpool.isEnabled()).thenReturn(true);
+        when(payloadSpool.allocate(any())).thenReturn(spoolFile);
+        when(payloadSpool.toHandle(spoolFile)).thenReturn(spoolFile.toString());
+        doAnswer(invocation -> Files.write(invocation.getArgument(3, Path.class), fileContent))
+                .when(fileDownloadService).downloadFile(any(URL.class), eq(HttpMethod.POST), any(), eq(spoolFile));
+        tasklet.setPayloadSpool(payloadSpool);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        verify(fileDownloadService).downloadFile(eq(new URL(fileUrl)), eq(HttpMethod.POST),
+                parametersCaptor.capture(), eq(spoolFile));
+        assertEquals("csv", parametersCaptor.getValue().get("saida"));
+        assertEquals(spoolFile.toString(), executionContext.getString(BaseDownloaderTasklet.PAYLOAD_HANDLE_KEY));
+        assertNull(executionContext.get(BaseDownloaderTasklet.FILE_CONTENT_KEY));
+    }
+
+    @Test
+    void execute_shouldNotAwaitPublication_forPostDownloads() throws Exception {
+        // Given
+        var poller = mock(PublicationPoller.class);
+        tasklet.setPublicationPoller(poller);
+
+        // When
+        tasklet.execute(stepContribution, chunkContext);
+
+        // Then
+        verify(poller, never()).awaitPublication(any(), any());
+        verify(fileDownloadService).downloadFile(eq(new URL(fileUrl)), eq(HttpMethod.POST), any());
+    }
+}
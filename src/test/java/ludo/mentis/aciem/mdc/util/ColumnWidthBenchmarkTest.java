@@ -0,0 +1,87 @@
+package ludo.mentis.aciem.mdc.util;
+
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Compares the time spent sizing the columns of a data sheet with {@link Sheet#autoSizeColumn(int)}, as the writers
+ * did, and with the widths {@link ExcelHelperImpl} estimates while the cells are written. Runs only with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class ColumnWidthBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(ColumnWidthBenchmarkTest.class);
+    private static final String[] COLUMN_HEADERS = {"Commodity", "Maturity", "Previous Adjustment Price",
+            "Current Adjustment Price", "Variation", "Adjustment Value Per Contract", "Reference Date"};
+    private static final int ROWS = 10_000;
+    private static final int RUNS = 5;
+
+    @Test
+    void compareAutoSizeColumnAndEstimatedWidths() throws Exception {
+        // Given
+        measure(false);
+        measure(true);
+
+        // When
+        var autoSize = 0L;
+        var estimated = 0L;
+        for (var run = 0; run < RUNS; run++) {
+            autoSize += measure(false);
+            estimated += measure(true);
+        }
+
+        // Then
+        log.info("Writing and sizing {} columns of {} rows: {} ms with autoSizeColumn, {} ms with estimated "
+                        + "widths ({}x)", COLUMN_HEADERS.length, ROWS, autoSize / RUNS / 1_000_000,
+                estimated / RUNS / 1_000_000, String.format("%.1f", (double) autoSize / Math.max(estimated, 1)));
+        assertTrue(autoSize > 0 && estimated > 0);
+    }
+
+    /**
+     * @return Nanoseconds spent writing the cells, which includes the tracking of the estimated widths, and sizing the
+     * columns
+     */
+    private static long measure(boolean estimate) throws Exception {
+        try (var workbook = new XSSFWorkbook()) {
+            var sheet = workbook.createSheet("Data");
+            var helper = new ExcelHelperImpl();
+            helper.init(sheet);
+            var header = sheet.createRow(0);
+            for (var i = 0; i < COLUMN_HEADERS.length; i++) {
+                header.createCell(i).setCellValue(COLUMN_HEADERS[i]);
+            }
+            var writing = 0L;
+            for (var rowNum = 1; rowNum <= ROWS; rowNum++) {
+                var row = sheet.createRow(rowNum);
+                var started = System.nanoTime();
+                helper.setCellValue(row, 0, "DI1");
+                helper.setCellValue(row, 1, "F" + (rowNum % 40 + 25));
+                helper.setCellValue(row, 2, new BigDecimal("99123.45").add(BigDecimal.valueOf(rowNum, 2)));
+                helper.setCellValue(row, 3, new BigDecimal("99120.10").add(BigDecimal.valueOf(rowNum, 3)));
+                helper.setCellValue(row, 4, BigDecimal.valueOf(-rowNum, 2));
+                helper.setCellValue(row, 5, BigDecimal.valueOf(rowNum * 7L, 2));
+                helper.setCellValue(row, 6, LocalDate.of(2025, 5, 2));
+                writing += System.nanoTime() - started;
+            }
+            var started = System.nanoTime();
+            if (estimate) {
+                helper.autosizeColumns(sheet, COLUMN_HEADERS);
+            } else {
+                for (var i = 0; i < COLUMN_HEADERS.length; i++) {
+                    sheet.autoSizeColumn(i);
+                }
+            }
+            return writing + System.nanoTime() - started;
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package ludo.mentis.aciem.mdc.util;
+
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.io.IOException;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class ColumnWidthEstimatorTest {
+
+    @Test
+    void shouldKeepLongestLengthPerColumn() {
+        // Given
+        var estimator = new ColumnWidthEstimator();
+
+        // When
+        estimator.track(0, 5);
+        estimator.track(0, 12);
+        estimator.track(0, 3);
+        estimator.track(40, 7);
+
+        // Then
+        assertEquals(12, estimator.length(0));
+        assertEquals(0, estimator.length(1));
+        assertEquals(7, estimator.length(40));
+        assertEquals(0, estimator.length(100));
+    }
+
+    @Test
+    void shouldApplyWidthsToTrackedColumnsOnly() throws IOException {
+        try (var workbook = new XSSFWorkbook()) {
+            // Given
+            var sheet = workbook.createSheet("Test");
+            var defaultWidth = sheet.getColumnWidth(1);
+            var estimator = new ColumnWidthEstimator();
+            estimator.track(0, 10);
+            estimator.track(2, 1000);
+
+            // When
+            estimator.apply(sheet, 3);
+
+            // Then
+            assertEquals(11 * 256, sheet.getColumnWidth(0));
+            assertEquals(defaultWidth, sheet.getColumnWidth(1));
+            assertEquals(255 * 256, sheet.getColumnWidth(2));
+        }
+    }
+
+    @Test
+    void shouldMeasureWidestLineOfText() {
+        assertEquals(0, ColumnWidthEstimator.lengthOf(""));
+        assertEquals(9, ColumnWidthEstimator.lengthOf("TAXA DI 1"));
+        assertEquals(6, ColumnWidthEstimator.lengthOf("abc\nabcdef\nab"));
+    }
+
+    @ParameterizedTest
+    @ValueSource(doubles = {0, 1, -1, 5.6530, 5.93620, 14.15, 10008989, -0.5, 0.1, 1.0 / 3, 2.0 / 3, 123456.789,
+            99999999999.0, 0.000123, 5100.00, 1.23456789012E11, 1E-12, -2.5E15, 3E100})
+    void shouldMeasureNumbersAsGeneralFormatShowsThem(double value) {
+        var expected = new DataFormatter().formatRawCellContents(value, 0, "General").length();
+        assertEquals(expected, ColumnWidthEstimator.generalLengthOf(value), () -> "length of " + value);
+    }
+}
@@ -192,4 +192,59 @@ class ExcelHelperImplTest {
         assertNotNull(cell);
         assertEquals("Test Value", cell.getStringCellValue());
     }
-}
\ No newline at end of file
+
+    @Test
+    void autosizeColumns_shouldFitLongestRenderedValuePerColumn() {
+        // Given
+        excelHelper.init(sheet);
+        var first = sheet.createRow(1);
+        var second = sheet.createRow(2);
+        excelHelper.setCellValue(first, 0, "DOL");
+        excelHelper.setCellValue(second, 0, "TAXA SELIC");
+        excelHelper.setCellValue(first, 1, new BigDecimal("5.93620"));
+        excelHelper.setCellValue(first, 2, LocalDate.of(2023, Month.MAY, 15));
+        excelHelper.setCellValue(first, 3, LocalDateTime.of(2023, Month.MAY, 15, 10, 30, 45));
+
+        // When
+        excelHelper.autosizeColumns(sheet, 4);
+
+        // Then
+        assertEquals(ColumnWidthEstimator.widthOf("TAXA SELIC".length()), sheet.getColumnWidth(0));
+        assertEquals(ColumnWidthEstimator.widthOf("5.9362".length()), sheet.getColumnWidth(1));
+        assertEquals(ColumnWidthEstimator.widthOf("15/05/2023".length()), sheet.getColumnWidth(2));
+        assertEquals(ColumnWidthEstimator.widthOf("15/05/2023 10:30:45".length()), sheet.getColumnWidth(3));
+    }
+
+    @Test
+    void autosizeColumns_shouldFitHeaderWhenLongerThanValues() {
+        // Given
+        excelHelper.init(sheet);
+        var row = sheet.createRow(1);
+        excelHelper.setCellValue(row, 0, 42);
+        excelHelper.setCellValue(row, 1, "A much longer value");
+
+        // When
+        excelHelper.autosizeColumns(sheet, new String[]{"Selic Code", "Name"});
+
+        // Then
+        assertEquals(ColumnWidthEstimator.widthOf("Selic Code".length()), sheet.getColumnWidth(0));
+        assertEquals(ColumnWidthEstimator.widthOf("A much longer value".length()), sheet.getColumnWidth(1));
+    }
+
+    @Test
+    void autosizeColumns_shouldTrackEachSheetSeparately() {
+        // Given
+        excelHelper.init(sheet);
+        var otherSheet = workbook.createSheet("Other");
+        excelHelper.setCellValue(sheet.createRow(0), 0, "Short");
+        excelHelper.setCellValue(otherSheet.createRow(0), 0, "Somewhat longer");
+
+        // When
+        excelHelper.autosizeColumns(sheet, 1);
+        excelHelper.autosizeColumns(otherSheet, 1);
+
+        // Then
+        assertEquals(ColumnWidthEstimator.widthOf("Short".length()), sheet.getColumnWidth(0));
+        assertEquals(ColumnWidthEstimator.widthOf("Somewhat longer".length()), otherSheet.getColumnWidth(0));
+    }
+}
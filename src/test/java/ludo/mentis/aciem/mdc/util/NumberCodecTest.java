@@ -0,0 +1,153 @@
+package ludo.mentis.aciem.mdc.util;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.CsvSource;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NumberCodecTest {
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "14,4135|14.4135",
+            "968,539902|968.539902",
+            "100,000000|100.000000",
+            "1.234,50|1234.50",
+            "1.000.000,00|1000000.00",
+            "-0,06|-0.06",
+            "+5,6530|5.6530",
+            "0|0",
+            "1,5E3|1.5E+3",
+            "12345678901234567890,123|12345678901234567890.123"
+    })
+    void parse_shouldReadBrazilianNumbers_keepingTheirScale(String text, String expected) {
+        // When
+        var number = NumberCodec.PT_BR.parse(text);
+
+        // Then
+        assertEquals(new BigDecimal(expected), number);
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "4,499.253373|4499.253373",
+            "0.42|0.42",
+            "5.70450|5.70450",
+            "7.96287626860661E-02|7.96287626860661E-02",
+            "2.03671405327417|2.03671405327417",
+            "-1.5e+2|-1.5E+2"
+    })
+    void parse_shouldReadUsNumbers_keepingTheirScale(String text, String expected) {
+        // When
+        var number = NumberCodec.EN_US.parse(text);
+
+        // Then
+        assertEquals(new BigDecimal(expected), number);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"", "   ", "-", "--", " -- ", " "})
+    void parse_shouldReturnNull_forBlankAndDashPlaceholders(String text) {
+        // When & Then
+        assertNull(NumberCodec.PT_BR.parse(text));
+        assertEquals(NumberCodec.NO_VALUE, NumberCodec.PT_BR.parseScaled(text, 2));
+    }
+
+    @Test
+    void parse_shouldReturnNull_forNullText() {
+        // When & Then
+        assertNull(NumberCodec.PT_BR.parse(null));
+    }
+
+    @Test
+    void parse_shouldTrimWhitespace() {
+        // When & Then
+        assertEquals(new BigDecimal("14.18"), NumberCodec.PT_BR.parse(" 14,18 "));
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1,2,3", "abc", "12a", "1,5E", "E5", "+", "1 000", "1,5%", "1,5E1234567890"})
+    void parse_shouldThrowException_forInvalidNumbers(String text) {
+        // When & Then
+        assertThrows(NumberFormatException.class, () -> NumberCodec.PT_BR.parse(text));
+    }
+
+    @Test
+    void parse_shouldReadRangeOfBytes() {
+        // Given
+        var bytes = "LTN@14,4135@--@Calculado".getBytes(StandardCharsets.US_ASCII);
+
+        // When & Then
+        assertEquals(new BigDecimal("14.4135"), NumberCodec.PT_BR.parse(bytes, 4, 11));
+        assertNull(NumberCodec.PT_BR.parse(bytes, 12, 14));
+        assertEquals(144135L, NumberCodec.PT_BR.parseScaled(bytes, 4, 11, 4));
+    }
+
+    @Test
+    void parse_shouldReadRangeOfText() {
+        // When & Then
+        assertEquals(new BigDecimal("0.42"), NumberCodec.EN_US.parse("NTN-B;0.42;P", 6, 10));
+    }
+
+    @ParameterizedTest
+    @CsvSource(delimiter = '|', value = {
+            "14,4135|2|1441",
+            "14,4150|2|1442",
+            "-14,4150|2|-1442",
+            "1.234,5|4|12345000",
+            "1,5E3|0|1500",
+            "0,000001|2|0",
+            "1234567890123456789,5|-1|123456789012345679"
+    })
+    void parseScaled_shouldRoundHalfUpToScale(String text, int scale, long expected) {
+        // When
+        var scaled = NumberCodec.PT_BR.parseScaled(text, scale);
+
+        // Then
+        assertEquals(expected, scaled);
+    }
+
+    @Test
+    void parseScaled_shouldThrowException_whenScaledNumberDoesNotFitInLong() {
+        // When & Then
+        assertThrows(ArithmeticException.class, () -> NumberCodec.PT_BR.parseScaled("92.233.720.368,55", 10));
+    }
+
+    @Test
+    void parse_shouldBeSafeToShareBetweenThreads() throws Exception {
+        // Given
+        var executor = Executors.newFixedThreadPool(4);
+        var results = new ArrayList<Future<Boolean>>();
+
+        // When
+        try {
+            for (var task = 0; task < 8; task++) {
+                var value = task;
+                results.add(executor.submit(() -> {
+                    for (var i = 0; i < 1_000; i++) {
+                        var text = String.format("%d.%03d,25", value, i);
+                        if (!new BigDecimal(value * 1000L + i + ".25").equals(NumberCodec.PT_BR.parse(text))) {
+                            return false;
+                        }
+                    }
+                    return true;
+                }));
+            }
+
+            // Then
+            for (var result : results) {
+                assertTrue(result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+    }
+}
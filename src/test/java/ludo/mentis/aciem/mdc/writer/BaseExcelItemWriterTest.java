@@ -1,9 +1,14 @@
 package ludo.mentis.aciem.mdc.writer;
 
+import ludo.mentis.aciem.mdc.config.ExcelWriterProperties;
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
 import ludo.mentis.aciem.mdc.service.BackupService;
 import ludo.mentis.aciem.mdc.util.ExcelHelper;
 import org.apache.poi.ss.usermodel.Row;
 import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.ss.usermodel.Workbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
 import org.apache.poi.xssf.usermodel.XSSFWorkbook;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -12,13 +17,27 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.openxmlformats.schemas.spreadsheetml.x2006.main.CTTableColumn;
+import org.springframework.batch.core.BatchStatus;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.JobParameters;
+import org.springframework.batch.core.job.builder.JobBuilder;
+import org.springframework.batch.core.launch.support.TaskExecutorJobLauncher;
+import org.springframework.batch.core.repository.support.ResourcelessJobRepository;
+import org.springframework.batch.core.step.builder.StepBuilder;
 import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.support.ListItemReader;
+import org.springframework.batch.support.transaction.ResourcelessTransactionManager;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -39,7 +58,7 @@ class BaseExcelItemWriterTest {
     private Path outputPath;
     private LocalDate referenceDate;
     private static final String FILE_NAME = "test.xlsx";
-    private static final String[] COLUMN_HEADERS = {"Column1", "Column2", "Column3"};
+    private static final String[] COLUMN_HEADERS = {"Date", "Buy Value", "Sell Value"};
 
     @BeforeEach
     void setUp() throws IOException {
@@ -113,7 +132,29 @@ class BaseExcelItemWriterTest {
             for (var i = 0; i < COLUMN_HEADERS.length; i++) {
                 dataRow.createCell(i).setCellValue("Data" + i);
             }
-            assertDoesNotThrow(() -> writer.createTable(sheet, COLUMN_HEADERS, "TestTable", "TableStyleMedium2"));
+            writer.createTable(sheet, COLUMN_HEADERS, "TestTable", "TableStyleMedium2");
+            assertEquals(List.of(COLUMN_HEADERS), tableColumnNames(sheet));
+        }
+    }
+
+    @Test
+    void shouldNameTableColumnsAfterHeaders_onStreamingSheet() throws IOException {
+        try (var workbook = new SXSSFWorkbook(new XSSFWorkbook(), 2)) {
+            // Given
+            var sheet = workbook.createSheet("Test");
+            writer.writeHeader(sheet, COLUMN_HEADERS);
+            for (var rowNum = 1; rowNum <= 5; rowNum++) {
+                var row = sheet.createRow(rowNum);
+                for (var i = 0; i < COLUMN_HEADERS.length; i++) {
+                    row.createCell(i).setCellValue("Data" + i);
+                }
+            }
+
+            // When
+            writer.createTable(sheet, COLUMN_HEADERS, "TestTable", "TableStyleMedium2");
+
+            // Then
+            assertEquals(List.of(COLUMN_HEADERS), tableColumnNames(workbook.getXSSFWorkbook().getSheet("Test")));
         }
     }
 
@@ -169,6 +210,390 @@ class BaseExcelItemWriterTest {
         assertEquals(3, writer.getWriteCount());
     }
 
+    @Test
+    void shouldKeepSheetInMemory_belowRowThreshold() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+
+        // When
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B", "C")));
+        finish(streamingWriter);
+
+        // Then
+        assertFalse(streamingWriter.isStreaming());
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertEquals(3, workbook.getSheet("Data").getLastRowNum());
+        }
+    }
+
+    @Test
+    void shouldSwitchToStreaming_aboveRowThreshold_andSaveAtStepEnd() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(3));
+
+        // When
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B", "C", "D", "E", "F", "G")));
+        try (var beforeClose = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertNull(beforeClose.getSheet("Data"));
+        }
+        finish(streamingWriter);
+
+        // Then
+        assertTrue(streamingWriter.isStreaming());
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            var sheet = workbook.getSheet("Data");
+            assertEquals(7, sheet.getLastRowNum());
+            assertEquals("Value", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("A", sheet.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("G", sheet.getRow(7).getCell(0).getStringCellValue());
+            assertEquals(1, sheet.getTables().size());
+            assertEquals("A1:A8", sheet.getTables().get(0).getArea().formatAsString());
+            assertEquals(List.of("Value"), tableColumnNames(sheet));
+            assertEquals(List.of("Sheet1", "Data", "Audit"), sheetNames(workbook));
+            assertNotNull(workbook.getSheet("Audit").getRow(0));
+        }
+    }
+
+    @Test
+    void shouldAppendChunks_andSaveOnceAtStepEnd() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+
+        // When
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B")));
+        streamingWriter.write(new Chunk<>(Arrays.asList("C", "D")));
+        streamingWriter.write(new Chunk<>(List.of("E")));
+        try (var beforeClose = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertNull(beforeClose.getSheet("Data"));
+        }
+        finish(streamingWriter);
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            var sheet = workbook.getSheet("Data");
+            assertEquals(5, sheet.getLastRowNum());
+            assertEquals("E", sheet.getRow(5).getCell(0).getStringCellValue());
+            assertEquals(1, sheet.getTables().size());
+            assertEquals("A1:A6", sheet.getTables().get(0).getArea().formatAsString());
+            verify(backupService, times(1)).backup(outputPath.toString());
+        }
+    }
+
+    @Test
+    void shouldLeaveOutRowsOfIncompleteChunk_atStepEnd() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B")));
+
+        // When
+        assertThrows(IllegalStateException.class,
+                () -> streamingWriter.write(new Chunk<>(Arrays.asList("C", StreamingTestWriter.FAILING_ITEM))));
+        finish(streamingWriter);
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            var sheet = workbook.getSheet("Data");
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("A1:A3", sheet.getTables().get(0).getArea().formatAsString());
+        }
+    }
+
+    @Test
+    void shouldLeaveOutRowsOfRolledBackChunk_atStepEnd() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+        var transactionTemplate = new TransactionTemplate(new ResourcelessTransactionManager());
+        transactionTemplate.executeWithoutResult(status -> write(streamingWriter, "A", "B"));
+
+        // When
+        transactionTemplate.executeWithoutResult(status -> {
+            write(streamingWriter, "C");
+            // a later writer of the same chunk fails
+            status.setRollbackOnly();
+        });
+        finish(streamingWriter);
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            var sheet = workbook.getSheet("Data");
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("A1:A3", sheet.getTables().get(0).getArea().formatAsString());
+        }
+    }
+
+    @Test
+    void shouldNotSave_whenStepFailed() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+        var lastModified = Files.getLastModifiedTime(outputPath);
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B")));
+        var stepExecution = MetaDataInstanceFactory.createStepExecution();
+        stepExecution.setStatus(BatchStatus.FAILED);
+
+        // When
+        var exitStatus = streamingWriter.afterStep(stepExecution);
+        streamingWriter.close();
+
+        // Then
+        assertNull(exitStatus);
+        assertEquals(BatchStatus.FAILED, stepExecution.getStatus());
+        assertEquals(lastModified, Files.getLastModifiedTime(outputPath));
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertNull(workbook.getSheet("Data"));
+        }
+    }
+
+    @Test
+    void shouldFailJob_whenWorkbookCannotBeSaved() throws Exception {
+        // Given
+        var jobRepository = new ResourcelessJobRepository();
+        var transactionManager = new ResourcelessTransactionManager();
+        var failingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10)) {
+            @Override
+            protected void saveWorkbook(Workbook workbook) throws IOException {
+                throw new IOException("No space left on device");
+            }
+        };
+        var step = new StepBuilder("ProcessFileStep", jobRepository)
+                .<String, String>chunk(2, transactionManager)
+                .reader(new ListItemReader<>(List.of("A", "B", "C")))
+                .writer(failingWriter)
+                .build();
+        var job = new JobBuilder("Test", jobRepository).start(step).build();
+        var jobLauncher = new TaskExecutorJobLauncher();
+        jobLauncher.setJobRepository(jobRepository);
+        jobLauncher.afterPropertiesSet();
+
+        // When
+        var execution = jobLauncher.run(job, new JobParameters());
+
+        // Then
+        assertEquals(BatchStatus.FAILED, execution.getStatus());
+        var stepExecution = execution.getStepExecutions().iterator().next();
+        assertEquals(BatchStatus.FAILED, stepExecution.getStatus());
+        assertEquals(ExitStatus.FAILED.getExitCode(), stepExecution.getExitStatus().getExitCode());
+        assertTrue(stepExecution.getExitStatus().getExitDescription().contains("No space left on device"));
+    }
+
+    @Test
+    void shouldNotSave_whenNoChunkCompleted() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(0));
+        var lastModified = Files.getLastModifiedTime(outputPath);
+
+        // When
+        assertThrows(IllegalStateException.class,
+                () -> streamingWriter.write(new Chunk<>(List.of(StreamingTestWriter.FAILING_ITEM))));
+        finish(streamingWriter);
+
+        // Then
+        assertEquals(lastModified, Files.getLastModifiedTime(outputPath));
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertNull(workbook.getSheet("Data"));
+        }
+    }
+
+    @Test
+    void shouldStreamFromFirstRow_whenThresholdIsZero() throws Exception {
+        // Given
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(0));
+
+        // When
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B")));
+        finish(streamingWriter);
+
+        // Then
+        assertTrue(streamingWriter.isStreaming());
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertEquals(2, workbook.getSheet("Data").getLastRowNum());
+        }
+    }
+
+    @Test
+    void shouldNotStream_whenStreamingIsDisabled() throws Exception {
+        // Given
+        var properties = streaming(0);
+        properties.setEnabled(false);
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), properties);
+
+        // When
+        streamingWriter.write(new Chunk<>(Arrays.asList("A", "B")));
+        finish(streamingWriter);
+
+        // Then
+        assertFalse(streamingWriter.isStreaming());
+    }
+
+    @Test
+    void shouldReplaceAuditSheet_whenRunAgainOnTheSameFile() throws Exception {
+        // Given
+        var firstRun = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+        firstRun.write(new Chunk<>(Arrays.asList("A", "B")));
+        finish(firstRun);
+
+        // When
+        var secondRun = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+        secondRun.write(new Chunk<>(List.of("C")));
+        finish(secondRun);
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertEquals(List.of("Sheet1", "Data", "Audit"), sheetNames(workbook));
+            assertEquals("C", workbook.getSheet("Data").getRow(1).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    void shouldReplaceOnlyOwnSheets_whenSheetReplaceIsEnabled() throws Exception {
+        // Given
+        var firstRun = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10));
+        firstRun.write(new Chunk<>(Arrays.asList("A", "B", "C")));
+        finish(firstRun);
+        addConsumerSheet();
+
+        // When
+        var secondRun = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10),
+                sheetReplace());
+        secondRun.write(new Chunk<>(Arrays.asList("D", "E")));
+        finish(secondRun);
+
+        // Then
+        assertTrue(secondRun.isStreaming());
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertEquals(List.of("Sheet1", "Data", "Audit", "Consumer"), sheetNames(workbook));
+            var sheet = workbook.getSheet("Data");
+            assertEquals(2, sheet.getLastRowNum());
+            assertEquals("Value", sheet.getRow(0).getCell(0).getStringCellValue());
+            assertEquals("E", sheet.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(1, sheet.getTables().size());
+            assertEquals("A1:A3", sheet.getTables().get(0).getArea().formatAsString());
+            assertEquals(List.of("Value"), tableColumnNames(sheet));
+            assertEquals("kept", workbook.getSheet("Consumer").getRow(0).getCell(0).getStringCellValue());
+        }
+        try (var files = Files.list(tempDir)) {
+            assertEquals(List.of(outputPath), files.toList());
+        }
+        verify(backupService, times(2)).backup(outputPath.toString());
+    }
+
+    @Test
+    void shouldStreamWithConfiguredSettings_whenSheetReplaceIsEnabled() throws Exception {
+        // Given
+        var properties = streaming(10);
+        properties.setRowAccessWindow(7);
+        properties.setCompressTempFiles(false);
+
+        // When
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), properties,
+                sheetReplace());
+
+        // Then
+        var workbook = (SXSSFWorkbook) streamingWriter.getWorkbook();
+        assertEquals(7, workbook.getRandomAccessWindowSize());
+        assertFalse(workbook.isCompressTempFiles());
+        finish(streamingWriter);
+    }
+
+    @Test
+    void shouldCreateFile_whenSheetReplaceIsEnabledAndThereIsNoFile() throws Exception {
+        // Given
+        Files.delete(outputPath);
+        var streamingWriter = new StreamingTestWriter(backupService, excelHelper, tempDir.toString(), streaming(10),
+                sheetReplace());
+
+        // When
+        streamingWriter.write(new Chunk<>(List.of("A")));
+        finish(streamingWriter);
+
+        // Then
+        assertFalse(streamingWriter.isStreaming());
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            assertEquals(List.of("Data", "Audit"), sheetNames(workbook));
+        }
+    }
+
+    private static List<String> tableColumnNames(Sheet sheet) {
+        return Arrays.stream(((XSSFSheet) sheet).getTables().get(0).getCTTable().getTableColumns()
+                .getTableColumnArray()).map(CTTableColumn::getName).toList();
+    }
+
+    private void addConsumerSheet() throws IOException {
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(outputPath))) {
+            workbook.createSheet("Consumer").createRow(0).createCell(0).setCellValue("kept");
+            try (var out = Files.newOutputStream(outputPath)) {
+                workbook.write(out);
+            }
+        }
+    }
+
+    private static SheetReplaceProperties sheetReplace() {
+        var properties = new SheetReplaceProperties();
+        properties.setEnabled(true);
+        return properties;
+    }
+
+    private static ExcelWriterProperties streaming(int rowThreshold) {
+        var properties = new ExcelWriterProperties();
+        properties.setRowThreshold(rowThreshold);
+        properties.setRowAccessWindow(2);
+        return properties;
+    }
+
+    private static List<String> sheetNames(XSSFWorkbook workbook) {
+        var names = new ArrayList<String>();
+        workbook.forEach(sheet -> names.add(sheet.getSheetName()));
+        return names;
+    }
+
+    // Writer using the data sheet of BaseExcelItemWriter, as the source writers do
+    /**
+     * Ends the writer as a completed step does: the workbook is saved after the step, then the writer is closed.
+     */
+    private static void finish(BaseExcelItemWriter<?> writer) {
+        var stepExecution = MetaDataInstanceFactory.createStepExecution();
+        stepExecution.setStatus(BatchStatus.COMPLETED);
+        assertNull(writer.afterStep(stepExecution));
+        writer.close();
+    }
+
+    private static void write(StreamingTestWriter writer, String... items) {
+        try {
+            writer.write(new Chunk<>(Arrays.asList(items)));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static class StreamingTestWriter extends BaseExcelItemWriter<String> {
+        private static final String[] HEADERS = {"Value"};
+        static final String FAILING_ITEM = "FAIL";
+        private int currentRow = 1;
+
+        StreamingTestWriter(BackupService backupService, ExcelHelper excelHelper, String outputDir,
+                            ExcelWriterProperties properties) {
+            this(backupService, excelHelper, outputDir, properties, null);
+        }
+
+        StreamingTestWriter(BackupService backupService, ExcelHelper excelHelper, String outputDir,
+                            ExcelWriterProperties properties, SheetReplaceProperties sheetReplaceProperties) {
+            super(backupService, excelHelper, LocalDate.of(2025, 5, 2), outputDir, FILE_NAME, properties,
+                    sheetReplaceProperties);
+            this.initializeDataSheet("Data", HEADERS);
+            this.createAuditSheet(this.getWorkbook(), "Test", referenceDate);
+        }
+
+        @Override
+        public void write(Chunk<? extends String> chunk) throws Exception {
+            for (var item : chunk) {
+                this.createDataRow(currentRow++).createCell(0).setCellValue(item);
+                if (FAILING_ITEM.equals(item)) {
+                    throw new IllegalStateException("Could not write " + item);
+                }
+            }
+            this.completeChunk(HEADERS, "Tb_Data", "TableStyleMedium2");
+        }
+    }
+
     // Concrete implementation of BaseExcelItemWriter for testing
     private static class TestExcelItemWriter extends BaseExcelItemWriter<String> {
         private int writeCount = 0;
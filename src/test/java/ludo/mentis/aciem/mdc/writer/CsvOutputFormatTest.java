@@ -0,0 +1,89 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import ludo.mentis.aciem.mdc.model.FinancialIndicator;
+import ludo.mentis.aciem.mdc.model.Ptax;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvOutputFormatTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final CsvOutputFormat format = new CsvOutputFormat();
+
+    @Test
+    void shouldWriteHeaderAndOneLinePerItem() throws Exception {
+        // Given
+        var ptax = new Ptax();
+        ptax.setBuyValue(new BigDecimal("5.6530"));
+        ptax.setSellValue(new BigDecimal("1E+3"));
+        ptax.setTimestamp(LocalDateTime.of(2025, 5, 2, 13, 0));
+        var writer = format.createWriter(OutputSchemas.PTAX, tempDir);
+
+        // When
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(ptax, new Ptax()));
+        writer.close();
+
+        // Then
+        assertEquals(List.of("buyValue,sellValue,timestamp", "5.6530,1000,2025-05-02T13:00:00", ",,"),
+                Files.readAllLines(tempDir.resolve("Ptax.csv")));
+    }
+
+    @Test
+    void shouldQuoteTextWithSeparatorsQuotesOrLineBreaks() throws Exception {
+        // Given
+        var indicator = new FinancialIndicator();
+        indicator.setSecurityIdentificationCode(433L);
+        indicator.setGroupDescription("Juros, câmbio");
+        indicator.setDescription("Taxa \"DI\"");
+        indicator.setRate(new BigDecimal("14.15"));
+        indicator.setLastUpdate(LocalDate.of(2025, 5, 2));
+        var writer = format.createWriter(OutputSchemas.FINANCIAL_INDICATORS, tempDir);
+
+        // When
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(indicator));
+        writer.close();
+
+        // Then
+        assertEquals(List.of("securityIdentificationCode,groupDescription,description,value,rate,lastUpdate",
+                        "433,\"Juros, câmbio\",\"Taxa \"\"DI\"\"\",,14.15,2025-05-02"),
+                Files.readAllLines(tempDir.resolve("FinancialIndicators.csv")));
+    }
+
+    @Test
+    void shouldQuoteOnlyWhenNeeded() {
+        assertEquals("plain text", CsvOutputFormat.quote("plain text"));
+        assertEquals("\"a,b\"", CsvOutputFormat.quote("a,b"));
+        assertEquals("\"line\nbreak\"", CsvOutputFormat.quote("line\nbreak"));
+        assertEquals("\"say \"\"hi\"\"\"", CsvOutputFormat.quote("say \"hi\""));
+    }
+
+    @Test
+    void shouldReplaceFileOfPreviousRun() throws Exception {
+        // Given
+        Files.writeString(tempDir.resolve("Ptax.csv"), "old content\nold content\nold content\n");
+        var writer = format.createWriter(OutputSchemas.PTAX, tempDir);
+
+        // When
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(new Ptax()));
+        writer.close();
+
+        // Then
+        assertEquals(List.of("buyValue,sellValue,timestamp", ",,"), Files.readAllLines(tempDir.resolve("Ptax.csv")));
+    }
+}
@@ -11,6 +11,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
 
 import java.math.BigDecimal;
 import java.nio.file.Files;
@@ -85,6 +86,8 @@ class ExchangeRateParityExcelWriterTest {
 
         // When
         writer.write(chunk);
+        writer.afterStep(MetaDataInstanceFactory.createStepExecution());
+        writer.close();
 
         // Then
         // Instead of verifying each call, verify that the file was created
@@ -21,6 +21,7 @@ import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
 
 import ludo.mentis.aciem.mdc.model.InterestRateCurve;
 import ludo.mentis.aciem.mdc.service.BackupService;
@@ -88,6 +89,8 @@ class InterestRateCurveExcelWriterTest {
         
         // When
         writer.write(chunk);
+        writer.afterStep(MetaDataInstanceFactory.createStepExecution());
+        writer.close();
         
         // Then
         // Verify that the file was created
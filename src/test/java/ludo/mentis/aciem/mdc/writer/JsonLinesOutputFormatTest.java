@@ -0,0 +1,78 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import ludo.mentis.aciem.mdc.model.FinancialIndicator;
+import ludo.mentis.aciem.mdc.model.TradingAdjustment;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class JsonLinesOutputFormatTest {
+
+    @TempDir
+    Path tempDir;
+
+    private final JsonLinesOutputFormat format = new JsonLinesOutputFormat();
+
+    @Test
+    void shouldWriteOneObjectPerLine() throws Exception {
+        // Given
+        var adjustment = new TradingAdjustment();
+        adjustment.setCommodity("DI1");
+        adjustment.setMaturity("F26");
+        adjustment.setPreviousAdjustmentPrice(new BigDecimal("99123.45"));
+        adjustment.setCurrentAdjustmentPrice(new BigDecimal("1.5E+5"));
+        adjustment.setVariation(new BigDecimal("-0.10"));
+        var writer = format.createWriter(OutputSchemas.tradingAdjustments(LocalDate.of(2025, 5, 2)), tempDir);
+
+        // When
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(adjustment, new TradingAdjustment()));
+        writer.close();
+
+        // Then
+        assertEquals(List.of(
+                        "{\"referenceDate\":\"2025-05-02\",\"commodity\":\"DI1\",\"maturity\":\"F26\","
+                                + "\"previousAdjustmentPrice\":99123.45,\"currentAdjustmentPrice\":150000,"
+                                + "\"variation\":-0.10,\"adjustmentValuePerContract\":null}",
+                        "{\"referenceDate\":\"2025-05-02\",\"commodity\":null,\"maturity\":null,"
+                                + "\"previousAdjustmentPrice\":null,\"currentAdjustmentPrice\":null,"
+                                + "\"variation\":null,\"adjustmentValuePerContract\":null}"),
+                Files.readAllLines(tempDir.resolve("TradingAdjustments.jsonl")));
+    }
+
+    @Test
+    void shouldWriteLinesJsonParsersRead() throws Exception {
+        // Given
+        var indicator = new FinancialIndicator();
+        indicator.setSecurityIdentificationCode(433L);
+        indicator.setGroupDescription("Juros\n\"pós\"");
+        indicator.setValue(new BigDecimal("10008989.123456789012345"));
+        var writer = format.createWriter(OutputSchemas.FINANCIAL_INDICATORS, tempDir);
+
+        // When
+        writer.open(new ExecutionContext());
+        writer.write(new Chunk<>(indicator));
+        writer.close();
+
+        // Then
+        var lines = Files.readAllLines(tempDir.resolve("FinancialIndicators.jsonl"));
+        assertEquals(1, lines.size());
+        var json = new ObjectMapper().enable(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS).readTree(lines.get(0));
+        assertEquals(433L, json.get("securityIdentificationCode").longValue());
+        assertEquals("Juros\n\"pós\"", json.get("groupDescription").textValue());
+        assertEquals(new BigDecimal("10008989.123456789012345"), json.get("value").decimalValue());
+        assertTrue(json.get("lastUpdate").isNull());
+    }
+}
@@ -0,0 +1,154 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import ludo.mentis.aciem.mdc.config.OutputFormatProperties;
+import ludo.mentis.aciem.mdc.model.Ptax;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.batch.core.ExitStatus;
+import org.springframework.batch.core.StepExecutionListener;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.item.ExecutionContext;
+import org.springframework.batch.item.ItemStreamWriter;
+import org.springframework.batch.item.support.CompositeItemWriter;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class OutputWriterFactoryTest {
+
+    @TempDir
+    Path tempDir;
+
+    @SuppressWarnings("unchecked")
+    private final ItemStreamWriter<Ptax> excelWriter = mock(ItemStreamWriter.class);
+
+    @SuppressWarnings("unchecked")
+    private final Supplier<ItemStreamWriter<Ptax>> excelSupplier = mock(Supplier.class);
+
+    @Test
+    void shouldWriteOnlyExcel_byDefault() {
+        // Given
+        when(excelSupplier.get()).thenReturn(excelWriter);
+        var factory = factory(new OutputFormatProperties());
+
+        // When
+        var writer = factory.createWriter("Ptax", OutputSchemas.PTAX, tempDir, excelSupplier);
+
+        // Then
+        assertSame(excelWriter, writer);
+    }
+
+    @Test
+    void shouldWriteEveryFormatOfTheJob_inOnePass() throws Exception {
+        // Given
+        when(excelSupplier.get()).thenReturn(excelWriter);
+        var properties = new OutputFormatProperties();
+        properties.setJobs(Map.of("Ptax", List.of("excel", "csv", "jsonl")));
+        var factory = factory(properties);
+        var ptax = new Ptax();
+        ptax.setBuyValue(new BigDecimal("5.6530"));
+        var chunk = new Chunk<>(ptax);
+
+        // When
+        var writer = factory.createWriter("Ptax", OutputSchemas.PTAX, tempDir, excelSupplier);
+        var composite = assertInstanceOf(CompositeItemWriter.class, writer);
+        composite.open(new ExecutionContext());
+        writer.write(chunk);
+        composite.close();
+
+        // Then
+        verify(excelWriter).open(any());
+        verify(excelWriter).write(chunk);
+        verify(excelWriter).close();
+        assertEquals(List.of("buyValue,sellValue,timestamp", "5.6530,,"),
+                Files.readAllLines(tempDir.resolve("Ptax.csv")));
+        assertEquals(List.of("{\"buyValue\":5.6530,\"sellValue\":null,\"timestamp\":null}"),
+                Files.readAllLines(tempDir.resolve("Ptax.jsonl")));
+    }
+
+    @Test
+    void shouldPassStepEndToExcelWriter_whenJobWritesSeveralFormats() {
+        // Given
+        var listeningExcelWriter = mock(PtaxExcelWriter.class);
+        when(excelSupplier.get()).thenReturn(listeningExcelWriter);
+        when(listeningExcelWriter.afterStep(any())).thenReturn(ExitStatus.FAILED);
+        var properties = new OutputFormatProperties();
+        properties.setJobs(Map.of("Ptax", List.of("excel", "csv")));
+        var stepExecution = MetaDataInstanceFactory.createStepExecution();
+
+        // When
+        var writer = factory(properties).createWriter("Ptax", OutputSchemas.PTAX, tempDir, excelSupplier);
+        var exitStatus = assertInstanceOf(StepExecutionListener.class, writer).afterStep(stepExecution);
+
+        // Then
+        verify(listeningExcelWriter).afterStep(stepExecution);
+        assertEquals(ExitStatus.FAILED, exitStatus);
+    }
+
+    @Test
+    void shouldNotCreateExcelWriter_whenJobDoesNotWriteExcel() throws Exception {
+        // Given
+        var properties = new OutputFormatProperties();
+        properties.setDefaults(List.of("csv"));
+        properties.setJobs(Map.of("FinancialIndicators", List.of("excel")));
+        var factory = factory(properties);
+
+        // When
+        var writer = factory.createWriter("Ptax", OutputSchemas.PTAX, tempDir, excelSupplier);
+        var stream = assertInstanceOf(ItemStreamWriter.class, writer);
+        stream.open(new ExecutionContext());
+        stream.close();
+
+        // Then
+        verifyNoInteractions(excelSupplier);
+        assertTrue(Files.exists(tempDir.resolve("Ptax.csv")));
+        assertFalse(Files.exists(tempDir.resolve("Ptax.jsonl")));
+    }
+
+    @Test
+    void shouldWriteRepeatedFormatOnce() {
+        // Given
+        var properties = new OutputFormatProperties();
+        properties.setJobs(Map.of("Ptax", List.of("csv", "csv")));
+        var factory = factory(properties);
+
+        // When
+        var writer = factory.createWriter("Ptax", OutputSchemas.PTAX, tempDir, excelSupplier);
+
+        // Then
+        assertFalse(writer instanceof CompositeItemWriter);
+    }
+
+    @Test
+    void shouldRejectUnknownFormat() {
+        // Given
+        var properties = new OutputFormatProperties();
+        properties.setJobs(Map.of("Ptax", List.of("excel", "parquet")));
+
+        // When / Then
+        var exception = assertThrows(IllegalArgumentException.class, () -> factory(properties));
+        assertEquals("Unknown output format in output-format.jobs.Ptax: parquet, expected one of [excel, csv, jsonl]",
+                exception.getMessage());
+    }
+
+    private static OutputWriterFactory factory(OutputFormatProperties properties) {
+        return new OutputWriterFactory(List.of(new CsvOutputFormat(), new JsonLinesOutputFormat()), properties);
+    }
+}
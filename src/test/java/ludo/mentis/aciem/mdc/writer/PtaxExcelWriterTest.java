@@ -10,6 +10,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
 
 import java.math.BigDecimal;
 import java.nio.file.Files;
@@ -77,6 +78,8 @@ class PtaxExcelWriterTest {
         
         // When
         writer.write(chunk);
+        writer.afterStep(MetaDataInstanceFactory.createStepExecution());
+        writer.close();
         
         // Then
         // Verify that the file was created
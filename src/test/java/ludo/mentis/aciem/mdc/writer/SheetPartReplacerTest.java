@@ -0,0 +1,189 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import org.apache.commons.compress.archivers.zip.ZipFile;
+import org.apache.poi.ss.SpreadsheetVersion;
+import org.apache.poi.ss.util.AreaReference;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
+import org.apache.poi.xssf.usermodel.XSSFSheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SheetPartReplacerTest {
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void shouldReplaceSheetInPlace_andCopyOtherPartsAsStored() throws IOException {
+        // Given
+        var existing = tempDir.resolve("existing.xlsx");
+        try (var workbook = new XSSFWorkbook()) {
+            addSheet(workbook, "Consumer", "Tb_Consumer", "Note", "kept");
+            addSheet(workbook, "Data", "Tb_Data", "Value", "old");
+            addSheet(workbook, "Summary", null, "Total", "3");
+            save(workbook, existing);
+        }
+        var generated = tempDir.resolve("generated.xlsx");
+        try (var workbook = new SXSSFWorkbook(SheetPartReplacer.openStyles(existing))) {
+            var sheet = workbook.createSheet("Data");
+            sheet.createRow(0).createCell(0).setCellValue("Value");
+            sheet.createRow(1).createCell(0).setCellValue("new");
+            sheet.createRow(2).createCell(0).setCellValue("newer");
+            var table = workbook.getXSSFWorkbook().getSheet("Data").createTable(new AreaReference(
+                    new CellReference(0, 0), new CellReference(2, 0), SpreadsheetVersion.EXCEL2007));
+            table.setName("Tb_Data");
+            table.setDisplayName("Tb_Data");
+            try (var out = Files.newOutputStream(generated)) {
+                workbook.write(out);
+            }
+        }
+        var output = tempDir.resolve("output.xlsx");
+
+        // When
+        SheetPartReplacer.replaceSheets(existing, generated, output);
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(output))) {
+            assertEquals(List.of("Consumer", "Data", "Summary"), sheetNames(workbook));
+            var data = workbook.getSheet("Data");
+            assertEquals(2, data.getLastRowNum());
+            assertEquals("new", data.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("newer", data.getRow(2).getCell(0).getStringCellValue());
+            assertEquals(1, data.getTables().size());
+            assertEquals("A1:A3", data.getTables().get(0).getArea().formatAsString());
+            var consumer = workbook.getSheet("Consumer");
+            assertEquals("kept", consumer.getRow(1).getCell(0).getStringCellValue());
+            assertEquals("Tb_Consumer", consumer.getTables().get(0).getName());
+            assertNotEquals(consumer.getTables().get(0).getCTTable().getId(),
+                    data.getTables().get(0).getCTTable().getId());
+            assertEquals("3", workbook.getSheet("Summary").getRow(1).getCell(0).getStringCellValue());
+        }
+        try (var before = ZipFile.builder().setPath(existing).get();
+             var after = ZipFile.builder().setPath(output).get()) {
+            for (var part : List.of("xl/worksheets/sheet1.xml", "xl/worksheets/sheet3.xml", "xl/sharedStrings.xml",
+                    "xl/tables/table1.xml")) {
+                assertArrayEquals(rawBytes(before, part), rawBytes(after, part), part);
+            }
+            assertNull(after.getEntry("xl/worksheets/sheet2.xml"));
+            assertNull(after.getEntry("xl/tables/table2.xml"));
+        }
+    }
+
+    @Test
+    void shouldAddSheetsMissingFromTheFileAtTheEnd() throws IOException {
+        // Given
+        var existing = tempDir.resolve("existing.xlsx");
+        try (var workbook = new XSSFWorkbook()) {
+            addSheet(workbook, "Consumer", null, "Note", "kept");
+            save(workbook, existing);
+        }
+        var generated = tempDir.resolve("generated.xlsx");
+        try (var workbook = new SXSSFWorkbook(SheetPartReplacer.openStyles(existing))) {
+            workbook.createSheet("Data").createRow(0).createCell(0).setCellValue("Value");
+            workbook.createSheet("Audit").createRow(0).createCell(0).setCellValue("Audit");
+            try (var out = Files.newOutputStream(generated)) {
+                workbook.write(out);
+            }
+        }
+        var output = tempDir.resolve("output.xlsx");
+
+        // When
+        SheetPartReplacer.replaceSheets(existing, generated, output);
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(output))) {
+            assertEquals(List.of("Consumer", "Data", "Audit"), sheetNames(workbook));
+            assertEquals("Value", workbook.getSheet("Data").getRow(0).getCell(0).getStringCellValue());
+            assertEquals("Audit", workbook.getSheet("Audit").getRow(0).getCell(0).getStringCellValue());
+            assertEquals("kept", workbook.getSheet("Consumer").getRow(1).getCell(0).getStringCellValue());
+        }
+    }
+
+    @Test
+    void shouldKeepExistingStylesWhenAddingNewOnes() throws IOException {
+        // Given
+        var existing = tempDir.resolve("existing.xlsx");
+        try (var workbook = new XSSFWorkbook()) {
+            var style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat("0.000%"));
+            var cell = workbook.createSheet("Consumer").createRow(0).createCell(0);
+            cell.setCellValue(0.5);
+            cell.setCellStyle(style);
+            save(workbook, existing);
+        }
+
+        // When
+        try (var workbook = SheetPartReplacer.openStyles(existing)) {
+            var style = workbook.createCellStyle();
+            style.setDataFormat(workbook.createDataFormat().getFormat("dd/MM/yyyy"));
+
+            // Then
+            assertEquals(0, workbook.getNumberOfSheets());
+            assertEquals("0.000%", workbook.getCellStyleAt(1).getDataFormatString());
+            assertEquals("dd/MM/yyyy", workbook.getCellStyleAt(style.getIndex()).getDataFormatString());
+        }
+    }
+
+    @Test
+    void shouldRejectFilesThatAreNotWorkbooks() throws IOException {
+        // Given
+        var existing = tempDir.resolve("existing.xlsx");
+        Files.writeString(existing, "not a workbook");
+
+        // When / Then
+        assertThrows(IOException.class, () -> SheetPartReplacer.openStyles(existing));
+    }
+
+    @Test
+    void shouldResolveRelationshipTargets() {
+        assertEquals("xl/worksheets/sheet1.xml", SheetPartReplacer.resolve("xl/workbook.xml", "worksheets/sheet1.xml"));
+        assertEquals("xl/tables/table1.xml",
+                SheetPartReplacer.resolve("xl/worksheets/sheet1.xml", "../tables/table1.xml"));
+        assertEquals("xl/worksheets/sheet1.xml",
+                SheetPartReplacer.resolve("xl/workbook.xml", "/xl/worksheets/sheet1.xml"));
+        assertEquals("xl/worksheets/_rels/sheet1.xml.rels",
+                SheetPartReplacer.relationshipsPart("xl/worksheets/sheet1.xml"));
+    }
+
+    private static void addSheet(XSSFWorkbook workbook, String name, String tableName, String header, String value) {
+        XSSFSheet sheet = workbook.createSheet(name);
+        sheet.createRow(0).createCell(0).setCellValue(header);
+        sheet.createRow(1).createCell(0).setCellValue(value);
+        if (tableName != null) {
+            var table = sheet.createTable(new AreaReference(new CellReference(0, 0), new CellReference(1, 0),
+                    SpreadsheetVersion.EXCEL2007));
+            table.setName(tableName);
+            table.setDisplayName(tableName);
+        }
+    }
+
+    private static void save(XSSFWorkbook workbook, Path path) throws IOException {
+        try (var out = Files.newOutputStream(path)) {
+            workbook.write(out);
+        }
+    }
+
+    private static byte[] rawBytes(ZipFile zip, String part) throws IOException {
+        var entry = zip.getEntry(part);
+        assertNotNull(entry, part);
+        try (var in = zip.getRawInputStream(entry)) {
+            return in.readAllBytes();
+        }
+    }
+
+    private static List<String> sheetNames(XSSFWorkbook workbook) {
+        var names = new ArrayList<String>();
+        workbook.forEach(sheet -> names.add(sheet.getSheetName()));
+        return names;
+    }
+}
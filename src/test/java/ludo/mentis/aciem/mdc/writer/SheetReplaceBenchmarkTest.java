@@ -0,0 +1,111 @@
+package ludo.mentis.aciem.mdc.writer;
+
+import ludo.mentis.aciem.mdc.config.SheetReplaceProperties;
+import ludo.mentis.aciem.mdc.model.Ptax;
+import ludo.mentis.aciem.mdc.service.BackupService;
+import ludo.mentis.aciem.mdc.util.ExcelHelperImpl;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
+
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Compares the time {@link PtaxExcelWriter} takes to replace its sheets in an output file to which a consumer added a
+ * large sheet, loading and saving the whole workbook and with sheet replace. Runs only with
+ * {@code mvn test -Pbenchmark}.
+ */
+@Tag("benchmark")
+class SheetReplaceBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(SheetReplaceBenchmarkTest.class);
+    private static final int CONSUMER_ROWS = 50_000;
+    private static final int CONSUMER_COLUMNS = 8;
+    private static final int RUNS = 5;
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void compareWholeWorkbookAndSheetReplace() throws Exception {
+        // Given
+        var items = new ArrayList<Ptax>();
+        for (var i = 0; i < 22; i++) {
+            var ptax = new Ptax();
+            ptax.setBuyValue(new BigDecimal("5.6530").add(BigDecimal.valueOf(i, 4)));
+            ptax.setSellValue(new BigDecimal("5.6536").add(BigDecimal.valueOf(i, 4)));
+            ptax.setTimestamp(LocalDateTime.of(2025, 5, 2, 13, 0).plusMinutes(i));
+            items.add(ptax);
+        }
+        var enabled = new SheetReplaceProperties();
+        enabled.setEnabled(true);
+        run(items, null);
+        addConsumerSheet();
+        run(items, null);
+        run(items, enabled);
+
+        // When
+        var wholeWorkbook = 0L;
+        var sheetReplace = 0L;
+        for (var i = 0; i < RUNS; i++) {
+            wholeWorkbook += run(items, null);
+            sheetReplace += run(items, enabled);
+        }
+
+        // Then
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(tempDir.resolve("Ptax.xlsx")))) {
+            assertEquals(CONSUMER_ROWS - 1, workbook.getSheet("Consumer").getLastRowNum());
+            assertEquals(22, workbook.getSheet("PX").getLastRowNum());
+        }
+        log.info("Replacing the PTAX sheets next to a {} x {} consumer sheet: {} ms loading the whole workbook, {} ms "
+                        + "with sheet replace ({}x)", CONSUMER_ROWS, CONSUMER_COLUMNS, wholeWorkbook / RUNS / 1_000_000,
+                sheetReplace / RUNS / 1_000_000, String.format("%.1f", (double) wholeWorkbook / sheetReplace));
+        assertTrue(wholeWorkbook > 0 && sheetReplace > 0);
+    }
+
+    /**
+     * @return Nanoseconds from opening the writer to closing it
+     */
+    private long run(ArrayList<Ptax> items, SheetReplaceProperties sheetReplaceProperties) throws Exception {
+        var started = System.nanoTime();
+        var writer = new PtaxExcelWriter(mock(BackupService.class), new ExcelHelperImpl(), tempDir.toString(),
+                null, sheetReplaceProperties);
+        writer.write(new Chunk<>(items));
+        writer.afterStep(MetaDataInstanceFactory.createStepExecution());
+        writer.close();
+        return System.nanoTime() - started;
+    }
+
+    private void addConsumerSheet() throws Exception {
+        var path = tempDir.resolve("Ptax.xlsx");
+        try (var workbook = new XSSFWorkbook(Files.newInputStream(path))) {
+            var sheet = workbook.createSheet("Consumer");
+            for (var rowNum = 0; rowNum < CONSUMER_ROWS; rowNum++) {
+                var row = sheet.createRow(rowNum);
+                for (var column = 0; column < CONSUMER_COLUMNS; column++) {
+                    if (column % 2 == 0) {
+                        row.createCell(column).setCellValue("Note " + (rowNum % 1000) + "-" + column);
+                    } else {
+                        row.createCell(column).setCellValue(rowNum * 1.5 + column);
+                    }
+                }
+            }
+            try (var out = Files.newOutputStream(path)) {
+                workbook.write(out);
+            }
+        }
+    }
+}
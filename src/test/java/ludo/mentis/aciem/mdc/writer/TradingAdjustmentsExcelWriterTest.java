@@ -11,6 +11,7 @@ import org.junit.jupiter.api.io.TempDir;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
 import org.springframework.batch.item.Chunk;
+import org.springframework.batch.test.MetaDataInstanceFactory;
 
 import java.math.BigDecimal;
 import java.nio.file.Files;
@@ -82,6 +83,8 @@ class TradingAdjustmentsExcelWriterTest {
 
         // When
         writer.write(chunk);
+        writer.afterStep(MetaDataInstanceFactory.createStepExecution());
+        writer.close();
 
         // Then
         // Verify that the file was created